@@ -0,0 +1,48 @@
+package org.freeplane.core.extension;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assigns each extension class a small integer index when an extension of the class is stored for the first time.
+ * Looking up classes does not register them, so that lookup misses and queries for interfaces or super classes
+ * do not use up the small indices.
+ * Indices are never reused, classes registered first get the smallest ones.
+ */
+public final class ExtensionRegistry {
+	public static final int NOT_REGISTERED = -1;
+
+	private static final class Index {
+		volatile int value = NOT_REGISTERED;
+	}
+
+	private static final AtomicInteger registeredClassCount = new AtomicInteger();
+	private static final ClassValue<Index> indices = new ClassValue<Index>() {
+		@Override
+		protected Index computeValue(Class<?> type) {
+			return new Index();
+		}
+	};
+
+	private ExtensionRegistry() {
+	}
+
+	/** Returns the index of the class or {@link #NOT_REGISTERED} if no extension of the class was stored yet. */
+	public static int indexOf(final Class<?> clazz) {
+		return indices.get(clazz).value;
+	}
+
+	public static int register(final Class<?> clazz) {
+		final Index index = indices.get(clazz);
+		if (index.value == NOT_REGISTERED) {
+			synchronized (index) {
+				if (index.value == NOT_REGISTERED)
+					index.value = registeredClassCount.getAndIncrement();
+			}
+		}
+		return index.value;
+	}
+
+	public static int registeredClassCount() {
+		return registeredClassCount.get();
+	}
+}
@@ -19,89 +19,99 @@
  */
 package org.freeplane.core.extension;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+/**
+ * Map of node extensions keyed by their exact classes.
+ * Extensions are kept in insertion order in an array of the exact size because nodes usually have only a few of them.
+ * Extensions of the first 64 classes registered by the {@link ExtensionRegistry} are found in constant time:
+ * a bit set marks the present classes and the rank of a class bit selects the array position of its extension.
+ * Extensions of other classes are found by linear search.
+ */
 public class SmallExtensionMap implements Map<Class<? extends IExtension>, IExtension> {
-	private static final int INITIAL_CAPACITY = 5;
-	private List<IExtension> collection;
+	private static final int INDEXED_CLASS_LIMIT = Long.SIZE;
+	private static final IExtension[] NO_EXTENSIONS = new IExtension[0];
+	private static final byte[] NO_POSITIONS = new byte[0];
+	private IExtension[] extensions = NO_EXTENSIONS;
+	private long indexedClasses = 0;
+	private byte[] positions = NO_POSITIONS;
 
 	public void clear() {
-		collection = null;
+		extensions = NO_EXTENSIONS;
+		indexedClasses = 0;
+		positions = NO_POSITIONS;
 	}
 
 	public boolean containsKey(final Object key) {
-		if (collection == null) {
-			return false;
-		}
 		if (!(key instanceof Class<?>)) {
 			return false;
 		}
-		for (int i = 0; i < collection.size(); i++) {
-			final Object extension = collection.get(i);
-			if (key.equals(extension.getClass())) {
-				return true;
-			}
-		}
-		return false;
+		return find((Class<?>) key) >= 0;
 	}
 
 	public boolean containsValue(final Object value) {
-		if (collection == null) {
-			return false;
-		}
 		if (!(value instanceof IExtension)) {
 			return false;
 		}
-		for (int i = 0; i < collection.size(); i++) {
-			if ( value.equals(collection.get(i))) {
+		for (int i = 0; i < extensions.length; i++) {
+			if (value.equals(extensions[i])) {
 				return true;
 			}
 		}
 		return false;
 	}
 
-	private List<IExtension> createCollection() {
-		if (collection == null) {
-			collection = new ArrayList<IExtension>(INITIAL_CAPACITY);
-		}
-		return collection;
-	}
-
 	public Set<java.util.Map.Entry<Class<? extends IExtension>, IExtension>> entrySet() {
 		throw new NoSuchMethodError();
 	}
 
-	private int find(final Class<? extends IExtension> clazz) {
-		if (collection == null) {
+	private int find(final Class<?> clazz) {
+		if (extensions.length == 0) {
+			return -1;
+		}
+		final int classIndex = ExtensionRegistry.indexOf(clazz);
+		if (classIndex == ExtensionRegistry.NOT_REGISTERED) {
+			return -1;
+		}
+		if (classIndex < INDEXED_CLASS_LIMIT) {
+			final long classBit = 1L << classIndex;
+			if ((indexedClasses & classBit) == 0) {
+				return -1;
+			}
+			return positions[rank(classBit)] & 0xFF;
+		}
+		if (positions.length == extensions.length) {
 			return -1;
 		}
-		for (int i = 0; i < collection.size(); i++) {
-			if (clazz.equals(collection.get(i).getClass())) {
+		for (int i = 0; i < extensions.length; i++) {
+			if (clazz == extensions[i].getClass()) {
 				return i;
 			}
 		}
 		return -1;
 	}
 
-	@SuppressWarnings("unchecked")
-    public IExtension get(final Object key) {
+	private int rank(final long classBit) {
+		return Long.bitCount(indexedClasses & (classBit - 1));
+	}
+
+	public IExtension get(final Object key) {
 		if (!(key instanceof Class<?>)) {
 			return null;
 		}
-		final int index = find((Class<? extends IExtension>) key);
+		final int index = find((Class<?>) key);
 		if (index >= 0) {
-			return collection.get(index);
+			return extensions[index];
 		}
 		return null;
 	}
 
 	public boolean isEmpty() {
-		return collection == null;
+		return extensions.length == 0;
 	}
 
 	public Set<Class<? extends IExtension>> keySet() {
@@ -111,15 +121,29 @@ public class SmallExtensionMap implements Map<Class<? extends IExtension>, IExte
 	public IExtension put(final Class<? extends IExtension> key, final IExtension value) {
 		final int index = find(key);
 		if (index >= 0) {
-			final IExtension oldValue = collection.get(index);
-			collection.set(index, value);
+			final IExtension oldValue = extensions[index];
+			extensions[index] = value;
 			return oldValue;
 		}
 		else {
 			if (!key.equals(value.getClass())) {
 				throw new ClassCastException();
 			}
-			createCollection().add(value);
+			final int position = extensions.length;
+			final IExtension[] newExtensions = Arrays.copyOf(extensions, position + 1);
+			newExtensions[position] = value;
+			extensions = newExtensions;
+			final int classIndex = ExtensionRegistry.register(key);
+			if (classIndex < INDEXED_CLASS_LIMIT) {
+				final long classBit = 1L << classIndex;
+				final int rank = rank(classBit);
+				final byte[] newPositions = new byte[positions.length + 1];
+				System.arraycopy(positions, 0, newPositions, 0, rank);
+				System.arraycopy(positions, rank, newPositions, rank + 1, positions.length - rank);
+				newPositions[rank] = (byte) position;
+				positions = newPositions;
+				indexedClasses |= classBit;
+			}
 			return null;
 		}
 	}
@@ -132,32 +156,50 @@ public class SmallExtensionMap implements Map<Class<? extends IExtension>, IExte
 		}
 	}
 
-	@SuppressWarnings("unchecked")
-    public IExtension remove(final Object key) {
-		if (collection == null || !(key instanceof Class<?>)) {
+	public IExtension remove(final Object key) {
+		if (!(key instanceof Class<?>)) {
 			return null;
 		}
-		final int index = find((Class<? extends IExtension>) key);
+		final int index = find((Class<?>) key);
 		if (index == -1) {
 			return null;
 		}
-		final IExtension remove = collection.remove(index);
-		removeEmptyCollection();
-		return remove;
-	}
-
-	private void removeEmptyCollection() {
-		if (collection.size() == 0) {
-			collection = null;
+		final IExtension remove = extensions[index];
+		if (extensions.length == 1) {
+			clear();
+			return remove;
+		}
+		final IExtension[] newExtensions = new IExtension[extensions.length - 1];
+		System.arraycopy(extensions, 0, newExtensions, 0, index);
+		System.arraycopy(extensions, index + 1, newExtensions, index, newExtensions.length - index);
+		extensions = newExtensions;
+		final int classIndex = ExtensionRegistry.indexOf((Class<?>) key);
+		final byte[] newPositions;
+		if (classIndex < INDEXED_CLASS_LIMIT) {
+			final long classBit = 1L << classIndex;
+			final int rank = rank(classBit);
+			newPositions = new byte[positions.length - 1];
+			System.arraycopy(positions, 0, newPositions, 0, rank);
+			System.arraycopy(positions, rank + 1, newPositions, rank, newPositions.length - rank);
+			indexedClasses &= ~classBit;
+		}
+		else {
+			newPositions = positions;
 		}
+		for (int i = 0; i < newPositions.length; i++) {
+			if ((newPositions[i] & 0xFF) > index) {
+				newPositions[i]--;
+			}
+		}
+		positions = newPositions;
+		return remove;
 	}
 
 	public int size() {
-		return collection == null ? 0 : collection.size();
+		return extensions.length;
 	}
 
 	public Collection<IExtension> values() {
-		final Collection<IExtension> emptyList = Collections.emptyList();
-		return collection == null ? emptyList : collection;
+		return Collections.unmodifiableList(Arrays.asList(extensions));
 	}
 }
@@ -0,0 +1,101 @@
+package org.freeplane.core.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** Java Flight Recorder events of {@link Operation}s. Only loaded if the running JVM supports them. */
+class FlightRecorderEvents {
+	@Category("Freeplane")
+	@StackTrace(false)
+	static abstract class OperationEvent extends Event {
+		@Label("Subject")
+		String subject;
+
+		@Label("Nodes")
+		long nodeCount;
+
+		@Label("Size")
+		@DataAmount
+		long byteCount;
+
+		@Label("Cache Hit")
+		boolean cacheHit;
+	}
+
+	@Name("org.freeplane.MapLoad")
+	@Label("Map Load")
+	static class MapLoadEvent extends OperationEvent {}
+
+	@Name("org.freeplane.MapSave")
+	@Label("Map Save")
+	static class MapSaveEvent extends OperationEvent {}
+
+	@Name("org.freeplane.Filter")
+	@Label("Filter")
+	static class FilterEvent extends OperationEvent {}
+
+	@Name("org.freeplane.Formula")
+	@Label("Formula Evaluation")
+	static class FormulaEvent extends OperationEvent {}
+
+	@Name("org.freeplane.Layout")
+	@Label("Node Layout")
+	static class LayoutEvent extends OperationEvent {}
+
+	@Name("org.freeplane.Paint")
+	@Label("Map Paint")
+	static class PaintEvent extends OperationEvent {}
+
+	@Name("org.freeplane.Script")
+	@Label("Script Execution")
+	static class ScriptEvent extends OperationEvent {}
+
+	@Name("org.freeplane.Undo")
+	@Label("Undo Recording")
+	static class UndoEvent extends OperationEvent {}
+
+	private static OperationEvent create(Operation operation) {
+		switch (operation) {
+		case MAP_LOAD:
+			return new MapLoadEvent();
+		case MAP_SAVE:
+			return new MapSaveEvent();
+		case FILTER:
+			return new FilterEvent();
+		case FORMULA:
+			return new FormulaEvent();
+		case LAYOUT:
+			return new LayoutEvent();
+		case PAINT:
+			return new PaintEvent();
+		case SCRIPT:
+			return new ScriptEvent();
+		case UNDO:
+			return new UndoEvent();
+		default:
+			throw new IllegalArgumentException(operation.name());
+		}
+	}
+
+	/** Returns the started event or null if no recording enables it. */
+	static Object begin(Operation operation) {
+		final OperationEvent event = create(operation);
+		if (!event.isEnabled())
+			return null;
+		event.begin();
+		return event;
+	}
+
+	static void commit(Object event, String subject, long nodeCount, long byteCount, boolean cacheHit) {
+		final OperationEvent operationEvent = (OperationEvent) event;
+		operationEvent.subject = subject;
+		operationEvent.nodeCount = nodeCount;
+		operationEvent.byteCount = byteCount;
+		operationEvent.cacheHit = cacheHit;
+		operationEvent.commit();
+	}
+}
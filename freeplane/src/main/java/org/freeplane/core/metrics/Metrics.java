@@ -0,0 +1,90 @@
+package org.freeplane.core.metrics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.freeplane.core.resources.IFreeplanePropertyListener;
+import org.freeplane.core.resources.ResourceController;
+
+/**
+ * Instrumentation of slow operations.
+ *
+ * Each measured execution emits a Java Flight Recorder event of category "Freeplane" while a recording
+ * enables it, and adds its duration to the {@link OperationStatistics} while the property
+ * {@value #ENABLED_PROPERTY} is set. Otherwise {@link #start(Operation)} returns an inactive timer.
+ *
+ * <pre>
+ * final OperationTimer timer = Metrics.start(Operation.FILTER);
+ * try {
+ *     ...
+ * }
+ * finally {
+ *     timer.stop();
+ * }
+ * </pre>
+ */
+public class Metrics {
+	public static final String ENABLED_PROPERTY = "show_performance_metrics";
+	private static final boolean FLIGHT_RECORDER_AVAILABLE = isFlightRecorderAvailable();
+	private static volatile boolean enabled = false;
+	private static final Map<Operation, OperationStatistics> statistics = new EnumMap<>(Operation.class);
+	static {
+		for (Operation operation : Operation.values())
+			statistics.put(operation, new OperationStatistics(operation));
+	}
+
+	private static boolean isFlightRecorderAvailable() {
+		try {
+			Class.forName("jdk.jfr.Event");
+			return true;
+		}
+		catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+
+	/** Enables statistics according to the property {@value #ENABLED_PROPERTY} and follows its changes. */
+	public static void install(final ResourceController resourceController) {
+		setEnabled(resourceController.getBooleanProperty(ENABLED_PROPERTY, false));
+		resourceController.addPropertyChangeListener(new IFreeplanePropertyListener() {
+			@Override
+			public void propertyChanged(String propertyName, String newValue, String oldValue) {
+				if (ENABLED_PROPERTY.equals(propertyName))
+					setEnabled(Boolean.parseBoolean(newValue));
+			}
+		});
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	static void setEnabled(boolean enabled) {
+		Metrics.enabled = enabled;
+	}
+
+	public static OperationTimer start(Operation operation) {
+		final Object event = FLIGHT_RECORDER_AVAILABLE ? FlightRecorderEvents.begin(operation) : null;
+		if (event == null && !enabled)
+			return OperationTimer.INACTIVE;
+		return new OperationTimer(operation, event);
+	}
+
+	static void stop(OperationTimer timer, long nanos) {
+		if (timer.event != null)
+			FlightRecorderEvents.commit(timer.event, timer.subject, timer.nodeCount, timer.byteCount, timer.cacheHit);
+		if (enabled)
+			statistics.get(timer.operation).add(nanos);
+	}
+
+	public static Collection<OperationStatistics> getStatistics() {
+		return new ArrayList<>(statistics.values());
+	}
+
+	public static void reset() {
+		for (OperationStatistics operationStatistics : statistics.values())
+			operationStatistics.reset();
+	}
+}
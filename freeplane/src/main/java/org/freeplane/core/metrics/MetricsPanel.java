@@ -0,0 +1,182 @@
+package org.freeplane.core.metrics;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+
+import org.freeplane.core.resources.IFreeplanePropertyListener;
+import org.freeplane.core.resources.ResourceController;
+import org.freeplane.core.ui.components.UITools;
+import org.freeplane.core.util.TextUtils;
+import org.freeplane.features.mode.Controller;
+import org.freeplane.main.application.ApplicationLifecycleListener;
+
+/**
+ * Shows duration percentiles of recent {@link Operation}s in a window
+ * while the property {@value Metrics#ENABLED_PROPERTY} is set. Closing the window clears the property.
+ */
+@SuppressWarnings("serial")
+public class MetricsPanel extends JPanel {
+	private static final int UPDATE_DELAY = 1000;
+	private static final double[] PERCENTILES = { 50, 90, 99 };
+	private static JDialog window;
+	private final MetricsTableModel tableModel;
+	private final Timer timer;
+
+	private static class MetricsTableModel extends AbstractTableModel {
+		private List<OperationStatistics> rows = new ArrayList<>();
+
+		void update() {
+			rows = new ArrayList<>(Metrics.getStatistics());
+			fireTableRowsUpdated(0, rows.size() - 1);
+		}
+
+		@Override
+		public int getRowCount() {
+			return rows.size();
+		}
+
+		@Override
+		public int getColumnCount() {
+			return 3 + PERCENTILES.length;
+		}
+
+		@Override
+		public String getColumnName(int column) {
+			if (column == 0)
+				return TextUtils.getText("performance_metrics.operation");
+			if (column == 1)
+				return TextUtils.getText("performance_metrics.count");
+			if (column == getColumnCount() - 1)
+				return TextUtils.getText("performance_metrics.max");
+			return TextUtils.format("performance_metrics.percentile", (int) PERCENTILES[column - 2]);
+		}
+
+		@Override
+		public Class<?> getColumnClass(int column) {
+			return column == 0 ? String.class : column == 1 ? Long.class : Double.class;
+		}
+
+		@Override
+		public Object getValueAt(int row, int column) {
+			final OperationStatistics statistics = rows.get(row);
+			if (column == 0)
+				return statistics.getName();
+			if (column == 1)
+				return statistics.getCount();
+			if (column == getColumnCount() - 1)
+				return round(statistics.getMaxMillis());
+			return round(statistics.getPercentileMillis(PERCENTILES[column - 2]));
+		}
+
+		private static double round(double millis) {
+			return Math.round(millis * 100) / 100.0;
+		}
+	}
+
+	MetricsPanel() {
+		super(new BorderLayout());
+		tableModel = new MetricsTableModel();
+		tableModel.update();
+		final JTable table = new JTable(tableModel);
+		final JScrollPane scrollPane = new JScrollPane(table);
+		scrollPane.setPreferredSize(new Dimension(500, table.getRowHeight() * (tableModel.getRowCount() + 2)));
+		add(scrollPane, BorderLayout.CENTER);
+		final JButton resetButton = new JButton(TextUtils.getText("performance_metrics.reset"));
+		resetButton.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				Metrics.reset();
+				tableModel.update();
+			}
+		});
+		final JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+		buttons.add(resetButton);
+		add(buttons, BorderLayout.SOUTH);
+		timer = new Timer(UPDATE_DELAY, new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				tableModel.update();
+			}
+		});
+	}
+
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		timer.start();
+	}
+
+	@Override
+	public void removeNotify() {
+		timer.stop();
+		super.removeNotify();
+	}
+
+	/** Shows or hides the window following the property {@value Metrics#ENABLED_PROPERTY}. */
+	public static void install(final Controller controller) {
+		final ResourceController resourceController = controller.getResourceController();
+		resourceController.addPropertyChangeListener(new IFreeplanePropertyListener() {
+			@Override
+			public void propertyChanged(String propertyName, final String newValue, String oldValue) {
+				if (Metrics.ENABLED_PROPERTY.equals(propertyName)) {
+					SwingUtilities.invokeLater(new Runnable() {
+						@Override
+						public void run() {
+							setWindowVisible(Boolean.parseBoolean(newValue));
+						}
+					});
+				}
+			}
+		});
+		controller.addApplicationLifecycleListener(new ApplicationLifecycleListener() {
+			@Override
+			public void onStartupFinished() {
+				setWindowVisible(resourceController.getBooleanProperty(Metrics.ENABLED_PROPERTY, false));
+			}
+
+			@Override
+			public void onApplicationStopped() {
+			}
+		});
+	}
+
+	private static void setWindowVisible(boolean visible) {
+		if (!visible) {
+			if (window != null) {
+				window.dispose();
+				window = null;
+			}
+			return;
+		}
+		if (window != null)
+			return;
+		window = new JDialog(UITools.getCurrentFrame(), TextUtils.getText("performance_metrics"), false);
+		window.setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
+		window.getContentPane().add(new MetricsPanel());
+		window.addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosing(WindowEvent e) {
+				ResourceController.getResourceController().setProperty(Metrics.ENABLED_PROPERTY, false);
+			}
+		});
+		window.pack();
+		UITools.setDialogLocationRelativeTo(window, UITools.getCurrentFrame());
+		window.setVisible(true);
+	}
+}
@@ -0,0 +1,23 @@
+package org.freeplane.core.metrics;
+
+/** Instrumented operations, see {@link Metrics}. */
+public enum Operation {
+	MAP_LOAD("map_load"),
+	MAP_SAVE("map_save"),
+	FILTER("filter"),
+	FORMULA("formula"),
+	LAYOUT("layout"),
+	PAINT("paint"),
+	SCRIPT("script"),
+	UNDO("undo");
+
+	private final String name;
+
+	private Operation(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return name;
+	}
+}
@@ -0,0 +1,74 @@
+package org.freeplane.core.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.freeplane.api.OperationMetrics;
+
+/** Durations of the last {@value #WINDOW_SIZE} executions of an operation. */
+public class OperationStatistics implements OperationMetrics {
+	static final int WINDOW_SIZE = 1024;
+	private final Operation operation;
+	private final long[] durations = new long[WINDOW_SIZE];
+	private long count;
+
+	OperationStatistics(Operation operation) {
+		this.operation = operation;
+	}
+
+	synchronized void add(long nanos) {
+		durations[(int) (count % WINDOW_SIZE)] = nanos;
+		count++;
+	}
+
+	synchronized void reset() {
+		count = 0;
+	}
+
+	public Operation getOperation() {
+		return operation;
+	}
+
+	@Override
+	public String getName() {
+		return operation.getName();
+	}
+
+	@Override
+	public synchronized long getCount() {
+		return count;
+	}
+
+	@Override
+	public double getPercentileMillis(double percentile) {
+		final long[] sorted = recentDurations();
+		if (sorted.length == 0)
+			return 0;
+		Arrays.sort(sorted);
+		final double clampedPercentile = Math.min(100, Math.max(0, percentile));
+		final int index = (int) Math.ceil(clampedPercentile / 100 * sorted.length) - 1;
+		return toMillis(sorted[Math.max(0, index)]);
+	}
+
+	@Override
+	public double getMaxMillis() {
+		long max = 0;
+		for (long duration : recentDurations())
+			max = Math.max(max, duration);
+		return toMillis(max);
+	}
+
+	private synchronized long[] recentDurations() {
+		return Arrays.copyOf(durations, (int) Math.min(count, WINDOW_SIZE));
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: count=%d, p50=%.2fms, p90=%.2fms, p99=%.2fms, max=%.2fms", getName(), getCount(),
+		    getPercentileMillis(50), getPercentileMillis(90), getPercentileMillis(99), getMaxMillis());
+	}
+}
@@ -0,0 +1,56 @@
+package org.freeplane.core.metrics;
+
+/**
+ * Measures one execution of an {@link Operation}, see {@link Metrics#start(Operation)}.
+ *
+ * Details are only kept by active timers, callers check {@link #isActive()} before calculating expensive ones.
+ */
+public class OperationTimer {
+	static final OperationTimer INACTIVE = new OperationTimer(null, null);
+	final Operation operation;
+	final Object event;
+	private final long startNanos;
+	String subject;
+	long nodeCount;
+	long byteCount;
+	boolean cacheHit;
+
+	OperationTimer(Operation operation, Object event) {
+		this.operation = operation;
+		this.event = event;
+		this.startNanos = operation != null ? System.nanoTime() : 0;
+	}
+
+	public boolean isActive() {
+		return operation != null;
+	}
+
+	public OperationTimer setSubject(String subject) {
+		if (isActive())
+			this.subject = subject;
+		return this;
+	}
+
+	public OperationTimer setNodeCount(long nodeCount) {
+		if (isActive())
+			this.nodeCount = nodeCount;
+		return this;
+	}
+
+	public OperationTimer setByteCount(long byteCount) {
+		if (isActive())
+			this.byteCount = byteCount;
+		return this;
+	}
+
+	public OperationTimer setCacheHit(boolean cacheHit) {
+		if (isActive())
+			this.cacheHit = cacheHit;
+		return this;
+	}
+
+	public void stop() {
+		if (isActive())
+			Metrics.stop(this, System.nanoTime() - startNanos);
+	}
+}
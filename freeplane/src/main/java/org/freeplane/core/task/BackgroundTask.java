@@ -0,0 +1,114 @@
+package org.freeplane.core.task;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.locks.Lock;
+
+import org.freeplane.core.util.LogUtils;
+
+/**
+ * Long operation executed by the {@link BackgroundTaskService}.
+ *
+ * {@link #read()} runs on a worker thread while the lock returned by {@link #getReadLock()} is held,
+ * it must not modify maps. Its result is passed to {@link #apply(Object)} on the event dispatch thread
+ * unless the task has been cancelled or has failed.
+ *
+ * Cancellation is cooperative: long running reads should call {@link #checkCancelled()} regularly.
+ * Progress set by {@link #setProgress(int, int)} is shown in the status bar.
+ */
+public abstract class BackgroundTask<T> {
+	private final String type;
+	private final Object subject;
+	private volatile boolean cancelled;
+	private volatile int done;
+	private volatile int total;
+	private Thread reader;
+
+	/**
+	 * @param type translation key of the status bar text, it is also used to group latency statistics
+	 * @param subject object the task reads, like a map. A task replaces the running task of the same type and an equal subject.
+	 */
+	protected BackgroundTask(String type, Object subject) {
+		this.type = type;
+		this.subject = subject;
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public Object getSubject() {
+		return subject;
+	}
+
+	/** Lock held while {@link #read()} runs, null by default. */
+	protected Lock getReadLock() {
+		return null;
+	}
+
+	/**
+	 * Returns true if {@link #read()} may hold the given read lock.
+	 * Tasks locking maps in {@link #read()} instead of returning their lock from {@link #getReadLock()} override it.
+	 */
+	protected boolean isReadingWith(Lock readLock) {
+		return readLock == getReadLock();
+	}
+
+	/** Called on a worker thread. */
+	protected abstract T read() throws Exception;
+
+	/** Called on the event dispatch thread after a successful read. */
+	protected void apply(T result) {
+	}
+
+	/** Called on the event dispatch thread if the task was cancelled. */
+	protected void cancelled() {
+	}
+
+	/** Called on the event dispatch thread if {@link #read()} or {@link #apply(Object)} failed. */
+	protected void failed(Exception e) {
+		LogUtils.warn(e);
+	}
+
+	public void cancel() {
+		cancelled = true;
+	}
+
+	synchronized void startReading() {
+		reader = Thread.currentThread();
+	}
+
+	/** Clears an interruption of the worker thread by {@link #interruptReading()} which came too late. */
+	synchronized void stopReading() {
+		reader = null;
+		Thread.interrupted();
+	}
+
+	/** Interrupts the worker thread waiting for the read lock or reading. */
+	synchronized void interruptReading() {
+		if (reader != null)
+			reader.interrupt();
+	}
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	public void checkCancelled() {
+		if (cancelled)
+			throw new CancellationException();
+	}
+
+	/** A total less than 1 means that the amount of work is unknown. */
+	public void setProgress(int done, int total) {
+		this.total = total;
+		this.done = done;
+	}
+
+	/** Returns the progress in percent or -1 if the amount of work is unknown. */
+	public int getProgress() {
+		final int total = this.total;
+		if (total <= 0)
+			return -1;
+		return (int) Math.min(100L, done * 100L / total);
+	}
+}
@@ -0,0 +1,241 @@
+package org.freeplane.core.task;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.freeplane.core.util.LogUtils;
+import org.freeplane.features.mode.Controller;
+import org.freeplane.features.mode.ReadOnlyExecution;
+import org.freeplane.features.ui.FrameController;
+import org.freeplane.features.ui.ViewController;
+
+/**
+ * Runs {@link BackgroundTask}s on worker threads so that the user interface stays responsive.
+ *
+ * Reads run in {@link ReadOnlyExecution} with the current controller of the submitting thread.
+ * Tasks running longer than {@value TaskProgressPanel#SHOW_DELAY} ms show their progress and a cancel button
+ * in the status bar. Submitting a task cancels the running task of the same type and an equal subject.
+ * Modifying a map locked by {@link #lockForWriting(ReadWriteLock)} cancels the tasks reading it.
+ * Latencies of finished tasks are collected per task type, see {@link #getLatencies()}.
+ *
+ * Tasks must be submitted on the event dispatch thread.
+ */
+public class BackgroundTaskService {
+	private static final Logger LOGGER = LogUtils.getLogger();
+	private static BackgroundTaskService instance;
+
+	public static synchronized BackgroundTaskService getInstance() {
+		if (instance == null)
+			instance = new BackgroundTaskService();
+		return instance;
+	}
+
+	private static class TaskKey {
+		final String type;
+		final Object subject;
+
+		TaskKey(String type, Object subject) {
+			this.type = type;
+			this.subject = subject;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(type) * 31 + Objects.hashCode(subject);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof TaskKey))
+				return false;
+			final TaskKey other = (TaskKey) obj;
+			return Objects.equals(type, other.type) && Objects.equals(subject, other.subject);
+		}
+	}
+
+	private final ExecutorService executor;
+	private final Map<TaskKey, BackgroundTask<?>> runningTasks;
+	private final Map<String, TaskLatency> latencies;
+
+	private BackgroundTaskService() {
+		executor = Executors.newCachedThreadPool(new ThreadFactory() {
+			private int threadNumber = 0;
+
+			@Override
+			public synchronized Thread newThread(Runnable r) {
+				final Thread thread = new Thread(r, "background task " + ++threadNumber);
+				thread.setDaemon(true);
+				thread.setPriority(Thread.NORM_PRIORITY - 1);
+				return thread;
+			}
+		});
+		runningTasks = new HashMap<>();
+		latencies = new LinkedHashMap<>();
+	}
+
+	public <T> void execute(final BackgroundTask<T> task) {
+		final long submitTime = System.nanoTime();
+		final Controller controller = Controller.getCurrentController();
+		final TaskKey key = new TaskKey(task.getType(), task.getSubject());
+		synchronized (runningTasks) {
+			final BackgroundTask<?> replacedTask = runningTasks.put(key, task);
+			if (replacedTask != null)
+				replacedTask.cancel();
+		}
+		final ViewController viewController = controller.getViewController();
+		final TaskProgressPanel progressPanel = viewController instanceof FrameController
+		        ? new TaskProgressPanel(task, viewController) : null;
+		if (progressPanel != null)
+			progressPanel.start();
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				Controller.setCurrentControllerForThread(controller);
+				final long startTime = System.nanoTime();
+				T result = null;
+				Exception failure = null;
+				ReadOnlyExecution.enter();
+				task.startReading();
+				try {
+					task.checkCancelled();
+					result = read(task);
+				}
+				catch (Exception e) {
+					failure = e;
+				}
+				finally {
+					task.stopReading();
+					ReadOnlyExecution.leave();
+				}
+				final long readTime = System.nanoTime();
+				final T readResult = result;
+				final Exception readFailure = failure;
+				viewController.invokeLater(new Runnable() {
+					@Override
+					public void run() {
+						if (progressPanel != null)
+							progressPanel.stop();
+						synchronized (runningTasks) {
+							if (runningTasks.get(key) == task)
+								runningTasks.remove(key);
+						}
+						finish(task, readResult, readFailure, startTime - submitTime, readTime - startTime);
+					}
+				});
+			}
+		});
+	}
+
+	private <T> T read(final BackgroundTask<T> task) throws Exception {
+		final Lock lock = task.getReadLock();
+		if (lock == null)
+			return task.read();
+		lock.lockInterruptibly();
+		try {
+			task.checkCancelled();
+			return task.read();
+		}
+		finally {
+			lock.unlock();
+		}
+	}
+
+	private <T> void finish(BackgroundTask<T> task, T result, Exception failure, long queueNanos, long readNanos) {
+		final long applyStart = System.nanoTime();
+		boolean cancelled = task.isCancelled() || failure instanceof CancellationException;
+		boolean failed = false;
+		try {
+			if (cancelled)
+				task.cancelled();
+			else if (failure != null) {
+				failed = true;
+				task.failed(failure);
+			}
+			else
+				task.apply(result);
+		}
+		catch (CancellationException e) {
+			cancelled = true;
+			task.cancelled();
+		}
+		catch (Exception e) {
+			failed = true;
+			task.failed(e);
+		}
+		finally {
+			final long applyNanos = System.nanoTime() - applyStart;
+			final TaskLatency latency = getLatency(task.getType());
+			latency.add(queueNanos, readNanos, applyNanos, cancelled, failed);
+			if (LOGGER.isLoggable(Level.FINE))
+				LOGGER.fine(latency.toString());
+		}
+	}
+
+	private TaskLatency getLatency(String type) {
+		synchronized (latencies) {
+			TaskLatency latency = latencies.get(type);
+			if (latency == null) {
+				latency = new TaskLatency(type);
+				latencies.put(type, latency);
+			}
+			return latency;
+		}
+	}
+
+	/** Returns latency statistics of finished tasks, one entry per task type. */
+	public Collection<TaskLatency> getLatencies() {
+		synchronized (latencies) {
+			return new ArrayList<>(latencies.values());
+		}
+	}
+
+	/**
+	 * Locks the write lock of the given lock, usually the lock of a map which is going to be modified.
+	 *
+	 * If a task holds or waits for its read lock, all running tasks reading with this read lock are cancelled
+	 * and their worker threads are interrupted, so that a modification on the event dispatch thread
+	 * waits only until the tasks stop reading instead of until they finish.
+	 *
+	 * @return the locked write lock
+	 */
+	public Lock lockForWriting(ReadWriteLock lock) {
+		final Lock writeLock = lock.writeLock();
+		if (!writeLock.tryLock()) {
+			cancelReaders(lock.readLock());
+			writeLock.lock();
+		}
+		return writeLock;
+	}
+
+	private void cancelReaders(Lock readLock) {
+		synchronized (runningTasks) {
+			for (BackgroundTask<?> task : runningTasks.values()) {
+				if (task.isReadingWith(readLock)) {
+					task.cancel();
+					task.interruptReading();
+				}
+			}
+		}
+	}
+
+	/** Cancels the running task of the given type and subject. */
+	public void cancel(String type, Object subject) {
+		synchronized (runningTasks) {
+			final BackgroundTask<?> task = runningTasks.get(new TaskKey(type, subject));
+			if (task != null)
+				task.cancel();
+		}
+	}
+}
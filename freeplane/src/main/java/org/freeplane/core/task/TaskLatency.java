@@ -0,0 +1,83 @@
+package org.freeplane.core.task;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency statistics of background tasks of one type.
+ *
+ * Queue time is measured from submission until the worker starts, read time includes waiting for the read lock
+ * and apply time is spent on the event dispatch thread. All times are in milliseconds.
+ */
+public class TaskLatency {
+	private final String type;
+	private int count;
+	private int cancelledCount;
+	private int failedCount;
+	private long queueNanos;
+	private long readNanos;
+	private long applyNanos;
+	private long maxTotalNanos;
+
+	TaskLatency(String type) {
+		this.type = type;
+	}
+
+	synchronized void add(long queueNanos, long readNanos, long applyNanos, boolean cancelled, boolean failed) {
+		count++;
+		if (cancelled)
+			cancelledCount++;
+		if (failed)
+			failedCount++;
+		this.queueNanos += queueNanos;
+		this.readNanos += readNanos;
+		this.applyNanos += applyNanos;
+		maxTotalNanos = Math.max(maxTotalNanos, queueNanos + readNanos + applyNanos);
+	}
+
+	public String getType() {
+		return type;
+	}
+
+	public synchronized int getCount() {
+		return count;
+	}
+
+	public synchronized int getCancelledCount() {
+		return cancelledCount;
+	}
+
+	public synchronized int getFailedCount() {
+		return failedCount;
+	}
+
+	public synchronized double getMeanQueueMillis() {
+		return mean(queueNanos);
+	}
+
+	public synchronized double getMeanReadMillis() {
+		return mean(readNanos);
+	}
+
+	public synchronized double getMeanApplyMillis() {
+		return mean(applyNanos);
+	}
+
+	public synchronized double getMaxTotalMillis() {
+		return toMillis(maxTotalNanos);
+	}
+
+	private double mean(long nanos) {
+		return count == 0 ? 0 : toMillis(nanos) / count;
+	}
+
+	private static double toMillis(long nanos) {
+		return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("%s: count=%d, cancelled=%d, failed=%d, queue=%.1fms, read=%.1fms, apply=%.1fms, max=%.1fms",
+		    type, count, cancelledCount, failedCount, getMeanQueueMillis(), getMeanReadMillis(),
+		    getMeanApplyMillis(), getMaxTotalMillis());
+	}
+}
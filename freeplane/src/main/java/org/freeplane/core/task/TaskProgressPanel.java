@@ -0,0 +1,90 @@
+package org.freeplane.core.task;
+
+import java.awt.BorderLayout;
+import java.awt.Dimension;
+import java.awt.Insets;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+import javax.swing.JButton;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.Timer;
+
+import org.freeplane.core.util.TextUtils;
+import org.freeplane.features.ui.ViewController;
+
+/** Shows the progress of a running background task in the status bar. */
+@SuppressWarnings("serial")
+class TaskProgressPanel extends JPanel {
+	static final int SHOW_DELAY = 300;
+	private static final int UPDATE_DELAY = 100;
+	private static int panelCount = 0;
+	private final BackgroundTask<?> task;
+	private final ViewController viewController;
+	private final String statusKey;
+	private final JProgressBar progressBar;
+	private final Timer timer;
+	private boolean shown;
+
+	TaskProgressPanel(final BackgroundTask<?> task, ViewController viewController) {
+		super(new BorderLayout(4, 0));
+		this.task = task;
+		this.viewController = viewController;
+		this.statusKey = "backgroundTask" + ++panelCount;
+		add(new JLabel(TextUtils.getText(task.getType(), task.getType())), BorderLayout.WEST);
+		progressBar = new JProgressBar(0, 100);
+		progressBar.setPreferredSize(new Dimension(100, progressBar.getPreferredSize().height));
+		add(progressBar, BorderLayout.CENTER);
+		final JButton cancelButton = new JButton(TextUtils.getText("cancel"));
+		cancelButton.setMargin(new Insets(0, 2, 0, 2));
+		cancelButton.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				task.cancel();
+				cancelButton.setEnabled(false);
+			}
+		});
+		add(cancelButton, BorderLayout.EAST);
+		timer = new Timer(UPDATE_DELAY, new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				update();
+			}
+		});
+		timer.setInitialDelay(SHOW_DELAY);
+	}
+
+	void start() {
+		timer.start();
+	}
+
+	void stop() {
+		timer.stop();
+		if (shown) {
+			shown = false;
+			viewController.removeStatus(statusKey);
+			revalidateStatusBar();
+		}
+	}
+
+	private void update() {
+		final int progress = task.getProgress();
+		progressBar.setIndeterminate(progress < 0);
+		if (progress >= 0)
+			progressBar.setValue(progress);
+		if (!shown) {
+			shown = true;
+			viewController.addStatusComponent(statusKey, this);
+			revalidateStatusBar();
+		}
+	}
+
+	private void revalidateStatusBar() {
+		final JComponent statusBar = viewController.getStatusBar();
+		statusBar.revalidate();
+		statusBar.repaint();
+	}
+}
@@ -19,13 +19,21 @@
  */
 package org.freeplane.core.ui.components.html;
 
+import java.awt.Color;
 import java.awt.Container;
+import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.Rectangle;
 import java.awt.Shape;
 import java.io.Reader;
 import java.io.StringReader;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
 
 import javax.swing.JComponent;
 import javax.swing.JLabel;
@@ -46,6 +54,10 @@ public class ScaledHTML extends BasicHTML{
      * string of html.
      */
     public static View createHTMLView(JLabel c, String html) {
+	return new Renderer(c, createSharedView(c, html));
+    }
+
+	private static SharedView createSharedView(JLabel c, String html) {
 	ScaledEditorKit kit = SynchronousScaledEditorKit.create();
 	Document doc = kit.createDefaultDocument(c);
 	Object base = c.getClientProperty(documentBaseKey);
@@ -59,21 +71,37 @@ public class ScaledHTML extends BasicHTML{
 	}
 	ViewFactory f = kit.getViewFactory();
 	View hview = f.create(doc.getDefaultRootElement());
-	View v = new Renderer(c, f, hview);
-	return v;
-    }
+	return new SharedView(f, hview);
+	}
+
+	/**
+	 * Returns a renderer sharing its document and view tree with all other labels
+	 * showing the same html with the same font, foreground, alignment, document base and context.
+	 *
+	 * The context is an optional object describing further state the layout depends on.
+	 * Must be called on the event dispatch thread.
+	 */
+	public static View createSharedHTMLView(JLabel c, String html, Object context) {
+		final SharedViewKey key = new SharedViewKey(c, html, context);
+		purgeSharedViews();
+		final SharedViewReference reference = sharedViews.get(key);
+		SharedView sharedView = reference != null ? reference.get() : null;
+		if (sharedView == null) {
+			sharedView = createSharedView(c, html);
+			sharedViews.put(key, new SharedViewReference(key, sharedView));
+		}
+		return new Renderer(c, sharedView);
+	}
 
      public static void updateRenderer(JLabel c, String text) {
+    	 updateRenderer(c, text, null);
+     }
+
+     public static void updateRenderer(JLabel c, String text, Object context) {
     	View value = null;
     	try{
-    	View oldValue = (View)c.getClientProperty(propertyKey);
     	if (isHTMLString(text)) {
-    		value = ScaledHTML.createHTMLView(c, text);
-    	}
-    	if (value != oldValue && oldValue != null) {
-    		for (int i = 0; i < oldValue.getViewCount(); i++) {
-    			oldValue.getView(i).setParent(null);
-    		}
+    		value = ScaledHTML.createSharedHTMLView(c, text, context);
     	}
     	}
     	finally{
@@ -81,6 +109,178 @@ public class ScaledHTML extends BasicHTML{
     	}
     }
 
+	private static final Map<SharedViewKey, SharedViewReference> sharedViews = new HashMap<>();
+	private static final ReferenceQueue<SharedView> releasedSharedViews = new ReferenceQueue<>();
+
+	private static void purgeSharedViews() {
+		for (Reference<? extends SharedView> reference; (reference = releasedSharedViews.poll()) != null;) {
+			final SharedViewKey key = ((SharedViewReference) reference).key;
+			if (sharedViews.get(key) == reference)
+				sharedViews.remove(key);
+		}
+	}
+
+	static int sharedViewCount() {
+		purgeSharedViews();
+		return sharedViews.size();
+	}
+
+	private static class SharedViewReference extends WeakReference<SharedView> {
+		final SharedViewKey key;
+
+		SharedViewReference(SharedViewKey key, SharedView sharedView) {
+			super(sharedView, releasedSharedViews);
+			this.key = key;
+		}
+	}
+
+	private static class SharedViewKey {
+		private final String html;
+		private final Font font;
+		private final Color foreground;
+		private final int horizontalAlignment;
+		private final Object base;
+		private final Object context;
+		private final int hashCode;
+
+		SharedViewKey(JLabel c, String html, Object context) {
+			this.html = html;
+			this.font = c.getFont();
+			this.foreground = c.getForeground();
+			this.horizontalAlignment = c.getHorizontalAlignment();
+			this.base = c.getClientProperty(documentBaseKey);
+			this.context = context;
+			this.hashCode = Objects.hash(html, font, foreground, horizontalAlignment, base, context);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof SharedViewKey))
+				return false;
+			final SharedViewKey other = (SharedViewKey) obj;
+			return hashCode == other.hashCode && horizontalAlignment == other.horizontalAlignment
+			        && html.equals(other.html) && Objects.equals(font, other.font)
+			        && Objects.equals(foreground, other.foreground) && Objects.equals(base, other.base)
+			        && Objects.equals(context, other.context);
+		}
+	}
+
+	/**
+	 * Document view tree used by all renderers with the same key.
+	 * Its root delegates container and preference changes to the renderer which used it last,
+	 * every renderer restores its own size before it accesses the tree.
+	 */
+	private static class SharedView extends View {
+		private static final float NOT_INITIALIZED = -1;
+		private final ViewFactory factory;
+		private final View view;
+		private WeakReference<Renderer> owner;
+		private float initialWidth = NOT_INITIALIZED;
+		private float initialHeight = NOT_INITIALIZED;
+
+		SharedView(ViewFactory factory, View view) {
+			super(null);
+			this.factory = factory;
+			this.view = view;
+			this.owner = new WeakReference<>(null);
+			view.setParent(this);
+		}
+
+		Renderer getOwner() {
+			return owner.get();
+		}
+
+		void setOwner(Renderer renderer) {
+			owner = new WeakReference<>(renderer);
+		}
+
+		void initialize() {
+			if (initialWidth == NOT_INITIALIZED) {
+				initialWidth = view.getPreferredSpan(X_AXIS);
+				initialHeight = view.getPreferredSpan(Y_AXIS);
+			}
+		}
+
+		@Override
+		public AttributeSet getAttributes() {
+			return null;
+		}
+
+		@Override
+		public float getPreferredSpan(int axis) {
+			return view.getPreferredSpan(axis);
+		}
+
+		@Override
+		public void preferenceChanged(View child, boolean width, boolean height) {
+			final Renderer renderer = getOwner();
+			if (renderer != null)
+				renderer.preferenceChanged(child, width, height);
+		}
+
+		@Override
+		public void paint(Graphics g, Shape allocation) {
+			view.paint(g, allocation);
+		}
+
+		@Override
+		public int getViewCount() {
+			return 1;
+		}
+
+		@Override
+		public View getView(int n) {
+			return view;
+		}
+
+		@Override
+		public Shape modelToView(int pos, Shape a, Position.Bias b) throws BadLocationException {
+			return view.modelToView(pos, a, b);
+		}
+
+		@Override
+		public int viewToModel(float x, float y, Shape a, Position.Bias[] bias) {
+			return view.viewToModel(x, y, a, bias);
+		}
+
+		@Override
+		public Document getDocument() {
+			return view.getDocument();
+		}
+
+		@Override
+		public int getStartOffset() {
+			return view.getStartOffset();
+		}
+
+		@Override
+		public int getEndOffset() {
+			return view.getEndOffset();
+		}
+
+		@Override
+		public Element getElement() {
+			return view.getElement();
+		}
+
+		@Override
+		public Container getContainer() {
+			final Renderer renderer = getOwner();
+			return renderer != null ? renderer.getContainer() : null;
+		}
+
+		@Override
+		public ViewFactory getViewFactory() {
+			return factory;
+		}
+	}
 
     /**
      * Overrides to the default stylesheet.  Should consider
@@ -98,23 +298,28 @@ public class ScaledHTML extends BasicHTML{
     	private static final int NOT_INITIALIZED = -1;
 
     	private int width;
-    	private View view;
-    	private ViewFactory factory;
+    	private float height = NOT_INITIALIZED;
+    	private final SharedView sharedView;
     	private JComponent host;
     	private boolean setSizeRunning;
-    	private float initialWidth = NOT_INITIALIZED;
-    	private float initialHeight = NOT_INITIALIZED;
 
-		Renderer(JComponent c, ViewFactory f, View v) {
+		Renderer(JComponent c, SharedView sharedView) {
     		super(null);
     		setSizeRunning = true;
     		host = c;
-    		factory = f;
-    		view = v;
-    		view.setParent(this);
+    		this.sharedView = sharedView;
     		// initially layout to the preferred size
     	}
 
+		private View view() {
+			if (sharedView.getOwner() != this) {
+				sharedView.setOwner(this);
+				if (height != NOT_INITIALIZED)
+					resize(width, height);
+			}
+			return sharedView.view;
+		}
+
         @Override
 		public AttributeSet getAttributes() {
 	    return null;
@@ -128,21 +333,21 @@ public class ScaledHTML extends BasicHTML{
         		 // width currently laid out to
         		 return width;
         	 }
-        	 return view.getPreferredSpan(axis);
+        	 return view().getPreferredSpan(axis);
          }
 
          private void initialize() {
-        	 if(initialWidth == NOT_INITIALIZED) {
-        		 initialWidth = view.getPreferredSpan(X_AXIS);
-        		 initialHeight = view.getPreferredSpan(Y_AXIS);
-        		 setSize(initialWidth, initialHeight);
+        	 if(height == NOT_INITIALIZED) {
+        		 view();
+        		 sharedView.initialize();
+        		 setSize(sharedView.initialWidth, sharedView.initialHeight);
         	 }
          }
 
        @Override
        public float getMinimumSpan(int axis) {
     	   initialize();
-    	   return view.getMinimumSpan(axis);
+    	   return view().getMinimumSpan(axis);
         }
 
         @Override
@@ -160,12 +365,13 @@ public class ScaledHTML extends BasicHTML{
 
         @Override
 		public float getAlignment(int axis) {
-	    return view.getAlignment(axis);
+	    return view().getAlignment(axis);
         }
 
         @Override
 		public void paint(Graphics g, Shape allocation) {
 	    Rectangle alloc = allocation.getBounds();
+	    View view = view();
 	    view.setSize(alloc.width, alloc.height);
 	    view.paint(g, allocation);
         }
@@ -181,59 +387,65 @@ public class ScaledHTML extends BasicHTML{
         }
         @Override
 		public View getView(int n) {
-            return view;
+            return view();
         }
         @Override
 		public Shape modelToView(int pos, Shape a, Position.Bias b) throws BadLocationException {
-	    return view.modelToView(pos, a, b);
+	    return view().modelToView(pos, a, b);
         }
 
 	@Override
 	public Shape modelToView(int p0, Position.Bias b0, int p1,
 				 Position.Bias b1, Shape a) throws BadLocationException {
-	    return view.modelToView(p0, b0, p1, b1, a);
+	    return view().modelToView(p0, b0, p1, b1, a);
 	}
 
         @Override
 		public int viewToModel(float x, float y, Shape a, Position.Bias[] bias) {
-	    return view.viewToModel(x, y, a, bias);
+	    return view().viewToModel(x, y, a, bias);
         }
 
         @Override
 		public Document getDocument() {
-            return view.getDocument();
+            return sharedView.getDocument();
         }
 
         @Override
 		public int getStartOffset() {
-	    return view.getStartOffset();
+	    return sharedView.getStartOffset();
         }
 
         @Override
 		public int getEndOffset() {
-	    return view.getEndOffset();
+	    return sharedView.getEndOffset();
         }
 
         @Override
 		public Element getElement() {
-	    return view.getElement();
+	    return sharedView.getElement();
         }
 
         @Override
 		public void setSize(float width, float height) {
+        	sharedView.setOwner(this);
+        	resize(width, height);
+        }
+
+		private void resize(float width, float height) {
         	setSizeRunning = true;
         	try {
         	this.width = (int) width;
-        	view.setSize(width, height);
+        	this.height = height;
+        	sharedView.view.setSize(width, height);
         	}
         	finally {
         		setSizeRunning = false;
 			}
-        }
+		}
 
         public void resetWidth() {
         	initialize();
-        	setSize(initialWidth, initialHeight);
+        	setSize(sharedView.initialWidth, sharedView.initialHeight);
         }
 
         @Override
@@ -243,12 +455,12 @@ public class ScaledHTML extends BasicHTML{
 
         @Override
 		public ViewFactory getViewFactory() {
-	    return factory;
+	    return sharedView.factory;
         }
 
 		public float getPreferredWidth() {
 			initialize();
-			return initialWidth;
+			return sharedView.initialWidth;
 		}
 
 		public int getWidth() {
@@ -258,7 +470,7 @@ public class ScaledHTML extends BasicHTML{
 
 		public void setWidth(int width) {
 			initialize();
-			setSize(width, initialHeight);
+			setSize(width, sharedView.initialHeight);
 		}
     }
 }
@@ -27,10 +27,14 @@ import java.util.ListIterator;
  *
  * Implements composite design pattern.
  *
+ * The actor can be spilled only if all contained actors except selection actors are spillable,
+ * because other actors may reference nodes kept by the spilled ones.
+ *
  * @author Robert Ladstaetter
  */
-public class CompoundActor implements IActor {
+public class CompoundActor implements ISpillableActor {
 	final private LinkedList<IActor> actors;
+	private long estimatedSize;
 
 	public CompoundActor() {
 		this(new LinkedList<IActor>());
@@ -39,9 +43,11 @@ public class CompoundActor implements IActor {
 	@SuppressWarnings("unchecked")
 	public CompoundActor(final LinkedList<? extends IActor> actors) {
 		this.actors = (LinkedList<IActor>) actors;
+		this.estimatedSize = -1;
 	}
 
 	public void act() {
+		estimatedSize = -1;
 		for (final IActor a : actors) {
 			a.act();
 		}
@@ -49,6 +55,8 @@ public class CompoundActor implements IActor {
 
 	public void add(final IActor firstActor) {
 		actors.add(firstActor);
+		if (estimatedSize >= 0)
+			estimatedSize += firstActor.getEstimatedSize();
 	}
 
 	public String getDescription() {
@@ -67,6 +75,7 @@ public class CompoundActor implements IActor {
 	}
 
 	public void undo() {
+		estimatedSize = -1;
 		final ListIterator<IActor> iterator = actors.listIterator(actors.size());
 		while (iterator.hasPrevious()) {
 			iterator.previous().undo();
@@ -76,4 +85,52 @@ public class CompoundActor implements IActor {
 	public boolean isEmpty() {
 		return actors.size() == 0;
 	}
+
+	@Override
+	public long getEstimatedSize() {
+		if (estimatedSize < 0) {
+			long size = DEFAULT_ESTIMATED_SIZE;
+			for (final IActor a : actors)
+				size += a.getEstimatedSize();
+			estimatedSize = size;
+		}
+		return estimatedSize;
+	}
+
+	@Override
+	public boolean canSpill() {
+		for (final IActor a : actors) {
+			if (a instanceof SelectionActor)
+				continue;
+			if (!(a instanceof ISpillableActor && ((ISpillableActor) a).canSpill()))
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public boolean isSpilled() {
+		for (final IActor a : actors) {
+			if (a instanceof ISpillableActor && !((ISpillableActor) a).isSpilled())
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public void spill() {
+		estimatedSize = -1;
+		for (final IActor a : actors) {
+			if (a instanceof ISpillableActor && !((ISpillableActor) a).isSpilled())
+				((ISpillableActor) a).spill();
+		}
+	}
+
+	@Override
+	public void discard() {
+		for (final IActor a : actors) {
+			if (a instanceof ISpillableActor)
+				((ISpillableActor) a).discard();
+		}
+	}
 }
@@ -20,6 +20,8 @@
 package org.freeplane.core.undo;
 
 public interface IActor {
+	long DEFAULT_ESTIMATED_SIZE = 200;
+
 	void act();
 
 	String getDescription();
@@ -29,4 +31,12 @@ public interface IActor {
 	default boolean isReadonly() {
 		return false;
 	}
+
+	/**
+	 * Estimated amount of heap memory in bytes which is kept alive by this actor
+	 * while it stays in the undo history.
+	 */
+	default long getEstimatedSize() {
+		return DEFAULT_ESTIMATED_SIZE;
+	}
 }
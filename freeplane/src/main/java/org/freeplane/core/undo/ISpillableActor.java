@@ -0,0 +1,28 @@
+package org.freeplane.core.undo;
+
+/**
+ * Actor which can move the data it keeps for undo out of the heap,
+ * e.g. into a temporary file, and restore it when it is needed again.
+ */
+public interface ISpillableActor extends IActor {
+	/**
+	 * Returns true if the actor is spilled or can be spilled in its current state.
+	 * Spilling is only requested for actors of the oldest undo history entry
+	 * whose action is done.
+	 */
+	boolean canSpill();
+
+	/** Returns true if the actor is spilled or its spilling has been started. */
+	boolean isSpilled();
+
+	/**
+	 * Starts spilling. The data may be written asynchronously,
+	 * undo and redo must wait for it or cancel it.
+	 */
+	void spill();
+
+	/**
+	 * Releases spilled data when the actor is removed from the undo history.
+	 */
+	void discard();
+}
@@ -66,4 +66,9 @@ public interface IUndoHandler extends IExtension {
 	
 	public int getTransactionLevel();
 
+	/**
+	 * Estimated amount of heap memory in bytes kept alive by the undo history.
+	 */
+	public long getEstimatedSize();
+
 }
@@ -24,10 +24,16 @@ import java.awt.event.ActionListener;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.concurrent.locks.Lock;
 
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
+import org.freeplane.core.metrics.Metrics;
+import org.freeplane.core.metrics.Operation;
+import org.freeplane.core.metrics.OperationTimer;
+import org.freeplane.core.resources.ResourceController;
+import org.freeplane.core.task.BackgroundTaskService;
 import org.freeplane.core.util.LogUtils;
 import org.freeplane.features.map.IMapSelection;
 import org.freeplane.features.map.MapModel;
@@ -60,6 +66,8 @@ public class UndoHandler implements IUndoHandler {
 	 *
 	 */
 	private static final int MAX_ENTRIES = 100;
+	private static final String MEMORY_LIMIT_PROPERTY = "undo_memory_limit_mb";
+	private static final int DEFAULT_MEMORY_LIMIT_MB = 64;
 	private static final long TIME_TO_BEGIN_NEW_ACTION = 100;
 	private boolean actionFrameStarted;
 	private ListIterator<CompoundActor> actorIterator;
@@ -73,9 +81,16 @@ public class UndoHandler implements IUndoHandler {
 	private boolean deactivated;
 	private final ChangeEvent event;
 	final private MapModel map;
+	final private long memoryLimit;
 
 	public UndoHandler(MapModel map) {
+		this(map, ResourceController.getResourceController().getIntProperty(MEMORY_LIMIT_PROPERTY,
+		    DEFAULT_MEMORY_LIMIT_MB) * 1024L * 1024L);
+	}
+
+	UndoHandler(MapModel map, long memoryLimit) {
 		this.map = map;
+		this.memoryLimit = memoryLimit;
 		actionFrameStarted = false;
 		deactivated = false;
 		listeners = new LinkedList<ChangeListener>();
@@ -102,6 +117,16 @@ public class UndoHandler implements IUndoHandler {
 	 * )
 	 */
 	public void addActor(final IActor actor) {
+		final OperationTimer timer = startTimer(actor);
+		try {
+			recordActor(actor);
+		}
+		finally {
+			timer.stop();
+		}
+	}
+
+	private void recordActor(final IActor actor) {
 		resetRedo();
 		actorList.commitDelay = COMMIT_DELAY;
 		final long currentTime = System.currentTimeMillis();
@@ -111,6 +136,7 @@ public class UndoHandler implements IUndoHandler {
 			}
 			else {
 				if (actorList.size() > 0) {
+					discardAll();
 					actorList.clear();
 					actorIterator = actorList.listIterator();
 				}
@@ -124,6 +150,8 @@ public class UndoHandler implements IUndoHandler {
 			actorIterator.next();
 		}
 		else {
+			if (transactionList.isEmpty())
+				limitMemory();
 			CompoundActor compoundActor = new CompoundActor();
 			final Controller controller = Controller.getCurrentController();
 			if(map == controller.getMap()){
@@ -135,7 +163,7 @@ public class UndoHandler implements IUndoHandler {
 			actorIterator.add(compoundActor);
 			final int maxEntries = UndoHandler.MAX_ENTRIES;
 			while (actorList.size() > maxEntries) {
-				actorList.removeFirst();
+				actorList.removeFirst().discard();
 				actorIterator = actorList.listIterator(actorList.size());
 			}
 		}
@@ -144,6 +172,49 @@ public class UndoHandler implements IUndoHandler {
 		fireStateChanged();
 	}
 
+	/**
+	 * Keeps the estimated size of the undo history below the memory limit.
+	 *
+	 * The oldest entries are removed first. An entry which can be spilled is spilled
+	 * instead of being removed once it becomes the oldest one, because actors of older entries
+	 * could reference nodes which are replaced by new instances after restoring the spilled data.
+	 */
+	private void limitMemory() {
+		long size = getEstimatedSize(actorList);
+		while (size > memoryLimit && !actorList.isEmpty()) {
+			final CompoundActor oldestActor = actorList.getFirst();
+			final long oldestActorSize = oldestActor.getEstimatedSize();
+			if (oldestActor.canSpill() && !oldestActor.isSpilled()) {
+				oldestActor.spill();
+				size += oldestActor.getEstimatedSize() - oldestActorSize;
+			}
+			else {
+				actorList.removeFirst().discard();
+				size -= oldestActorSize;
+			}
+		}
+		actorIterator = actorList.listIterator(actorList.size());
+	}
+
+	private static long getEstimatedSize(final List<CompoundActor> actors) {
+		long size = 0;
+		for (final CompoundActor actor : actors)
+			size += actor.getEstimatedSize();
+		return size;
+	}
+
+	public long getEstimatedSize() {
+		long size = getEstimatedSize(actorList);
+		for (final ActorList transactionActors : transactionList)
+			size += getEstimatedSize(transactionActors);
+		return size;
+	}
+
+	private void discardAll() {
+		for (final CompoundActor actor : actorList)
+			actor.discard();
+	}
+
 	private void fireStateChanged() {
 		for (final ChangeListener listener : listeners) {
 			listener.stateChanged(event);
@@ -159,24 +230,32 @@ public class UndoHandler implements IUndoHandler {
 	}
 
 	public void commit() {
-		resetRedo();
-		final CompoundActor compoundActor = new CompoundActor(actorList);
-		actionFrameStarted = false;
-		timeOfLastAdd = 0;
-		if (transactionList.isEmpty()) {
-			// FIXME: this happens when new Maps are closed via the scripting API. Fix the basic error instead.
-			LogUtils.warn("transactionList is empty on UndoHandler.commit()");
-			return;
-		}
-		actorList = transactionList.removeLast();
-		actorIterator = transactionIteratorList.removeLast();
-		if (!compoundActor.isEmpty()) {
-			addActor(compoundActor);
+		final OperationTimer timer = Metrics.start(Operation.UNDO);
+		try {
+			resetRedo();
+			final CompoundActor compoundActor = new CompoundActor(actorList);
+			if (timer.isActive())
+				timer.setSubject(compoundActor.getDescription());
 			actionFrameStarted = false;
 			timeOfLastAdd = 0;
+			if (transactionList.isEmpty()) {
+				// FIXME: this happens when new Maps are closed via the scripting API. Fix the basic error instead.
+				LogUtils.warn("transactionList is empty on UndoHandler.commit()");
+				return;
+			}
+			actorList = transactionList.removeLast();
+			actorIterator = transactionIteratorList.removeLast();
+			if (!compoundActor.isEmpty()) {
+				recordActor(compoundActor);
+				actionFrameStarted = false;
+				timeOfLastAdd = 0;
+			}
+			else {
+				fireStateChanged();
+			}
 		}
-		else {
-			fireStateChanged();
+		finally {
+			timer.stop();
 		}
 	}
 
@@ -244,22 +323,52 @@ public class UndoHandler implements IUndoHandler {
 	public void redo() {
 		if (canRedo()) {
 			final IActor redoActor = actorIterator.next();
+			final Lock writeLock = lockMap();
 			isUndoActionRunning = true;
-			redoActor.act();
-			isUndoActionRunning = false;
+			try {
+				redoActor.act();
+			}
+			finally {
+				isUndoActionRunning = false;
+				unlockMap(writeLock);
+			}
 			fireStateChanged();
 		}
 	}
 
+	/** Times recording of undo history, which runs for each change of the map. */
+	private OperationTimer startTimer(final IActor actor) {
+		final OperationTimer timer = Metrics.start(Operation.UNDO);
+		if (timer.isActive())
+			timer.setSubject(actor.getDescription());
+		return timer;
+	}
+
+	/**
+	 * Actors modify the map, so they are undone and redone holding the write lock of the map.
+	 * Background tasks reading the map are cancelled if they hold its read lock.
+	 */
+	private Lock lockMap() {
+		if (map == null)
+			return null;
+		return BackgroundTaskService.getInstance().lockForWriting(map.getLock());
+	}
+
+	private void unlockMap(final Lock writeLock) {
+		if (writeLock != null)
+			writeLock.unlock();
+	}
+
 	public void resetRedo() {
 		while (canRedo()) {
-			actorIterator.next();
+			actorIterator.next().discard();
 			actorIterator.remove();
 		}
 		fireStateChanged();
 	}
 
 	public void rollback() {
+		final Lock writeLock = lockMap();
 		try {
 			isUndoActionRunning = true;
 			while (actorIterator.hasPrevious()) {
@@ -269,6 +378,7 @@ public class UndoHandler implements IUndoHandler {
 		}
 		finally {
 			isUndoActionRunning = false;
+			unlockMap(writeLock);
 		}
 		if (transactionList.isEmpty()) {
 			// FIXME: got here if exceptions occur after opening a map via the scripting API. Fix the basic error instead.
@@ -314,12 +424,14 @@ public class UndoHandler implements IUndoHandler {
 	public void undo() {
 		if (canUndo()) {
 			final IActor actor = actorIterator.previous();
+			final Lock writeLock = lockMap();
 			try {
 				isUndoActionRunning = true;
 				actor.undo();
 			}
 			finally {
 				isUndoActionRunning = false;
+				unlockMap(writeLock);
 				fireStateChanged();
 			}
 		}
@@ -0,0 +1,28 @@
+package org.freeplane.core.util.collection;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Returns canonical instances of equal immutable values.
+ * Values are only weakly referenced, so that values no longer used anywhere else can be collected.
+ */
+public class WeakInterner<T> {
+	private final Map<T, WeakReference<T>> values = new WeakHashMap<T, WeakReference<T>>();
+
+	public synchronized T intern(T value) {
+		final WeakReference<T> reference = values.get(value);
+		if (reference != null) {
+			final T existingValue = reference.get();
+			if (existingValue != null)
+				return existingValue;
+		}
+		values.put(value, new WeakReference<T>(value));
+		return value;
+	}
+
+	synchronized int size() {
+		return values.size();
+	}
+}
@@ -31,6 +31,8 @@ import javax.swing.JOptionPane;
 import javax.swing.filechooser.FileFilter;
 
 import org.freeplane.core.resources.ResourceController;
+import org.freeplane.core.task.BackgroundTask;
+import org.freeplane.core.task.BackgroundTaskService;
 import org.freeplane.core.ui.ExampleFileFilter;
 import org.freeplane.core.ui.components.UITools;
 import org.freeplane.core.util.FileUtils;
@@ -186,7 +188,11 @@ public class ExportDialog {
 					}
 				}
 				final IExportEngine exportEngine = exportEngines.get(fileFilter);
-				exportEngine.export(branches, selectedFile);
+				final BackgroundTask<?> exportTask = exportEngine.createExportTask(branches, selectedFile);
+				if (exportTask != null)
+					BackgroundTaskService.getInstance().execute(exportTask);
+				else
+					exportEngine.export(branches, selectedFile);
 			}
 		}
 		finally {
@@ -65,6 +65,11 @@ public class ExportToImage implements IExportEngine {
 		this.imageDescripton = imageDescripton;
 	}
 
+	@Override
+	public boolean requiresMapView() {
+		return true;
+	}
+
 	@Override
 	public void export(List<NodeModel> nodes, File toFile) {
 		export(nodes.get(0).getMap(), toFile);
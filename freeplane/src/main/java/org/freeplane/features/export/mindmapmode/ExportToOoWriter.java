@@ -18,6 +18,7 @@
 package org.freeplane.features.export.mindmapmode;
 
 import org.freeplane.core.resources.ResourceController;
+import org.freeplane.core.task.BackgroundTask;
 import org.freeplane.core.ui.ExampleFileFilter;
 import org.freeplane.core.ui.components.UITools;
 import org.freeplane.core.util.FileUtils;
@@ -97,11 +98,25 @@ public class ExportToOoWriter implements IExportEngine {
 	}
 
 
+	@Override
+	public BackgroundTask<?> createExportTask(List<NodeModel> branches, File toFile) {
+		return new XmlExportTask(branches, toFile) {
+			@Override
+			protected void export(StringWriter xml, File file) throws Exception {
+				exportToOoWriter(xml, file);
+			}
+		};
+	}
+
 	public void exportToOoWriter(List<NodeModel> branches, final File file) throws IOException {
+		final StringWriter writer = new StringWriter();
+		new BranchXmlWriter(branches).writeXml(writer, Mode.EXPORT);
+		exportToOoWriter(writer, file);
+	}
+
+	private void exportToOoWriter(final StringWriter writer, final File file) throws IOException {
 		final ZipOutputStream zipout = new ZipOutputStream(new FileOutputStream(file));
 		try {
-			final StringWriter writer = new StringWriter();
-			new BranchXmlWriter(branches).writeXml(writer, Mode.EXPORT);
 			final Result result = new StreamResult(zipout);
 
 			ZipEntry entry = new ZipEntry("content.xml");
@@ -196,6 +196,11 @@ public class ExportWithXSLT implements IExportEngine {
 		return properties.getProperty(key, value);
 	}
 
+	@Override
+	public boolean requiresMapView() {
+		return StringUtils.equals(getProperty("create_html_linked_image"), "true");
+	}
+
 	public boolean isTransformResultWithoutError() {
 		return mTransformResultWithoutError;
 	}
@@ -1,5 +1,6 @@
 package org.freeplane.features.export.mindmapmode;
 
+import org.freeplane.core.task.BackgroundTask;
 import org.freeplane.features.map.NodeModel;
 
 import java.io.File;
@@ -7,4 +8,14 @@ import java.util.List;
 
 public interface IExportEngine {
 	public void export(List<NodeModel> nodes, File toFile);
+
+	/** Returns a task exporting on a worker thread, or null if the export must run on the event dispatch thread. */
+	default BackgroundTask<?> createExportTask(List<NodeModel> nodes, File toFile) {
+		return null;
+	}
+
+	/** Returns true if the export paints the map view, it is not available without user interface then. */
+	default boolean requiresMapView() {
+		return false;
+	}
 }
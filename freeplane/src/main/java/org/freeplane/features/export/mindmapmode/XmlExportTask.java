@@ -0,0 +1,62 @@
+package org.freeplane.features.export.mindmapmode;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+
+import org.freeplane.core.task.BackgroundTask;
+import org.freeplane.core.ui.components.UITools;
+import org.freeplane.core.util.LogUtils;
+import org.freeplane.core.util.TextUtils;
+import org.freeplane.features.map.MapWriter.Mode;
+import org.freeplane.features.map.NodeModel;
+
+/**
+ * Exports branches on a worker thread. The branches are serialized while the read lock of their map is held,
+ * the serialized xml is transformed and written without the lock.
+ */
+abstract class XmlExportTask extends BackgroundTask<Void> {
+	static final String EXPORT_TASK = "export_in_progress";
+	private final List<NodeModel> branches;
+	private final File file;
+
+	XmlExportTask(List<NodeModel> branches, File file) {
+		super(EXPORT_TASK, file);
+		this.branches = branches;
+		this.file = file;
+	}
+
+	@Override
+	protected boolean isReadingWith(Lock readLock) {
+		return readLock == getMapLock();
+	}
+
+	private Lock getMapLock() {
+		return branches.get(0).getMap().getLock().readLock();
+	}
+
+	@Override
+	protected Void read() throws Exception {
+		final StringWriter xml = new StringWriter();
+		final Lock lock = getMapLock();
+		lock.lockInterruptibly();
+		try {
+			new BranchXmlWriter(branches).writeXml(xml, Mode.EXPORT);
+		}
+		finally {
+			lock.unlock();
+		}
+		checkCancelled();
+		export(xml, file);
+		return null;
+	}
+
+	abstract protected void export(StringWriter xml, File file) throws Exception;
+
+	@Override
+	protected void failed(Exception e) {
+		LogUtils.warn(e);
+		UITools.errorMessage(TextUtils.getText("export_failed"));
+	}
+}
@@ -1,5 +1,6 @@
 package org.freeplane.features.export.mindmapmode;
 
+import org.freeplane.core.task.BackgroundTask;
 import org.freeplane.core.ui.components.UITools;
 import org.freeplane.core.util.LogUtils;
 import org.freeplane.core.util.TextUtils;
@@ -80,8 +81,27 @@ public class XsltExportEngine implements IExportEngine {
 	final private File xsltFile;
 	
 	public void export(List<NodeModel> branches, File toFile) {
+        try {
+        	transform(getMapXml(branches), toFile);
+        }
+        catch (final Exception e) {
+        	UITools.errorMessage(TextUtils.getText("export_failed"));
+        	LogUtils.warn(e);
+        }
+	}
+
+	@Override
+	public BackgroundTask<?> createExportTask(List<NodeModel> branches, File toFile) {
+		return new XmlExportTask(branches, toFile) {
+			@Override
+			protected void export(StringWriter xml, File file) throws Exception {
+				transform(new StreamSource(new StringReader(xml.toString())), file);
+			}
+		};
+	}
+
+	private void transform(final Source xmlSource, File toFile) throws Exception {
 		final Source xsltSource = new StreamSource(xsltFile);
-		final Source xmlSource = getMapXml(branches);
 		FileOutputStream outputStream = null;
 		final XsltExportPolicy xsltExportPolicy = new XsltExportPolicy();
         try {
@@ -92,10 +112,6 @@ public class XsltExportEngine implements IExportEngine {
         	final Transformer trans = transFact.newTransformer(xsltSource);
         	trans.transform(xmlSource, result);
         }
-        catch (final Exception e) {
-        	UITools.errorMessage(TextUtils.getText("export_failed"));
-        	LogUtils.warn(e);
-        }
         finally {
         	xsltExportPolicy.remove();
         	try {
@@ -21,10 +21,19 @@ package org.freeplane.features.filter;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
 
 import javax.swing.Icon;
 
+import org.freeplane.core.metrics.Metrics;
+import org.freeplane.core.metrics.Operation;
+import org.freeplane.core.metrics.OperationTimer;
 import org.freeplane.core.resources.ResourceController;
+import org.freeplane.core.task.BackgroundTask;
+import org.freeplane.core.task.BackgroundTaskService;
+import org.freeplane.core.util.LogUtils;
+import org.freeplane.features.filter.condition.ASelectableCondition;
 import org.freeplane.features.filter.condition.ICondition;
 import org.freeplane.features.filter.hidden.NodeVisibility;
 import org.freeplane.features.filter.hidden.NodeVisibilityConfiguration;
@@ -74,6 +83,62 @@ public class Filter {
 		return new Filter(condition, areAncestorsShown, areDescendantsShown, applyToVisibleNodesOnly, oneTimeFilterAccessor);
 	}
 
+	static final String FILTER_TASK = "filter_in_progress";
+
+	/** Calculates filter results into its own filter infos so that the map is not modified off the event dispatch thread. */
+	private class FilterCalculation extends BackgroundTask<Map<NodeModel, FilterInfo>> implements FilterInfoAccessor {
+		private final Object source;
+		private final MapModel map;
+		private final HashMap<NodeModel, FilterInfo> filterInfos;
+
+		FilterCalculation(Object source, MapModel map) {
+			super(FILTER_TASK, map);
+			this.source = source;
+			this.map = map;
+			this.filterInfos = new HashMap<>();
+		}
+
+		@Override
+		public FilterInfo getFilterInfo(NodeModel node) {
+			FilterInfo filterInfo = filterInfos.get(node);
+			if (filterInfo == null) {
+				checkCancelled();
+				filterInfo = new FilterInfo();
+				filterInfos.put(node, filterInfo);
+			}
+			return filterInfo;
+		}
+
+		@Override
+		protected Lock getReadLock() {
+			return map.getLock().readLock();
+		}
+
+		@Override
+		protected Map<NodeModel, FilterInfo> read() {
+			new Filter(condition, areAncestorsShown(), areDescendantsShown(), appliesToVisibleNodesOnly, this)
+			    .calculateFilterResults(map);
+			return filterInfos;
+		}
+
+		@Override
+		protected void apply(Map<NodeModel, FilterInfo> result) {
+			for (Map.Entry<NodeModel, FilterInfo> entry : result.entrySet())
+				Filter.this.getFilterInfo(entry.getKey()).set(entry.getValue());
+			map.setFilter(Filter.this);
+			if (Controller.getCurrentController().getMap() == map)
+				updateSelection(source, map);
+			else
+				refreshMap(source, map);
+		}
+
+		@Override
+		protected void failed(Exception e) {
+			LogUtils.warn(e);
+			applyFilter(source, map, true);
+		}
+	}
+
 	final private boolean appliesToVisibleNodesOnly;
 	final private ICondition condition;
 	final int options;
@@ -133,6 +198,7 @@ public class Filter {
 		if (map == null) {
 			return;
 		}
+		BackgroundTaskService.getInstance().cancel(FILTER_TASK, map);
 		try {
 			displayFilterStatus();
 			Controller.getCurrentController().getViewController().setWaitingCursor(true);
@@ -141,28 +207,83 @@ public class Filter {
 			if (force || !isConditionStronger(oldFilter)) {
 				calculateFilterResults(map);
 			}
-			final IMapSelection selection = Controller.getCurrentController().getSelection();
-			final NodeModel selected = selection.getSelected();
-			final NodeModel selectedVisible = selected.getVisibleAncestorOrSelf();
-			selection.keepNodePosition(selectedVisible, 0.5f, 0.5f);
-			refreshMap(source, map);
-			selectVisibleNode();
+			updateSelection(source, map);
 		}
 		finally {
 			Controller.getCurrentController().getViewController().setWaitingCursor(false);
 		}
 	}
 
+	/**
+	 * Calculates the filter results on a worker thread and applies them on the event dispatch thread.
+	 * The filter is applied immediately if the results of the current filter of the map can be reused.
+	 */
+	public void applyFilterInBackground(Object source, final MapModel map, final boolean force) {
+		if (map == null) {
+			return;
+		}
+		if (!force && isConditionStronger(map.getFilter())) {
+			applyFilter(source, map, force);
+			return;
+		}
+		displayFilterStatus();
+		BackgroundTaskService.getInstance().execute(new FilterCalculation(source, map));
+	}
+
+	private void updateSelection(Object source, final MapModel map) {
+		final IMapSelection selection = Controller.getCurrentController().getSelection();
+		final NodeModel selected = selection.getSelected();
+		final NodeModel selectedVisible = selected.getVisibleAncestorOrSelf();
+		selection.keepNodePosition(selectedVisible, 0.5f, 0.5f);
+		refreshMap(source, map);
+		selectVisibleNode();
+	}
+
 	public void calculateFilterResults(final MapModel map) {
 		final NodeModel root = map.getRootNode();
-		resetFilter(root);
-		if (filterChildren(root, checkNode(root), false)) {
-			addFilterResult(root, FilterInfo.FILTER_SHOW_ANCESTOR);
+		final OperationTimer timer = startTimer(root);
+		prepareChecks(root);
+		try {
+			resetFilter(root);
+			if (filterChildren(root, checkNode(root), false)) {
+				addFilterResult(root, FilterInfo.FILTER_SHOW_ANCESTOR);
+			}
+		}
+		finally {
+			finishChecks();
+			timer.stop();
 		}
 	}
 
 	public void calculateFilterResults(final NodeModel root) {
-		applyFilter(root, false, false, false);
+		final OperationTimer timer = startTimer(root);
+		prepareChecks(root);
+		try {
+			applyFilter(root, false, false, false);
+		}
+		finally {
+			finishChecks();
+			timer.stop();
+		}
+	}
+
+	private OperationTimer startTimer(final NodeModel subtreeRoot) {
+		final OperationTimer timer = Metrics.start(Operation.FILTER);
+		if (timer.isActive())
+			timer.setSubject(subtreeRoot.getID() + ": " + condition);
+		return timer;
+	}
+
+	private void prepareChecks(final NodeModel subtreeRoot) {
+		if (condition instanceof ASelectableCondition) {
+			((ASelectableCondition) condition).prepareChecks(subtreeRoot);
+		}
+	}
+
+	private void finishChecks() {
+		if (condition instanceof ASelectableCondition) {
+			((ASelectableCondition) condition).finishChecks();
+		}
 	}
 
 	private boolean applyFilter(final NodeModel node,
@@ -354,8 +354,10 @@ public class FilterController implements IMapSelectionListener, IExtension {
 		final ICondition condition = condition(filter);
 		if(condition != selectedCondition && condition instanceof ASelectableCondition)
 			getFilterConditions().setSelectedItem(condition);
-		else
-			applyFilter(filter, Controller.getCurrentController().getMap(), force);
+		else {
+			filter.applyFilterInBackground(this, Controller.getCurrentController().getMap(), force);
+			history.add(filter);
+		}
 	}
 
 	public void applyFilter(final Filter filter, MapModel map, final boolean force) {
@@ -57,6 +57,10 @@ public class FilterInfo {
 		return (info & FilterInfo.FILTER_SHOW_MATCHED) != 0;
 	}
 
+	void set(final FilterInfo filterInfo) {
+		info = filterInfo.info;
+	}
+
 	public void reset() {
 		info = FilterInfo.FILTER_INITIAL_VALUE;
 	}
@@ -72,6 +72,15 @@ public abstract class ASelectableCondition  implements ICondition{
 	public boolean checkNodeInFormulaContext(NodeModel node){
 		return checkNode(node);
 	}
+
+	/** Called by the filter before it checks the nodes of the subtree one by one.
+	 * Expensive conditions can check all nodes at once here. */
+	public void prepareChecks(NodeModel subtreeRoot){
+	}
+
+	/** Called by the filter after it has checked the nodes of the subtree passed to {@link #prepareChecks(NodeModel)}. */
+	public void finishChecks(){
+	}
 	
 	final public JComponent getListCellRendererComponent() {
 		if (renderer == null) {
@@ -79,7 +79,7 @@ abstract public class CompareConditionAdapter extends ASelectableCondition {
             }
             else{
                 final Date reducedDate = new Date(date.getYear(), date.getMonth(), date.getDate());
-	 	            conditionValue = new FormattedDate(reducedDate.getTime(), date.getDateFormat());
+	 	            conditionValue = new FormattedDate(reducedDate.getTime(), date.getDateFormatter());
 			}
 			return;
 		}
@@ -64,6 +64,16 @@ public class ConditionNotSatisfiedDecorator extends ASelectableCondition impleme
 		return !originalCondition.checkNode(node);
 	}
 
+	@Override
+	public void prepareChecks(final NodeModel subtreeRoot) {
+		originalCondition.prepareChecks(subtreeRoot);
+	}
+
+	@Override
+	public void finishChecks() {
+		originalCondition.finishChecks();
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see
@@ -71,6 +71,20 @@ public class ConjunctConditions extends ASelectableCondition implements ICombine
 		return true;
 	}
 
+	@Override
+	public void prepareChecks(final NodeModel subtreeRoot) {
+		for (final ASelectableCondition condition : conditions) {
+			condition.prepareChecks(subtreeRoot);
+		}
+	}
+
+	@Override
+	public void finishChecks() {
+		for (final ASelectableCondition condition : conditions) {
+			condition.finishChecks();
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see
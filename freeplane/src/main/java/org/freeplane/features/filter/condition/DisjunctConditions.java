@@ -74,6 +74,20 @@ public class DisjunctConditions extends ASelectableCondition implements ICombine
 		return false;
 	}
 
+	@Override
+	public void prepareChecks(final NodeModel subtreeRoot) {
+		for (final ASelectableCondition condition : conditions) {
+			condition.prepareChecks(subtreeRoot);
+		}
+	}
+
+	@Override
+	public void finishChecks() {
+		for (final ASelectableCondition condition : conditions) {
+			condition.finishChecks();
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see
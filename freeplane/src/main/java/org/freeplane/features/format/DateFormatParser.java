@@ -19,21 +19,27 @@
  */
 package org.freeplane.features.format;
 
-import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
 
 public class DateFormatParser extends Parser {
-	private final SimpleDateFormat parser;
+	/** pattern letters of fields parsed as numbers */
+	private static final String NUMERIC_FIELDS = "yMdHhKkmsSDFwWu";
+	private final ThreadSafeDateFormat parser;
 	private final String missingFields;
+	private final boolean hasOnlyNumericFields;
+	private final String literals;
 	private boolean forbidLeadingSpaces;
 
     public DateFormatParser(final String format, final String type) {
         super(Parser.STYLE_DATE, type, format);
         forbidLeadingSpaces = (format.charAt(0) != ' ');
-        parser = new SimpleDateFormat(format.replaceFirst("^\\s", ""));
-        parser.setLenient(false);
+        final SimpleDateFormat simpleDateFormat = new SimpleDateFormat(format.replaceFirst("^\\s", ""));
+        simpleDateFormat.setLenient(false);
+        parser = new ThreadSafeDateFormat(simpleDateFormat);
+        hasOnlyNumericFields = hasOnlyNumericFields(simpleDateFormat.toPattern());
+        literals = literals(simpleDateFormat.toPattern());
         missingFields = (format.contains("y") ? "" : "y") //
                 + (format.contains("M") ? "" : "M") //
                 + (format.contains("d") ? "" : "d");
@@ -48,13 +54,52 @@ public class DateFormatParser extends Parser {
 		return format.contains("m") ? IFormattedObject.TYPE_DATETIME : IFormattedObject.TYPE_DATE;
 	}
 
+	private static boolean hasOnlyNumericFields(String pattern) {
+		boolean quoted = false;
+		for (int i = 0; i < pattern.length(); i++) {
+			final char c = pattern.charAt(i);
+			if (c == '\'')
+				quoted = !quoted;
+			else if (Character.isLetter(c)
+			        && (quoted || NUMERIC_FIELDS.indexOf(c) == -1 || c == 'M' && pattern.startsWith("MMM", i)))
+				return false;
+		}
+		return true;
+	}
+
+	/** Returns characters which must occur in every parsed text. Whitespace and quotes are left out. */
+	private static String literals(String pattern) {
+		final StringBuilder literals = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < pattern.length(); i++) {
+			final char c = pattern.charAt(i);
+			if (c == '\'')
+				quoted = !quoted;
+			else if ((quoted || !Character.isLetter(c)) && !Character.isWhitespace(c) && literals.indexOf(String.valueOf(c)) == -1)
+				literals.append(c);
+		}
+		return literals.toString();
+	}
+
+	/** Numeric fields are read by a number format, so only letters of number literals like exponents are accepted.
+	 * Literal characters of the pattern are matched exactly. */
+	@Override
+	boolean mayParse(String string, int textClass) {
+		if (hasOnlyNumericFields && TextLexer.contains(textClass, TextLexer.HAS_NON_NUMERIC_LETTER))
+			return false;
+		for (int i = 0; i < literals.length(); i++) {
+			if (string.indexOf(literals.charAt(i)) == -1)
+				return false;
+		}
+		return true;
+	}
+
     @Override
     Object parse(String string) {
         if (string == null || (forbidLeadingSpaces && string.charAt(0) == ' '))
             return null;
-        final ParsePosition parsePosition = new ParsePosition(0);
-        Date date = parser.parse(string, parsePosition);
-        if (parsePosition.getIndex() != string.length())
+        Date date = parser.parse(string);
+        if (date == null)
             return null;
         if (missingFields.length() != 0) {
             final Calendar calendar = Calendar.getInstance();
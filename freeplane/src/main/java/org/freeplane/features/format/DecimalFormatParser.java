@@ -20,17 +20,52 @@
 package org.freeplane.features.format;
 
 import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
 import java.text.NumberFormat;
 import java.text.ParsePosition;
 import java.util.Locale;
 
 public class DecimalFormatParser extends Parser {
-	private final DecimalFormat parser;
+	private final DecimalFormat prototype;
+	private final ThreadLocal<DecimalFormat> parser;
+	/** letters which may occur in parsable numbers, e.g. in the exponent separator */
+	private final String acceptedLetters;
 
 	public DecimalFormatParser(Locale locale) {
 		super(Parser.STYLE_DECIMAL, IFormattedObject.TYPE_NUMBER, null);
-		parser = (DecimalFormat) NumberFormat.getInstance(locale);
-		parser.setGroupingUsed(false);
+		prototype = (DecimalFormat) NumberFormat.getInstance(locale);
+		prototype.setGroupingUsed(false);
+		parser = new ThreadLocal<DecimalFormat>() {
+			@Override
+			protected DecimalFormat initialValue() {
+				return (DecimalFormat) prototype.clone();
+			}
+		};
+		final DecimalFormatSymbols symbols = prototype.getDecimalFormatSymbols();
+		acceptedLetters = letters(symbols.getExponentSeparator() + symbols.getNaN() + symbols.getInfinity()
+		        + prototype.getPositivePrefix() + prototype.getPositiveSuffix() + prototype.getNegativePrefix()
+		        + prototype.getNegativeSuffix());
+	}
+
+	private static String letters(String string) {
+		final StringBuilder letters = new StringBuilder();
+		for (int i = 0; i < string.length(); i++) {
+			if (Character.isLetter(string.charAt(i)))
+				letters.append(string.charAt(i));
+		}
+		return letters.toString();
+	}
+
+	@Override
+	boolean mayParse(String string, int textClass) {
+		if (!TextLexer.contains(textClass, TextLexer.HAS_LETTER))
+			return true;
+		for (int i = 0; i < string.length(); i++) {
+			final char c = string.charAt(i);
+			if (Character.isLetter(c) && acceptedLetters.indexOf(c) == -1)
+				return false;
+		}
+		return true;
 	}
 
 	@Override
@@ -38,7 +73,7 @@ public class DecimalFormatParser extends Parser {
 		if (string == null)
 			return null;
 		final ParsePosition parsePosition = new ParsePosition(0);
-		final Number result = parser.parse(string, parsePosition);
+		final Number result = parser.get().parse(string, parsePosition);
 		if (parsePosition.getIndex() != string.length())
 			return null;
 		return new FormattedNumber(result);
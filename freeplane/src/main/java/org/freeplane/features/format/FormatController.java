@@ -37,6 +37,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Properties;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.lang.StringUtils;
 import org.freeplane.core.extension.IExtension;
@@ -71,11 +72,18 @@ public class FormatController implements IExtension, IFreeplanePropertyListener
 	private List<PatternFormat> numberFormats = new ArrayList<PatternFormat>();
 	private List<PatternFormat> stringFormats = new ArrayList<PatternFormat>();
 	private boolean formatsLoaded;
-	private SimpleDateFormat defaultDateFormat;
-	private SimpleDateFormat defaultDateTimeFormat;
-	private HashMap<String, SimpleDateFormat> dateFormatCache = new HashMap<String, SimpleDateFormat>();
-	private DecimalFormat defaultNumberFormat;
-	private HashMap<String, DecimalFormat> numberFormatCache = new HashMap<String, DecimalFormat>();
+	private volatile ThreadSafeDateFormat defaultDateFormat;
+	private volatile ThreadSafeDateFormat defaultDateTimeFormat;
+	private final ConcurrentHashMap<String, ThreadSafeDateFormat> dateFormatCache = new ConcurrentHashMap<String, ThreadSafeDateFormat>();
+	private volatile String defaultNumberPattern;
+	/** prototypes of per thread number formats, they are never used for formatting. */
+	private final ConcurrentHashMap<String, DecimalFormat> numberFormatCache = new ConcurrentHashMap<String, DecimalFormat>();
+	private final ThreadLocal<HashMap<String, DecimalFormat>> threadNumberFormats = new ThreadLocal<HashMap<String, DecimalFormat>>() {
+		@Override
+		protected HashMap<String, DecimalFormat> initialValue() {
+			return new HashMap<String, DecimalFormat>();
+		}
+	};
     static private boolean firstError = true;
 
 	public IValidator createValidator (){
@@ -375,6 +383,7 @@ public class FormatController implements IExtension, IFreeplanePropertyListener
         return object;
     }
 
+	/** Returns a format owned by the calling thread. */
 	public Format getDefaultFormat(String type) {
 		if (type.equals(IFormattedObject.TYPE_DATE))
 			return getDefaultDateFormat();
@@ -386,7 +395,22 @@ public class FormatController implements IExtension, IFreeplanePropertyListener
 			throw new IllegalArgumentException("unknown format style");
 	}
 
+	/** @param type either {@link IFormattedObject#TYPE_DATE} or {@link IFormattedObject#TYPE_DATETIME} */
+	public ThreadSafeDateFormat getDefaultDateFormatter(String type) {
+		if (type.equals(IFormattedObject.TYPE_DATE))
+			return getDefaultDateFormatter();
+		else if (type.equals(IFormattedObject.TYPE_DATETIME))
+			return getDefaultDateTimeFormatter();
+		else
+			throw new IllegalArgumentException("unknown date format style");
+	}
+
+	/** Returns a format owned by the calling thread. */
 	public SimpleDateFormat getDefaultDateFormat() {
+		return getDefaultDateFormatter().getSimpleDateFormat();
+	}
+
+	private ThreadSafeDateFormat getDefaultDateFormatter() {
 		if (defaultDateFormat != null)
 			return defaultDateFormat;
 		final ResourceController resourceController = ResourceController.getResourceController();
@@ -414,15 +438,22 @@ public class FormatController implements IExtension, IFreeplanePropertyListener
 		}
 	}
 
-	private static SimpleDateFormat createDateFormat(final String datePattern) {
+	private ThreadSafeDateFormat createDateFormat(final String datePattern) {
 		final Integer style = getDateStyle(datePattern);
+		final Locale formatLocale = FormatUtils.getFormatLocaleFromResources();
 		if (style != null)
-			return (SimpleDateFormat) DateFormat.getDateInstance(style, FormatUtils.getFormatLocaleFromResources());
+			return new ThreadSafeDateFormat((SimpleDateFormat) DateFormat.getDateInstance(style, formatLocale),
+			    formatLocale);
 		else
-			return new SimpleDateFormat(datePattern, FormatUtils.getFormatLocaleFromResources());
+			return getDateFormatter(datePattern);
 	}
 
+	/** Returns a format owned by the calling thread. */
 	public SimpleDateFormat getDefaultDateTimeFormat() {
+		return getDefaultDateTimeFormatter().getSimpleDateFormat();
+	}
+
+	private ThreadSafeDateFormat getDefaultDateTimeFormatter() {
 		if (defaultDateTimeFormat != null)
 			return defaultDateTimeFormat;
 		final ResourceController resourceController = ResourceController.getResourceController();
@@ -435,13 +466,14 @@ public class FormatController implements IExtension, IFreeplanePropertyListener
 		return defaultDateTimeFormat;
 	}
 
-	private SimpleDateFormat createDefaultDateTimeFormat(String datetimePattern) {
+	private ThreadSafeDateFormat createDefaultDateTimeFormat(String datetimePattern) {
 		final String[] styles = datetimePattern.split("\\s*,\\s*");
+		final Locale formatLocale = FormatUtils.getFormatLocaleFromResources();
 		if (styles.length == 2 && getDateStyle(styles[0]) != null && getDateStyle(styles[1]) != null)
-			return (SimpleDateFormat) DateFormat.getDateTimeInstance(getDateStyle(styles[0]), getDateStyle(styles[1]),
-			    FormatUtils.getFormatLocaleFromResources());
+			return new ThreadSafeDateFormat((SimpleDateFormat) DateFormat.getDateTimeInstance(getDateStyle(styles[0]),
+			    getDateStyle(styles[1]), formatLocale), formatLocale);
 		else
-			return getDateFormat(datetimePattern);
+			return getDateFormatter(datetimePattern);
 	}
 
 	private static Integer getDateStyle(final String string) {
@@ -456,37 +488,56 @@ public class FormatController implements IExtension, IFreeplanePropertyListener
 		return null;
 	}
 
+	/** Returns a format owned by the calling thread. */
 	public DecimalFormat getDefaultNumberFormat() {
-		if (defaultNumberFormat != null)
-			return defaultNumberFormat;
-	    final ResourceController resourceController = ResourceController.getResourceController();
+		if (defaultNumberPattern == null) {
+			final ResourceController resourceController = ResourceController.getResourceController();
 
-		// an empty number format does not make sense!
-		fixEmptyDataFormatProperty(resourceController, RESOURCES_NUMBER_FORMAT, "#0.####");
+			// an empty number format does not make sense!
+			fixEmptyDataFormatProperty(resourceController, RESOURCES_NUMBER_FORMAT, "#0.####");
 
-		defaultNumberFormat = getDecimalFormat(resourceController.getProperty(RESOURCES_NUMBER_FORMAT));
-	    return defaultNumberFormat;
-    }
+			defaultNumberPattern = resourceController.getProperty(RESOURCES_NUMBER_FORMAT);
+		}
+		return getDecimalFormat(defaultNumberPattern);
+	}
 
-	/** @param pattern either a string (see {@link DecimalFormat}) or null for a default formatter. */
+	/**
+	 * Returns a format owned by the calling thread. It must not be modified or passed to other threads.
+	 * @param pattern either a string (see {@link DecimalFormat}) or null for a default formatter. */
 	public DecimalFormat getDecimalFormat(final String pattern) {
-		DecimalFormat format = numberFormatCache.get(pattern);
+		if (pattern == null)
+			return getDefaultNumberFormat();
+		final HashMap<String, DecimalFormat> formats = threadNumberFormats.get();
+		DecimalFormat format = formats.get(pattern);
 		if (format == null) {
-			format = (DecimalFormat) ((pattern == null) ? getDefaultNumberFormat()
-			        : new DecimalFormat(pattern, new DecimalFormatSymbols(FormatUtils.getFormatLocaleFromResources())));
-			numberFormatCache.put(pattern, format);
+			DecimalFormat prototype = numberFormatCache.get(pattern);
+			if (prototype == null) {
+				prototype = new DecimalFormat(pattern,
+				    new DecimalFormatSymbols(FormatUtils.getFormatLocaleFromResources()));
+				numberFormatCache.putIfAbsent(pattern, prototype);
+			}
+			format = (DecimalFormat) prototype.clone();
+			formats.put(pattern, format);
 		}
 		return format;
 	}
 
+	/** Returns a format owned by the calling thread. It must not be modified or passed to other threads. */
 	public SimpleDateFormat getDateFormat(String pattern) {
-	    SimpleDateFormat parser = dateFormatCache.get(pattern);
-        if (parser == null) {
-        	parser = new SimpleDateFormat(pattern, FormatUtils.getFormatLocaleFromResources());
-        	dateFormatCache.put(pattern, parser);
-        }
-	    return parser;
-    }
+		return getDateFormatter(pattern).getSimpleDateFormat();
+	}
+
+	public ThreadSafeDateFormat getDateFormatter(String pattern) {
+		ThreadSafeDateFormat format = dateFormatCache.get(pattern);
+		if (format == null) {
+			final Locale formatLocale = FormatUtils.getFormatLocaleFromResources();
+			format = new ThreadSafeDateFormat(pattern, formatLocale);
+			final ThreadSafeDateFormat cachedFormat = dateFormatCache.putIfAbsent(pattern, format);
+			if (cachedFormat != null)
+				return cachedFormat;
+		}
+		return format;
+	}
 
     public void propertyChanged(String propertyName, String newValue, String oldValue) {
         if (propertyName.equals(RESOURCES_DATE_FORMAT)) {
@@ -502,7 +553,8 @@ public class FormatController implements IExtension, IFreeplanePropertyListener
                 scannerController.addParsersForStandardFormats();
         }
         else if (propertyName.equals(RESOURCES_NUMBER_FORMAT)) {
-            defaultNumberFormat = getDecimalFormat(newValue);
+            getDecimalFormat(newValue);
+            defaultNumberPattern = newValue;
         }
         else if (FormatUtils.equalsFormatLocaleName(propertyName)) {
             locale = FormatUtils.getFormatLocaleFromResources();
@@ -19,7 +19,6 @@
  */
 package org.freeplane.features.format;
 
-import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.regex.Matcher;
@@ -40,32 +39,36 @@ public class FormattedDate extends Date implements IFormattedObject {
 	public static final String ISO_DATE_TIME_FORMAT_PATTERN = "yyyy-MM-dd'T'HH:mmZ";
 	public static final Pattern ISO_DATE_TIME_REGEXP_PATTERN = Pattern.compile("\\d{4}(-?)\\d{2}(-?)\\d{2}" //
 	        + "(([ T])?\\d{2}(:?)\\d{2}(:?)(\\d{2})?(\\.\\d{3})?([-+]\\d{4})?)?");
-	private SimpleDateFormat df;
+	private ThreadSafeDateFormat df;
 	private String defaultType;
 
 	public FormattedDate(FormattedDate date) {
-		this(date.getTime(), date.getDateFormat());
+		this(date.getTime(), date.df);
 	}
 
 	public FormattedDate(Date date, String pattern) {
 		super(date.getTime());
-		this.df = FormatController.getController().getDateFormat(pattern);
+		this.df = FormatController.getController().getDateFormatter(pattern);
 	}
 
 	public FormattedDate(long date, SimpleDateFormat df) {
+		this(date, new ThreadSafeDateFormat(df));
+	}
+
+	public FormattedDate(long date, ThreadSafeDateFormat df) {
 		super(date);
 		this.df = df;
 	}
 
 	/**@deprecated use {@link #createDefaultFormattedDate(long, String)} instead. */
 	public FormattedDate(long date) {
-		this(date, FormatController.getController().getDefaultDateFormat());
+		this(date, FormatController.getController().getDefaultDateFormatter(IFormattedObject.TYPE_DATE));
 		this.defaultType = IFormattedObject.TYPE_DATE;
 	}
 
 	public static FormattedDate createDefaultFormattedDate(long time, String type) {
 		final FormattedDate formattedDate = new FormattedDate(time,
-		    (SimpleDateFormat) FormatController.getController().getDefaultFormat(type));
+		    FormatController.getController().getDefaultDateFormatter(type));
 		formattedDate.defaultType = type;
 		return formattedDate;
 	}
@@ -82,11 +85,11 @@ public class FormattedDate extends Date implements IFormattedObject {
 
 	public static String toStringISO(final Date date) {
 		// use local timezone
-		return FormatController.getController().getDateFormat(ISO_DATE_TIME_FORMAT_PATTERN).format(date);
+		return FormatController.getController().getDateFormatter(ISO_DATE_TIME_FORMAT_PATTERN).format(date);
 	}
 
 	public static String toStringShortISO(final Date date) {
-		return FormatController.getController().getDateFormat(ISO_DATE_FORMAT_PATTERN).format(date);
+		return FormatController.getController().getDateFormatter(ISO_DATE_FORMAT_PATTERN).format(date);
 	}
 
 	public static Object deserialize(String text) {
@@ -105,10 +108,10 @@ public class FormattedDate extends Date implements IFormattedObject {
 			return text;
 		if (arg.equals(IFormattedObject.TYPE_DATE) || arg.equals(IFormattedObject.TYPE_DATETIME)) {
 			date.defaultType = arg;
-			date.df = (SimpleDateFormat) FormatController.getController().getDefaultFormat(arg);
+			date.df = FormatController.getController().getDefaultDateFormatter(arg);
 		}
 		else {
-			date.df = FormatController.getController().getDateFormat(arg);
+			date.df = FormatController.getController().getDateFormatter(arg);
 		}
 		return date;
 	}
@@ -160,10 +163,9 @@ public class FormattedDate extends Date implements IFormattedObject {
 	}
 
 	static private FormattedDate parseDate(String text, final String pattern) {
-		SimpleDateFormat parser = FormatController.getController().getDateFormat(pattern);
-		final ParsePosition pos = new ParsePosition(0);
-		final Date date = parser.parse(text, pos);
-		if (date != null && pos.getIndex() == text.length()) {
+		final ThreadSafeDateFormat parser = FormatController.getController().getDateFormatter(pattern);
+		final Date date = parser.parse(text);
+		if (date != null) {
 			return new FormattedDate(date.getTime(), parser);
 		}
 		return null;
@@ -173,7 +175,12 @@ public class FormattedDate extends Date implements IFormattedObject {
 		return df.toPattern().contains("m");
 	}
 
+	/** Returns a format owned by the calling thread. */
 	public SimpleDateFormat getDateFormat() {
+		return df.getSimpleDateFormat();
+	}
+
+	public ThreadSafeDateFormat getDateFormatter() {
 		return df;
 	}
 
@@ -187,7 +194,7 @@ public class FormattedDate extends Date implements IFormattedObject {
 	
 	@Override
 	public boolean equals(Object obj) {
-		return obj instanceof FormattedDate && super.equals(obj) && ((FormattedDate) obj).getDateFormat().equals(df);
+		return obj instanceof FormattedDate && super.equals(obj) && ((FormattedDate) obj).df.equals(df);
 	}
 
 	@Override
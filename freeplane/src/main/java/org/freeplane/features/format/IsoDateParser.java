@@ -29,6 +29,11 @@ public class IsoDateParser extends Parser {
 		super(Parser.STYLE_ISODATE, IFormattedObject.TYPE_DATE, null);
 	}
 
+	@Override
+	boolean mayParse(String string, int textClass) {
+		return TextLexer.contains(textClass, TextLexer.ISO_DATE);
+	}
+
 	@Override
 	Object parse(String string) {
 		try {
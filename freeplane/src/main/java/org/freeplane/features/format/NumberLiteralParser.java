@@ -5,6 +5,14 @@ public class NumberLiteralParser extends Parser {
 		super(Parser.STYLE_NUMBERLITERAL, IFormattedObject.TYPE_NUMBER, null);
 	}
 
+	/** Double literals with letters like 1e3, 2d or NaN are left to {@link Double#valueOf(String)}. */
+	@Override
+	boolean mayParse(String string, int textClass) {
+		return TextLexer.contains(textClass, TextLexer.NUMBER | TextLexer.HAS_WHITESPACE)
+		        || TextLexer.contains(textClass, TextLexer.HAS_LETTER)
+		        && !TextLexer.contains(textClass, TextLexer.HAS_NON_NUMERIC_LETTER);
+	}
+
 	@Override
 	Object parse(String string) {
 		try {
@@ -49,6 +49,12 @@ public abstract class Parser {
 	 * @throws nothing May not throw an exception. */
 	abstract Object parse(final String string);
 
+	/** returns false if the string can not be parsed.
+	 * @param textClass flags computed by {@link TextLexer#classify(String)} */
+	boolean mayParse(final String string, final int textClass) {
+		return true;
+	}
+
 	public static Parser createParser(String style, String type, String format, Locale locale, String comment) {
 		final Parser parser;
 		if (style.equals(STYLE_NUMBERLITERAL))
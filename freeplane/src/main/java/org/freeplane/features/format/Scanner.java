@@ -111,7 +111,10 @@ public class Scanner {
 			return string;
 		if(string.charAt(0) == '\'')
 		    return string;
+		final int textClass = TextLexer.classify(string);
 		for (Parser parser : parsers) {
+			if (!parser.mayParse(string, textClass))
+				continue;
 			final Object object = parser.parse(string);
 			if (object != null)
 				return object;
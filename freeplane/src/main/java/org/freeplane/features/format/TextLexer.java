@@ -0,0 +1,140 @@
+package org.freeplane.features.format;
+
+/**
+ * Classifies text in a single pass before the locale dependent parsers run.
+ *
+ * The returned bit set tells whether the text has the shape of a number literal or of an ISO date
+ * and which character classes it contains. Parsers use it to reject texts they can not parse
+ * without trying, see {@link Parser#mayParse(String, int)}.
+ */
+final class TextLexer {
+	/** Matches {@code [+-]?(\d+(\.\d*)?|\.\d+)([eE][+-]?\d+)?} */
+	static final int NUMBER = 1;
+	/** Matches {@link FormattedDate#ISO_DATE_TIME_REGEXP_PATTERN} */
+	static final int ISO_DATE = 1 << 1;
+	static final int HAS_DIGIT = 1 << 2;
+	static final int HAS_LETTER = 1 << 3;
+	static final int HAS_WHITESPACE = 1 << 4;
+	/** Set if the text contains letters which can not be part of a java double literal. */
+	static final int HAS_NON_NUMERIC_LETTER = 1 << 5;
+	private static final String NUMERIC_LETTERS = "abcdefABCDEFxXpPNIinty";
+	private static final int MIN_ISO_DATE_LENGTH = 8;
+	private static final int MAX_ISO_DATE_LENGTH = 29;
+
+	private TextLexer() {
+	}
+
+	static boolean contains(int textClass, int flags) {
+		return (textClass & flags) != 0;
+	}
+
+	static int classify(String text) {
+		final int length = text.length();
+		int textClass = 0;
+		// number literal states: 0 start, 1 sign, 2 integer digits, 3 dot without digits, 4 fraction digits,
+		// 5 exponent, 6 exponent sign, 7 exponent digits, -1 no number
+		int numberState = 0;
+		for (int i = 0; i < length; i++) {
+			final char c = text.charAt(i);
+			if (c >= '0' && c <= '9') {
+				textClass |= HAS_DIGIT;
+				switch (numberState) {
+					case 0:
+					case 1:
+						numberState = 2;
+						break;
+					case 3:
+						numberState = 4;
+						break;
+					case 5:
+					case 6:
+						numberState = 7;
+						break;
+					default:
+						break;
+				}
+				continue;
+			}
+			if (c == '+' || c == '-')
+				numberState = numberState == 0 ? 1 : numberState == 5 ? 6 : -1;
+			else if (c == '.')
+				numberState = numberState == 0 || numberState == 1 ? 3 : numberState == 2 ? 4 : -1;
+			else if (c == 'e' || c == 'E')
+				numberState = numberState == 2 || numberState == 4 ? 5 : -1;
+			else
+				numberState = -1;
+			if (Character.isLetter(c)) {
+				textClass |= HAS_LETTER;
+				if (NUMERIC_LETTERS.indexOf(c) == -1)
+					textClass |= HAS_NON_NUMERIC_LETTER;
+			}
+			else if (c <= ' ' || Character.isWhitespace(c))
+				textClass |= HAS_WHITESPACE;
+		}
+		if (numberState == 2 || numberState == 4 || numberState == 7)
+			textClass |= NUMBER;
+		if (contains(textClass, HAS_DIGIT) && isIsoDate(text))
+			textClass |= ISO_DATE;
+		return textClass;
+	}
+
+	/** Hand written equivalent of {@link FormattedDate#ISO_DATE_TIME_REGEXP_PATTERN} matching the whole text. */
+	static boolean isIsoDate(String text) {
+		final int length = text.length();
+		if (length < MIN_ISO_DATE_LENGTH || length > MAX_ISO_DATE_LENGTH)
+			return false;
+		int i = digits(text, 0, 4);
+		if (i < 0)
+			return false;
+		i = optional(text, i, '-');
+		i = digits(text, i, 2);
+		if (i < 0)
+			return false;
+		i = optional(text, i, '-');
+		i = digits(text, i, 2);
+		if (i < 0)
+			return false;
+		if (i == length)
+			return true;
+		final char separator = text.charAt(i);
+		if (separator == ' ' || separator == 'T')
+			i++;
+		i = digits(text, i, 2);
+		if (i < 0)
+			return false;
+		i = optional(text, i, ':');
+		i = digits(text, i, 2);
+		if (i < 0)
+			return false;
+		i = optional(text, i, ':');
+		final int afterSeconds = digits(text, i, 2);
+		if (afterSeconds >= 0)
+			i = afterSeconds;
+		if (i < length && text.charAt(i) == '.') {
+			i = digits(text, i + 1, 3);
+			if (i < 0)
+				return false;
+		}
+		if (i < length && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+			i = digits(text, i + 1, 4);
+			if (i < 0)
+				return false;
+		}
+		return i == length;
+	}
+
+	private static int digits(String text, int start, int count) {
+		if (start + count > text.length())
+			return -1;
+		for (int i = start; i < start + count; i++) {
+			final char c = text.charAt(i);
+			if (c < '0' || c > '9')
+				return -1;
+		}
+		return start + count;
+	}
+
+	private static int optional(String text, int i, char c) {
+		return i < text.length() && text.charAt(i) == c ? i + 1 : i;
+	}
+}
@@ -0,0 +1,165 @@
+package org.freeplane.features.format;
+
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+
+/**
+ * Immutable date format which can be shared between threads.
+ *
+ * Dates are formatted by a {@link DateTimeFormatter} compiled from the pattern of the given {@link SimpleDateFormat}
+ * if it only uses pattern letters with identical meaning in both classes and if both produce the same text for a set
+ * of sample dates. Other patterns as well as all parsing use a copy of the {@link SimpleDateFormat} owned by the
+ * calling thread.
+ */
+public final class ThreadSafeDateFormat {
+	private static final String COMPATIBLE_PATTERN_LETTERS = "GyMdHhKkmsaEXSZ";
+	private static final long[] SAMPLE_DATES = { 0L, 951782400000L, 1612325106789L, 4102444799999L };
+	private final SimpleDateFormat prototype;
+	private final String pattern;
+	private final DateTimeFormatter formatter;
+	private final ZoneId zone;
+	private final ThreadLocal<SimpleDateFormat> threadFormat;
+
+	/** @param locale locale of the given format used to compile its pattern */
+	public ThreadSafeDateFormat(SimpleDateFormat format, Locale locale) {
+		this.prototype = (SimpleDateFormat) format.clone();
+		this.pattern = prototype.toPattern();
+		this.formatter = compile(prototype, locale);
+		this.zone = prototype.getTimeZone().toZoneId();
+		this.threadFormat = new ThreadLocal<SimpleDateFormat>() {
+			@Override
+			protected SimpleDateFormat initialValue() {
+				return (SimpleDateFormat) prototype.clone();
+			}
+		};
+	}
+
+	public ThreadSafeDateFormat(SimpleDateFormat format) {
+		this(format, Locale.getDefault(Locale.Category.FORMAT));
+	}
+
+	public ThreadSafeDateFormat(String pattern, Locale locale) {
+		this(new SimpleDateFormat(pattern, locale), locale);
+	}
+
+	private static DateTimeFormatter compile(SimpleDateFormat format, Locale locale) {
+		if (!(format.getCalendar() instanceof GregorianCalendar) || !usesAsciiDigits(format)
+		        || !hasCompatiblePattern(format.toPattern()))
+			return null;
+		try {
+			final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format.toPattern(), locale);
+			for (long sample : SAMPLE_DATES) {
+				final Date date = new Date(sample);
+				if (!format(formatter, format.getTimeZone().toZoneId(), date).equals(format.format(date)))
+					return null;
+			}
+			return formatter;
+		}
+		catch (RuntimeException e) {
+			return null;
+		}
+	}
+
+	private static boolean usesAsciiDigits(SimpleDateFormat format) {
+		final NumberFormat numberFormat = format.getNumberFormat();
+		return numberFormat instanceof DecimalFormat
+		        && ((DecimalFormat) numberFormat).getDecimalFormatSymbols().getZeroDigit() == '0';
+	}
+
+	/** Checks pattern letters and their counts, quoted text is skipped. */
+	static boolean hasCompatiblePattern(String pattern) {
+		boolean quoted = false;
+		for (int i = 0; i < pattern.length();) {
+			final char c = pattern.charAt(i);
+			if (c == '\'') {
+				quoted = !quoted;
+				i++;
+				continue;
+			}
+			if (quoted || !(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z')) {
+				i++;
+				continue;
+			}
+			int count = 1;
+			while (i + count < pattern.length() && pattern.charAt(i + count) == c)
+				count++;
+			if (COMPATIBLE_PATTERN_LETTERS.indexOf(c) == -1 || !hasCompatibleCount(c, count))
+				return false;
+			i += count;
+		}
+		return true;
+	}
+
+	private static boolean hasCompatibleCount(char letter, int count) {
+		switch (letter) {
+			case 'S':
+				return count == 3;
+			case 'a':
+				return count == 1;
+			case 'M':
+			case 'E':
+			case 'y':
+				return count <= 4;
+			case 'G':
+			case 'X':
+			case 'Z':
+				return count <= 3;
+			default:
+				return count <= 2;
+		}
+	}
+
+	private static String format(DateTimeFormatter formatter, ZoneId zone, Date date) {
+		return formatter.format(date.toInstant().atZone(zone));
+	}
+
+	public String format(Date date) {
+		if (formatter != null)
+			return format(formatter, zone, date);
+		return threadFormat.get().format(date);
+	}
+
+	/** Returns null unless the whole text is parsed. */
+	public Date parse(String text) {
+		final ParsePosition parsePosition = new ParsePosition(0);
+		final Date date = threadFormat.get().parse(text, parsePosition);
+		if (date == null || parsePosition.getIndex() != text.length())
+			return null;
+		return date;
+	}
+
+	public String toPattern() {
+		return pattern;
+	}
+
+	/** Returns the instance owned by the calling thread. It must not be passed to other threads or modified. */
+	public SimpleDateFormat getSimpleDateFormat() {
+		return threadFormat.get();
+	}
+
+	boolean usesDateTimeFormatter() {
+		return formatter != null;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof ThreadSafeDateFormat && ((ThreadSafeDateFormat) obj).prototype.equals(prototype);
+	}
+
+	@Override
+	public int hashCode() {
+		return prototype.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return pattern;
+	}
+}
@@ -21,6 +21,9 @@ package org.freeplane.features.icon;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
 
 import org.freeplane.core.extension.IExtension;
@@ -29,81 +32,128 @@ import org.freeplane.features.map.NodeModel;
 import org.freeplane.features.mode.Controller;
 
 /**
+ * Icons of a node subtree summarized for hierarchical icons.
+ *
+ * Each node keeps a counter per icon telling how many of its children have the icon in their subtree icons.
+ * The subtree icons of a node are its own icons and the counted icons which are contained
+ * in the subtree icons of any child in {@link Mode#OR} mode or of all children in {@link Mode#AND} mode.
+ * Changes are propagated to the ancestors as long as the subtree icons change,
+ * so that nodes without changed icons and their subtrees are not visited.
+ *
+ * A node without extension has no subtree icons and no counted icons.
+ *
  * @author Dimitry Polivaev
  * Dec 10, 2011
  */
 class AccumulatedIcons  implements IExtension{
-	private final TreeSet<UIIcon> childIcons ;
-	private final Collection<? extends UIIcon> ownIcons;
+	private final Map<UIIcon, Integer> childIconCounts = new TreeMap<UIIcon, Integer>();
+	private Set<UIIcon> subtreeIcons = Collections.emptySet();
+	private Set<UIIcon> childIcons = Collections.emptySet();
 
-	AccumulatedIcons(Collection<? extends UIIcon> ownIcons) {
-		this.ownIcons = ownIcons;
-		this.childIcons = new TreeSet<UIIcon>();
-    }
+	private AccumulatedIcons() {
+	}
 
 	public Collection<UIIcon> getAccumulatedIcons() {
 	    return childIcons;
     }
 
-	/**
-	 */
-	private void addAccumulatedIconsToTreeSet(final NodeModel child) {
-		final IconController iconController = IconController.getController();
-		childIcons.addAll(iconController.getIcons(child));
-		final AccumulatedIcons icons = child.getExtension(AccumulatedIcons.class);
+	private static Set<UIIcon> getSubtreeIcons(final NodeModel node) {
+		final AccumulatedIcons icons = node.getExtension(AccumulatedIcons.class);
+		return icons != null ? icons.subtreeIcons : Collections.<UIIcon>emptySet();
+	}
+
+	private static AccumulatedIcons getOrAdd(final NodeModel node) {
+		AccumulatedIcons icons = node.getExtension(AccumulatedIcons.class);
 		if (icons == null) {
-			return;
+			icons = new AccumulatedIcons();
+			node.addExtension(icons);
 		}
-		childIcons.addAll(icons.childIcons);
+		return icons;
 	}
 
-	static public boolean setStyleCheckForChange(final NodeModel node, Mode mode) {
-		final Collection<MindIcon> ownIcons = IconController.getController().getIcons(node);
-		final AccumulatedIcons iconSet = new AccumulatedIcons(ownIcons);
-		boolean first = true;
-		for (final NodeModel child : node.getChildren()) {
-			if(first || mode.equals(Mode.OR)){
-				iconSet.addAccumulatedIconsToTreeSet(child);
-			}
-			else{
-				@SuppressWarnings("unchecked")
-                final AccumulatedIcons iconSet2 = new AccumulatedIcons(Collections.EMPTY_SET);
-				iconSet2.addAccumulatedIconsToTreeSet(child);
-				iconSet.childIcons.retainAll(iconSet2.childIcons);
-				if(iconSet.ownIcons.isEmpty() && iconSet.childIcons.isEmpty())
-					break;
-			}
-			first = false;
+	private void count(final Collection<UIIcon> icons, final int delta) {
+		for (final UIIcon icon : icons) {
+			final Integer count = childIconCounts.get(icon);
+			final int newCount = (count != null ? count : 0) + delta;
+			if (newCount > 0)
+				childIconCounts.put(icon, newCount);
+			else
+				childIconCounts.remove(icon);
 		}
-		iconSet.childIcons.removeAll(ownIcons);
+	}
 
-		final AccumulatedIcons oldSet;
-		if (! (iconSet.ownIcons.isEmpty() && iconSet.childIcons.isEmpty())) {
-			oldSet = (AccumulatedIcons)node.putExtension(iconSet);
+	/**
+	 * Recalculates the subtree icons of the node from its own icons and its counters.
+	 * Returns true if they have changed.
+	 */
+	private boolean calculate(final NodeModel node, final Mode mode) {
+		final Collection<MindIcon> ownIcons = IconController.getController().getIcons(node);
+		final int childCount = node.getChildCount();
+		final TreeSet<UIIcon> newChildIcons = new TreeSet<UIIcon>();
+		for (final Map.Entry<UIIcon, Integer> entry : childIconCounts.entrySet()) {
+			if (mode.equals(Mode.OR) || entry.getValue() == childCount)
+				newChildIcons.add(entry.getKey());
 		}
-		else {
-			oldSet = node.removeExtension(AccumulatedIcons.class);
+		final TreeSet<UIIcon> newSubtreeIcons = new TreeSet<UIIcon>(newChildIcons);
+		newSubtreeIcons.addAll(ownIcons);
+		newChildIcons.removeAll(ownIcons);
+		if (childIconCounts.isEmpty() && newSubtreeIcons.isEmpty())
+			node.removeExtension(this);
+		if (!newChildIcons.equals(childIcons)) {
+			childIcons = newChildIcons;
+			Controller.getCurrentModeController().getMapController().delayedNodeRefresh(node, HierarchicalIcons.ICONS, null, null);
 		}
-		if(iconSet.equals(oldSet) || iconSet.ownIcons.isEmpty() && iconSet.childIcons.isEmpty() && oldSet == null)
+		if (newSubtreeIcons.equals(subtreeIcons))
 			return false;
-		Controller.getCurrentModeController().getMapController().delayedNodeRefresh(node, HierarchicalIcons.ICONS, null, null);
+		subtreeIcons = newSubtreeIcons;
 		return true;
 	}
-	@Override
-    public int hashCode() {
-	    return childIcons.hashCode() + ownIcons.hashCode();
-    }
 
-	@Override
-    public boolean equals(Object obj) {
-		if(this == obj)
-			return true;
-		if(obj instanceof AccumulatedIcons){
-			AccumulatedIcons ai = (AccumulatedIcons) obj;
-			return ownIcons.equals(ai.ownIcons) && childIcons.equals(ai.childIcons);
+	/** Recalculates all nodes of the subtree without using their previous state. */
+	static void calculateSubtree(final NodeModel node, final Mode mode) {
+		final AccumulatedIcons icons = getOrAdd(node);
+		icons.childIconCounts.clear();
+		for (final NodeModel child : node.getChildren()) {
+			calculateSubtree(child, mode);
+			icons.count(getSubtreeIcons(child), 1);
 		}
-		return false;
-    }
+		icons.calculate(node, mode);
+	}
+
+	/** Recalculates the node and its ancestors after the own icons of the node have changed. */
+	static void update(NodeModel node, final Mode mode) {
+		for (;;) {
+			final AccumulatedIcons icons = getOrAdd(node);
+			final Set<UIIcon> oldSubtreeIcons = icons.subtreeIcons;
+			final NodeModel parent = node.getParentNode();
+			if (!icons.calculate(node, mode) || parent == null)
+				return;
+			final AccumulatedIcons parentIcons = getOrAdd(parent);
+			parentIcons.count(oldSubtreeIcons, -1);
+			parentIcons.count(icons.subtreeIcons, 1);
+			node = parent;
+		}
+	}
+
+	/** Counts the subtree icons of a child added to the parent. */
+	static void childAdded(final NodeModel parent, final NodeModel child, final Mode mode) {
+		getOrAdd(parent).count(getSubtreeIcons(child), 1);
+		update(parent, mode);
+	}
 
+	/** Removes the subtree icons of a child removed from the parent from its counters. */
+	static void childRemoved(final NodeModel parent, final NodeModel child, final Mode mode) {
+		getOrAdd(parent).count(getSubtreeIcons(child), -1);
+		update(parent, mode);
+	}
 
+	/** Removes the extensions from all nodes of the subtree. */
+	static void removeSubtree(final NodeModel node) {
+		final AccumulatedIcons icons = node.removeExtension(AccumulatedIcons.class);
+		if (icons != null && !icons.childIcons.isEmpty())
+			Controller.getCurrentModeController().getMapController().delayedNodeRefresh(node, HierarchicalIcons.ICONS, null, null);
+		for (final NodeModel child : node.getChildren()) {
+			removeSubtree(child);
+		}
+	}
 }
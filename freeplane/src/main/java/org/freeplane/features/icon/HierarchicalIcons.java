@@ -83,8 +83,7 @@ public class HierarchicalIcons extends PersistentNodeHook implements INodeChange
 	@Override
 	protected void add(final NodeModel node, final IExtension extension) {
 		if(MapStyleModel.getExtension(node.getMap()) != null){
-			gatherLeavesAndSetStyle(node);
-			gatherLeavesAndSetParentsStyle(node);
+			AccumulatedIcons.calculateSubtree(node, mode);
 		}
 		super.add(node, extension);
 	}
@@ -106,33 +105,6 @@ public class HierarchicalIcons extends PersistentNodeHook implements INodeChange
 		return this;
 	}
 
-	/**
-	 */
-	private void gatherLeavesAndSetParentsStyle(final NodeModel node) {
-		if (node.getChildCount() == 0) {
-			for (NodeModel parent = node.getParentNode(); parent != null; parent = parent.getParentNode()) {
-				AccumulatedIcons.setStyleCheckForChange(parent, mode);
-			}
-			return;
-		}
-		for (final NodeModel child : node.getChildren()) {
-			gatherLeavesAndSetParentsStyle(child);
-		}
-	}
-
-	/**
-	 */
-	private void gatherLeavesAndSetStyle(final NodeModel node) {
-		node.removeExtension(AccumulatedIcons.class);
-		if (node.getChildCount() == 0) {
-			AccumulatedIcons.setStyleCheckForChange(node, mode);
-			return;
-		}
-		for (final NodeModel child : node.getChildren()) {
-			gatherLeavesAndSetStyle(child);
-		}
-	}
-
 	@Override
 	public void mapChanged(final MapChangeEvent event) {
 		final MapModel map = event.getMap();
@@ -147,17 +119,16 @@ public class HierarchicalIcons extends PersistentNodeHook implements INodeChange
 		if(! property.equals(MapStyle.MAP_STYLES)){
 			return;
 		}
-		gatherLeavesAndSetStyle(rootNode);
-		gatherLeavesAndSetParentsStyle(rootNode);
+		AccumulatedIcons.calculateSubtree(rootNode, mode);
 	}
 
 	@Override
 	public void nodeChanged(final NodeChangeEvent event) {
 		final NodeModel node = event.getNode();
-		if (!isActive(node)) {
+		if (!isActive(node) || HierarchicalIcons.ICONS.equals(event.getProperty())) {
 			return;
 		}
-		setStyleRecursive(node);
+		AccumulatedIcons.update(node, mode);
 	}
 
 	@Override
@@ -165,7 +136,7 @@ public class HierarchicalIcons extends PersistentNodeHook implements INodeChange
 		if (!isActive(nodeDeletionEvent.parent)) {
 			return;
 		}
-		setStyleRecursive(nodeDeletionEvent.parent);
+		AccumulatedIcons.childRemoved(nodeDeletionEvent.parent, nodeDeletionEvent.node, mode);
 	}
 
 	@Override
@@ -173,7 +144,8 @@ public class HierarchicalIcons extends PersistentNodeHook implements INodeChange
 		if (!isActive(parent)) {
 			return;
 		}
-		setStyleRecursive(child);
+		AccumulatedIcons.calculateSubtree(child, mode);
+		AccumulatedIcons.childAdded(parent, child, mode);
 	}
 
 	@Override
@@ -181,8 +153,10 @@ public class HierarchicalIcons extends PersistentNodeHook implements INodeChange
 		if (!isActive(nodeMoveEvent.newParent)) {
 			return;
 		}
-		setStyleRecursive(nodeMoveEvent.oldParent);
-		setStyleRecursive(nodeMoveEvent.child);
+		if (nodeMoveEvent.oldParent != nodeMoveEvent.newParent) {
+			AccumulatedIcons.childRemoved(nodeMoveEvent.oldParent, nodeMoveEvent.child, mode);
+			AccumulatedIcons.childAdded(nodeMoveEvent.newParent, nodeMoveEvent.child, mode);
+		}
 	}
 
 	@Override
@@ -197,41 +171,20 @@ public class HierarchicalIcons extends PersistentNodeHook implements INodeChange
 		final MapModel map = topNode.getMap();
 		final boolean mapStylesAreAlreadyLoaded = null != MapStyleModel.getExtension(map);
 		if (mapStylesAreAlreadyLoaded) {
-			gatherLeavesAndSetStyle(topNode);
-			gatherLeavesAndSetParentsStyle(topNode);
+			AccumulatedIcons.calculateSubtree(topNode, mode);
 		} else
 			LogicalStyleController.getController().refreshMap(map);
 	}
 
 	@Override
 	protected void remove(final NodeModel node, final IExtension extension) {
-		removeIcons(node);
+		AccumulatedIcons.removeSubtree(node);
 		super.remove(node, extension);
 	}
 
-	/**
-	 */
-	private void removeIcons(final NodeModel node) {
-		AccumulatedIcons icons = node.removeExtension(AccumulatedIcons.class);
-		if(icons != null){
-			Controller.getCurrentModeController().getMapController().delayedNodeRefresh(node, HierarchicalIcons.ICONS, null, null);
-			for (final NodeModel child : node.getChildren()) {
-				removeIcons(child);
-			}
-		}
-	}
-
 	public static enum Mode{AND, OR};
 	private Mode mode = Mode.OR;
 
-	/**
-	 */
-	private void setStyleRecursive(final NodeModel node) {
-		if (AccumulatedIcons.setStyleCheckForChange(node, mode) && node.getParentNode() != null) {
-			setStyleRecursive(node.getParentNode());
-		}
-	}
-
 	@Override
 	public void onPreNodeMoved(NodeMoveEvent nodeMoveEvent) {
 	}
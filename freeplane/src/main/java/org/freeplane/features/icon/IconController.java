@@ -164,7 +164,7 @@ public class IconController implements IExtension {
 			if (styleNode == null) {
 				continue;
 			}
-			final Quantity<LengthUnits> iconSize = styleNode.getSharedData().getIcons().getIconSize();
+			final Quantity<LengthUnits> iconSize = styleNode.getSharedData().getIconSize();
 			if (iconSize == null) {
 				continue;
 			}
@@ -19,41 +19,67 @@
  */
 package org.freeplane.features.link;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.freeplane.core.extension.IExtension;
 import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
 
 /**
+ * Links of a map indexed by their target IDs.
+ *
+ * Incoming and outgoing links of nodes including links of their clones are kept in arrays per node,
+ * which are computed on first request and shared by the following requests
+ * until links are added or removed or the map structure changes.
+ * All methods are synchronized, because lookups by parallel readers of the map update the shared index
+ * and must see the links added or removed by other threads.
+ *
  * @author Dimitry Polivaev
  */
 public class MapLinks implements IExtension {
+	private static class Adjacency {
+		List<NodeLinkModel> incoming;
+		List<NodeLinkModel> outgoing;
+	}
+
 	final private HashMap<String, Set<NodeLinkModel>> links = new HashMap<String, Set<NodeLinkModel>>();
+	final private Map<NodeModel, Adjacency> adjacencies = new IdentityHashMap<NodeModel, Adjacency>();
+	private int modificationCount;
+	private int indexedModificationCount;
+	private int indexedStructuralModificationCount;
 
-	public boolean add(final NodeLinkModel link) {
+	public synchronized boolean add(final NodeLinkModel link) {
 		final String targetID = link.getTargetID();
 		Set<NodeLinkModel> set = links.get(targetID);
 		if (set == null) {
 			set = new HashSet<NodeLinkModel>();
 			set.add(link);
 			links.put(targetID, set);
+			modificationCount++;
 			return true;
 		}
 		if (set.contains(link)) {
 			return false;
 		}
 		set.add(link);
+		modificationCount++;
 		return true;
 	}
 
-	public boolean containsTarget(final String targetID) {
+	public synchronized boolean containsTarget(final String targetID) {
 		return links.containsKey(targetID);
 	}
 
-	public Set<NodeLinkModel> get(final String targetID) {
+	public synchronized Set<NodeLinkModel> get(final String targetID) {
 		if (targetID == null) {
 			return null;
 		}
@@ -61,7 +87,7 @@ public class MapLinks implements IExtension {
 		return set == null ? null : Collections.unmodifiableSet(set);
 	}
 
-	public boolean remove(final NodeLinkModel link) {
+	public synchronized boolean remove(final NodeLinkModel link) {
 		final String targetID = link.getTargetID();
 		final Set<NodeLinkModel> set = links.get(targetID);
 		if (set == null) {
@@ -71,13 +97,78 @@ public class MapLinks implements IExtension {
 			if (set.isEmpty()) {
 				links.remove(targetID);
 			}
+			modificationCount++;
 			return true;
 		}
 		return false;
 	}
 
-	public void set(final String targetID, final Set<NodeLinkModel> set) {
+	public synchronized void set(final String targetID, final Set<NodeLinkModel> set) {
 		links.put(targetID, set);
+		modificationCount++;
+	}
+
+	/** Returns the links to the node and to its subtree clones as seen from the node. */
+	public synchronized Collection<NodeLinkModel> getLinksTo(final NodeModel target) {
+		final Adjacency adjacency = getAdjacency(target);
+		if (adjacency.incoming == null)
+			adjacency.incoming = toList(collectLinksTo(target));
+		return adjacency.incoming;
+	}
+
+	/** Returns the links from the node, links of its subtree clones are cloned for the node. */
+	public synchronized Collection<NodeLinkModel> getLinksFrom(final NodeModel source) {
+		final Adjacency adjacency = getAdjacency(source);
+		if (adjacency.outgoing == null)
+			adjacency.outgoing = toList(NodeLinks.getLinks(source));
+		return adjacency.outgoing;
+	}
+
+	private Adjacency getAdjacency(final NodeModel node) {
+		final MapModel map = node.getMap();
+		final int structuralModificationCount = map != null ? map.getStructuralModificationCount() : 0;
+		if (indexedModificationCount != modificationCount
+		        || indexedStructuralModificationCount != structuralModificationCount) {
+			adjacencies.clear();
+			indexedModificationCount = modificationCount;
+			indexedStructuralModificationCount = structuralModificationCount;
+		}
+		Adjacency adjacency = adjacencies.get(node);
+		if (adjacency == null) {
+			adjacency = new Adjacency();
+			adjacencies.put(node, adjacency);
+		}
+		return adjacency;
+	}
+
+	private static List<NodeLinkModel> toList(final Collection<NodeLinkModel> links) {
+		if (links.isEmpty())
+			return Collections.emptyList();
+		return Collections.unmodifiableList(Arrays.asList(links.toArray(new NodeLinkModel[links.size()])));
+	}
+
+	private Collection<NodeLinkModel> collectLinksTo(final NodeModel target) {
+		if (target.hasID() == false) {
+			return Collections.emptySet();
+		}
+		ArrayList<NodeLinkModel> clonedLinks = null;
+		for(NodeModel targetClone : target.subtreeClones()){
+			final Set<NodeLinkModel> set = links.get(targetClone.createID());
+			if (set == null) {
+				continue;
+			}
+			if(target.subtreeClones().size() == 1)
+				return set;
+			if (clonedLinks == null)
+				clonedLinks = new ArrayList<NodeLinkModel>(10);
+			for(NodeLinkModel sharedLink : set){
+				final Collection<NodeLinkModel> linkClones = sharedLink.clones();
+				for(NodeLinkModel linkClone : linkClones)
+					if(target.equals(linkClone.getTarget()))
+						clonedLinks.add(linkClone);
+			}
+		}
+		return clonedLinks != null  ? clonedLinks : Collections.<NodeLinkModel>emptySet();
 	}
 
 	public static MapLinks getLinks(final MapModel map) {
@@ -90,7 +181,7 @@ public class MapLinks implements IExtension {
 		return mapLinks != null &&mapLinks.getSize() > 0;
 	}
 
-	private int getSize() {
+	private synchronized int getSize() {
 		return links.size();
 	}
 }
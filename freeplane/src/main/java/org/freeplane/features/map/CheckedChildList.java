@@ -0,0 +1,39 @@
+package org.freeplane.features.map;
+
+import java.util.AbstractList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Unmodifiable view of a child list which fails as soon as the structure of the map changes,
+ * see {@link MapModel#getStructuralModificationCount()}. It is returned to threads in read only execution.
+ */
+class CheckedChildList extends AbstractList<NodeModel> implements RandomAccess {
+	private final List<NodeModel> children;
+	private final MapModel map;
+	private final int expectedModificationCount;
+
+	CheckedChildList(List<NodeModel> children, MapModel map) {
+		this.children = children;
+		this.map = map;
+		this.expectedModificationCount = map.getStructuralModificationCount();
+	}
+
+	private void checkModificationCount() {
+		if (map.getStructuralModificationCount() != expectedModificationCount)
+			throw new ConcurrentModificationException("map structure changed during read only traversal");
+	}
+
+	@Override
+	public NodeModel get(int index) {
+		checkModificationCount();
+		return children.get(index);
+	}
+
+	@Override
+	public int size() {
+		checkModificationCount();
+		return children.size();
+	}
+}
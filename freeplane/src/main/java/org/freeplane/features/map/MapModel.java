@@ -27,6 +27,9 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.freeplane.core.extension.ExtensionContainer;
 import org.freeplane.core.extension.IExtension;
@@ -40,7 +43,6 @@ import org.freeplane.features.mode.ModeController;
 
 public class MapModel {
 	private static Random ran = new Random();
-	private static final int UNDEFINED_NODE_ID = 2000000000;
 	/**
 	 * denotes the amount of changes since the last save. The initial value is
 	 * zero, such that new models are not to be saved.
@@ -50,17 +52,20 @@ public class MapModel {
 	private Filter filter = null;
 	private IconRegistry iconRegistry;
 	final private List<IMapChangeListener> listeners;
-	final private Map<String, NodeModel> nodes;
+	final private NodeRegistry nodes;
 	private boolean readOnly = false;
 	private NodeModel root;
 	private URL url;
 	private NodeChangeAnnouncer nodeChangeAnnouncer;
+	private int viewUpdateSuspensionCount = 0;
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final AtomicInteger structuralModificationCount = new AtomicInteger();
 
 	public MapModel(IconRegistry iconRegistry, NodeChangeAnnouncer nodeChangeAnnouncer) {
 		extensionContainer = new ExtensionContainer(new HashMap<Class<? extends IExtension>, IExtension>());
 		this.root = null;
 		listeners = new LinkedList<IMapChangeListener>();
-		nodes = new HashMap<String, NodeModel>();
+		nodes = new NodeRegistry(ran.nextInt());
 		final FilterController filterController = FilterController.getCurrentFilterController();
 		if (filterController != null) {
 			filter = filterController.createTransparentFilter();
@@ -77,6 +82,31 @@ public class MapModel {
 		this.nodeChangeAnnouncer = mapController;
 	}
 
+	/**
+	 * Concurrency contract of maps: a map is modified by one thread at a time.
+	 * Maps shown to the user are modified on the event dispatch thread, actors executed by the mode controller
+	 * and their undo and redo hold the write lock. Maps which are not shown yet, like maps loaded in the background
+	 * or scratch maps of pasted nodes, are built by the thread creating them without the lock
+	 * and are handed over to the event dispatch thread afterwards.
+	 * Other threads may read a shown map while they hold the read lock.
+	 */
+	public ReadWriteLock getLock() {
+		return lock;
+	}
+
+	/**
+	 * Incremented on each insertion and removal of a node. Child lists returned to threads in read only execution
+	 * fail with a {@link java.util.ConcurrentModificationException} if it changes during their use.
+	 */
+	public int getStructuralModificationCount() {
+		return structuralModificationCount.get();
+	}
+
+	/** The count is atomic because maps are modified on worker threads as well as on the event dispatch thread. */
+	void structureChanged() {
+		structuralModificationCount.incrementAndGet();
+	}
+
 	public void createNewRoot() {
 		root = new NodeModel(TextUtils.getText("new_mindmap"), this);
 		root.attach();
@@ -109,26 +139,44 @@ public class MapModel {
 	public void releaseResources() {
 	}
 
+	/**
+	 * While view updates are suspended, node views are not informed about node changes, insertions and removals.
+	 * Suspensions can be nested, after the outermost one is resumed the views of the whole map are rebuilt at once.
+	 * Map and node change listeners of the model are still notified for every change.
+	 */
+	public void suspendViewUpdates() {
+		viewUpdateSuspensionCount++;
+	}
+
+	public void resumeViewUpdates() {
+		if (viewUpdateSuspensionCount == 0) {
+			throw new IllegalStateException("view updates are not suspended");
+		}
+		viewUpdateSuspensionCount--;
+		if (viewUpdateSuspensionCount == 0 && root != null) {
+			root.fireNodeChanged(new NodeChangeEvent(root, NodeModel.NodeChangeType.SUBTREE, null, null, false, false));
+		}
+	}
+
+	public boolean areViewUpdatesSuspended() {
+		return viewUpdateSuspensionCount > 0;
+	}
+
 	public void fireMapChangeEvent(final MapChangeEvent event) {
 		for (final IMapChangeListener listener : listeners) {
 			listener.mapChanged(event);
 		}
 	}
 
-	public String generateNodeID(final String proposedID) {
+	public synchronized String generateNodeID(final String proposedID) {
 		if (proposedID != null && !"".equals(proposedID) && getNodeForID(proposedID) == null) {
 			return proposedID;
 		}
-		String returnValue;
-		do {
-			final String prefix = "ID_";
-			/*
-			 * The prefix is to enable the id to be an ID in the sense of
-			 * XML/DTD.
-			 */
-			returnValue = prefix + Integer.toString(ran.nextInt(UNDEFINED_NODE_ID));
-		} while (nodes.containsKey(returnValue));
-		return returnValue;
+		/*
+		 * The prefix "ID_" is to enable the id to be an ID in the sense of
+		 * XML/DTD.
+		 */
+		return nodes.generateID();
 	}
 
 	public <T extends IExtension> T getExtension(final Class<T> clazz) {
@@ -158,7 +206,7 @@ public class MapModel {
 	 * @param nodeID
 	 * @return
 	 */
-	public NodeModel getNodeForID(final String nodeID) {
+	public synchronized NodeModel getNodeForID(final String nodeID) {
 		final NodeModel node = nodes.get(nodeID);
 		return node;
 	}
@@ -201,7 +249,7 @@ public class MapModel {
 	 * @param value
 	 * @param nodeModel
 	 */
-	void registryID(final String value, final NodeModel nodeModel) {
+	synchronized void registryID(final String value, final NodeModel nodeModel) {
 		final NodeModel old = nodes.put(value, nodeModel);
 		if (null != old && nodeModel != old) {
 			throw new RuntimeException("id " + value + " already registered");
@@ -212,7 +260,7 @@ public class MapModel {
 	 * @param nodeModel
 	 * @return
 	 */
-	public String registryNode(final NodeModel nodeModel) {
+	public synchronized String registryNode(final NodeModel nodeModel) {
 		final String id = generateNodeID(nodeModel.getID());
 		registryID(id, nodeModel);
 		return id;
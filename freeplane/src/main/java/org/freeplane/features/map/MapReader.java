@@ -55,17 +55,19 @@ public class MapReader implements IElementDOMHandler {
         }
 
 		public NodeModel create(final Reader pReader) throws XMLException {
-			final NodeTreeCreator oldNodeTreeCreator = nodeTreeCreator;
-			final TreeXmlReader reader = new TreeXmlReader(readManager);
-			try {
-				nodeTreeCreator = this;
-				reader.load(createdMap, pReader);
-				final NodeModel node = nodeBuilder.getMapChild();
-				return node;
-			}
-			finally {
-				nodeBuilder.reset();
-				nodeTreeCreator = oldNodeTreeCreator;
+			synchronized (MapReader.this) {
+				final NodeTreeCreator oldNodeTreeCreator = nodeTreeCreator;
+				final TreeXmlReader reader = new TreeXmlReader(readManager);
+				try {
+					nodeTreeCreator = this;
+					reader.load(createdMap, pReader);
+					final NodeModel node = nodeBuilder.getMapChild();
+					return node;
+				}
+				finally {
+					nodeBuilder.reset();
+					nodeTreeCreator = oldNodeTreeCreator;
+				}
 			}
 		}
 
@@ -82,15 +84,17 @@ public class MapReader implements IElementDOMHandler {
 		}
 
 		public void finish(final NodeModel node) {
-			final NodeTreeCreator oldNodeTreeCreator = nodeTreeCreator;
-			try {
-				nodeTreeCreator = this;
-				readManager.readingCompleted(node, newIds);
-				newIds.clear();
-				createdMap = null;
-			}
-			finally {
-				nodeTreeCreator = oldNodeTreeCreator;
+			synchronized (MapReader.this) {
+				final NodeTreeCreator oldNodeTreeCreator = nodeTreeCreator;
+				try {
+					nodeTreeCreator = this;
+					readManager.readingCompleted(node, newIds);
+					newIds.clear();
+					createdMap = null;
+				}
+				finally {
+					nodeTreeCreator = oldNodeTreeCreator;
+				}
 			}
 		}
 
@@ -162,7 +166,9 @@ public class MapReader implements IElementDOMHandler {
 		hints.put(Hint.MODE, mode);
 		return createNodeTreeFromXml(map, pReader, hints);
 	}
-	public NodeModel createNodeTreeFromXml(final MapModel map, final Reader pReader, final Map<Object, Object> hints)
+	/** Maps can be read from background threads, the registered element handlers keep state of the current
+	 * reading, so all readings are serialized. */
+	public synchronized NodeModel createNodeTreeFromXml(final MapModel map, final Reader pReader, final Map<Object, Object> hints)
 	        throws IOException, XMLException {
 		final NodeTreeCreator oldNodeTreeCreator = nodeTreeCreator;
 		try {
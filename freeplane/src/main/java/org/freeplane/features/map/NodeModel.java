@@ -27,7 +27,6 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
@@ -37,6 +36,7 @@ import org.freeplane.core.util.HtmlUtils;
 import org.freeplane.features.filter.Filter;
 import org.freeplane.features.filter.FilterInfo;
 import org.freeplane.features.icon.MindIcon;
+import org.freeplane.features.mode.ReadOnlyExecution;
 import org.freeplane.features.ui.INodeViewVisitor;
 
 /**
@@ -50,7 +50,7 @@ import org.freeplane.features.ui.INodeViewVisitor;
  */
 public class NodeModel{
 	public enum NodeChangeType {
-		FOLDING, REFRESH
+		FOLDING, REFRESH, SUBTREE
 	}
 
 	public enum CloneType{TREE, CONTENT}
@@ -67,10 +67,15 @@ public class NodeModel{
 	public static final String NODE_ICON = "icon";
 	public static final String NODE_ICON_SIZE = "icon_size";
 	static public final Object HYPERLINK_CHANGED = "hyperlink_changed";
+	private static final List<NodeModel> NO_CHILDREN = Collections.unmodifiableList(new ArrayList<NodeModel>(0));
 
 	private List<NodeModel> children;
 	private NodeModel parent;
-	final private FilterInfo filterInfo;
+	/** position in the children of the parent, validated before use, see {@link #getIndex(NodeModel)} */
+	private int indexInParent;
+	/** the cached positions of children before this index are up to date */
+	private int indexedChildCount;
+	private FilterInfo filterInfo;
 	private String id;
 	private MapModel map = null;
 	private int position = NodeModel.UNKNOWN_POSITION;
@@ -96,18 +101,16 @@ public class NodeModel{
 
 	public NodeModel(final Object userObject, final MapModel map) {
 		this.map = map;
-		children = new ArrayList<NodeModel>();
+		children = NO_CHILDREN;
 		sharedData = new SharedNodeData();
 		init(userObject);
-		filterInfo = new FilterInfo();
 		clones = new Clones[]{new DetachedNodeList(this, TREE), new DetachedNodeList(this, CONTENT)};
 	}
 
 	private NodeModel(NodeModel toBeCloned, CloneType cloneType){
 		this.map = toBeCloned.map;
 		this.sharedData = toBeCloned.sharedData;
-		children = new ArrayList<NodeModel>();
-		filterInfo = new FilterInfo();
+		children = NO_CHILDREN;
 		clones = new Clones[]{new DetachedNodeList(this, cloneType == TREE ? toBeCloned : this, TREE), new DetachedNodeList(this, toBeCloned, CONTENT)};
 	}
 
@@ -138,14 +141,14 @@ public class NodeModel{
 	}
 
 	public void addIcon(final MindIcon icon) {
-		getIconModel().addIcon(icon);
+		sharedData.getIcons().addIcon(icon);
 		if (map != null) {
 			map.getIconRegistry().addIcon(icon);
 		}
 	}
 
 	public void addIcon(final MindIcon icon, final int position) {
-		getIconModel().addIcon(icon, position);
+		sharedData.getIcons().addIcon(icon, position);
 		getMap().getIconRegistry().addIcon(icon);
 	}
 
@@ -161,10 +164,24 @@ public class NodeModel{
 	    return children;
     }
 
+	/** children list is allocated on the first insertion, leaf nodes share an empty list */
+	protected List<NodeModel> getModifiableChildrenInternal() {
+		if (children == NO_CHILDREN)
+			children = new ArrayList<NodeModel>();
+		return children;
+	}
+
 	protected void setChildrenInternal(List<NodeModel> chidren) {
 	    this.children = chidren;
+	    indexedChildCount = 0;
+	    structureChanged();
     }
 
+	private void structureChanged() {
+		if (map != null)
+			map.structureChanged();
+	}
+
 	public Enumeration<NodeModel> children() {
 		final Iterator<NodeModel> i = getChildrenInternal().iterator();
 		return new Enumeration<NodeModel>() {
@@ -186,13 +203,17 @@ public class NodeModel{
 
 	public String createID() {
 		if (id == null) {
-			id = getMap().registryNode(this);
+			final MapModel map = getMap();
+			synchronized (map) {
+				if (id == null)
+					id = map.registryNode(this);
+			}
 		}
 		return id;
 	}
 
 	public void fireNodeChanged(final NodeChangeEvent nodeChangeEvent) {
-		if (views == null) {
+		if (! notifiesViews()) {
 			return;
 		}
 		final Iterator<INodeView> iterator = views.iterator();
@@ -201,8 +222,12 @@ public class NodeModel{
 		}
 	}
 
+	private boolean notifiesViews() {
+		return views != null && (map == null || ! map.areViewUpdatesSuspended());
+	}
+
 	private void fireNodeInserted(final NodeModel child, final int index) {
-		if (views == null) {
+		if (! notifiesViews()) {
 			return;
 		}
 		final Iterator<INodeView> iterator = views.iterator();
@@ -212,7 +237,7 @@ public class NodeModel{
 	}
 
 	private void fireNodeRemoved(final NodeModel child, final int index) {
-		if (views == null) {
+		if (! notifiesViews()) {
 			return;
 		}
 		final Iterator<INodeView> iterator = views.iterator();
@@ -245,6 +270,8 @@ public class NodeModel{
 		else {
 			childrenList = Collections.emptyList();
 		}
+		if (map != null && ReadOnlyExecution.isActive())
+			return new CheckedChildList(childrenList, map);
 		return Collections.unmodifiableList(childrenList);
 	}
 
@@ -257,6 +284,8 @@ public class NodeModel{
 	};
 
 	public FilterInfo getFilterInfo() {
+		if (filterInfo == null)
+			filterInfo = new FilterInfo();
 		return filterInfo;
 	}
 
@@ -276,8 +305,40 @@ public class NodeModel{
 		return id;
 	}
 
+	/**
+	 * Returns the cached position of the child if it is still valid. Otherwise the children following the last
+	 * insertion or removal are renumbered until the child is found, so that repeated calls take amortized
+	 * constant time even for nodes with many thousands of children.
+	 */
 	public int getIndex(final NodeModel node) {
-		return children.indexOf(node);
+		final int cachedIndex = node.indexInParent;
+		final int childCount = children.size();
+		if (cachedIndex < childCount && children.get(cachedIndex) == node)
+			return cachedIndex;
+		final int firstUnindexedChild = Math.min(indexedChildCount, childCount);
+		for (int i = firstUnindexedChild; i < childCount; i++) {
+			final NodeModel child = children.get(i);
+			child.indexInParent = i;
+			if (child == node) {
+				indexedChildCount = i + 1;
+				return i;
+			}
+		}
+		indexedChildCount = childCount;
+		// children list modified by subclasses without updating the indices
+		for (int i = 0; i < firstUnindexedChild; i++) {
+			final NodeModel child = children.get(i);
+			if (child == node) {
+				child.indexInParent = i;
+				indexedChildCount = 0;
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private void childrenChangedAt(final int index) {
+		indexedChildCount = Math.min(indexedChildCount, index);
 	}
 
 	public MapModel getMap() {
@@ -320,7 +381,7 @@ public class NodeModel{
 
 	public Collection<INodeView> getViewers() {
 		if (views == null) {
-			views = new LinkedList<INodeView>();
+			views = new ArrayList<INodeView>(1);
 		}
 		return views;
 	}
@@ -338,17 +399,21 @@ public class NodeModel{
 	}
 
 	public void insert(final NodeModel child, int index) {
+		checkModificationAllowed();
 		final NodeModel childNode = child;
 		if (index < 0) {
 			index = getChildCount();
-			children.add(index, child);
+			getModifiableChildrenInternal().add(index, child);
 		}
 		else {
-			children.add(index, child);
+			getModifiableChildrenInternal().add(index, child);
 			preferredChild = childNode;
 		}
+		child.indexInParent = index;
+		childrenChangedAt(index);
+		structureChanged();
 		child.setParent(this);
-		fireNodeInserted(childNode, getIndex(child));
+		fireNodeInserted(childNode, index);
 	}
 
 	private boolean isAccessible() {
@@ -428,6 +493,7 @@ public class NodeModel{
 	}
 
 	public void remove(final int index) {
+		checkModificationAllowed();
 	    final NodeModel child = children.get(index);
 		if (child == preferredChild) {
 			if (getChildrenInternal().size() > index + 1) {
@@ -439,6 +505,8 @@ public class NodeModel{
 		}
 		child.setParent(null);
 		children.remove(index);
+		childrenChangedAt(index);
+		structureChanged();
 		fireNodeRemoved(child, index);
     }
 
@@ -456,7 +524,7 @@ public class NodeModel{
 	 * @return the number of remaining icons.
 	 */
 	public int removeIcon() {
-		return getIconModel().removeIcon();
+		return sharedData.getIcons().removeIcon();
 	}
 
 	/**
@@ -465,11 +533,17 @@ public class NodeModel{
 	 * @return the number of remaining icons
 	 */
 	public int removeIcon(final int position) {
-		return getIconModel().removeIcon(position);
+		return sharedData.getIcons().removeIcon(position);
 	}
 
 	public void removeViewer(final INodeView viewer) {
-		getViewers().remove(viewer);
+		if (views == null) {
+			return;
+		}
+		views.remove(viewer);
+		if (views.isEmpty()) {
+			views = null;
+		}
 	}
 
 	public void setFolded(boolean folded) {
@@ -545,15 +619,24 @@ public class NodeModel{
 	    return clones[0].size() != 0;
     }
 
+	/** Rejects direct changes of map nodes by {@link ReadOnlyExecution}, which bypass the mode controller. */
+	private void checkModificationAllowed() {
+		if (clones != null && isAttached())
+			ReadOnlyExecution.checkModificationAllowed();
+	}
+
 	public final void setText(final String text) {
+		checkModificationAllowed();
 		sharedData.setText(text);
 	}
 
 	public final void setUserObject(final Object data) {
+		checkModificationAllowed();
 		sharedData.setUserObject(data);
 	}
 
 	public final void setXmlText(final String pXmlText) {
+		checkModificationAllowed();
 		sharedData.setXmlText(pXmlText);
 	}
 
@@ -587,7 +670,7 @@ public class NodeModel{
     }
 
 	private NodeIconSetModel getIconModel() {
-	    return sharedData.getIcons();
+	    return sharedData.getIconsForReading();
     }
 
 	void fireNodeChanged(INodeChangeListener[] nodeChangeListeners, final NodeChangeEvent nodeChangeEvent) {
@@ -0,0 +1,138 @@
+package org.freeplane.features.map;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Node IDs of a map.
+ *
+ * Standard IDs consisting of the prefix "ID_" and a non negative decimal number without leading zeros
+ * are stored by their number in an open addressed table, other IDs in a hash map.
+ * An ID stays registered with a null node after its node is removed from the map,
+ * so that it is not generated again while the node can be restored by undo.
+ *
+ * New IDs are taken from a per map sequence mapped by a bijection of the non negative int range,
+ * so they never repeat and look random like the IDs of other maps.
+ */
+class NodeRegistry {
+	private static final String PREFIX = "ID_";
+	private static final int FREE = -1;
+	private static final int MAX_NUMBER_LENGTH = Integer.toString(Integer.MAX_VALUE).length();
+	private int[] numbers;
+	private NodeModel[] nodes;
+	private int size;
+	private final Map<String, NodeModel> otherNodes = new HashMap<String, NodeModel>();
+	private final int seed;
+	private int sequence;
+
+	NodeRegistry(int seed) {
+		this.seed = seed;
+		numbers = new int[16];
+		nodes = new NodeModel[16];
+		Arrays.fill(numbers, FREE);
+	}
+
+	/** Returns the number of a standard ID or -1. */
+	static int numberOf(final String id) {
+		if (id == null)
+			return FREE;
+		final int length = id.length();
+		final int numberLength = length - PREFIX.length();
+		if (numberLength < 1 || numberLength > MAX_NUMBER_LENGTH || !id.startsWith(PREFIX))
+			return FREE;
+		if (numberLength > 1 && id.charAt(PREFIX.length()) == '0')
+			return FREE;
+		long number = 0;
+		for (int i = PREFIX.length(); i < length; i++) {
+			final char c = id.charAt(i);
+			if (c < '0' || c > '9')
+				return FREE;
+			number = number * 10 + (c - '0');
+		}
+		return number <= Integer.MAX_VALUE ? (int) number : FREE;
+	}
+
+	private int slot(final int number) {
+		final int mask = numbers.length - 1;
+		int slot = mix(number) & mask;
+		while (numbers[slot] != FREE && numbers[slot] != number)
+			slot = (slot + 1) & mask;
+		return slot;
+	}
+
+	private static int mix(final int number) {
+		final int h = number * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	NodeModel get(final String id) {
+		final int number = numberOf(id);
+		if (number == FREE)
+			return otherNodes.get(id);
+		return nodes[slot(number)];
+	}
+
+	boolean contains(final String id) {
+		final int number = numberOf(id);
+		if (number == FREE)
+			return otherNodes.containsKey(id);
+		return contains(number);
+	}
+
+	private boolean contains(final int number) {
+		return numbers[slot(number)] != FREE;
+	}
+
+	/** Registers the node, a null node keeps the ID registered. Returns the previously registered node. */
+	NodeModel put(final String id, final NodeModel node) {
+		final int number = numberOf(id);
+		if (number == FREE)
+			return otherNodes.put(id, node);
+		int slot = slot(number);
+		final NodeModel old = nodes[slot];
+		if (numbers[slot] == FREE) {
+			if ((size + 1) * 4 > numbers.length * 3) {
+				grow();
+				slot = slot(number);
+			}
+			numbers[slot] = number;
+			size++;
+		}
+		nodes[slot] = node;
+		return old;
+	}
+
+	private void grow() {
+		final int[] oldNumbers = numbers;
+		final NodeModel[] oldNodes = nodes;
+		numbers = new int[oldNumbers.length * 2];
+		nodes = new NodeModel[oldNodes.length * 2];
+		Arrays.fill(numbers, FREE);
+		for (int i = 0; i < oldNumbers.length; i++) {
+			if (oldNumbers[i] != FREE) {
+				final int slot = slot(oldNumbers[i]);
+				numbers[slot] = oldNumbers[i];
+				nodes[slot] = oldNodes[i];
+			}
+		}
+	}
+
+	/** Returns a standard ID which has never been registered. */
+	String generateID() {
+		int number;
+		// skips only numbers of IDs registered by loaded or pasted nodes
+		do {
+			number = permute(sequence++);
+		} while (contains(number));
+		return PREFIX + number;
+	}
+
+	private int permute(final int index) {
+		int x = (index * 0x2E5BF271) & Integer.MAX_VALUE;
+		x ^= x >>> 15;
+		x = (x * 0x1B873593) & Integer.MAX_VALUE;
+		x ^= x >>> 13;
+		return (x + seed) & Integer.MAX_VALUE;
+	}
+}
@@ -156,7 +156,7 @@ public class NodeWriter implements IElementWriter, IAttributeWriter {
 			final IconController iconController = IconController.getController();
 			iconSize = iconController.getIconSize(node);
 		} else
-			iconSize = node.getSharedData().getIcons().getIconSize();
+			iconSize = node.getSharedData().getIconSize();
 		if (iconSize != null) {
 			writer.addAttribute("ICON_SIZE", iconSize.toString());
 		}
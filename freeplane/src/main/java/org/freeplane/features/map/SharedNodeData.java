@@ -21,23 +21,25 @@ package org.freeplane.features.map;
 
 import org.freeplane.core.extension.ExtensionContainer;
 import org.freeplane.core.extension.SmallExtensionMap;
+import org.freeplane.core.ui.LengthUnits;
 import org.freeplane.core.util.HtmlUtils;
+import org.freeplane.core.util.Quantity;
 import org.freeplane.core.util.XmlUtils;
 
 /**
  * @author  Dimitry Polivaev 05.02.2014
  */
 public class SharedNodeData {
+	private static final NodeIconSetModel NO_ICONS = new NodeIconSetModel();
 	final private ExtensionContainer extensionContainer;
 	private HistoryInformationModel historyInformation;
-	final private NodeIconSetModel icons;
+	private NodeIconSetModel icons;
 	private Object userObject;
 	private String xmlText;
 	private boolean folded;
 
 	public SharedNodeData() {
 		extensionContainer = new ExtensionContainer(new SmallExtensionMap());
-		icons = new NodeIconSetModel();
 		folded = false;
 	}
 
@@ -54,9 +56,20 @@ public class SharedNodeData {
 	}
 
 	public NodeIconSetModel getIcons() {
+		if (icons == null)
+			icons = new NodeIconSetModel();
 		return icons;
 	}
 
+	/** Returns a shared empty icon model for nodes without icons, the result must not be modified. */
+	NodeIconSetModel getIconsForReading() {
+		return icons != null ? icons : NO_ICONS;
+	}
+
+	public Quantity<LengthUnits> getIconSize() {
+		return getIconsForReading().getIconSize();
+	}
+
 	public Object getUserObject() {
 		return userObject;
 	}
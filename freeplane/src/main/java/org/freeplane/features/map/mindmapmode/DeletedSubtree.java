@@ -0,0 +1,196 @@
+package org.freeplane.features.map.mindmapmode;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.locks.Lock;
+
+import org.freeplane.core.task.BackgroundTask;
+import org.freeplane.core.task.BackgroundTaskService;
+import org.freeplane.core.undo.IActor;
+import org.freeplane.core.util.LogUtils;
+import org.freeplane.features.map.EncryptionModel;
+import org.freeplane.features.map.MapController;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.MapWriter.Mode;
+import org.freeplane.features.map.NodeModel;
+
+/**
+ * Keeps a subtree removed by an undoable deletion.
+ *
+ * The subtree can be spilled into a temporary map file so that the undo history does not retain its nodes.
+ * The file is written by a background task holding the read lock of the map, the nodes are released
+ * on the event dispatch thread after it has been written. Undo takes the write lock of the map,
+ * so a deletion undone before that cancels the task and keeps the original nodes.
+ *
+ * A spilled subtree is read back with the same node ids when the deletion is undone. The restored nodes are
+ * new objects: references to the deleted nodes kept outside of the undo history, like nodes held by scripts
+ * or add-ons, still point to the old detached nodes and have to be looked up again by their ids.
+ * Subtrees containing clones or encrypted nodes are never spilled because their restored copies
+ * would lose the connection to other nodes.
+ */
+class DeletedSubtree {
+	static final long ESTIMATED_NODE_SIZE = 1000;
+	private static final String SPILL_TASK = "undo_spill_in_progress";
+	private final MapController mapController;
+	private final MapModel map;
+	private NodeModel node;
+	private boolean wasLeft;
+	private File file;
+	private int nodeCount;
+	private boolean isSpillable;
+	private SpillTask spillTask;
+
+	DeletedSubtree(MapController mapController, NodeModel node) {
+		this.mapController = mapController;
+		this.map = node.getMap();
+		this.node = node;
+		this.nodeCount = -1;
+		this.isSpillable = true;
+	}
+
+	NodeModel getNode() {
+		cancelSpilling();
+		if (file != null)
+			restore();
+		return node;
+	}
+
+	/** Returns true if the subtree is spilled or is being spilled. */
+	boolean isSpilled() {
+		return file != null || spillTask != null;
+	}
+
+	long getEstimatedSize() {
+		if (isSpilled())
+			return IActor.DEFAULT_ESTIMATED_SIZE;
+		scanSubtree();
+		return nodeCount * ESTIMATED_NODE_SIZE;
+	}
+
+	boolean canSpill(NodeModel parent) {
+		if (isSpilled())
+			return true;
+		if (!isSpillable || node.getParentNode() != null || !isAttached(parent))
+			return false;
+		scanSubtree();
+		return isSpillable;
+	}
+
+	private boolean isAttached(NodeModel node) {
+		NodeModel ancestor = node;
+		while (ancestor.getParentNode() != null)
+			ancestor = ancestor.getParentNode();
+		return ancestor == map.getRootNode();
+	}
+
+	private void scanSubtree() {
+		if (nodeCount >= 0)
+			return;
+		nodeCount = 0;
+		scanSubtree(node);
+	}
+
+	private void scanSubtree(NodeModel node) {
+		nodeCount++;
+		if (node.allClones().size() > 1 || EncryptionModel.getModel(node) != null)
+			isSpillable = false;
+		for (NodeModel child : node.getChildren())
+			scanSubtree(child);
+	}
+
+	void spill() {
+		if (isSpilled())
+			return;
+		spillTask = new SpillTask();
+		BackgroundTaskService.getInstance().execute(spillTask);
+	}
+
+	private class SpillTask extends BackgroundTask<File> {
+		private volatile File spillFile;
+
+		SpillTask() {
+			super(SPILL_TASK, DeletedSubtree.this);
+		}
+
+		@Override
+		protected Lock getReadLock() {
+			return map.getLock().readLock();
+		}
+
+		@Override
+		protected File read() throws Exception {
+			spillFile = File.createTempFile("freeplane-undo-", ".mm");
+			spillFile.deleteOnExit();
+			try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(spillFile),
+			    StandardCharsets.UTF_8))) {
+				mapController.getMapWriter().writeNodeAsXml(writer, node, Mode.FILE, true, true, false);
+			}
+			return spillFile;
+		}
+
+		@Override
+		protected void apply(File result) {
+			spillTask = null;
+			map.unregistryNodes(node);
+			wasLeft = node.isLeft();
+			node = null;
+			file = result;
+		}
+
+		@Override
+		protected void cancelled() {
+			deleteSpillFile();
+		}
+
+		@Override
+		protected void failed(Exception e) {
+			LogUtils.warn("can not spill deleted nodes", e);
+			if (spillTask == this) {
+				spillTask = null;
+				isSpillable = false;
+			}
+			deleteSpillFile();
+		}
+
+		private void deleteSpillFile() {
+			if (spillFile != null)
+				spillFile.delete();
+		}
+	}
+
+	private void cancelSpilling() {
+		if (spillTask != null) {
+			spillTask.cancel();
+			spillTask = null;
+		}
+	}
+
+	private void restore() {
+		try (Reader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file),
+		    StandardCharsets.UTF_8))) {
+			node = mapController.getMapReader().createNodeTreeFromXml(map, reader, Mode.FILE);
+			node.setLeft(wasLeft);
+		}
+		catch (Exception e) {
+			throw new RuntimeException("can not restore deleted nodes from " + file, e);
+		}
+		discard();
+		nodeCount = -1;
+	}
+
+	void discard() {
+		cancelSpilling();
+		if (file != null) {
+			file.delete();
+			file = null;
+		}
+	}
+}
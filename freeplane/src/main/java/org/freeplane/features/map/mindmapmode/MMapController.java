@@ -53,6 +53,7 @@ import org.freeplane.core.ui.LengthUnits;
 import org.freeplane.core.ui.components.UITools;
 import org.freeplane.core.ui.menubuilders.generic.UserRole;
 import org.freeplane.core.undo.IActor;
+import org.freeplane.core.undo.ISpillableActor;
 import org.freeplane.core.util.ConfigurationUtils;
 import org.freeplane.core.util.LogUtils;
 import org.freeplane.core.util.Quantity;
@@ -485,8 +486,8 @@ public class MMapController extends MapController {
 	}
 
 	private void deleteSingleNode(final NodeModel parentNode, final int index) {
-		final NodeModel node = parentNode.getChildAt(index);
-		final IActor actor = new IActor() {
+		final DeletedSubtree deletedSubtree = new DeletedSubtree(this, parentNode.getChildAt(index));
+		final IActor actor = new ISpillableActor() {
         	@Override
 			public void act() {
         		deleteWithoutUndo(parentNode, index);
@@ -499,8 +500,33 @@ public class MMapController extends MapController {
 
         	@Override
 			public void undo() {
-				(Controller.getCurrentModeController().getMapController()).insertNodeIntoWithoutUndo(node, parentNode, index);
+				(Controller.getCurrentModeController().getMapController()).insertNodeIntoWithoutUndo(deletedSubtree.getNode(), parentNode, index);
         	}
+
+			@Override
+			public long getEstimatedSize() {
+				return deletedSubtree.getEstimatedSize();
+			}
+
+			@Override
+			public boolean canSpill() {
+				return deletedSubtree.canSpill(parentNode);
+			}
+
+			@Override
+			public boolean isSpilled() {
+				return deletedSubtree.isSpilled();
+			}
+
+			@Override
+			public void spill() {
+				deletedSubtree.spill();
+			}
+
+			@Override
+			public void discard() {
+				deletedSubtree.discard();
+			}
         };
 		Controller.getCurrentModeController().execute(actor, parentNode.getMap());
     }
@@ -548,6 +574,64 @@ public class MMapController extends MapController {
 		insertNewNode(node, parentNode, index, node.isLeft());
 	}
 
+	/**
+	 * Inserts detached nodes as consecutive children of the parent using a single undoable action.
+	 * Like {@link #insertNode(NodeModel, NodeModel, int)} the nodes keep their sides
+	 * and copies of them are inserted into all clones of the parent.
+	 */
+	public void insertNodes(final List<NodeModel> nodes, final NodeModel parent, final int index) {
+		if (nodes.isEmpty())
+			return;
+		for (NodeModel node : nodes) {
+			if(node.subtreeContainsCloneOf(parent)){
+				UITools.errorMessage("not allowed");
+				return;
+			}
+		}
+		final int insertionIndex = index < 0 || index > parent.getChildCount() ? parent.getChildCount() : index;
+		stopEditing();
+		insertNewNodes(nodes, parent, insertionIndex);
+		for(NodeModel parentClone : parent.subtreeClones()){
+			if(parentClone != parent) {
+				final List<NodeModel> nodeClones = new ArrayList<NodeModel>(nodes.size());
+				for (NodeModel node : nodes) {
+					final NodeModel nodeClone = node.cloneTree();
+					nodeClone.setLeft(parentClone.isLeft());
+					nodeClones.add(nodeClone);
+				}
+				insertNewNodes(nodeClones, parentClone, insertionIndex);
+			}
+		}
+	}
+
+	private void insertNewNodes(final List<NodeModel> nodes, final NodeModel parent, final int index) {
+		final NodeModel[] insertedNodes = nodes.toArray(new NodeModel[nodes.size()]);
+		final IActor actor = new IActor() {
+			@Override
+			public void act() {
+				for (int i = 0; i < insertedNodes.length; i++)
+					insertNodeIntoWithoutUndo(insertedNodes[i], parent, index + i);
+			}
+
+			@Override
+			public String getDescription() {
+				return "insertNodes";
+			}
+
+			@Override
+			public void undo() {
+				for (int i = insertedNodes.length - 1; i >= 0; i--)
+					deleteWithoutUndo(parent, index + i);
+			}
+
+			@Override
+			public long getEstimatedSize() {
+				return insertedNodes.length * DEFAULT_ESTIMATED_SIZE;
+			}
+		};
+		Controller.getCurrentModeController().execute(actor, parent.getMap());
+	}
+
 	@Override
 	public void insertNodeIntoWithoutUndo(final NodeModel newNode, final NodeModel parent, final int index) {
 		setSaved(parent.getMap(), false);
@@ -19,6 +19,7 @@
  */
 package org.freeplane.features.map.mindmapmode.clipboard;
 
+import java.awt.EventQueue;
 import java.awt.Image;
 import java.awt.datatransfer.DataFlavor;
 import java.awt.datatransfer.Transferable;
@@ -29,7 +30,6 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
-import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
@@ -54,15 +54,10 @@ import org.freeplane.core.util.FixedHTMLWriter;
 import org.freeplane.core.util.HtmlUtils;
 import org.freeplane.core.util.LogUtils;
 import org.freeplane.core.util.TextUtils;
-import org.freeplane.features.attribute.Attribute;
 import org.freeplane.features.attribute.AttributeController;
-import org.freeplane.features.attribute.NodeAttributeTableModel;
-import org.freeplane.features.attribute.mindmapmode.MAttributeController;
 import org.freeplane.features.clipboard.ClipboardAccessor;
 import org.freeplane.features.clipboard.mindmapmode.MClipboardController;
-import org.freeplane.features.format.ScannerController;
 import org.freeplane.features.link.LinkController;
-import org.freeplane.features.link.NodeLinks;
 import org.freeplane.features.link.mindmapmode.MLinkController;
 import org.freeplane.features.map.CloneEncryptedNodeException;
 import org.freeplane.features.map.FreeNode;
@@ -81,7 +76,6 @@ import org.freeplane.features.mode.Controller;
 import org.freeplane.features.mode.ModeController;
 import org.freeplane.features.text.TextController;
 import org.freeplane.features.text.mindmapmode.MTextController;
-import org.freeplane.features.url.UrlManager;
 import org.freeplane.n3.nanoxml.XMLException;
 import org.freeplane.view.swing.features.filepreview.ImageAdder;
 import org.freeplane.view.swing.features.filepreview.ViewerController;
@@ -230,6 +224,8 @@ public class MMapClipboardController extends MapClipboardController implements M
 		}
 	}
 
+	/** Clipboard contents of at least this length are read on a worker thread showing a progress dialog. */
+	private static final int BACKGROUND_PASTE_LENGTH = 200000;
 	private static final Pattern ATTRIBUTE_REGEX = Pattern.compile("\\s*\\+\t(\\S[^\t]*)(?:\t(.*?))\\s*");
 	private class StringFlavorHandler implements IDataFlavorHandler {
 		private final String textFromClipboard;
@@ -240,36 +236,49 @@ public class MMapClipboardController extends MapClipboardController implements M
 
 		@Override
 		public void paste(Transferable t, final NodeModel target, final boolean asSibling, final boolean isLeft, int dropAction) {
-			final TextFragment[] textFragments = split(textFromClipboard);
-			pasteStringWithoutRedisplay(textFragments, target, asSibling, isLeft);
-		}
-
-		private TextFragment[] split(final String textFromClipboard) {
-			final LinkedList<TextFragment> textFragments = new LinkedList<TextFragment>();
-			final String[] textLines = textFromClipboard.split("\n");
-			for (int i = 0; i < textLines.length; ++i) {
-				String text = textLines[i];
-				final Matcher matcher = ATTRIBUTE_REGEX.matcher(text);
-				if(matcher.matches()) {
-					textFragments.add(new TextFragment(matcher.group(1), matcher.group(2), TextFragment.ATTRIBUTE_DEPTH));
+			pasteFragments(new PastedNodesBuilder.Source() {
+				@Override
+				public void read(PastedNodesBuilder builder) {
+					split(textFromClipboard, builder);
 				}
-				else {
-					text = text.replaceAll("\t", "        ");
-					if (text.matches(" *")) {
+			}, textFromClipboard.length(), target, asSibling, isLeft);
+		}
+
+		private void split(final String textFromClipboard, final PastedNodesBuilder builder) {
+			final int length = textFromClipboard.length();
+			for (int lineStart = 0; lineStart < length;) {
+				int lineEnd = textFromClipboard.indexOf('\n', lineStart);
+				if (lineEnd == -1)
+					lineEnd = length;
+				String text = textFromClipboard.substring(lineStart, lineEnd);
+				lineStart = lineEnd + 1;
+				builder.setProgress(lineStart, length);
+				if(text.contains("+\t")) {
+					final Matcher matcher = ATTRIBUTE_REGEX.matcher(text);
+					if(matcher.matches()) {
+						builder.add(new TextFragment(matcher.group(1), matcher.group(2), TextFragment.ATTRIBUTE_DEPTH));
 						continue;
 					}
-					int depth = 0;
-					while (depth < text.length() && text.charAt(depth) == ' ') {
-						++depth;
-					}
-					final String visibleText = text.trim();
-					final String link = LinkController.findLink(text);
-					if (!visibleText.equals("")) {
-						textFragments.add(new TextFragment(visibleText, link, depth));
-					}
+				}
+				if (text.indexOf('\t') >= 0)
+					text = text.replace("\t", "        ");
+				int depth = 0;
+				while (depth < text.length() && text.charAt(depth) == ' ') {
+					++depth;
+				}
+				if (depth == text.length()) {
+					continue;
+				}
+				final String visibleText = text.trim();
+				final String link = mayContainLink(text) ? LinkController.findLink(text) : null;
+				if (!visibleText.equals("")) {
+					builder.add(new TextFragment(visibleText, link, depth));
 				}
 			}
-			return textFragments.toArray(new TextFragment[textFragments.size()]);
+		}
+
+		private boolean mayContainLink(final String text) {
+			return text.indexOf('@') >= 0 || text.contains("://");
 		}
 	}
 
@@ -281,7 +290,7 @@ public class MMapClipboardController extends MapClipboardController implements M
 		}
 
 		private void addFragment(final HTMLDocument doc, final Element element, final int depth, final int start,
-		                           final int end, final LinkedList<TextFragment> htmlFragments)
+		                           final int end, final PastedNodesBuilder builder)
 		        throws BadLocationException, IOException {
 			final String paragraphText = doc.getText(start, end - start).trim();
 			if (paragraphText.length() > 0 || element.getName().equals("img")) {
@@ -291,7 +300,7 @@ public class MMapClipboardController extends MapClipboardController implements M
 				if (!string.equals("")) {
 					final String link = LinkController.findLink(string);
 					final TextFragment htmlFragment = new TextFragment(string, link, depth);
-					htmlFragments.add(htmlFragment);
+					builder.add(htmlFragment);
 				}
 			}
 		}
@@ -321,12 +330,16 @@ public class MMapClipboardController extends MapClipboardController implements M
 		private void pasteHtmlWithoutRedisplay(final Object t, final NodeModel parent, final boolean asSibling,
 		                                       final boolean isLeft) {
 			final String textFromClipboard = (String) t;
-			final String cleanedTextFromClipboard = cleanHtml(textFromClipboard);
-			final TextFragment[] htmlFragments = split(cleanedTextFromClipboard);
-			pasteStringWithoutRedisplay(htmlFragments, parent, asSibling, isLeft);
+			pasteFragments(new PastedNodesBuilder.Source() {
+				@Override
+				public void read(PastedNodesBuilder builder) {
+					final String cleanedTextFromClipboard = cleanHtml(textFromClipboard);
+					split(cleanedTextFromClipboard, builder);
+				}
+			}, textFromClipboard.length(), parent, asSibling, isLeft);
 		}
 
-		private void split(final HTMLDocument doc, final Element parent, final LinkedList<TextFragment> htmlFragments,
+		private void split(final HTMLDocument doc, final Element parent, final PastedNodesBuilder builder,
 		                   int depth) throws BadLocationException, IOException {
 			final int elementCount = parent.getElementCount();
 			int headerDepth = 0;
@@ -336,6 +349,7 @@ public class MMapClipboardController extends MapClipboardController implements M
 			Element last = null;
 			for (int i = 0; i < elementCount; i++) {
 				final Element current = parent.getElement(i);
+				builder.setProgress(current.getStartOffset(), doc.getLength());
 				final String name = current.getName();
 				final Matcher matcher = HEADER_REGEX.matcher(name);
 				if (matcher.matches()) {
@@ -362,11 +376,11 @@ public class MMapClipboardController extends MapClipboardController implements M
 				if (separateElement && current.getElementCount() != 0) {
 					start = -1;
 					last = null;
-					split(doc, current, htmlFragments, depth + 1);
+					split(doc, current, builder, depth + 1);
 					continue;
 				}
 				if (separateElement && start != -1) {
-					addFragment(doc, last, depth, start, end, htmlFragments);
+					addFragment(doc, last, depth, start, end, builder);
 				}
 				if (start == -1 || separateElement) {
 					start = current.getStartOffset();
@@ -374,23 +388,22 @@ public class MMapClipboardController extends MapClipboardController implements M
 				}
 				end = current.getEndOffset();
 				if (separateElement) {
-					addFragment(doc, current, depth, start, end, htmlFragments);
+					addFragment(doc, current, depth, start, end, builder);
 				}
 			}
 			if (start != -1) {
-				addFragment(doc, last, depth, start, end, htmlFragments);
+				addFragment(doc, last, depth, start, end, builder);
 			}
 		}
 
-		private TextFragment[] split(final String text) {
-			final LinkedList<TextFragment> htmlFragments = new LinkedList<TextFragment>();
+		private void split(final String text, final PastedNodesBuilder builder) {
 			final HTMLEditorKit kit = new HTMLEditorKit();
 			final HTMLDocument doc = new HTMLDocument();
 			final StringReader buf = new StringReader(text);
 			try {
 				kit.read(buf, doc, 0);
 				final Element parent = getParentElement(doc);
-				split(doc, parent, htmlFragments, 0);
+				split(doc, parent, builder, 0);
 			}
 			catch (final IOException e) {
 				LogUtils.severe(e);
@@ -398,37 +411,7 @@ public class MMapClipboardController extends MapClipboardController implements M
 			catch (final BadLocationException e) {
 				LogUtils.severe(e);
 			}
-			return htmlFragments.toArray(new TextFragment[htmlFragments.size()]);
-		}
-	}
-
-	private static class TextFragment {
-		final static int ATTRIBUTE_DEPTH = -2;
-		String text;
-		String link;
-		int depth;
-
-		public TextFragment(final String text, final String link, final int depth) {
-			super();
-			this.text = text;
-			this.link = link;
-			this.depth = depth;
 		}
-
-		boolean isAttribute() {
-			return depth == ATTRIBUTE_DEPTH;
-		}
-
-		boolean isNode() {
-			return ! isAttribute();
-		}
-
-		@Override
-		public String toString() {
-			return "TextFragment [" + text + (link != null ? " [" + link  +  "]": "")  + "," + depth + "]";
-		}
-
-
 	}
 
 	private class ImageFlavorHandler implements IDataFlavorHandler {
@@ -775,8 +758,8 @@ public class MMapClipboardController extends MapClipboardController implements M
 		}
 	}
 
-	private void pasteStringWithoutRedisplay(final TextFragment[] textFragments, NodeModel parent,
-	                                              final boolean asSibling, final boolean isLeft) {
+	private void pasteFragments(final PastedNodesBuilder.Source source, final int payloadLength, NodeModel parent,
+	                            final boolean asSibling, final boolean isLeft) {
 		int insertionIndex;
 		if (asSibling) {
 			NodeModel target = parent;
@@ -787,121 +770,14 @@ public class MMapClipboardController extends MapClipboardController implements M
 		else{
 			insertionIndex = parent.getChildCount();
 		}
-		final ArrayList<NodeModel> parentNodes = new ArrayList<NodeModel>();
-		final ArrayList<Integer> parentNodesDepths = new ArrayList<Integer>();
-		parentNodes.add(parent);
-		parentNodesDepths.add(new Integer(-1));
-		for (int i = 0; i < textFragments.length; ++i) {
-			final TextFragment textFragment = textFragments[i];
-			if(textFragment.isNode()) {
-				insertionIndex = addNode(parent, isLeft, insertionIndex, parentNodes, parentNodesDepths,
-					textFragment);
-			}
-			else if(textFragment.isAttribute()) {
-				NodeModel node = parentNodes.get(parentNodes.size() - 1);
-				addAttribute(node, textFragment, parent==node);
-			}
-		}
-		insertNewNodes(parent, insertionIndex, parentNodes);
-	}
-
-	private void addAttribute(NodeModel node, final TextFragment textFragment, boolean toExistingNode) {
-		final String name = textFragment.text;
-		final Object value = ScannerController.getController().parse(textFragment.link);
-		final Attribute atribute = new Attribute(name, value);
-		if(toExistingNode) {
-			MAttributeController.getController().addAttribute(node, atribute);
-		}
-		else {
-			NodeAttributeTableModel attributes = node.getExtension(NodeAttributeTableModel.class);
-			if(attributes == null) {
-				attributes = new NodeAttributeTableModel();
-				node.addExtension(attributes);
-			}
-			attributes.addRowNoUndo(node, atribute);
-		}
-	}
-
-	private int addNode(NodeModel parent, final boolean isLeft, int insertionIndex,
-						final ArrayList<NodeModel> parentNodes, final ArrayList<Integer> parentNodesDepths,
-						final TextFragment textFragment) {
-		final MapModel map = parent.getMap();
-		final NodeModel node = createNode(map, textFragment);
-		return insertNode(parent, isLeft, insertionIndex, parentNodes, parentNodesDepths, textFragment, node);
-	}
-
-	private int insertNode(NodeModel parent, final boolean isLeft, int insertionIndex,
-						   final ArrayList<NodeModel> parentNodes, final ArrayList<Integer> parentNodesDepths,
-						   final TextFragment textFragment, final NodeModel node) {
 		final MMapController mapController = (MMapController) Controller.getCurrentModeController().getMapController();
-		for (int parentNodeIndex = parentNodes.size() - 1; parentNodeIndex >= 0; --parentNodeIndex) {
-			if (textFragment.depth > parentNodesDepths.get(parentNodeIndex).intValue()) {
-				int firstCompletedIndex = parentNodeIndex + 1;
-				for (int completedParentNodeIndex = firstCompletedIndex;
-						completedParentNodeIndex < parentNodes.size();
-						completedParentNodeIndex++) {
-					final NodeModel n = parentNodes.get(completedParentNodeIndex);
-					if (n.getParentNode() == null) {
-						mapController.insertNode(n, parent, insertionIndex++);
-					}
-				}
-				parentNodes.subList(firstCompletedIndex,parentNodes.size()).clear();
-				parentNodesDepths.subList(firstCompletedIndex,parentNodesDepths.size()).clear();
-				final NodeModel target = parentNodes.get(parentNodeIndex);
-				node.setLeft(isLeft);
-				if (target != parent) {
-					target.setFolded(true);
-					target.insert(node, target.getChildCount());
-				}
-				parentNodes.add(node);
-				parentNodesDepths.add(new Integer(textFragment.depth));
-				break;
-			}
-		}
-		return insertionIndex;
-	}
-
-	private NodeModel createNode(final MapModel map, final TextFragment textFragment) {
-		String text = textFragment.text;
-		final String link = textFragment.link;
-		URI uri = null;
-		if (link != null) {
-			try {
-				URI linkUri = new URI(link);
-				uri = linkUri;
-
-				File absoluteFile = UrlManager.getController().getAbsoluteFile(map, uri);
-				if(absoluteFile != null) {
-					//if ("file".equals(linkUri.getScheme())) {
-					final File mapFile = map.getFile();
-					uri  = LinkController.toLinkTypeDependantURI(mapFile, absoluteFile);
-					if(link.equals(text)){
-						text =  uri.toString();
-					}
-				}
-
-			}
-			catch (Exception e) {
-			}
-		}
-		final MMapController mapController = (MMapController) Controller.getCurrentModeController().getMapController();
-		final NodeModel node = mapController.newNode(text, map);
-		if(uri != null){
-			NodeLinks.createLinkExtension(node).setHyperLink(uri);
-		}
-		return node;
-	}
-
-	private void insertNewNodes(NodeModel parent, int insertionIndex,
-								final ArrayList<NodeModel> parentNodes) {
-		final MMapController mapController = (MMapController) Controller.getCurrentModeController().getMapController();
-		final MapModel map = parent.getMap();
-		for (int k = 0; k < parentNodes.size(); ++k) {
-			final NodeModel node = parentNodes.get(k);
-			if (map.getRootNode() != node && node.getParentNode() == null) {
-				mapController.insertNode(node, parent, insertionIndex++);
-			}
-		}
+		final PastedNodesBuilder builder = new PastedNodesBuilder(mapController, parent, isLeft);
+		if (payloadLength < BACKGROUND_PASTE_LENGTH || !EventQueue.isDispatchThread())
+			source.read(builder);
+		else if (!new PasteProgressDialog(builder, source).run())
+			return;
+		builder.attach(insertionIndex);
+		newNodes.addAll(builder.getNewNodes());
 	}
 
 	private enum Operation{CLONE, MOVE};
@@ -0,0 +1,118 @@
+package org.freeplane.features.map.mindmapmode.clipboard;
+
+import java.awt.BorderLayout;
+import java.awt.EventQueue;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.concurrent.CancellationException;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.Timer;
+import javax.swing.WindowConstants;
+
+import org.freeplane.core.ui.components.UITools;
+import org.freeplane.core.util.LogUtils;
+import org.freeplane.core.util.TextUtils;
+import org.freeplane.features.mode.Controller;
+
+/**
+ * Reads pasted fragments on a worker thread while a modal dialog shows the progress and allows to cancel.
+ */
+class PasteProgressDialog {
+	private static final int PROGRESS_UPDATE_DELAY = 100;
+	private final PastedNodesBuilder builder;
+	private final PastedNodesBuilder.Source source;
+	private final JDialog dialog;
+	private RuntimeException failure;
+
+	PasteProgressDialog(final PastedNodesBuilder builder, final PastedNodesBuilder.Source source) {
+		this.builder = builder;
+		this.source = source;
+		dialog = new JDialog(UITools.getCurrentFrame(), TextUtils.getText("paste_in_progress"), true);
+		dialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+		dialog.addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosing(WindowEvent e) {
+				builder.cancel();
+			}
+		});
+	}
+
+	/**
+	 * Returns true if all fragments were read, false if the user cancelled.
+	 * Must be called on the event dispatch thread.
+	 */
+	boolean run() {
+		final JProgressBar progressBar = new JProgressBar(0, 100);
+		progressBar.setStringPainted(true);
+		final JButton cancelButton = new JButton(TextUtils.getText("cancel"));
+		cancelButton.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				builder.cancel();
+				cancelButton.setEnabled(false);
+			}
+		});
+		final JPanel panel = new JPanel(new BorderLayout(10, 10));
+		panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+		panel.add(progressBar, BorderLayout.CENTER);
+		panel.add(cancelButton, BorderLayout.EAST);
+		dialog.getContentPane().add(panel);
+		dialog.pack();
+		dialog.setSize(Math.max(dialog.getWidth(), 400), dialog.getHeight());
+		dialog.setLocationRelativeTo(dialog.getOwner());
+		final Timer progressTimer = new Timer(PROGRESS_UPDATE_DELAY, new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				progressBar.setValue(builder.getProgress());
+			}
+		});
+		final Controller controller = Controller.getCurrentController();
+		final Thread worker = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				Controller.setCurrentControllerForThread(controller);
+				try {
+					source.read(builder);
+				}
+				catch (CancellationException e) {
+				}
+				catch (RuntimeException e) {
+					failure = e;
+				}
+				finally {
+					EventQueue.invokeLater(new Runnable() {
+						@Override
+						public void run() {
+							progressTimer.stop();
+							dialog.dispose();
+						}
+					});
+				}
+			}
+		}, "paste");
+		worker.setDaemon(true);
+		progressTimer.start();
+		worker.start();
+		dialog.setVisible(true);
+		try {
+			worker.join();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			builder.cancel();
+			return false;
+		}
+		if (failure != null) {
+			LogUtils.severe(failure);
+			return false;
+		}
+		return !builder.isCancelled();
+	}
+}
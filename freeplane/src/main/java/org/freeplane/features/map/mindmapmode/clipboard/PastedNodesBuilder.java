@@ -0,0 +1,176 @@
+package org.freeplane.features.map.mindmapmode.clipboard;
+
+import java.io.File;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import org.freeplane.features.attribute.Attribute;
+import org.freeplane.features.attribute.NodeAttributeTableModel;
+import org.freeplane.features.attribute.mindmapmode.MAttributeController;
+import org.freeplane.features.format.ScannerController;
+import org.freeplane.features.link.LinkController;
+import org.freeplane.features.link.NodeLinks;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.map.mindmapmode.MMapController;
+import org.freeplane.features.url.UrlManager;
+
+/**
+ * Builds detached node trees from a stream of pasted text fragments.
+ *
+ * Fragments are added by a {@link Source} which may run outside of the event dispatch thread.
+ * The nodes are built in a scratch map and moved to the target map when they are attached
+ * by {@link #attach(int)} with a single undoable insertion, so building them does not change the target map.
+ */
+class PastedNodesBuilder {
+	interface Source {
+		/** Adds all fragments to the builder, called once. */
+		void read(PastedNodesBuilder builder);
+	}
+
+	private final MMapController mapController;
+	private final NodeModel parent;
+	private final MapModel map;
+	private final MapModel scratchMap;
+	private final boolean isLeft;
+	private final ArrayList<NodeModel> parentNodes;
+	private final ArrayList<Integer> parentNodesDepths;
+	private final List<NodeModel> newNodes;
+	private final List<Attribute> parentAttributes;
+	private final List<NodeModel> attributeNodes;
+	private final List<Attribute> nodeAttributes;
+	private volatile boolean cancelled;
+	private volatile long progress;
+	private volatile long total;
+
+	PastedNodesBuilder(final MMapController mapController, final NodeModel parent, final boolean isLeft) {
+		this.mapController = mapController;
+		this.parent = parent;
+		this.map = parent.getMap();
+		this.scratchMap = new MapModel(null, null);
+		this.isLeft = isLeft;
+		parentNodes = new ArrayList<NodeModel>();
+		parentNodesDepths = new ArrayList<Integer>();
+		parentNodes.add(parent);
+		parentNodesDepths.add(-1);
+		newNodes = new ArrayList<NodeModel>();
+		parentAttributes = new ArrayList<Attribute>();
+		attributeNodes = new ArrayList<NodeModel>();
+		nodeAttributes = new ArrayList<Attribute>();
+	}
+
+	void add(final TextFragment textFragment) {
+		if (cancelled)
+			throw new CancellationException();
+		if (textFragment.isNode())
+			addNode(textFragment);
+		else if (textFragment.isAttribute())
+			addAttribute(textFragment);
+	}
+
+	private void addAttribute(final TextFragment textFragment) {
+		final Object value = ScannerController.getController().parse(textFragment.link);
+		final Attribute attribute = new Attribute(textFragment.text, value);
+		final NodeModel node = parentNodes.get(parentNodes.size() - 1);
+		if (node == parent)
+			parentAttributes.add(attribute);
+		else {
+			attributeNodes.add(node);
+			nodeAttributes.add(attribute);
+		}
+	}
+
+	private void addNode(final TextFragment textFragment) {
+		final NodeModel node = createNode(textFragment);
+		for (int parentNodeIndex = parentNodes.size() - 1; parentNodeIndex >= 0; --parentNodeIndex) {
+			if (textFragment.depth > parentNodesDepths.get(parentNodeIndex).intValue()) {
+				final int firstCompletedIndex = parentNodeIndex + 1;
+				parentNodes.subList(firstCompletedIndex, parentNodes.size()).clear();
+				parentNodesDepths.subList(firstCompletedIndex, parentNodesDepths.size()).clear();
+				final NodeModel target = parentNodes.get(parentNodeIndex);
+				node.setLeft(isLeft);
+				if (target != parent) {
+					target.setFolded(true);
+					target.insert(node, target.getChildCount());
+				}
+				else
+					newNodes.add(node);
+				parentNodes.add(node);
+				parentNodesDepths.add(textFragment.depth);
+				break;
+			}
+		}
+	}
+
+	private NodeModel createNode(final TextFragment textFragment) {
+		String text = textFragment.text;
+		final String link = textFragment.link;
+		URI uri = null;
+		if (link != null) {
+			try {
+				URI linkUri = new URI(link);
+				uri = linkUri;
+
+				File absoluteFile = UrlManager.getController().getAbsoluteFile(map, uri);
+				if(absoluteFile != null) {
+					final File mapFile = map.getFile();
+					uri  = LinkController.toLinkTypeDependantURI(mapFile, absoluteFile);
+					if(link.equals(text)){
+						text =  uri.toString();
+					}
+				}
+
+			}
+			catch (Exception e) {
+			}
+		}
+		final NodeModel node = mapController.newNode(text, scratchMap);
+		if(uri != null){
+			NodeLinks.createLinkExtension(node).setHyperLink(uri);
+		}
+		return node;
+	}
+
+	void setProgress(final long progress, final long total) {
+		this.progress = progress;
+		this.total = total;
+	}
+
+	/** Returns the progress in percent. */
+	int getProgress() {
+		final long total = this.total;
+		return total > 0 ? (int) (100 * progress / total) : 0;
+	}
+
+	void cancel() {
+		cancelled = true;
+	}
+
+	boolean isCancelled() {
+		return cancelled;
+	}
+
+	List<NodeModel> getNewNodes() {
+		return newNodes;
+	}
+
+	/** Must be called on the event dispatch thread after all fragments are added. */
+	void attach(final int insertionIndex) {
+		for (final NodeModel node : newNodes)
+			node.setMap(map);
+		for (int i = 0; i < attributeNodes.size(); i++) {
+			final NodeModel node = attributeNodes.get(i);
+			NodeAttributeTableModel attributes = node.getExtension(NodeAttributeTableModel.class);
+			if(attributes == null) {
+				attributes = new NodeAttributeTableModel();
+				node.addExtension(attributes);
+			}
+			attributes.addRowNoUndo(node, nodeAttributes.get(i));
+		}
+		mapController.insertNodes(newNodes, parent, insertionIndex);
+		for (final Attribute attribute : parentAttributes)
+			MAttributeController.getController().addAttribute(parent, attribute);
+	}
+}
@@ -0,0 +1,28 @@
+package org.freeplane.features.map.mindmapmode.clipboard;
+
+class TextFragment {
+	final static int ATTRIBUTE_DEPTH = -2;
+	final String text;
+	final String link;
+	final int depth;
+
+	TextFragment(final String text, final String link, final int depth) {
+		super();
+		this.text = text;
+		this.link = link;
+		this.depth = depth;
+	}
+
+	boolean isAttribute() {
+		return depth == ATTRIBUTE_DEPTH;
+	}
+
+	boolean isNode() {
+		return ! isAttribute();
+	}
+
+	@Override
+	public String toString() {
+		return "TextFragment [" + text + (link != null ? " [" + link  +  "]": "")  + "," + depth + "]";
+	}
+}
@@ -268,6 +268,17 @@ public class Controller extends AController implements FreeplaneActions, IMapLif
 		currentController = controller;
 	}
 
+	/**
+	 * Makes the controller current for the calling thread only.
+	 * It is used by worker threads running their own controllers.
+	 */
+	public static void setCurrentControllerForThread(final Controller controller){
+		if (controller != null)
+			threadController.set(controller);
+		else
+			threadController.remove();
+	}
+
 	public static ModeController getCurrentModeController() {
 	    return getCurrentController().getModeController();
     }
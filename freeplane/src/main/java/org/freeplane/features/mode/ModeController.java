@@ -274,6 +274,7 @@ public class ModeController extends AController implements FreeplaneActions{
 	}
 
 	public void execute(final IActor actor, final MapModel map) {
+		ReadOnlyExecution.checkModificationAllowed();
 		actor.act();
 	}
 
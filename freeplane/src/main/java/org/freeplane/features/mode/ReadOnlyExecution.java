@@ -0,0 +1,42 @@
+package org.freeplane.features.mode;
+
+/**
+ * Marks threads which may read but must not modify maps, like workers evaluating scripts in parallel.
+ * Map modifications requested by such threads fail immediately instead of being executed
+ * or being passed to the event dispatch thread.
+ */
+public class ReadOnlyExecution {
+	@SuppressWarnings("serial")
+	public static class ModificationException extends IllegalStateException {
+		ModificationException() {
+			super("map can not be modified by read only execution");
+		}
+	}
+
+	private static final ThreadLocal<Boolean> readOnly = new ThreadLocal<Boolean>();
+
+	public static void enter() {
+		readOnly.set(Boolean.TRUE);
+	}
+
+	public static void leave() {
+		readOnly.remove();
+	}
+
+	public static boolean isActive() {
+		return readOnly.get() != null;
+	}
+
+	public static void checkModificationAllowed() {
+		if (isActive())
+			throw new ModificationException();
+	}
+
+	public static boolean isCausedByModification(Throwable throwable) {
+		for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+			if (cause instanceof ModificationException)
+				return true;
+		}
+		return false;
+	}
+}
@@ -22,6 +22,7 @@ package org.freeplane.features.mode.mindmapmode;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URL;
 import java.util.Vector;
+import java.util.concurrent.locks.Lock;
 
 import javax.swing.UIManager;
 import javax.swing.UIManager.LookAndFeelInfo;
@@ -29,6 +30,7 @@ import javax.swing.UIManager.LookAndFeelInfo;
 import org.freeplane.core.resources.ResourceController;
 import org.freeplane.core.resources.components.OptionPanelBuilder;
 import org.freeplane.core.resources.components.ShowPreferencesAction;
+import org.freeplane.core.task.BackgroundTaskService;
 import org.freeplane.core.ui.IndexedTree;
 import org.freeplane.core.ui.menubuilders.generic.UserRole;
 import org.freeplane.core.ui.menubuilders.generic.UserRole.Interfaces;
@@ -39,6 +41,7 @@ import org.freeplane.features.map.MapModel;
 import org.freeplane.features.map.mindmapmode.MMapModel;
 import org.freeplane.features.mode.Controller;
 import org.freeplane.features.mode.ModeController;
+import org.freeplane.features.mode.ReadOnlyExecution;
 import org.freeplane.features.note.NoteController;
 import org.freeplane.features.note.mindmapmode.MNoteController;
 import org.freeplane.features.url.UrlManager;
@@ -150,11 +153,19 @@ public class MModeController extends ModeController {
 
 	@Override
 	public void execute(final IActor actor, final MapModel map) {
+		ReadOnlyExecution.checkModificationAllowed();
 		if(actor.isReadonly() || canEdit(map)) {
 			try {
 				Controller.getCurrentController().getViewController().invokeAndWait(() -> {
-					addUndoableActor(actor, map);
-					actor.act();
+					final Lock writeLock = map != null ? BackgroundTaskService.getInstance().lockForWriting(map.getLock()) : null;
+					try {
+						addUndoableActor(actor, map);
+						actor.act();
+					}
+					finally {
+						if (writeLock != null)
+							writeLock.unlock();
+					}
 				});
 			} catch (InvocationTargetException | InterruptedException e) {
 				throw new RuntimeException(e);
@@ -0,0 +1,237 @@
+package org.freeplane.features.nodestyle;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.font.TextAttribute;
+import java.util.List;
+
+import org.freeplane.core.ui.LengthUnits;
+import org.freeplane.core.util.Quantity;
+import org.freeplane.features.DashVariant;
+import org.freeplane.features.edge.EdgeController;
+import org.freeplane.features.format.PatternFormat;
+import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.nodestyle.NodeStyleModel.HorizontalTextAlignment;
+import org.freeplane.features.styles.IStyle;
+import org.freeplane.features.styles.MapStyleModel;
+
+/**
+ * Node style properties of a style combination flattened into one immutable record.
+ *
+ * Each property holds the first value set by the styles in the order returned by
+ * {@link org.freeplane.features.styles.LogicalStyleController#getStyles(NodeModel)},
+ * except the style of the node itself whose values are looked up first by the getters.
+ * Records are cached by {@link MapStyleModel#getCompiledStyle(NodeModel, java.util.Collection)}.
+ */
+public final class CompiledStyle {
+	static final Quantity<LengthUnits> DEFAULT_MINIMUM_WIDTH = new Quantity<LengthUnits>(0, LengthUnits.cm);
+	static final Quantity<LengthUnits> DEFAULT_MAXIMUM_WIDTH = new Quantity<LengthUnits>(10, LengthUnits.cm);
+	static final Quantity<LengthUnits> DEFAULT_BORDER_WIDTH = new Quantity<LengthUnits>(1, LengthUnits.px);
+
+	private static class DerivedFont {
+		final Font baseFont;
+		final Font font;
+
+		DerivedFont(Font baseFont, Font font) {
+			this.baseFont = baseFont;
+			this.font = font;
+		}
+	}
+
+	private Boolean bold;
+	private Boolean strikedThrough;
+	private Boolean italic;
+	private String fontFamilyName;
+	private Integer fontSize;
+	private Color color;
+	private Color backgroundColor;
+	private ShapeConfigurationModel shapeConfiguration;
+	private HorizontalTextAlignment horizontalTextAlignment;
+	private String nodeFormat;
+	private Boolean nodeNumbering;
+	private Quantity<LengthUnits> maxNodeWidth;
+	private Quantity<LengthUnits> minNodeWidth;
+	private Boolean borderWidthMatchesEdgeWidth;
+	private Quantity<LengthUnits> borderWidth;
+	private Boolean borderDashMatchesEdgeDash;
+	private DashVariant borderDash;
+	private Boolean borderColorMatchesEdgeColor;
+	private Color borderColor;
+	private volatile DerivedFont derivedFont;
+
+	public static CompiledStyle compile(final MapStyleModel model, final List<IStyle> styles) {
+		final CompiledStyle compiledStyle = new CompiledStyle();
+		for (IStyle styleKey : styles) {
+			final NodeModel styleNode = model.getStyleNode(styleKey);
+			if (styleNode != null)
+				compiledStyle.add(styleNode);
+		}
+		compiledStyle.setDefaults();
+		return compiledStyle;
+	}
+
+	private CompiledStyle() {
+	}
+
+	private void add(final NodeModel styleNode) {
+		final NodeStyleModel styleModel = NodeStyleModel.getModel(styleNode);
+		if (styleModel != null) {
+			if (bold == null) bold = styleModel.isBold();
+			if (strikedThrough == null) strikedThrough = styleModel.isStrikedThrough();
+			if (italic == null) italic = styleModel.isItalic();
+			if (fontFamilyName == null) fontFamilyName = styleModel.getFontFamilyName();
+			if (fontSize == null) fontSize = styleModel.getFontSize();
+			if (color == null) color = styleModel.getColor();
+			if (backgroundColor == null) backgroundColor = styleModel.getBackgroundColor();
+			if (shapeConfiguration == null && styleModel.getShapeConfiguration().getShape() != null)
+				shapeConfiguration = styleModel.getShapeConfiguration();
+			if (horizontalTextAlignment == null) horizontalTextAlignment = styleModel.getHorizontalTextAlignment();
+			if (nodeFormat == null) nodeFormat = styleModel.getNodeFormat();
+			if (nodeNumbering == null) nodeNumbering = styleModel.getNodeNumbering();
+		}
+		final NodeSizeModel sizeModel = NodeSizeModel.getModel(styleNode);
+		if (sizeModel != null) {
+			if (maxNodeWidth == null) maxNodeWidth = sizeModel.getMaxNodeWidth();
+			if (minNodeWidth == null) minNodeWidth = sizeModel.getMinNodeWidth();
+		}
+		final NodeBorderModel borderModel = NodeBorderModel.getModel(styleNode);
+		if (borderModel != null) {
+			if (borderWidthMatchesEdgeWidth == null)
+				borderWidthMatchesEdgeWidth = borderModel.getBorderWidthMatchesEdgeWidth();
+			if (borderWidth == null) borderWidth = borderModel.getBorderWidth();
+			if (borderDashMatchesEdgeDash == null) borderDashMatchesEdgeDash = borderModel.getBorderDashMatchesEdgeDash();
+			if (borderDash == null) borderDash = borderModel.getBorderDash();
+			if (borderColorMatchesEdgeColor == null)
+				borderColorMatchesEdgeColor = borderModel.getBorderColorMatchesEdgeColor();
+			if (borderColor == null) borderColor = borderModel.getBorderColor();
+		}
+	}
+
+	private void setDefaults() {
+		if (nodeFormat == null)
+			// do not use PatternFormat.IDENTITY_PATTERN if parse_data=false because that would
+			// automatically disable all IContentTransformers!
+			nodeFormat = PatternFormat.STANDARD_FORMAT_PATTERN;
+		if (nodeNumbering == null) nodeNumbering = false;
+		if (maxNodeWidth == null) maxNodeWidth = DEFAULT_MAXIMUM_WIDTH;
+		if (minNodeWidth == null) minNodeWidth = DEFAULT_MINIMUM_WIDTH;
+		if (borderWidthMatchesEdgeWidth == null) borderWidthMatchesEdgeWidth = false;
+		if (borderWidth == null) borderWidth = DEFAULT_BORDER_WIDTH;
+		if (borderDashMatchesEdgeDash == null) borderDashMatchesEdgeDash = false;
+		if (borderDash == null) borderDash = DashVariant.DEFAULT;
+		if (borderColorMatchesEdgeColor == null) borderColorMatchesEdgeColor = true;
+		if (borderColor == null) borderColor = EdgeController.STANDARD_EDGE_COLOR;
+	}
+
+	private static <T> T first(T nodeValue, T styleValue) {
+		return nodeValue != null ? nodeValue : styleValue;
+	}
+
+	/** Returns the interned font of the node derived from the base font. */
+	Font getFont(final NodeModel node, final Font baseFont) {
+		final NodeStyleModel styleModel = NodeStyleModel.getModel(node);
+		if (styleModel != null && (styleModel.isBold() != null || styleModel.isStrikedThrough() != null
+		        || styleModel.isItalic() != null || styleModel.getFontFamilyName() != null
+		        || styleModel.getFontSize() != null))
+			return createFont(baseFont, first(styleModel.getFontFamilyName(), fontFamilyName),
+			    first(styleModel.getFontSize(), fontSize), first(styleModel.isBold(), bold),
+			    first(styleModel.isItalic(), italic), first(styleModel.isStrikedThrough(), strikedThrough));
+		final DerivedFont derivedFont = this.derivedFont;
+		if (derivedFont != null && derivedFont.baseFont.equals(baseFont))
+			return derivedFont.font;
+		final Font font = createFont(baseFont, fontFamilyName, fontSize, bold, italic, strikedThrough);
+		this.derivedFont = new DerivedFont(baseFont, font);
+		return font;
+	}
+
+	private static Font createFont(final Font baseFont, String family, Integer size, Boolean bold, Boolean italic,
+	                               Boolean strikedThrough) {
+		if (family == null && size == null && bold == null && italic == null) {
+			return baseFont;
+		}
+		if (family == null) {
+			family = baseFont.getFamily();
+		}
+		if (size == null) {
+			size = baseFont.getSize();
+		}
+		if (bold == null) {
+			bold = baseFont.isBold();
+		}
+		if (italic == null) {
+			italic = baseFont.isItalic();
+		}
+		int style = 0;
+		if (bold) {
+			style += Font.BOLD;
+		}
+		if (italic) {
+			style += Font.ITALIC;
+		}
+		final Font font = new Font(family, style, size);
+		if (strikedThrough == TextAttribute.STRIKETHROUGH_ON) {
+			return FontUtils.intern(FontUtils.strikeThrough(font));
+		}
+		else
+			return FontUtils.intern(font);
+	}
+
+	Color getColor(final NodeModel node) {
+		return first(NodeStyleModel.getColor(node), color);
+	}
+
+	Color getBackgroundColor(final NodeModel node) {
+		return first(NodeStyleModel.getBackgroundColor(node), backgroundColor);
+	}
+
+	ShapeConfigurationModel getShapeConfiguration(final NodeModel node) {
+		final NodeStyleModel styleModel = NodeStyleModel.getModel(node);
+		if (styleModel != null && styleModel.getShapeConfiguration().getShape() != null)
+			return styleModel.getShapeConfiguration();
+		return shapeConfiguration;
+	}
+
+	HorizontalTextAlignment getHorizontalTextAlignment(final NodeModel node) {
+		return first(NodeStyleModel.getHorizontalTextAlignment(node), horizontalTextAlignment);
+	}
+
+	String getNodeFormat(final NodeModel node) {
+		return first(NodeStyleModel.getNodeFormat(node), nodeFormat);
+	}
+
+	boolean getNodeNumbering(final NodeModel node) {
+		return first(NodeStyleModel.getNodeNumbering(node), nodeNumbering);
+	}
+
+	Quantity<LengthUnits> getMaxNodeWidth(final NodeModel node) {
+		return first(NodeSizeModel.getMaxNodeWidth(node), maxNodeWidth);
+	}
+
+	Quantity<LengthUnits> getMinNodeWidth(final NodeModel node) {
+		return first(NodeSizeModel.getMinNodeWidth(node), minNodeWidth);
+	}
+
+	Boolean getBorderWidthMatchesEdgeWidth(final NodeModel node) {
+		return first(NodeBorderModel.getBorderWidthMatchesEdgeWidth(node), borderWidthMatchesEdgeWidth);
+	}
+
+	Quantity<LengthUnits> getBorderWidth(final NodeModel node) {
+		return first(NodeBorderModel.getBorderWidth(node), borderWidth);
+	}
+
+	Boolean getBorderDashMatchesEdgeDash(final NodeModel node) {
+		return first(NodeBorderModel.getBorderDashMatchesEdgeDash(node), borderDashMatchesEdgeDash);
+	}
+
+	DashVariant getBorderDash(final NodeModel node) {
+		return first(NodeBorderModel.getBorderDash(node), borderDash);
+	}
+
+	Boolean getBorderColorMatchesEdgeColor(final NodeModel node) {
+		return first(NodeBorderModel.getBorderColorMatchesEdgeColor(node), borderColorMatchesEdgeColor);
+	}
+
+	Color getBorderColor(final NodeModel node) {
+		return first(NodeBorderModel.getBorderColor(node), borderColor);
+	}
+}
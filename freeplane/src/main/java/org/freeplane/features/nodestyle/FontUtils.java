@@ -4,7 +4,16 @@ import java.awt.Font;
 import java.awt.font.TextAttribute;
 import java.util.Map;
 
+import org.freeplane.core.util.collection.WeakInterner;
+
 public class FontUtils {
+	private static final WeakInterner<Font> internedFonts = new WeakInterner<Font>();
+
+	/** Returns the canonical instance of equal fonts, so that node styles share their fonts. */
+	public static Font intern(final Font font) {
+		return internedFonts.intern(font);
+	}
+
 	@SuppressWarnings("unchecked")
 	public static Font strikeThrough(final Font font) {
 		@SuppressWarnings("rawtypes")
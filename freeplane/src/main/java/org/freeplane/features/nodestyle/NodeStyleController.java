@@ -21,7 +21,6 @@ package org.freeplane.features.nodestyle;
 
 import java.awt.Color;
 import java.awt.Font;
-import java.awt.font.TextAttribute;
 import java.util.Collection;
 
 import org.freeplane.core.extension.IExtension;
@@ -31,8 +30,6 @@ import org.freeplane.core.resources.ResourceController;
 import org.freeplane.core.ui.LengthUnits;
 import org.freeplane.core.util.Quantity;
 import org.freeplane.features.DashVariant;
-import org.freeplane.features.edge.EdgeController;
-import org.freeplane.features.format.PatternFormat;
 import org.freeplane.features.map.MapController;
 import org.freeplane.features.map.MapModel;
 import org.freeplane.features.map.NodeModel;
@@ -75,10 +72,8 @@ public class NodeStyleController implements IExtension {
 	final private ExclusivePropertyChain<Color, NodeModel> textColorHandlers;
 	final private ExclusivePropertyChain<HorizontalTextAlignment, NodeModel> horizontalTextAlignmentHandlers;
 	public static final String NODE_NUMBERING = "NodeNumbering";
+	private static volatile Font defaultFont;
 	
-	private static final Quantity<LengthUnits> DEFAULT_MINIMUM_WIDTH = new Quantity<LengthUnits>(0, LengthUnits.cm);
-	private static final Quantity<LengthUnits> DEFAULT_MAXIMUM_WIDTH = new Quantity<LengthUnits>(10, LengthUnits.cm);
-	private static final Quantity<LengthUnits> DEFAULT_BORDER_WIDTH = new Quantity<LengthUnits>(1, LengthUnits.px);
 
 	public NodeStyleController(final ModeController modeController) {
 		this.modeController = modeController;
@@ -97,8 +92,7 @@ public class NodeStyleController implements IExtension {
 		});
 		addFontGetter(IPropertyHandler.STYLE, new IPropertyHandler<Font, NodeModel>() {
 			public Font getProperty(final NodeModel node, final Font currentValue) {
-				final Font defaultFont = getStyleFont(currentValue, node.getMap(), LogicalStyleController.getController(modeController).getStyles(node));
-				return defaultFont;
+				return getCompiledStyle(node).getFont(node, currentValue);
 			}
 		});
 		addColorGetter(IPropertyHandler.DEFAULT, new IPropertyHandler<Color, NodeModel>() {
@@ -108,21 +102,17 @@ public class NodeStyleController implements IExtension {
 		});
 		addColorGetter(IPropertyHandler.STYLE, new IPropertyHandler<Color, NodeModel>() {
 			public Color getProperty(final NodeModel node, final Color currentValue) {
-				return getStyleTextColor(node.getMap(), LogicalStyleController.getController(modeController).getStyles(node));
+				return getCompiledStyle(node).getColor(node);
 			}
 		});
 		addBackgroundColorGetter(IPropertyHandler.STYLE, new IPropertyHandler<Color, NodeModel>() {
 			public Color getProperty(final NodeModel node, final Color currentValue) {
-				return getStyleBackgroundColor(node.getMap(), LogicalStyleController.getController(modeController).getStyles(node));
+				return getCompiledStyle(node).getBackgroundColor(node);
 			}
 		});
 		addShapeGetter(IPropertyHandler.STYLE, new IPropertyHandler<ShapeConfigurationModel, NodeModel>() {
 			public ShapeConfigurationModel getProperty(final NodeModel node, final ShapeConfigurationModel currentValue) {
-				final MapModel map = node.getMap();
-				final LogicalStyleController styleController = LogicalStyleController.getController(modeController);
-				final Collection<IStyle> style = styleController.getStyles(node);
-				final ShapeConfigurationModel returnedShape = getStyleShape(map, style);
-				return returnedShape;
+				return getCompiledStyle(node).getShapeConfiguration(node);
 			}
 		});
 		addShapeGetter(IPropertyHandler.DEFAULT, new IPropertyHandler<ShapeConfigurationModel, NodeModel>() {
@@ -139,7 +129,7 @@ public class NodeStyleController implements IExtension {
 		
 		addTextAlignGetter(IPropertyHandler.STYLE, new IPropertyHandler<HorizontalTextAlignment, NodeModel>() {
 			public HorizontalTextAlignment getProperty(final NodeModel node, final HorizontalTextAlignment currentValue) {
-				return getHorizontalTextAlignment(node.getMap(), LogicalStyleController.getController(modeController).getStyles(node));
+				return getCompiledStyle(node).getHorizontalTextAlignment(node);
 			}
 		});
 		
@@ -183,193 +173,15 @@ public class NodeStyleController implements IExtension {
 		return textColorHandlers.getProperty(node);
 	}
 
-	private Color getStyleBackgroundColor(final MapModel map, final Collection<IStyle> styleKeys) {
-		final MapStyleModel model = MapStyleModel.getExtension(map);
-		for(IStyle styleKey : styleKeys){
-			final NodeModel styleNode = model.getStyleNode(styleKey);
-			if (styleNode == null) {
-				continue;
-			}
-			final NodeStyleModel styleModel = NodeStyleModel.getModel(styleNode);
-			if (styleModel == null) {
-				continue;
-			}
-			final Color styleColor =styleModel.getBackgroundColor();
-			if (styleColor == null) {
-				continue;
-			}
-			return styleColor;
-		}
-		return null;
-	}
-
-	private Quantity<LengthUnits> getMaxNodeWidth(final MapModel map, final Collection<IStyle> styleKeys) {
-		final MapStyleModel model = MapStyleModel.getExtension(map);
-		for(IStyle styleKey : styleKeys){
-			final NodeModel styleNode = model.getStyleNode(styleKey);
-			if (styleNode == null) {
-				continue;
-			}
-			final NodeSizeModel sizeModel = NodeSizeModel.getModel(styleNode);
-			if (sizeModel == null) {
-				continue;
-			}
-			final Quantity<LengthUnits> maxTextWidth = sizeModel.getMaxNodeWidth();
-			if (maxTextWidth == null) {
-				continue;
-			}
-			return maxTextWidth;
-		}
-		return DEFAULT_MAXIMUM_WIDTH;
-	}
-	
-	private Quantity<LengthUnits> getStyleMinWidth(final MapModel map, final Collection<IStyle> styleKeys) {
-		final MapStyleModel model = MapStyleModel.getExtension(map);
-		for(IStyle styleKey : styleKeys){
-			final NodeModel styleNode = model.getStyleNode(styleKey);
-			if (styleNode == null) {
-				continue;
-			}
-			final NodeSizeModel sizeModel = NodeSizeModel.getModel(styleNode);
-			if (sizeModel == null) {
-				continue;
-			}
-			final Quantity<LengthUnits> minWidth = sizeModel.getMinNodeWidth();
-			if (minWidth == null) {
-				continue;
-			}
-			return minWidth;
-		}
-		return DEFAULT_MINIMUM_WIDTH;
-	}
-	
-	private Boolean getBorderWidthMatchesEdgeWidth(final MapModel map, final Collection<IStyle> styleKeys) {
-		final MapStyleModel model = MapStyleModel.getExtension(map);
-		for(IStyle styleKey : styleKeys){
-			final NodeModel styleNode = model.getStyleNode(styleKey);
-			if (styleNode == null) {
-				continue;
-			}
-			final NodeBorderModel borderModel = NodeBorderModel.getModel(styleNode);
-			if (borderModel == null) {
-				continue;
-			}
-			final Boolean borderWidthMatchesEdgeWidth = borderModel.getBorderWidthMatchesEdgeWidth();
-			if (borderWidthMatchesEdgeWidth == null) {
-				continue;
-			}
-			return borderWidthMatchesEdgeWidth;
-		}
-		return false;
-	}
-	
-	private Quantity<LengthUnits> getBorderWidth(final MapModel map, final Collection<IStyle> styleKeys) {
-		final MapStyleModel model = MapStyleModel.getExtension(map);
-		for(IStyle styleKey : styleKeys){
-			final NodeModel styleNode = model.getStyleNode(styleKey);
-			if (styleNode == null) {
-				continue;
-			}
-			final NodeBorderModel borderModel = NodeBorderModel.getModel(styleNode);
-			if (borderModel == null) {
-				continue;
-			}
-			final Quantity<LengthUnits> borderWidth = borderModel.getBorderWidth();
-			if (borderWidth == null) {
-				continue;
-			}
-			return borderWidth;
-		}
-		return DEFAULT_BORDER_WIDTH;
-	}
-	
-	
-	private Boolean getBorderDashMatchesEdgeDash(final MapModel map, final Collection<IStyle> styleKeys) {
-		final MapStyleModel model = MapStyleModel.getExtension(map);
-		for(IStyle styleKey : styleKeys){
-			final NodeModel styleNode = model.getStyleNode(styleKey);
-			if (styleNode == null) {
-				continue;
-			}
-			final NodeBorderModel borderModel = NodeBorderModel.getModel(styleNode);
-			if (borderModel == null) {
-				continue;
-			}
-			final Boolean borderDashMatchesEdgeDash = borderModel.getBorderDashMatchesEdgeDash();
-			if (borderDashMatchesEdgeDash == null) {
-				continue;
-			}
-			return borderDashMatchesEdgeDash;
-		}
-		return false;
-	}
-	
-	private DashVariant getBorderDash(final MapModel map, final Collection<IStyle> styleKeys) {
-		final MapStyleModel model = MapStyleModel.getExtension(map);
-		for(IStyle styleKey : styleKeys){
-			final NodeModel styleNode = model.getStyleNode(styleKey);
-			if (styleNode == null) {
-				continue;
-			}
-			final NodeBorderModel borderModel = NodeBorderModel.getModel(styleNode);
-			if (borderModel == null) {
-				continue;
-			}
-			final DashVariant borderDash = borderModel.getBorderDash();
-			if (borderDash == null) {
-				continue;
-			}
-			return borderDash;
-		}
-		return DashVariant.DEFAULT;
-	}
-	
-	
-	private Boolean getBorderColorMatchesEdgeColor(final MapModel map, final Collection<IStyle> styleKeys) {
-		final MapStyleModel model = MapStyleModel.getExtension(map);
-		for(IStyle styleKey : styleKeys){
-			final NodeModel styleNode = model.getStyleNode(styleKey);
-			if (styleNode == null) {
-				continue;
-			}
-			final NodeBorderModel borderModel = NodeBorderModel.getModel(styleNode);
-			if (borderModel == null) {
-				continue;
-			}
-			final Boolean borderColorMatchesEdgeColor = borderModel.getBorderColorMatchesEdgeColor();
-			if (borderColorMatchesEdgeColor == null) {
-				continue;
-			}
-			return borderColorMatchesEdgeColor;
-		}
-		return true;
-	}
-	
-	private Color getBorderColor(final MapModel map, final Collection<IStyle> styleKeys) {
-		final MapStyleModel model = MapStyleModel.getExtension(map);
-		for(IStyle styleKey : styleKeys){
-			final NodeModel styleNode = model.getStyleNode(styleKey);
-			if (styleNode == null) {
-				continue;
-			}
-			final NodeBorderModel borderModel = NodeBorderModel.getModel(styleNode);
-			if (borderModel == null) {
-				continue;
-			}
-			final Color borderColor = borderModel.getBorderColor();
-			if (borderColor == null) {
-				continue;
-			}
-			return borderColor;
-		}
-		return EdgeController.STANDARD_EDGE_COLOR;
-	}
-	
 	public static Font getDefaultFont() {
 		final int fontSize = NodeStyleController.getDefaultFontSize();
 		final int fontStyle = NodeStyleController.getDefaultFontStyle();
 		final String fontFamily = NodeStyleController.getDefaultFontFamilyName();
-		return new Font(fontFamily, fontStyle, fontSize);
+		final Font defaultFont = NodeStyleController.defaultFont;
+		if (defaultFont != null && defaultFont.getSize() == fontSize && defaultFont.getStyle() == fontStyle
+		        && defaultFont.getName().equals(fontFamily))
+			return defaultFont;
+		return NodeStyleController.defaultFont = FontUtils.intern(new Font(fontFamily, fontStyle, fontSize));
 	}
 
 	/**
@@ -392,126 +204,15 @@ public class NodeStyleController implements IExtension {
 		return getFont(styleNode);
 	}
 
-	private Font getStyleFont(final Font baseFont, final MapModel map, final Collection<IStyle> collection) {
-		final MapStyleModel model = MapStyleModel.getExtension(map);
-		Boolean bold = null;
-		Boolean strikedThrough = null;
-        Boolean italic = null;
-        String fontFamilyName = null;
-        Integer fontSize = null;
-		for(IStyle styleKey : collection){
-			final NodeModel styleNode = model.getStyleNode(styleKey);
-			if (styleNode == null) {
-				continue;
-			}
-			final NodeStyleModel styleModel = NodeStyleModel.getModel(styleNode);
-			if (styleModel == null) {
-				continue;
-			}
-			if (bold == null) bold = styleModel.isBold();
-			if (strikedThrough == null) strikedThrough = styleModel.isStrikedThrough();
-			if (italic == null) italic = styleModel.isItalic();
-			if (fontFamilyName == null) fontFamilyName = styleModel.getFontFamilyName();
-			if (fontSize == null) fontSize = styleModel.getFontSize();
-			if(bold != null && italic != null && fontFamilyName != null && fontSize != null && strikedThrough == null) break;
-		}
-		return createFont(baseFont, fontFamilyName, fontSize, bold, italic, strikedThrough);
-	}
-
 	public HorizontalTextAlignment getHorizontalTextAlignment(final NodeModel node) {
 		return horizontalTextAlignmentHandlers.getProperty(node);
 	}
 
-	private Font createFont(final Font baseFont, String family, Integer size, Boolean bold, Boolean italic, Boolean strikedThrough) {
-		if (family == null && size == null && bold == null && italic == null) {
-			return baseFont;
-		}
-		if (family == null) {
-			family = baseFont.getFamily();
-		}
-		if (size == null) {
-			size = baseFont.getSize();
-		}
-		if (bold == null) {
-			bold = baseFont.isBold();
-		}
-		if (italic == null) {
-			italic = baseFont.isItalic();
-		}
-		int style = 0;
-		if (bold) {
-			style += Font.BOLD;
-		}
-		if (italic) {
-			style += Font.ITALIC;
-		}
-		final Font font = new Font(family, style, size);
-		if(strikedThrough == TextAttribute.STRIKETHROUGH_ON) {
-			return FontUtils.strikeThrough(font);
-		}
-		else
-			return font;
-	}
-
-	private ShapeConfigurationModel getStyleShape(final MapModel map, final Collection<IStyle> style) {
-		final MapStyleModel model = MapStyleModel.getExtension(map);
-		for(IStyle styleKey : style){
-			final NodeModel styleNode = model.getStyleNode(styleKey);
-			if (styleNode == null) {
-				continue;
-			}
-			final NodeStyleModel styleModel = NodeStyleModel.getModel(styleNode);
-			if (styleModel == null) {
-				continue;
-			}
-			final ShapeConfigurationModel shapeConfiguration = styleModel.getShapeConfiguration();
-			if (shapeConfiguration.getShape() == null) {
-				continue;
-			}
-			return shapeConfiguration;
-		}
-		return null;
-	}
-
-	private Color getStyleTextColor(final MapModel map, final Collection<IStyle> collection) {
-		final MapStyleModel model = MapStyleModel.getExtension(map);
-		for(IStyle styleKey : collection){
-			final NodeModel styleNode = model.getStyleNode(styleKey);
-			if (styleNode == null) {
-				continue;
-			}
-			final NodeStyleModel styleModel = NodeStyleModel.getModel(styleNode);
-			if (styleModel == null) {
-				continue;
-			}
-			final Color styleColor = styleModel == null ? null : styleModel.getColor();
-			if (styleColor == null) {
-				continue;
-			}
-			return styleColor;
-		}
-		return null;
+	private CompiledStyle getCompiledStyle(final NodeModel node) {
+		final Collection<IStyle> styles = LogicalStyleController.getController(modeController).getStyles(node);
+		return MapStyleModel.getExtension(node.getMap()).getCompiledStyle(node, styles);
 	}
 
-	private HorizontalTextAlignment getHorizontalTextAlignment(final MapModel map, final Collection<IStyle> style) {
-		final MapStyleModel model = MapStyleModel.getExtension(map);
-		for(IStyle styleKey : style){
-			final NodeModel styleNode = model.getStyleNode(styleKey);
-			if (styleNode == null) {
-				continue;
-			}
-			final NodeStyleModel styleModel = NodeStyleModel.getModel(styleNode);
-			if (styleModel == null) {
-				continue;
-			}
-			final HorizontalTextAlignment textAlignment = styleModel.getHorizontalTextAlignment();
-			if (textAlignment == null) {
-				continue;
-			}
-			return textAlignment;
-		}
-		return null;
-	}
 	public Font getFont(final NodeModel node) {
 		final Font font = fontHandlers.getProperty(node, null);
 		return font;
@@ -547,55 +248,21 @@ public class NodeStyleController implements IExtension {
 	}
 
 	public String getNodeFormat(NodeModel node) {
-		Collection<IStyle> collection = LogicalStyleController.getController(modeController).getStyles(node);
-		final MapStyleModel model = MapStyleModel.getExtension(node.getMap());
-		for(IStyle styleKey : collection){
-			final NodeModel styleNode = model.getStyleNode(styleKey);
-			if (styleNode == null) {
-				continue;
-			}
-			final String format = NodeStyleModel.getNodeFormat(styleNode);
-			if (format != null) {
-				return format;
-			}
-        } 
-		// do not return PatternFormat.IDENTITY_PATTERN if parse_data=false because that would
-		// automatically disable all IContentTransformers!
-		return PatternFormat.STANDARD_FORMAT_PATTERN;
+		return getCompiledStyle(node).getNodeFormat(node);
     }
 
     public boolean getNodeNumbering(NodeModel node) {
     	if(SummaryNode.isFirstGroupNode(node) || SummaryNode.isSummaryNode(node))
     		return false;
-		Collection<IStyle> collection = LogicalStyleController.getController(modeController).getStyles(node);
-		final MapStyleModel model = MapStyleModel.getExtension(node.getMap());
-		for(IStyle styleKey : collection){
-			final NodeModel styleNode = model.getStyleNode(styleKey);
-			if (styleNode == null) {
-				continue;
-			}
-			final Boolean numbering = NodeStyleModel.getNodeNumbering(styleNode);
-			if (numbering != null) {
-				return numbering;
-			}
-		}
-		return false;
+		return getCompiledStyle(node).getNodeNumbering(node);
     }
 
 	public Quantity<LengthUnits> getMaxWidth(NodeModel node) {
-		final MapModel map = node.getMap();
-		final LogicalStyleController styleController = LogicalStyleController.getController(modeController);
-		final Collection<IStyle> style = styleController.getStyles(node);
-		final Quantity<LengthUnits> maxTextWidth = getMaxNodeWidth(map, style);
-		return maxTextWidth;
+		return getCompiledStyle(node).getMaxNodeWidth(node);
     }
 
 	public Quantity<LengthUnits> getMinWidth(NodeModel node) {
-		final MapModel map = node.getMap();
-		final LogicalStyleController styleController = LogicalStyleController.getController(modeController);
-		final Collection<IStyle> styles = styleController.getStyles(node);
-		final Quantity<LengthUnits> minWidth = getStyleMinWidth(map, styles);
-		return minWidth;
+		return getCompiledStyle(node).getMinNodeWidth(node);
     }
 
 	public ModeController getModeController() {
@@ -603,51 +270,27 @@ public class NodeStyleController implements IExtension {
     }
 
 	public Boolean getBorderWidthMatchesEdgeWidth(NodeModel node) {
-		final MapModel map = node.getMap();
-		final LogicalStyleController styleController = LogicalStyleController.getController(modeController);
-		final Collection<IStyle> style = styleController.getStyles(node);
-		final Boolean borderWidthMatchesEdgeWidth = getBorderWidthMatchesEdgeWidth(map, style);
-		return borderWidthMatchesEdgeWidth;
+		return getCompiledStyle(node).getBorderWidthMatchesEdgeWidth(node);
 	}
 
 	public Boolean getBorderDashMatchesEdgeDash(NodeModel node) {
-		final MapModel map = node.getMap();
-		final LogicalStyleController styleController = LogicalStyleController.getController(modeController);
-		final Collection<IStyle> style = styleController.getStyles(node);
-		final Boolean borderDashMatchesEdgeDash = getBorderDashMatchesEdgeDash(map, style);
-		return borderDashMatchesEdgeDash;
+		return getCompiledStyle(node).getBorderDashMatchesEdgeDash(node);
 	}
 
 	public Quantity<LengthUnits> getBorderWidth(NodeModel node) {
-		final MapModel map = node.getMap();
-		final LogicalStyleController styleController = LogicalStyleController.getController(modeController);
-		final Collection<IStyle> style = styleController.getStyles(node);
-		final Quantity<LengthUnits> borderWidth = getBorderWidth(map, style);
-		return borderWidth;
+		return getCompiledStyle(node).getBorderWidth(node);
 	}
 
 	public DashVariant getBorderDash(NodeModel node) {
-		final MapModel map = node.getMap();
-		final LogicalStyleController styleController = LogicalStyleController.getController(modeController);
-		final Collection<IStyle> style = styleController.getStyles(node);
-		final DashVariant borderDash = getBorderDash(map, style);
-		return borderDash;
+		return getCompiledStyle(node).getBorderDash(node);
 	}
 
 	public Boolean getBorderColorMatchesEdgeColor(NodeModel node) {
-		final MapModel map = node.getMap();
-		final LogicalStyleController styleController = LogicalStyleController.getController(modeController);
-		final Collection<IStyle> style = styleController.getStyles(node);
-		final Boolean borderColorMatchesEdgeColor = getBorderColorMatchesEdgeColor(map, style);
-		return borderColorMatchesEdgeColor;
+		return getCompiledStyle(node).getBorderColorMatchesEdgeColor(node);
 	}
 
 	public Color getBorderColor(NodeModel node) {
-		final MapModel map = node.getMap();
-		final LogicalStyleController styleController = LogicalStyleController.getController(modeController);
-		final Collection<IStyle> style = styleController.getStyles(node);
-		final Color borderColor = getBorderColor(map, style);
-		return borderColor;
+		return getCompiledStyle(node).getBorderColor(node);
 	}
 
 	public boolean isStrikedThrough(NodeModel node) {
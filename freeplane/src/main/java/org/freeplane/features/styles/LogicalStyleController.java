@@ -64,8 +64,18 @@ public class LogicalStyleController implements IExtension {
 // 	final private ModeController modeController;
 
 	private static final int STYLE_TOOLTIP = 0;
-	private WeakReference<NodeModel> cachedNode;
-	private Collection<IStyle>  cachedStyle;
+	/** Styles of the last node, replaced as a whole because styles are also looked up by background tasks. */
+	private static class CachedStyles {
+		final WeakReference<NodeModel> node;
+		final Collection<IStyle> styles;
+
+		CachedStyles(NodeModel node, Collection<IStyle> styles) {
+			this.node = new WeakReference<NodeModel>(node);
+			this.styles = styles;
+		}
+	}
+
+	private volatile CachedStyles cachedStyles;
 	final private CombinedPropertyChain<Collection<IStyle>, NodeModel> styleHandlers;
 
 	public LogicalStyleController(ModeController modeController) {
@@ -143,7 +153,7 @@ public class LogicalStyleController implements IExtension {
 			if(conditionalStyleModel == null)
 				return;
 			Collection<IStyle> styles = conditionalStyleModel.getStyles(node);
-			cachedNode = null;
+			cachedStyles = null;
 			addAll(node, styleModel, currentValue, styles);
     }
 
@@ -173,16 +183,35 @@ public class LogicalStyleController implements IExtension {
 
 			public void mapChanged(MapChangeEvent event) {
 				clearCache();
+				final MapModel map = event.getMap();
+				if (map != null)
+					clearCompiledStyles(map);
 			}
 		});
 		mapController.addNodeChangeListener(new INodeChangeListener() {
 			public void nodeChanged(NodeChangeEvent event) {
 				clearCache();
+				final NodeModel node = event.getNode();
+				final MapModel map = node.getMap();
+				if (map instanceof StyleMapModel)
+					clearCompiledStyles(map);
+				else if (map != null && map.getRootNode() != null) {
+					final MapStyleModel mapStyleModel = MapStyleModel.getExtension(map.getRootNode());
+					if (mapStyleModel != null)
+						mapStyleModel.nodeStyleChanged(node);
+				}
 			}
 		});
 
     }
 
+	private void clearCompiledStyles(final MapModel map) {
+		final NodeModel rootNode = map.getRootNode();
+		final MapStyleModel mapStyleModel = rootNode != null ? MapStyleModel.getExtension(rootNode) : null;
+		if (mapStyleModel != null)
+			mapStyleModel.stylesChanged();
+	}
+
 	private void createBuilder() {
 		ModeController modeController = Controller.getCurrentModeController();
 		final MapController mapController = modeController.getMapController();
@@ -299,14 +328,14 @@ public class LogicalStyleController implements IExtension {
 		return MapStyleModel.DEFAULT_STYLE;
 	}
 	public Collection<IStyle>  getStyles(final NodeModel node) {
-		if(cachedNode != null && node.equals(cachedNode.get())){
-			return cachedStyle;
+		final CachedStyles cached = cachedStyles;
+		if(cached != null && node.equals(cached.node.get())){
+			return cached.styles;
 		}
-		cachedStyle = null;
-		cachedNode = null;
-		cachedStyle = styleHandlers.getProperty(node, new LinkedHashSet<IStyle>());
-		cachedNode = new WeakReference<NodeModel>(node);
-		return cachedStyle;
+		cachedStyles = null;
+		final Collection<IStyle> styles = styleHandlers.getProperty(node, new LinkedHashSet<IStyle>());
+		cachedStyles = new CachedStyles(node, styles);
+		return styles;
 	}
 
 	public void moveConditionalStyleDown(final ConditionalStyleModel conditionalStyleModel, int index) {
@@ -332,8 +361,7 @@ public class LogicalStyleController implements IExtension {
     }
 
 	private void clearCache() {
-	    cachedStyle = null;
-	    cachedNode = null;
+	    cachedStyles = null;
     }
 
 	public IPropertyHandler<Collection<IStyle>, NodeModel> addStyleGetter(
@@ -23,12 +23,16 @@ import java.awt.Color;
 import java.io.Reader;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.swing.ComboBoxModel;
 import javax.swing.DefaultComboBoxModel;
@@ -53,6 +57,7 @@ import org.freeplane.features.map.NodeModel;
 import org.freeplane.features.mode.Controller;
 import org.freeplane.features.mode.ModeController;
 import org.freeplane.features.nodelocation.LocationModel;
+import org.freeplane.features.nodestyle.CompiledStyle;
 import org.freeplane.features.nodestyle.NodeSizeModel;
 import org.freeplane.features.nodestyle.NodeStyleModel;
 import org.freeplane.features.nodestyle.ShapeConfigurationModel;
@@ -75,6 +80,8 @@ public class MapStyleModel implements IExtension {
 	private ConditionalStyleModel conditionalStyleModel;
 	final private DefaultComboBoxModel stylesComboBoxModel;
 	final private Map<String, String> properties;
+	final private Map<List<IStyle>, CompiledStyle> compiledStyles = new ConcurrentHashMap<List<IStyle>, CompiledStyle>();
+	final private Set<NodeModel> compiledOwnStyleNodes = Collections.newSetFromMap(new ConcurrentHashMap<NodeModel, Boolean>());
 
 	Map<String, String> getProperties() {
 		return properties;
@@ -119,6 +126,7 @@ public class MapStyleModel implements IExtension {
 
 	public void refreshStyles() {
 		final NodeModel rootNode = styleMap.getRootNode();
+		stylesChanged();
 		styleNodes.clear();
 		stylesComboBoxModel.removeAllElements();
 		createNodeStyleMap(rootNode);
@@ -252,6 +260,42 @@ public class MapStyleModel implements IExtension {
 		return node;
 	}
 
+	/**
+	 * Returns the node style properties of the given styles of the node without the style of the node itself.
+	 * Records of style combinations are cached until {@link #stylesChanged()} is called,
+	 * records including the own style of another node until {@link #nodeStyleChanged(NodeModel)} is called for it.
+	 */
+	public CompiledStyle getCompiledStyle(final NodeModel node, final Collection<IStyle> styles) {
+		final List<IStyle> styleCombination = new ArrayList<IStyle>(styles.size());
+		for (IStyle style : styles) {
+			if (style instanceof StyleNode) {
+				final NodeModel styleNode = ((StyleNode) style).getNode();
+				if (styleNode == node)
+					continue;
+				compiledOwnStyleNodes.add(styleNode);
+			}
+			styleCombination.add(style);
+		}
+		final CompiledStyle compiledStyle = compiledStyles.get(styleCombination);
+		if (compiledStyle != null)
+			return compiledStyle;
+		final CompiledStyle newCompiledStyle = CompiledStyle.compile(this, styleCombination);
+		compiledStyles.put(styleCombination, newCompiledStyle);
+		return newCompiledStyle;
+	}
+
+	/** Drops the compiled styles after style nodes or style references changed. */
+	public void stylesChanged() {
+		compiledOwnStyleNodes.clear();
+		compiledStyles.clear();
+	}
+
+	/** Drops the compiled styles after a node changed whose own style is part of a compiled style combination. */
+	public void nodeStyleChanged(final NodeModel node) {
+		if (compiledOwnStyleNodes.contains(node))
+			stylesChanged();
+	}
+
 	public Color getBackgroundColor() {
 		return backgroundColor;
 	}
@@ -1,13 +1,21 @@
 package org.freeplane.features.styles;
 
 import org.freeplane.core.resources.TranslatedObject;
+import org.freeplane.core.util.collection.WeakInterner;
 
 public class StyleFactory {
+	/** styles are immutable and referenced from many nodes, so equal styles are shared */
+	private static final WeakInterner<IStyle> styles = new WeakInterner<IStyle>();
+
 	public static IStyle create(String string){
-		return new StyleString(string);
+		return intern(new StyleString(string));
 	}
 
 	public static IStyle create(TranslatedObject no){
-		return new StyleTranslatedObject(no);
+		return intern(new StyleTranslatedObject(no));
+	}
+
+	private static IStyle intern(IStyle style) {
+		return styles.intern(style);
 	}
 }
@@ -18,6 +18,14 @@ public class StyleNode implements IStyle {
     public String toString() {
 	    return node.toString();
     }
-	
-	
+
+	@Override
+	public int hashCode() {
+		return System.identityHashCode(node);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof StyleNode && ((StyleNode) obj).node == node;
+	}
 }
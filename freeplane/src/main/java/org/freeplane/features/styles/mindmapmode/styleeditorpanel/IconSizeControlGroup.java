@@ -25,7 +25,7 @@ class IconSizeControlGroup implements ControlGroup{
 		}
 		@Override
 		void setStyleOnExternalChange(NodeModel node) {
-			final Quantity<LengthUnits> iconSize = node.getSharedData().getIcons().getIconSize();
+			final Quantity<LengthUnits> iconSize = node.getSharedData().getIconSize();
 			final Quantity<LengthUnits> viewedIconSize = IconController.getController().getIconSize(node);
 			mSetIconSize.setValue(iconSize != null);
 			mIconSize.setQuantifiedValue(viewedIconSize);
@@ -1,19 +1,23 @@
 package org.freeplane.features.text;
 
-import java.util.List;
-
 import org.freeplane.core.util.HtmlUtils;
 import org.freeplane.features.format.FormatController;
 import org.freeplane.features.format.PatternFormat;
+import org.freeplane.features.map.MapController;
 import org.freeplane.features.map.NodeModel;
 import org.freeplane.features.map.SummaryNode;
 
 class FormatContentTransformer extends AbstractContentTransformer {
 	final private TextController textController;
+	final private NodeNumbering nodeNumbering;
 
 	public FormatContentTransformer(final TextController textController, final int priority) {
 		super(priority);
 		this.textController = textController;
+		nodeNumbering = new NodeNumbering(textController);
+		final MapController mapController = textController.getModeController().getMapController();
+		mapController.addNodeChangeListener(nodeNumbering);
+		mapController.addMapChangeListener(nodeNumbering);
 	}
 
 	public Object transformContent(TextController textController, Object obj, final NodeModel node, Object transformedExtension) {
@@ -84,15 +88,7 @@ class FormatContentTransformer extends AbstractContentTransformer {
 		if(parentNode == null)
 			return;
 		addMajorNumbers(parentNode, builder);
-		final List<NodeModel> children = parentNode.getChildren();
-		int counter = 1;
-		for (NodeModel child : children) {
-			if(child.createID().equals(node.createID()))
-				break;
-			if(textController.getNodeNumbering(child))
-				counter++;
-		}
-		builder.append(counter);
+		builder.append(nodeNumbering.getNumber(node));
 	}
 
 	private void addMajorNumbers(final NodeModel node, StringBuilder builder) {
@@ -0,0 +1,89 @@
+package org.freeplane.features.text;
+
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.freeplane.features.map.IMapChangeListener;
+import org.freeplane.features.map.INodeChangeListener;
+import org.freeplane.features.map.MapChangeEvent;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeChangeEvent;
+import org.freeplane.features.map.NodeModel;
+
+/**
+ * Caches the numbers of numbered nodes among their siblings.
+ *
+ * The numbers of all children of a node are calculated in one pass and reused until the map structure changes,
+ * see {@link MapModel#getStructuralModificationCount()}, or any node or map change is reported,
+ * because node numbering depends on styles which may change with them.
+ */
+class NodeNumbering implements INodeChangeListener, IMapChangeListener {
+	private static class ChildNumbers {
+		final int structuralModificationCount;
+		final int[] numbers;
+
+		ChildNumbers(int structuralModificationCount, int[] numbers) {
+			this.structuralModificationCount = structuralModificationCount;
+			this.numbers = numbers;
+		}
+	}
+
+	private final TextController textController;
+	private final Map<NodeModel, ChildNumbers> childNumbers = new WeakHashMap<NodeModel, ChildNumbers>();
+	private int clearCount;
+
+	NodeNumbering(TextController textController) {
+		this.textController = textController;
+	}
+
+	/** Returns one plus the count of numbered siblings preceding the node. */
+	int getNumber(NodeModel node) {
+		final NodeModel parentNode = node.getParentNode();
+		final MapModel map = parentNode.getMap();
+		final int structuralModificationCount = map != null ? map.getStructuralModificationCount() : 0;
+		ChildNumbers numbers;
+		final int clearCountBefore;
+		synchronized (this) {
+			numbers = childNumbers.get(parentNode);
+			clearCountBefore = clearCount;
+		}
+		if (numbers == null || numbers.structuralModificationCount != structuralModificationCount) {
+			// calculated without holding the monitor because styles may be evaluated by formulas
+			numbers = new ChildNumbers(structuralModificationCount, calculateNumbers(parentNode));
+			synchronized (this) {
+				if (clearCount == clearCountBefore)
+					childNumbers.put(parentNode, numbers);
+			}
+		}
+		final int index = parentNode.getIndex(node);
+		return index >= 0 && index < numbers.numbers.length ? numbers.numbers[index] : 1;
+	}
+
+	private int[] calculateNumbers(NodeModel parentNode) {
+		final List<NodeModel> children = parentNode.getChildren();
+		final int[] numbers = new int[children.size()];
+		int counter = 1;
+		for (int i = 0; i < numbers.length; i++) {
+			numbers[i] = counter;
+			if (textController.getNodeNumbering(children.get(i)))
+				counter++;
+		}
+		return numbers;
+	}
+
+	private synchronized void clear() {
+		clearCount++;
+		childNumbers.clear();
+	}
+
+	@Override
+	public void nodeChanged(NodeChangeEvent event) {
+		clear();
+	}
+
+	@Override
+	public void mapChanged(MapChangeEvent event) {
+		clear();
+	}
+}
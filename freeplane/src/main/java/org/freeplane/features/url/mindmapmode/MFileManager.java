@@ -63,6 +63,9 @@ import javax.swing.JOptionPane;
 import javax.swing.filechooser.FileFilter;
 
 import org.freeplane.core.extension.IExtension;
+import org.freeplane.core.metrics.Metrics;
+import org.freeplane.core.metrics.Operation;
+import org.freeplane.core.metrics.OperationTimer;
 import org.freeplane.core.resources.ResourceController;
 import org.freeplane.core.resources.TranslatedObject;
 import org.freeplane.core.resources.components.ComboProperty;
@@ -496,9 +499,31 @@ public class MFileManager extends UrlManager implements IMapViewChangeListener {
 		return selectedFile;
 	}
 
+	/** Checks whether loading the file would ask the user something,
+	 * e.g. about newer autosave revisions or about a format conversion. */
+	public boolean needsUserInteractionToLoad(final File file) {
+		if (findFileRevisions(file, MFileManager.backupDir(file), AlternativeFileMode.AUTOSAVE).length != 0)
+			return true;
+		try (InputStream input = new BufferedInputStream(new FileInputStream(file))) {
+			final byte[] buffer = new byte[1000];
+			final int readCount = input.read(buffer);
+			if (readCount <= 0)
+				return false;
+			final String mapStart = new String(buffer, 0, readCount, FileUtils.defaultCharset().name());
+			final MapVersionInterpreter versionInterpreter = MapVersionInterpreter.getVersionInterpreter(mapStart);
+			return versionInterpreter.anotherDialect || versionInterpreter.needsConversion;
+		}
+		catch (final IOException e) {
+			return true;
+		}
+	}
+
 	public NodeModel loadTree(final MapModel map, final File file) throws XMLParseException, IOException {
+		final OperationTimer timer = Metrics.start(Operation.MAP_LOAD);
 		try {
 			final NodeModel rootNode = loadTreeImpl(map, file);
+			if (timer.isActive())
+				timer.setNodeCount(countNodes(rootNode));
 			return rootNode;
 		}
 		catch (final Exception ex) {
@@ -509,6 +534,18 @@ public class MFileManager extends UrlManager implements IMapViewChangeListener {
 			result.setText(errorMessage);
 			return result;
 		}
+		finally {
+			if (timer.isActive())
+				timer.setSubject(file.getPath()).setByteCount(file.length());
+			timer.stop();
+		}
+	}
+
+	private static int countNodes(final NodeModel node) {
+		int count = 1;
+		for (final NodeModel child : node.getChildren())
+			count += countNodes(child);
+		return count;
 	}
 
 	private NodeModel loadTreeImpl(final MapModel map, final File f) throws FileNotFoundException, IOException,
@@ -858,6 +895,18 @@ public class MFileManager extends UrlManager implements IMapViewChangeListener {
 	/**@deprecated -- use MMapIO*/
 	@Deprecated
 	public void writeToFile(final MapModel map, final File file) throws FileNotFoundException, IOException {
+		final OperationTimer timer = Metrics.start(Operation.MAP_SAVE);
+		try {
+			writeToFileImpl(map, file);
+		}
+		finally {
+			if (timer.isActive())
+				timer.setSubject(file.getPath()).setByteCount(file.length()).setNodeCount(countNodes(map.getRootNode()));
+			timer.stop();
+		}
+	}
+
+	private void writeToFileImpl(final MapModel map, final File file) throws FileNotFoundException, IOException {
 		final FileOutputStream out = new FileOutputStream(file);
 		FileLock lock = null;
 		try {
@@ -0,0 +1,141 @@
+package org.freeplane.main.application;
+
+import java.awt.EventQueue;
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import org.freeplane.core.util.LogUtils;
+import org.freeplane.features.map.mindmapmode.MMapModel;
+import org.freeplane.features.url.mindmapmode.LockManager;
+import org.freeplane.features.url.mindmapmode.MFileManager;
+import org.freeplane.n3.nanoxml.XMLParseException;
+
+/**
+ * Reads maps of the last session into models outside of the event dispatch thread.
+ *
+ * Map reading is serialized by the shared MapReader, so a single worker thread is used.
+ * Waiting maps are taken in queue order, a map whose tab gets activated is moved to the queue head.
+ * Map files are locked when their loading starts.
+ * Maps requiring user interaction like autosave recovery, format conversion or foreign file locks
+ * are left for the event dispatch thread.
+ */
+class BackgroundMapLoader {
+	interface Listener {
+		void onMapLoaded(MapViewPlaceholder placeholder);
+	}
+
+	private final LinkedList<MapViewPlaceholder> waitingPlaceholders;
+	private final ExecutorService executor;
+	private final Listener listener;
+
+	BackgroundMapLoader(Listener listener) {
+		this.listener = listener;
+		this.waitingPlaceholders = new LinkedList<MapViewPlaceholder>();
+		this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				final Thread thread = Executors.defaultThreadFactory().newThread(r);
+				thread.setName("map loader");
+				thread.setDaemon(true);
+				thread.setPriority(Thread.NORM_PRIORITY - 1);
+				return thread;
+			}
+		});
+	}
+
+	void load(MapViewPlaceholder placeholder) {
+		synchronized (waitingPlaceholders) {
+			waitingPlaceholders.addLast(placeholder);
+		}
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				loadNext();
+			}
+		});
+	}
+
+	void prioritize(MapViewPlaceholder placeholder) {
+		synchronized (waitingPlaceholders) {
+			if (waitingPlaceholders.remove(placeholder))
+				waitingPlaceholders.addFirst(placeholder);
+		}
+	}
+
+	void cancel(MapViewPlaceholder placeholder) {
+		synchronized (waitingPlaceholders) {
+			waitingPlaceholders.remove(placeholder);
+		}
+		placeholder.discard();
+	}
+
+	private void loadNext() {
+		final MapViewPlaceholder placeholder;
+		synchronized (waitingPlaceholders) {
+			placeholder = waitingPlaceholders.pollFirst();
+		}
+		if (placeholder == null)
+			return;
+		try {
+			final MFileManager fileManager = MFileManager.getController(placeholder.getModeController());
+			final File file = placeholder.getFile();
+			final MMapModel map;
+			if (fileManager.needsUserInteractionToLoad(file) || (map = readMap(fileManager, placeholder, file)) == null)
+				placeholder.setNeedsUserInteraction();
+			else if (!placeholder.setLoaded(map))
+				map.releaseResources();
+		}
+		catch (Exception e) {
+			LogUtils.warn(e);
+			placeholder.setNeedsUserInteraction();
+		}
+		EventQueue.invokeLater(new Runnable() {
+			@Override
+			public void run() {
+				listener.onMapLoaded(placeholder);
+			}
+		});
+	}
+
+	private MMapModel readMap(final MFileManager fileManager, final MapViewPlaceholder placeholder, final File file)
+	        throws IOException, XMLParseException {
+		final MMapModel map = new MMapModel();
+		if (!lock(map, file))
+			return null;
+		try {
+			if (file.length() != 0) {
+				fileManager.setFile(map, file);
+				fileManager.loadTree(map, file);
+			}
+		}
+		catch (IOException | XMLParseException | RuntimeException e) {
+			map.releaseResources();
+			throw e;
+		}
+		if (map.getRootNode() == null)
+			map.createNewRoot();
+		map.setURL(placeholder.getUrl());
+		map.setSaved(true);
+		return map;
+	}
+
+	/** Locks the map file as opening on the event dispatch thread does, which also informs the user about foreign locks. */
+	private boolean lock(final MMapModel map, final File file) {
+		if (!file.canWrite())
+			map.setReadOnly(true);
+		try {
+			final LockManager lockManager = map.getLockManager();
+			if (lockManager.tryToLock(file) == null && lockManager.popLockingUserOfOldLock() == null)
+				return true;
+		}
+		catch (Exception e) {
+			LogUtils.warn(e);
+		}
+		map.releaseResources();
+		return false;
+	}
+}
@@ -35,6 +35,8 @@ import javax.swing.KeyStroke;
 import javax.swing.SwingUtilities;
 import javax.swing.ToolTipManager;
 
+import org.freeplane.core.metrics.Metrics;
+import org.freeplane.core.metrics.MetricsPanel;
 import org.freeplane.core.resources.ResourceController;
 import org.freeplane.core.ui.ShowSelectionAsRectangleAction;
 import org.freeplane.core.ui.components.UITools;
@@ -173,6 +175,8 @@ public class FreeplaneGUIStarter implements FreeplaneStarter {
 			LinkController.install();
 			IconController.installConditionControllers();
 			HelpController.install();
+			Metrics.install(applicationResourceController);
+			MetricsPanel.install(controller);
 			controller.addAction(new NextNodeAction(Direction.FORWARD));
 			controller.addAction(new NextNodeAction(Direction.BACK));
 			controller.addAction(new NextNodeAction(Direction.FORWARD_N_FOLD));
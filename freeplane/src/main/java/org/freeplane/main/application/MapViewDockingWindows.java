@@ -35,6 +35,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Vector;
@@ -56,10 +57,15 @@ import org.freeplane.core.resources.ResourceController;
 import org.freeplane.core.ui.FileOpener;
 import org.freeplane.core.ui.components.UITools;
 import org.freeplane.core.util.LogUtils;
+import org.freeplane.core.util.TextUtils;
+import org.freeplane.features.map.mindmapmode.MMapController;
+import org.freeplane.features.map.mindmapmode.MMapModel;
 import org.freeplane.features.mode.Controller;
 import org.freeplane.features.ui.IMapViewChangeListener;
 import org.freeplane.features.url.mindmapmode.DroppedMindMapOpener;
+import org.freeplane.features.url.mindmapmode.MapLoader;
 import org.freeplane.view.swing.map.MapView;
+import org.freeplane.view.swing.map.MapViewScrollPane;
 import org.freeplane.view.swing.map.NodeView;
 import org.freeplane.view.swing.ui.DefaultMapMouseListener;
 
@@ -94,9 +100,16 @@ class MapViewDockingWindows implements IMapViewChangeListener {
 	private boolean loadingLayoutFromObjectInpusStream;
 	private byte[] emptyConfigurations;
 	private final MapViewSerializer viewSerializer;
+	private final BackgroundMapLoader backgroundMapLoader;
 
 	public MapViewDockingWindows() {
-		viewSerializer = new MapViewSerializer();
+		backgroundMapLoader = new BackgroundMapLoader(new BackgroundMapLoader.Listener() {
+			@Override
+			public void onMapLoaded(MapViewPlaceholder placeholder) {
+				publishLoadedMap(placeholder);
+			}
+		});
+		viewSerializer = new MapViewSerializer(backgroundMapLoader);
 		rootWindow = new RootWindow(viewSerializer);
 		configureDefaultDockingWindowProperties();
 
@@ -125,6 +138,10 @@ class MapViewDockingWindows implements IMapViewChangeListener {
             public void viewFocusChanged(View previouslyFocusedView, View focusedView) {
 				if (focusedView != null) {
 	            	Component containedMapView = getContainedMapView(focusedView);
+	            	if(containedMapView instanceof MapViewPlaceholder) {
+	            		activate((MapViewPlaceholder) containedMapView);
+	            		return;
+	            	}
 					final Component mapViewComponent = Controller.getCurrentController().getMapViewManager()
 					    .getMapViewComponent();
 					if (containedMapView != mapViewComponent)
@@ -180,6 +197,12 @@ class MapViewDockingWindows implements IMapViewChangeListener {
 
 
 
+			@Override
+			public void windowClosed(DockingWindow window) {
+				for(View view : getPlaceholderViews(window))
+					close((MapViewPlaceholder) getContainedMapView(view));
+			}
+
 			@Override
             public void windowRemoved(DockingWindow removedFromWindow, DockingWindow removedWindow) {
 				if(removedWindow instanceof TabWindow) {
@@ -266,7 +289,8 @@ class MapViewDockingWindows implements IMapViewChangeListener {
 					return;
 				}
 			}
-	        addDockedWindow(pOldMap, pNewMap);
+			if(! replacePlaceholder((MapView) pNewMap))
+				addDockedWindow(pOldMap, pNewMap);
         }
 		else if(mapViews.contains(pNewMap))
 			return;
@@ -292,6 +316,96 @@ class MapViewDockingWindows implements IMapViewChangeListener {
 		}
     }
 
+	private void activate(MapViewPlaceholder placeholder) {
+		if(placeholder.getState() == MapViewPlaceholder.State.WAITING) {
+			placeholder.requestActivation();
+			backgroundMapLoader.prioritize(placeholder);
+			return;
+		}
+		try {
+			Controller.getCurrentController().selectMode(placeholder.getModeController().getModeName());
+			new MapLoader(placeholder.getModeController()).load(placeholder.getUrl()).withView().getMap();
+		}
+		catch (Exception e) {
+			LogUtils.warn(e);
+			UITools.errorMessage(TextUtils.format("map_load_error", placeholder.getUrl()));
+			final View placeholderView = getContainingDockedWindow(placeholder);
+			if(placeholderView != null)
+				placeholderView.close();
+		}
+	}
+
+	private void close(MapViewPlaceholder placeholder) {
+		final MMapModel map = placeholder.getMap();
+		backgroundMapLoader.cancel(placeholder);
+		if(map == null)
+			return;
+		final MMapController mapController = (MMapController) placeholder.getModeController().getMapController();
+		if(mapController.getMap(placeholder.getUrl()) == map)
+			mapController.closeWithoutSaving(map);
+		else
+			map.releaseResources();
+	}
+
+	private void publishLoadedMap(MapViewPlaceholder placeholder) {
+		if(placeholder.getState() == MapViewPlaceholder.State.LOADED) {
+			final MMapController mapController = (MMapController) placeholder.getModeController().getMapController();
+			final MMapModel map = placeholder.getMap();
+			if(mapController.getMap(placeholder.getUrl()) != null) {
+				backgroundMapLoader.cancel(placeholder);
+				map.releaseResources();
+				return;
+			}
+			mapController.addLoadedMap(map);
+			mapController.fireMapCreated(map);
+		}
+		if(placeholder.isActivationRequested() && placeholder.isShowing())
+			activate(placeholder);
+	}
+
+	private boolean replacePlaceholder(MapView mapView) {
+		final URL url = mapView.getModel().getURL();
+		if(url == null)
+			return false;
+		for(View placeholderView : getPlaceholderViews(rootWindow)) {
+			final MapViewPlaceholder placeholder = (MapViewPlaceholder) getContainedMapView(placeholderView);
+			if(url.equals(placeholder.getUrl())) {
+				final MMapModel loadedMap = placeholder.getMap();
+				backgroundMapLoader.cancel(placeholder);
+				if(loadedMap != null && loadedMap != mapView.getModel())
+					loadedMap.releaseResources();
+				placeholderView.setComponent(newMapViewScrollPane(mapView));
+				placeholderView.getViewProperties().setTitle(createTitle(mapView));
+				placeholderView.restoreFocus();
+				focusMapViewLater(mapView);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	static MapViewScrollPane newMapViewScrollPane(Component mapView) {
+		MapViewScrollPane mapViewScrollPane = new MapViewScrollPane();
+		mapViewScrollPane.getViewport().setView(mapView);
+		return mapViewScrollPane;
+	}
+
+	private List<View> getPlaceholderViews(DockingWindow window) {
+		final ArrayList<View> placeholderViews = new ArrayList<View>();
+		addPlaceholderViews(placeholderViews, window);
+		return placeholderViews;
+	}
+
+	private void addPlaceholderViews(List<View> placeholderViews, DockingWindow window) {
+		if(window instanceof View) {
+			if(getContainedMapView((View) window) instanceof MapViewPlaceholder)
+				placeholderViews.add((View) window);
+		}
+		else
+			for (int windowIndex = 0; windowIndex < window.getChildWindowCount(); windowIndex++)
+				addPlaceholderViews(placeholderViews, window.getChildWindow(windowIndex));
+	}
+
 	static Component getContainedMapView(View dockedWindow) {
         JScrollPane scrollPane = (JScrollPane) dockedWindow.getComponent();
 		Component view = scrollPane.getViewport().getView();
@@ -459,7 +573,12 @@ class MapViewDockingWindows implements IMapViewChangeListener {
 				final int nextWindowIndex = (childWindowIndex + childWindowCount + tabIndexChange) % childWindowCount;
 				final View nextWindow = (View) tabWindow.getChildWindow(nextWindowIndex);
 				final Component nextMapView = getContainedMapView(nextWindow);
-				Controller.getCurrentController().getMapViewManager().changeToMapView(nextMapView);
+				if(nextMapView instanceof MapViewPlaceholder) {
+					tabWindow.setSelectedTab(nextWindowIndex);
+					activate((MapViewPlaceholder) nextMapView);
+				}
+				else
+					Controller.getCurrentController().getMapViewManager().changeToMapView(nextMapView);
 			}
 		}
 	}
@@ -513,8 +632,11 @@ class MapViewDockingWindows implements IMapViewChangeListener {
 	}
 
 	private void addMapViews(ArrayList<Component> orderedMapViews, DockingWindow window) {
-		if(window instanceof View)
-			orderedMapViews.add(getContainedMapView((View) window));
+		if(window instanceof View) {
+			final Component mapView = getContainedMapView((View) window);
+			if(! (mapView instanceof MapViewPlaceholder))
+				orderedMapViews.add(mapView);
+		}
 		else
 			for (int windowIndex = 0; windowIndex < window.getChildWindowCount(); windowIndex++)
 				addMapViews(orderedMapViews, window.getChildWindow(windowIndex));
@@ -0,0 +1,84 @@
+package org.freeplane.main.application;
+
+import java.io.File;
+import java.net.URL;
+
+import javax.swing.JLabel;
+import javax.swing.SwingConstants;
+
+import org.freeplane.core.util.TextUtils;
+import org.freeplane.features.map.mindmapmode.MMapModel;
+import org.freeplane.features.mode.ModeController;
+
+/**
+ * Lightweight tab content standing for a map of the last session
+ * until the map view is created on the first tab activation.
+ */
+@SuppressWarnings("serial")
+class MapViewPlaceholder extends JLabel {
+	enum State {WAITING, LOADED, NEEDS_USER_INTERACTION, DISCARDED}
+
+	private final URL url;
+	private final File file;
+	private final ModeController modeController;
+	private volatile State state;
+	private MMapModel map;
+	private boolean activationRequested;
+
+	MapViewPlaceholder(ModeController modeController, URL url, File file) {
+		super(TextUtils.format("map_loading", file.getName()), SwingConstants.CENTER);
+		this.modeController = modeController;
+		this.url = url;
+		this.file = file;
+		this.state = State.WAITING;
+		this.activationRequested = false;
+		setName(file.getName());
+	}
+
+	URL getUrl() {
+		return url;
+	}
+
+	File getFile() {
+		return file;
+	}
+
+	ModeController getModeController() {
+		return modeController;
+	}
+
+	State getState() {
+		return state;
+	}
+
+	/** @return false if the placeholder was discarded meanwhile. */
+	synchronized boolean setLoaded(MMapModel map) {
+		if(state != State.WAITING)
+			return false;
+		this.map = map;
+		state = State.LOADED;
+		return true;
+	}
+
+	synchronized void setNeedsUserInteraction() {
+		if(state == State.WAITING)
+			state = State.NEEDS_USER_INTERACTION;
+	}
+
+	synchronized void discard() {
+		state = State.DISCARDED;
+		map = null;
+	}
+
+	synchronized MMapModel getMap() {
+		return map;
+	}
+
+	boolean isActivationRequested() {
+		return activationRequested;
+	}
+
+	void requestActivation() {
+		activationRequested = true;
+	}
+}
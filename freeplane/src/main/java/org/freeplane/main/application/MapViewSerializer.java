@@ -20,6 +20,7 @@
 package org.freeplane.main.application;
 
 import java.awt.Component;
+import java.io.File;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
@@ -28,17 +29,17 @@ import java.util.ArrayList;
 import java.util.Collection;
 
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
 
 import net.infonode.docking.View;
 import net.infonode.docking.ViewSerializer;
 
-import org.freeplane.features.map.MapController;
+import org.freeplane.core.util.Compat;
 import org.freeplane.features.map.mindmapmode.DocuMapAttribute;
 import org.freeplane.features.mode.Controller;
 import org.freeplane.features.mode.ModeController;
 import org.freeplane.features.mode.mindmapmode.MModeController;
 import org.freeplane.view.swing.map.MapView;
-import org.freeplane.view.swing.map.MapViewScrollPane;
 
 /**
  * @author Dimitry Polivaev
@@ -46,10 +47,22 @@ import org.freeplane.view.swing.map.MapViewScrollPane;
  */
 class MapViewSerializer implements ViewSerializer {
     private Collection<View> viewsToBeRemoved = new ArrayList<View>();
+    private final BackgroundMapLoader backgroundMapLoader;
+
+	MapViewSerializer(BackgroundMapLoader backgroundMapLoader) {
+		this.backgroundMapLoader = backgroundMapLoader;
+	}
 
 	public void writeView(View view, ObjectOutputStream out) throws IOException {
     	if(view.isDisplayable()) {
     		Component component = MapViewDockingWindows.getContainedMapView(view);
+    		if (component instanceof MapViewPlaceholder) {
+    			MapViewPlaceholder placeholder = (MapViewPlaceholder) component;
+    			out.writeBoolean(true);
+    			out.writeUTF(placeholder.getModeController().getModeName());
+    			out.writeObject(placeholder.getUrl());
+    			return;
+    		}
     		if (component instanceof MapView) {
     			MapView mapView = (MapView) component;
     			if(mapView.getModeController().getModeName().equals(MModeController.MODENAME) 
@@ -74,15 +87,14 @@ class MapViewSerializer implements ViewSerializer {
     			Controller controller = Controller.getCurrentController();
     			controller.selectMode(modeName);
     			ModeController modeController = Controller.getCurrentModeController();
-    			MapController mapController = modeController.getMapController();
-    			mapController.openMap(mapUrl);
-    			Component mapViewComponent = controller.getMapViewManager().getMapViewComponent();
-    			if(mapViewComponent.getParent() == null) {
-                    final Component pNewMap = mapViewComponent;
-					return newDockedView(pNewMap, pNewMap.getName());
-                }
-                else
+    			if(controller.getMapViewManager().tryToChangeToMapView(mapUrl))
+    				return newViewToBeRemoved();
+    			File file = Compat.urlToFile(mapUrl);
+    			if(file == null || ! file.canRead())
     				return newViewToBeRemoved();
+    			MapViewPlaceholder placeholder = new MapViewPlaceholder(modeController, mapUrl, file);
+    			backgroundMapLoader.load(placeholder);
+    			return newPlaceholderView(placeholder);
     		}
             return newViewToBeRemoved();
         }
@@ -100,13 +112,17 @@ class MapViewSerializer implements ViewSerializer {
 	protected View newDockedView(final Component pNewMap, final String title) {
 		if(pNewMap.getParent() != null)
 			return null;
-		MapViewScrollPane mapViewScrollPane = new MapViewScrollPane();
-		mapViewScrollPane.getViewport().setView(pNewMap);
 		@SuppressWarnings("serial")
-        final View viewFrame = new ConnectedToMenuView(title, null, mapViewScrollPane);
+        final View viewFrame = new ConnectedToMenuView(title, null, MapViewDockingWindows.newMapViewScrollPane(pNewMap));
 	    return viewFrame;
 	}
 
+	private View newPlaceholderView(MapViewPlaceholder placeholder) {
+		@SuppressWarnings("serial")
+		final View viewFrame = new ConnectedToMenuView(placeholder.getName(), null, new JScrollPane(placeholder));
+		return viewFrame;
+	}
+
 	public void removeDummyViews() {
 	    for(View view : viewsToBeRemoved)
 	    	view.close();
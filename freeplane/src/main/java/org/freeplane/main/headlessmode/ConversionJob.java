@@ -0,0 +1,94 @@
+package org.freeplane.main.headlessmode;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+
+import org.freeplane.api.ConversionResult;
+import org.freeplane.api.ConversionResult.Status;
+
+class ConversionJob {
+	private static class Result implements ConversionResult {
+		private final File input;
+		private final File output;
+		private final Status status;
+		private final String errorMessage;
+		private final long durationMillis;
+
+		Result(File input, File output, Status status, String errorMessage, long durationMillis) {
+			this.input = input;
+			this.output = output;
+			this.status = status;
+			this.errorMessage = errorMessage;
+			this.durationMillis = durationMillis;
+		}
+
+		@Override
+		public File getInput() {
+			return input;
+		}
+
+		@Override
+		public File getOutput() {
+			return output;
+		}
+
+		@Override
+		public Status getStatus() {
+			return status;
+		}
+
+		@Override
+		public String getErrorMessage() {
+			return errorMessage;
+		}
+
+		@Override
+		public long getDurationMillis() {
+			return durationMillis;
+		}
+
+		@Override
+		public String toString() {
+			return input + " -> " + output + ": " + status + (errorMessage != null ? " (" + errorMessage + ")" : "")
+			        + ", " + durationMillis + " ms";
+		}
+	}
+
+	final File input;
+	final String exportTypeDescription;
+	final File output;
+	final CompletableFuture<ConversionResult> result;
+	private volatile long startTime;
+	private volatile long allocatedBytesAtStart;
+
+	ConversionJob(File input, String exportTypeDescription, File output) {
+		this.input = input;
+		this.exportTypeDescription = exportTypeDescription;
+		this.output = output;
+		this.result = new CompletableFuture<ConversionResult>();
+	}
+
+	void start(long allocatedBytes) {
+		this.allocatedBytesAtStart = allocatedBytes;
+		this.startTime = System.currentTimeMillis();
+	}
+
+	long getRunningTime() {
+		return System.currentTimeMillis() - startTime;
+	}
+
+	long getAllocatedBytesSinceStart(long allocatedBytes) {
+		return allocatedBytes - allocatedBytesAtStart;
+	}
+
+	/**
+	 * Completes the job unless it was already completed, e.g. by the watchdog cancelling it.
+	 */
+	boolean finish(File output, Status status, String errorMessage) {
+		return result.complete(new Result(input, output, status, errorMessage, getRunningTime()));
+	}
+
+	boolean isFinished() {
+		return result.isDone();
+	}
+}
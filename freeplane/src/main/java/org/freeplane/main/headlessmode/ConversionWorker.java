@@ -0,0 +1,217 @@
+package org.freeplane.main.headlessmode;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.swing.filechooser.FileFilter;
+
+import org.freeplane.api.ConversionResult.Status;
+import org.freeplane.core.resources.ResourceController;
+import org.freeplane.core.ui.ExampleFileFilter;
+import org.freeplane.features.export.mindmapmode.ExportController;
+import org.freeplane.features.export.mindmapmode.IExportEngine;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.mode.Controller;
+import org.freeplane.features.mode.ModeController;
+import org.freeplane.features.url.mindmapmode.MapLoader;
+import org.freeplane.main.mindmapmode.stylemode.ExtensionInstaller;
+
+/**
+ * Runs conversion jobs on its own thread using its own controller,
+ * so that workers do not share maps, undo handlers or current selections.
+ * Plugin extensions, e.g. formula evaluation, are installed into the controller
+ * by the {@link ExtensionInstaller} set by the plugin framework.
+ *
+ * Exports painting the map view are rejected because workers have no map views.
+ * A worker interrupted by {@link #abandon()} stops after the current loading or export stage.
+ * Output files created by jobs which did not succeed are deleted.
+ */
+class ConversionWorker {
+	interface Listener {
+		void onJobFinished(ConversionWorker worker, ConversionJob job);
+	}
+
+	private static volatile ExtensionInstaller extensionInstaller;
+
+	static void setExtensionInstaller(ExtensionInstaller extensionInstaller) {
+		ConversionWorker.extensionInstaller = extensionInstaller;
+	}
+
+	private static final AtomicLong workerCounter = new AtomicLong();
+	private final AtomicLong threadId;
+	private final ExecutorService executor;
+	private final Listener listener;
+	private ModeController modeController;
+	private volatile ConversionJob currentJob;
+
+	ConversionWorker(Listener listener) throws InterruptedException, ExecutionException {
+		this.listener = listener;
+		this.threadId = new AtomicLong();
+		final String threadName = "conversion worker " + workerCounter.incrementAndGet();
+		this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				final Thread thread = Executors.defaultThreadFactory().newThread(r);
+				thread.setName(threadName);
+				thread.setDaemon(true);
+				threadId.set(thread.getId());
+				return thread;
+			}
+		});
+		executor.submit(new Callable<Void>() {
+			@Override
+			public Void call() throws Exception {
+				createController();
+				return null;
+			}
+		}).get();
+	}
+
+	/** Called on the worker thread before it runs jobs. */
+	void createController() {
+		final Controller controller = new Controller(ResourceController.getResourceController());
+		Controller.setCurrentControllerForThread(controller);
+		final HeadlessMapViewController mapViewController = new HeadlessMapViewController();
+		controller.setMapViewManager(mapViewController);
+		final HeadlessUIController viewController = new HeadlessUIController(controller, mapViewController, "",
+		    executor, threadId);
+		FreeplaneHeadlessStarter.installControllerExtensions(controller, viewController);
+		modeController = HeadlessMModeControllerFactory.createModeController();
+		controller.selectModeForBuild(modeController);
+		final ExtensionInstaller extensionInstaller = ConversionWorker.extensionInstaller;
+		if (extensionInstaller != null)
+			extensionInstaller.installExtensions(controller);
+		controller.fireStartupFinished();
+	}
+
+	long getThreadId() {
+		return threadId.get();
+	}
+
+	ConversionJob getCurrentJob() {
+		return currentJob;
+	}
+
+	void run(final ConversionJob job, long allocatedBytes) {
+		currentJob = job;
+		job.start(allocatedBytes);
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				convert(job);
+				currentJob = null;
+				listener.onJobFinished(ConversionWorker.this, job);
+			}
+		});
+	}
+
+	private void convert(ConversionJob job) {
+		File output = job.output;
+		boolean outputExisted = true;
+		try {
+			final Map<FileFilter, IExportEngine> exportEngines = getExportEngines();
+			final FileFilter filter = findFilter(exportEngines, job.exportTypeDescription);
+			if (filter == null) {
+				job.finish(output, Status.FAILED, "unknown export type " + job.exportTypeDescription);
+				return;
+			}
+			final IExportEngine exportEngine = exportEngines.get(filter);
+			if (exportEngine.requiresMapView()) {
+				job.finish(output, Status.FAILED,
+				    "export type " + job.exportTypeDescription + " needs a map view, it is not available in headless mode");
+				return;
+			}
+			if (output.isDirectory())
+				output = new File(output, outputFileName(job.input, filter));
+			outputExisted = output.exists();
+			final MapModel map = loadMap(job.input);
+			try {
+				checkInterrupted();
+				exportEngine.export(Collections.singletonList(map.getRootNode()), output);
+			}
+			finally {
+				map.releaseResources();
+			}
+			if (!output.exists())
+				job.finish(output, Status.FAILED, "no output written");
+			else if (!job.finish(output, Status.SUCCEEDED, null) && !outputExisted)
+				output.delete();
+		}
+		catch (Throwable e) {
+			if (!outputExisted)
+				output.delete();
+			job.finish(output, Status.FAILED, e.toString());
+		}
+	}
+
+	private void checkInterrupted() throws InterruptedException {
+		if (Thread.currentThread().isInterrupted())
+			throw new InterruptedException();
+	}
+
+	/** Export engines of the worker controller by file filter, in the order of the export dialog. */
+	Map<FileFilter, IExportEngine> getExportEngines() {
+		final ExportController exportController = ExportController.getController(modeController);
+		final Map<FileFilter, IExportEngine> exportEngines = new LinkedHashMap<FileFilter, IExportEngine>();
+		for (FileFilter filter : exportController.getMapExportFileFilters())
+			exportEngines.put(filter, exportController.getMapExportEngines().get(filter));
+		return exportEngines;
+	}
+
+	MapModel loadMap(File input) throws Exception {
+		return new MapLoader(modeController).load(input).unsetMapLocation().getMap();
+	}
+
+	private FileFilter findFilter(Map<FileFilter, IExportEngine> exportEngines, String description) {
+		for (FileFilter filter : exportEngines.keySet())
+			if (filter.getDescription().equals(description))
+				return filter;
+		return null;
+	}
+
+	private String outputFileName(File input, FileFilter filter) {
+		final String inputName = input.getName();
+		final int extensionStart = inputName.lastIndexOf('.');
+		final String baseName = extensionStart > 0 ? inputName.substring(0, extensionStart) : inputName;
+		final String extension = filter instanceof ExampleFileFilter
+		        ? ((ExampleFileFilter) filter).getExtensionProposal() : null;
+		return extension != null ? baseName + '.' + extension : baseName;
+	}
+
+	String[] getExportTypeDescriptions() throws InterruptedException, ExecutionException {
+		return executor.submit(new Callable<String[]>() {
+			@Override
+			public String[] call() throws Exception {
+				final Map<FileFilter, IExportEngine> exportEngines = getExportEngines();
+				return exportEngines.keySet().stream()
+				    .filter(filter -> !exportEngines.get(filter).requiresMapView())
+				    .map(FileFilter::getDescription).toArray(String[]::new);
+			}
+		}).get();
+	}
+
+	/**
+	 * Stops the worker thread. A running job is interrupted and the thread is left
+	 * to terminate on its own because it can not be stopped safely.
+	 * Output created by the abandoned job is deleted when it stops.
+	 */
+	void abandon() {
+		executor.shutdownNow();
+	}
+
+	boolean isTerminated() {
+		return executor.isTerminated();
+	}
+
+	void shutdown() {
+		executor.shutdown();
+	}
+}
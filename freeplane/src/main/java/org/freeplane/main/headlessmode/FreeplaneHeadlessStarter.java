@@ -21,6 +21,7 @@ package org.freeplane.main.headlessmode;
 
 import java.util.Set;
 
+import org.freeplane.core.metrics.Metrics;
 import org.freeplane.core.resources.ResourceController;
 import org.freeplane.core.util.LogUtils;
 import org.freeplane.core.util.logging.internal.LogInitializer;
@@ -69,24 +70,7 @@ public class FreeplaneHeadlessStarter implements FreeplaneStarter {
 			final HeadlessMapViewController mapViewController = new HeadlessMapViewController();
 			controller.setMapViewManager(mapViewController);
 			viewController = new HeadlessUIController(controller, mapViewController, "");
-			controller.setViewController(viewController);
-			controller.addExtension(HighlightController.class, new HighlightController());
-			FilterController.install();
-			FormatController.install(new FormatController());
-	        final ScannerController scannerController = new ScannerController();
-	        ScannerController.install(scannerController);
-	        scannerController.addParsersForStandardFormats();
-			ModelessAttributeController.install();
-			TextController.install();
-			TimeController.install();
-			LinkController.install();
-			IconController.installConditionControllers();
-			HelpController.install();
-			FilterController.getCurrentFilterController().getConditionFactory().addConditionController(70,
-			    new LogicalStyleFilterController());
-			MapController.install();
-
-			NodeHistory.install(controller);
+			installControllerExtensions(controller, viewController);
 			return controller;
 		}
 		catch (final Exception e) {
@@ -95,6 +79,28 @@ public class FreeplaneHeadlessStarter implements FreeplaneStarter {
 		}
 	}
 
+	static void installControllerExtensions(final Controller controller, final HeadlessUIController viewController) {
+		controller.setViewController(viewController);
+		controller.addExtension(HighlightController.class, new HighlightController());
+		FilterController.install();
+		FormatController.install(new FormatController());
+		final ScannerController scannerController = new ScannerController();
+		ScannerController.install(scannerController);
+		scannerController.addParsersForStandardFormats();
+		ModelessAttributeController.install();
+		TextController.install();
+		TimeController.install();
+		LinkController.install();
+		IconController.installConditionControllers();
+		HelpController.install();
+		Metrics.install(controller.getResourceController());
+		FilterController.getCurrentFilterController().getConditionFactory().addConditionController(70,
+		    new LogicalStyleFilterController());
+		MapController.install();
+
+		NodeHistory.install(controller);
+	}
+
 	@Override
 	public void createModeControllers(final Controller controller) {
 		HeadlessMModeControllerFactory.createModeController();
@@ -0,0 +1,405 @@
+package org.freeplane.main.headlessmode;
+
+import java.io.File;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import org.freeplane.api.BatchConverter;
+import org.freeplane.api.ConversionMetrics;
+import org.freeplane.api.ConversionResult;
+import org.freeplane.api.ConversionResult.Status;
+import org.freeplane.core.util.LogUtils;
+import org.freeplane.main.mindmapmode.stylemode.ExtensionInstaller;
+
+/**
+ * Distributes conversion jobs between a fixed number of {@link ConversionWorker}s.
+ *
+ * A watchdog thread checks running jobs against the time limit and the memory limit.
+ * Jobs exceeding them are completed with the corresponding status, their workers are abandoned and replaced by new ones.
+ *
+ * Retained heap can not be attributed to threads, so the memory limit applies to the heap used after
+ * garbage collections by all running jobs together, which may use the memory limit of a job each.
+ * If they use more, the job which allocated most memory since its start is cancelled.
+ * Memory is checked again after the abandoned workers have stopped and the heap has been collected.
+ *
+ * Workers which could not be replaced are created again by the watchdog. While no worker is left,
+ * queued jobs fail.
+ */
+public class HeadlessBatchConverter implements BatchConverter, ConversionWorker.Listener {
+	private static final long WATCHDOG_PERIOD_MILLIS = 100;
+
+	interface WorkerFactory {
+		ConversionWorker create(ConversionWorker.Listener listener) throws InterruptedException, ExecutionException;
+	}
+
+	/** Called by the plugin framework, workers created afterwards install the plugin extensions. */
+	public static void setExtensionInstaller(ExtensionInstaller extensionInstaller) {
+		ConversionWorker.setExtensionInstaller(extensionInstaller);
+	}
+
+	private final int workerCount;
+	private final WorkerFactory workerFactory;
+	private final long jobTimeoutMillis;
+	private final long jobMemoryLimitBytes;
+	private final ThreadMXBean threadBean;
+	private final List<MemoryPoolMXBean> heapPools;
+	private final long retainedBytesAtStart;
+	private final LinkedList<ConversionJob> queuedJobs;
+	private final LinkedList<ConversionWorker> idleWorkers;
+	private final List<ConversionWorker> busyWorkers;
+	private final List<ConversionWorker> abandonedWorkers;
+	private long collectionCountAfterAbandonedWorkers;
+	private int missingWorkerCount;
+	private RuntimeException workerCreationFailure;
+	private final ScheduledExecutorService watchdog;
+	private final Map<Status, AtomicLong> finishedJobCounters;
+	private final AtomicLong totalDurationMillis;
+	private volatile long firstSubmitTime;
+
+	public HeadlessBatchConverter(int workerCount, long jobTimeoutMillis, long jobMemoryLimitBytes) {
+		this(workerCount, jobTimeoutMillis, jobMemoryLimitBytes, ConversionWorker::new);
+	}
+
+	HeadlessBatchConverter(int workerCount, long jobTimeoutMillis, long jobMemoryLimitBytes, WorkerFactory workerFactory) {
+		if (workerCount <= 0)
+			throw new IllegalArgumentException("worker count must be positive");
+		this.workerCount = workerCount;
+		this.workerFactory = workerFactory;
+		this.jobTimeoutMillis = jobTimeoutMillis;
+		this.jobMemoryLimitBytes = jobMemoryLimitBytes;
+		this.threadBean = allocationMeasuringThreadBean();
+		this.heapPools = new ArrayList<MemoryPoolMXBean>();
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans())
+			if (pool.getType() == MemoryType.HEAP)
+				heapPools.add(pool);
+		this.retainedBytesAtStart = getRetainedBytes();
+		this.queuedJobs = new LinkedList<ConversionJob>();
+		this.idleWorkers = new LinkedList<ConversionWorker>();
+		this.busyWorkers = new ArrayList<ConversionWorker>();
+		this.abandonedWorkers = new ArrayList<ConversionWorker>();
+		this.collectionCountAfterAbandonedWorkers = -1;
+		this.finishedJobCounters = new EnumMap<Status, AtomicLong>(Status.class);
+		for (Status status : Status.values())
+			finishedJobCounters.put(status, new AtomicLong());
+		this.totalDurationMillis = new AtomicLong();
+		for (int i = 0; i < workerCount; i++)
+			idleWorkers.add(createWorker());
+		watchdog = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				final Thread thread = Executors.defaultThreadFactory().newThread(r);
+				thread.setName("conversion watchdog");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		if (jobTimeoutMillis > 0 || jobMemoryLimitBytes > 0)
+			watchdog.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					checkRunningJobs();
+				}
+			}, WATCHDOG_PERIOD_MILLIS, WATCHDOG_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	private static ThreadMXBean allocationMeasuringThreadBean() {
+		final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		if (threadBean instanceof com.sun.management.ThreadMXBean) {
+			final com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+			if (allocationBean.isThreadAllocatedMemorySupported()) {
+				allocationBean.setThreadAllocatedMemoryEnabled(true);
+				return allocationBean;
+			}
+		}
+		return null;
+	}
+
+	private long getAllocatedBytes(ConversionWorker worker) {
+		if (threadBean == null)
+			return 0;
+		return ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(worker.getThreadId());
+	}
+
+	/** Heap used after the last garbage collections, which approximates the retained heap. */
+	private long getRetainedBytes() {
+		long retainedBytes = 0;
+		for (MemoryPoolMXBean pool : heapPools) {
+			final MemoryUsage usage = pool.getCollectionUsage();
+			retainedBytes += usage != null ? usage.getUsed() : pool.getUsage().getUsed();
+		}
+		return retainedBytes;
+	}
+
+	private static long getCollectionCount() {
+		long collectionCount = 0;
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans())
+			collectionCount += Math.max(0, collector.getCollectionCount());
+		return collectionCount;
+	}
+
+	private ConversionWorker createWorker() {
+		try {
+			return workerFactory.create(this);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+		catch (ExecutionException e) {
+			throw new IllegalStateException("can not start conversion worker", e.getCause());
+		}
+	}
+
+	@Override
+	public Future<ConversionResult> submit(File input, String exportTypeDescription, File output) {
+		final ConversionJob job = new ConversionJob(input, exportTypeDescription, output);
+		job.result.whenComplete(new BiConsumer<ConversionResult, Throwable>() {
+			@Override
+			public void accept(ConversionResult result, Throwable u) {
+				if (result != null)
+					countFinishedJob(result);
+			}
+		});
+		synchronized (this) {
+			if (firstSubmitTime == 0)
+				firstSubmitTime = System.currentTimeMillis();
+			queuedJobs.add(job);
+			dispatch();
+		}
+		return job.result;
+	}
+
+	private void countFinishedJob(ConversionResult result) {
+		totalDurationMillis.addAndGet(result.getDurationMillis());
+		finishedJobCounters.get(result.getStatus()).incrementAndGet();
+	}
+
+	private synchronized void dispatch() {
+		while (!queuedJobs.isEmpty() && !idleWorkers.isEmpty()) {
+			final ConversionJob job = queuedJobs.removeFirst();
+			if (job.isFinished())
+				continue;
+			final ConversionWorker worker = idleWorkers.removeFirst();
+			busyWorkers.add(worker);
+			worker.run(job, getAllocatedBytes(worker));
+		}
+		notifyAll();
+	}
+
+	@Override
+	public void onJobFinished(ConversionWorker worker, ConversionJob job) {
+		synchronized (this) {
+			if (!busyWorkers.remove(worker))
+				return;
+			idleWorkers.add(worker);
+			dispatch();
+		}
+	}
+
+	private void checkRunningJobs() {
+		replaceMissingWorkers();
+		final List<ConversionWorker> workersToReplace = new ArrayList<ConversionWorker>();
+		synchronized (this) {
+			if (jobTimeoutMillis > 0) {
+				for (ConversionWorker worker : busyWorkers) {
+					final ConversionJob job = worker.getCurrentJob();
+					if (job != null && job.getRunningTime() > jobTimeoutMillis
+					        && job.finish(job.output, Status.TIMED_OUT, "time limit of " + jobTimeoutMillis + " ms exceeded"))
+						workersToReplace.add(worker);
+				}
+				busyWorkers.removeAll(workersToReplace);
+			}
+			if (jobMemoryLimitBytes > 0 && !busyWorkers.isEmpty() && canCheckRetainedHeap()) {
+				final long retainedBytes = getRetainedBytes() - retainedBytesAtStart;
+				final ConversionWorker worker = findWorkerOfLargestJob();
+				final ConversionJob job = worker != null ? worker.getCurrentJob() : null;
+				if (job != null && retainedBytes > jobMemoryLimitBytes * busyWorkers.size()
+				        && job.finish(job.output, Status.MEMORY_LIMIT_EXCEEDED,
+				            "retained heap of " + retainedBytes + " bytes exceeds memory limit of " + jobMemoryLimitBytes
+				                    + " bytes for each of " + busyWorkers.size() + " running jobs")) {
+					busyWorkers.remove(worker);
+					workersToReplace.add(worker);
+				}
+			}
+			abandonedWorkers.addAll(workersToReplace);
+			missingWorkerCount += workersToReplace.size();
+		}
+		for (ConversionWorker worker : workersToReplace)
+			worker.abandon();
+		if (!workersToReplace.isEmpty())
+			replaceMissingWorkers();
+	}
+
+	/** Creates the workers replacing abandoned ones, queued jobs fail if it is not possible and no worker is left. */
+	private void replaceMissingWorkers() {
+		synchronized (this) {
+			if (missingWorkerCount == 0)
+				return;
+		}
+		try {
+			for (;;) {
+				synchronized (this) {
+					if (missingWorkerCount == 0)
+						break;
+				}
+				final ConversionWorker newWorker = createWorker();
+				synchronized (this) {
+					missingWorkerCount--;
+					workerCreationFailure = null;
+					idleWorkers.add(newWorker);
+				}
+			}
+		}
+		catch (RuntimeException e) {
+			LogUtils.severe(e);
+			synchronized (this) {
+				workerCreationFailure = e;
+				if (idleWorkers.isEmpty() && busyWorkers.isEmpty())
+					failQueuedJobs("no conversion worker available: " + e.getMessage());
+			}
+		}
+		dispatch();
+	}
+
+	private synchronized void failQueuedJobs(String errorMessage) {
+		for (ConversionJob job : queuedJobs) {
+			job.start(0);
+			job.finish(job.output, Status.FAILED, errorMessage);
+		}
+		queuedJobs.clear();
+	}
+
+	/** Memory of abandoned workers is only released after they have stopped and the heap has been collected. */
+	private boolean canCheckRetainedHeap() {
+		if (!abandonedWorkers.isEmpty()) {
+			abandonedWorkers.removeIf(ConversionWorker::isTerminated);
+			if (!abandonedWorkers.isEmpty())
+				return false;
+			collectionCountAfterAbandonedWorkers = getCollectionCount();
+		}
+		return getCollectionCount() > collectionCountAfterAbandonedWorkers;
+	}
+
+	/** Returns the worker whose job allocated most memory, or the longest running one if allocation is not measured. */
+	private ConversionWorker findWorkerOfLargestJob() {
+		ConversionWorker largestJobWorker = null;
+		long largestJobSize = -1;
+		for (ConversionWorker worker : busyWorkers) {
+			final ConversionJob job = worker.getCurrentJob();
+			if (job == null)
+				continue;
+			final long jobSize = threadBean != null ? job.getAllocatedBytesSinceStart(getAllocatedBytes(worker))
+			        : job.getRunningTime();
+			if (jobSize > largestJobSize) {
+				largestJobSize = jobSize;
+				largestJobWorker = worker;
+			}
+		}
+		return largestJobWorker;
+	}
+
+	/** Waits while abandoned workers are replaced, fails if no worker can be created. */
+	@Override
+	public List<String> getExportTypeDescriptions() {
+		try {
+			final ConversionWorker worker;
+			synchronized (this) {
+				while (idleWorkers.isEmpty() && busyWorkers.isEmpty()) {
+					if (workerCreationFailure != null)
+						throw new IllegalStateException("no conversion worker available", workerCreationFailure);
+					wait(WATCHDOG_PERIOD_MILLIS);
+				}
+				worker = idleWorkers.isEmpty() ? busyWorkers.get(0) : idleWorkers.getFirst();
+			}
+			return Arrays.asList(worker.getExportTypeDescriptions());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+		catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	@Override
+	public ConversionMetrics getMetrics() {
+		return new ConversionMetrics() {
+			@Override
+			public int getWorkerCount() {
+				return workerCount;
+			}
+
+			@Override
+			public long getQueuedJobCount() {
+				synchronized (HeadlessBatchConverter.this) {
+					return queuedJobs.size();
+				}
+			}
+
+			@Override
+			public long getRunningJobCount() {
+				synchronized (HeadlessBatchConverter.this) {
+					return busyWorkers.size();
+				}
+			}
+
+			@Override
+			public long getFinishedJobCount(Status status) {
+				return finishedJobCounters.get(status).get();
+			}
+
+			@Override
+			public long getFinishedJobCount() {
+				long count = 0;
+				for (AtomicLong counter : finishedJobCounters.values())
+					count += counter.get();
+				return count;
+			}
+
+			@Override
+			public double getThroughput() {
+				if (firstSubmitTime == 0)
+					return 0;
+				final long elapsedMillis = Math.max(1, System.currentTimeMillis() - firstSubmitTime);
+				return getFinishedJobCount() * 1000.0 / elapsedMillis;
+			}
+
+			@Override
+			public double getAverageDurationMillis() {
+				final long count = getFinishedJobCount();
+				return count == 0 ? 0 : (double) totalDurationMillis.get() / count;
+			}
+		};
+	}
+
+	@Override
+	public void shutdown() throws InterruptedException {
+		synchronized (this) {
+			while (!queuedJobs.isEmpty() || !busyWorkers.isEmpty())
+				wait();
+			for (ConversionWorker worker : idleWorkers)
+				worker.shutdown();
+			idleWorkers.clear();
+		}
+		watchdog.shutdown();
+	}
+}
@@ -46,18 +46,30 @@ import org.freeplane.features.ui.IMapViewManager;
  * 24.12.2012
  */
 public class HeadlessUIController extends FrameController {
-	final private static AtomicLong workingThreadId = new AtomicLong();
-	final private static ExecutorService executorService = Executors.newSingleThreadExecutor(new ThreadFactory() {
+	final private static AtomicLong mainThreadId = new AtomicLong();
+	final private static ExecutorService mainExecutorService = Executors.newSingleThreadExecutor(new ThreadFactory() {
 		@Override
 		public Thread newThread(Runnable r) {
 			final Thread thread = Executors.defaultThreadFactory().newThread(r);
-			workingThreadId.set(thread.getId());
+			mainThreadId.set(thread.getId());
 			return thread;
 		}
 	});
+	final private AtomicLong workingThreadId;
+	final private ExecutorService executorService;
 
 	public HeadlessUIController(Controller controller, IMapViewManager mapViewManager, String propertyKeyPrefix) {
+		this(controller, mapViewManager, propertyKeyPrefix, mainExecutorService, mainThreadId);
+	}
+
+	/**
+	 * Creates controller whose tasks run on the single thread of the given executor service.
+	 */
+	public HeadlessUIController(Controller controller, IMapViewManager mapViewManager, String propertyKeyPrefix,
+	                            ExecutorService executorService, AtomicLong workingThreadId) {
 		super(controller, mapViewManager, propertyKeyPrefix);
+		this.executorService = executorService;
+		this.workingThreadId = workingThreadId;
 	}
 
 	public Rectangle getFrameSize() {
@@ -47,6 +47,7 @@ import org.freeplane.main.application.FreeplaneStarter;
 import org.freeplane.main.application.SingleInstanceManager;
 import org.freeplane.main.application.protocols.freeplaneresource.Handler;
 import org.freeplane.main.headlessmode.FreeplaneHeadlessStarter;
+import org.freeplane.main.headlessmode.HeadlessBatchConverter;
 import org.freeplane.main.mindmapmode.stylemode.ExtensionInstaller;
 import org.freeplane.main.mindmapmode.stylemode.SModeControllerFactory;
 import org.osgi.framework.Bundle;
@@ -293,6 +294,7 @@ class ActivatorImpl implements BundleActivator {
 	private void installControllerExtensions(final BundleContext context, final Controller controller) {
 		final ExtensionInstaller osgiExtentionInstaller = new OsgiExtentionInstaller(context);
 		SModeControllerFactory.getInstance().setExtensionInstaller(osgiExtentionInstaller);
+		HeadlessBatchConverter.setExtensionInstaller(osgiExtentionInstaller);
 		osgiExtentionInstaller.installExtensions(controller);
 	}
 	
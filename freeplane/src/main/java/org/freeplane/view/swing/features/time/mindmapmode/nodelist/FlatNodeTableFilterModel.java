@@ -20,6 +20,7 @@
 package org.freeplane.view.swing.features.time.mindmapmode.nodelist;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
@@ -34,8 +35,17 @@ import javax.swing.table.TableModel;
 class FlatNodeTableFilterModel extends AbstractTableModel {
 	private class TableModelHandler implements TableModelListener {
 		@Override
-		public void tableChanged(final TableModelEvent arg0) {
-			fireTableDataChanged();
+		public void tableChanged(final TableModelEvent e) {
+			final int firstRow = e.getFirstRow();
+			final int lastRow = e.getLastRow();
+			if (e.getType() == TableModelEvent.UPDATE && firstRow >= 0 && lastRow != Integer.MAX_VALUE) {
+				for (int row = firstRow; row <= lastRow; row++)
+					rowUpdated(row, e.getColumn());
+			}
+			else {
+				updateIndexArray();
+				fireTableDataChanged();
+			}
 		}
 	}
 
@@ -147,22 +157,47 @@ class FlatNodeTableFilterModel extends AbstractTableModel {
 	private void updateIndexArray() {
 		final ArrayList<Integer> newIndexArray = new ArrayList<Integer>();
 		for (int i = 0; i < mTableModel.getRowCount(); i++) {
-			if(mFilterRegexp == null){
+			if(matches(i)){
 				newIndexArray.add(new Integer(i));
-				continue;
-			}
-			for(int nodeTextColumn : mNodeTextColumns){
-				final TextHolder nodeContent = (TextHolder) mTableModel.getValueAt(i, nodeTextColumn);
-				if(mPattern == null && (
-						matchCase && nodeContent.toString().contains(mFilterRegexp)
-						|| ! matchCase && nodeContent.toString().toLowerCase().contains(mFilterRegexp))
-					|| mPattern != null && mPattern.matcher(nodeContent.toString()).find()
-				) {
-	                newIndexArray.add(new Integer(i));
-	                break;
-                }
 			}
 		}
 		mIndexArray = newIndexArray;
 	}
+
+	/** Rechecks one changed row of the underlying model and inserts, deletes or updates it. */
+	private void rowUpdated(final int origRow, final int column) {
+		final int row = Collections.binarySearch(mIndexArray, origRow);
+		final boolean matches = matches(origRow);
+		if (row >= 0) {
+			if (matches) {
+				fireTableChanged(new TableModelEvent(this, row, row, column));
+			}
+			else {
+				mIndexArray.remove(row);
+				fireTableRowsDeleted(row, row);
+			}
+		}
+		else if (matches) {
+			final int insertedRow = -row - 1;
+			mIndexArray.add(insertedRow, new Integer(origRow));
+			fireTableRowsInserted(insertedRow, insertedRow);
+		}
+	}
+
+	private boolean matches(final int origRow) {
+		if(mFilterRegexp == null){
+			return true;
+		}
+		for(int nodeTextColumn : mNodeTextColumns){
+			final TextHolder nodeContent = (TextHolder) mTableModel.getValueAt(origRow, nodeTextColumn);
+			if(mPattern == null && (
+					matchCase && nodeContent.toString().contains(mFilterRegexp)
+					|| ! matchCase && nodeContent.toString().toLowerCase().contains(mFilterRegexp))
+				|| mPattern != null && mPattern.matcher(nodeContent.toString()).find()
+			) {
+				return true;
+			}
+		}
+		return false;
+	}
 }
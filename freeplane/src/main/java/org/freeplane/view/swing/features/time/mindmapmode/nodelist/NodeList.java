@@ -34,11 +34,16 @@ import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.EventListener;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
 
 import javax.swing.AbstractAction;
 import javax.swing.Box;
@@ -57,13 +62,14 @@ import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableCellRenderer;
 import javax.swing.text.JTextComponent;
 
 import org.dpolivaev.mnemonicsetter.MnemonicSetter;
 import org.freeplane.core.resources.ResourceController;
 import org.freeplane.core.resources.WindowConfigurationStorage;
+import org.freeplane.core.task.BackgroundTask;
+import org.freeplane.core.task.BackgroundTaskService;
 import org.freeplane.core.ui.components.JComboBoxWithBorder;
 import org.freeplane.core.ui.components.UITools;
 import org.freeplane.core.util.DelayedRunner;
@@ -81,6 +87,7 @@ import org.freeplane.features.map.NodeMoveEvent;
 import org.freeplane.features.map.clipboard.MapClipboardController;
 import org.freeplane.features.mode.Controller;
 import org.freeplane.features.mode.ModeController;
+import org.freeplane.features.mode.ReadOnlyExecution;
 import org.freeplane.features.mode.mindmapmode.MModeController;
 import org.freeplane.features.text.DetailTextModel;
 import org.freeplane.features.text.TextController;
@@ -99,12 +106,17 @@ class NodeList {
 
 				@Override
 				public void run() {
-					tableModel.fireTableDataChanged();
+					if (tableModel != null) {
+						for (NodeModel node : changedNodes)
+							tableModel.nodeChanged(node);
+					}
+					changedNodes.clear();
 				}
 			});
 		}
 
 		final private DelayedRunner runner;
+		final private Set<NodeModel> changedNodes = new LinkedHashSet<NodeModel>();
 	    @Override
 		public void onPreNodeMoved(NodeMoveEvent nodeMoveEvent) {
 	    	disposeDialog();
@@ -137,8 +149,10 @@ class NodeList {
 
 		@Override
 		public void nodeChanged(NodeChangeEvent event) {
-			if(hasTableFieldValueChanged(event.getProperty()))
+			if(hasTableFieldValueChanged(event.getProperty())) {
+				changedNodes.add(event.getNode());
 				runner.runLater();
+			}
         }
 
 		@Override
@@ -292,6 +306,7 @@ class NodeList {
 	private static final String REMINDER_TEXT_FIND = "reminder.Find";
 	static final String REMINDER_TEXT_WINDOW_TITLE = "reminder.WindowTitle";
 	public static final String REMINDER_TEXT_WINDOW_TITLE_ALL_NODES = "reminder.WindowTitle_All_Nodes";
+	private static final String NODE_LIST_TASK = "node_list_in_progress";
 
 	private static String COLUMN_MODIFIED = TextUtils.getText(REMINDER_TEXT_MODIFIED);
 	private static String COLUMN_CREATED = TextUtils.getText(REMINDER_TEXT_CREATED);
@@ -313,6 +328,7 @@ class NodeList {
 
 	private final DateRenderer dateRenderer;
 	private JDialog dialog;
+	private BackgroundTask<List<NodeModel>> collectionTask;
 	private final IconsRenderer iconsRenderer;
 	protected final JComboBox mFilterTextSearchField;
 	protected FlatNodeTableFilterModel mFlatNodeTableFilterModel;
@@ -325,7 +341,7 @@ class NodeList {
 	}
 	TableSorter sorter;
 	final protected JTable tableView;
-	private DefaultTableModel tableModel;
+	private NodeTableModel tableModel;
 	private final boolean searchInAllMaps;
 	protected final JCheckBox useRegexInFind;
 	protected final JCheckBox matchCase;
@@ -463,15 +479,55 @@ class NodeList {
 		selectNodes(tableView.getSelectedRow(), tableView.getSelectedRows());
 	}
 
-	public void startup(NodeFilter nodeFilter) {
+	/**
+	 * Collects the nodes shown by the filter on a worker thread, one map per parallel job,
+	 * and opens the dialog on the event dispatch thread.
+	 * The collection is restarted if it is cancelled because a searched map is changed.
+	 */
+	public void startup(final NodeFilter nodeFilter) {
 		if(dialog != null){
 			dialog.toFront();
 			return;
 		}
-		final DefaultTableModel model = createTableModel();
-		fillTableModel(model, nodeFilter);
-		tableModel = model;
-		initializeUI();
+		final List<MapModel> maps = getSearchedMaps();
+		collectionTask = new BackgroundTask<List<NodeModel>>(NODE_LIST_TASK, this) {
+			@Override
+			protected boolean isReadingWith(Lock readLock) {
+				for (MapModel map : maps)
+					if (map.getLock().readLock() == readLock)
+						return true;
+				return false;
+			}
+
+			@Override
+			protected List<NodeModel> read() {
+				return collectNodes(maps, nodeFilter, this);
+			}
+
+			@Override
+			protected void apply(List<NodeModel> nodes) {
+				if (collectionTask == this) {
+					collectionTask = null;
+					startup(nodes);
+				}
+			}
+
+			@Override
+			protected void cancelled() {
+				if (collectionTask == this) {
+					collectionTask = null;
+					startup(nodeFilter);
+				}
+			}
+
+			@Override
+			protected void failed(Exception e) {
+				if (collectionTask == this)
+					collectionTask = null;
+				super.failed(e);
+			}
+		};
+		BackgroundTaskService.getInstance().execute(collectionTask);
 	}
 
 	public void startup(List<NodeModel> nodes) {
@@ -479,9 +535,7 @@ class NodeList {
 			dialog.toFront();
 			return;
 		}
-		final DefaultTableModel model = createTableModel();
-		fillTableModel(model, nodes);
-		tableModel = model;
+		tableModel = createTableModel(nodes);
 		initializeUI();
 	}
 
@@ -691,38 +745,70 @@ class NodeList {
 	protected void createSpecificUI(Container contentPane, GridBagConstraints layoutConstraints) {
 	}
 
-	private void fillTableModel(DefaultTableModel model, List<NodeModel> nodes) {
-		for(NodeModel node : nodes) {
-			final ReminderExtension hook = ReminderExtension.getExtension(node);
-			final Object[] row = createTableRowData(node, hook);
-			model.addRow(row);
-		}
-	}
-
-	private void fillTableModel(final DefaultTableModel model, NodeFilter nodeFilter) {
+	private List<MapModel> getSearchedMaps() {
 		if (searchInAllMaps == false) {
 			final MapModel map = Controller.getCurrentController().getMap();
-			if(map != null) {
-				final NodeModel node = map.getRootNode();
-				fillModel(model, node, nodeFilter);
-			}
+			return map != null ? Collections.singletonList(map) : Collections.<MapModel>emptyList();
 		}
 		else {
 			final Map<String, MapModel> maps = Controller.getCurrentController().getMapViewManager().getMaps(MModeController.MODENAME);
-			for (final MapModel map : maps.values()) {
-				final NodeModel node = map.getRootNode();
-				fillModel(model, node, nodeFilter);
-			}
+			return new ArrayList<MapModel>(maps.values());
+		}
+	}
+
+	private static List<NodeModel> collectNodes(final List<MapModel> maps, final NodeFilter nodeFilter,
+	                                            final BackgroundTask<?> task) {
+		return maps.parallelStream()
+		    .map(map -> collectNodes(map, nodeFilter, task))
+		    .flatMap(List::stream)
+		    .collect(Collectors.toList());
+	}
+
+	private static List<NodeModel> collectNodes(final MapModel map, final NodeFilter nodeFilter,
+	                                            final BackgroundTask<?> task) {
+		final boolean readOnly = ReadOnlyExecution.isActive();
+		if (! readOnly)
+			ReadOnlyExecution.enter();
+		final Lock lock = map.getLock().readLock();
+		lock.lock();
+		try {
+			final List<NodeModel> nodes = new ArrayList<NodeModel>();
+			collectNodes(nodes, map.getRootNode(), nodeFilter, task);
+			return nodes;
+		}
+		finally {
+			lock.unlock();
+			if (! readOnly)
+				ReadOnlyExecution.leave();
+		}
+	}
+
+	private static void collectNodes(final List<NodeModel> nodes, final NodeModel node, final NodeFilter nodeFilter,
+	                                 final BackgroundTask<?> task) {
+		task.checkCancelled();
+		if (nodeFilter.showsNode(node, ReminderExtension.getExtension(node))) {
+			nodes.add(node);
+		}
+		for (final NodeModel child : node.getChildren()) {
+			collectNodes(nodes, child, nodeFilter, task);
 		}
 	}
 
-	private DefaultTableModel createTableModel() {
-		final DefaultTableModel model = new DefaultTableModel() {
+	private NodeTableModel createTableModel(List<NodeModel> nodes) {
+		final String[] columnNames = nodeMapColumn >= 0
+		        ? new String[] {COLUMN_MAP, COLUMN_TEXT, COLUMN_ICONS, COLUMN_DETAILS, COLUMN_NOTES, COLUMN_REMINDER, COLUMN_CREATED, COLUMN_MODIFIED}
+		        : new String[] {COLUMN_TEXT, COLUMN_ICONS, COLUMN_DETAILS, COLUMN_NOTES, COLUMN_REMINDER, COLUMN_CREATED, COLUMN_MODIFIED};
+		return new NodeTableModel(nodes, columnNames) {
 			/**
 			 *
 			 */
 			private static final long serialVersionUID = 1L;
 
+			@Override
+			protected Object[] createRow(NodeModel node) {
+				return createTableRowData(node, ReminderExtension.getExtension(node));
+			}
+
 			/*
 			 * (non-Javadoc)
 			 * @see javax.swing.table.AbstractTableModel#getColumnClass(int)
@@ -746,27 +832,6 @@ class NodeList {
 				}
 			}
 		};
-		if(nodeMapColumn >= 0)
-			model.addColumn(COLUMN_MAP);
-		model.addColumn(COLUMN_TEXT);
-		model.addColumn(COLUMN_ICONS);
-		model.addColumn(COLUMN_DETAILS);
-		model.addColumn(COLUMN_NOTES);
-		model.addColumn(COLUMN_REMINDER);
-		model.addColumn(COLUMN_CREATED);
-		model.addColumn(COLUMN_MODIFIED);
-		return model;
-	}
-
-	private void fillModel(final DefaultTableModel model, final NodeModel node, NodeFilter nodeFilter) {
-		final ReminderExtension hook = ReminderExtension.getExtension(node);
-		if (nodeFilter.showsNode(node, hook)) {
-			final Object[] row = createTableRowData(node, hook);
-			model.addRow(row);
-		}
-		for (final NodeModel child : node.getChildren()) {
-			fillModel(model, child, nodeFilter);
-		}
 	}
 
 	private Object[] createTableRowData(final NodeModel node, final ReminderExtension hook) {
@@ -0,0 +1,84 @@
+package org.freeplane.view.swing.features.time.mindmapmode.nodelist;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.table.AbstractTableModel;
+
+import org.freeplane.features.map.NodeModel;
+
+/**
+ * Table model with one row per node.
+ *
+ * Row data is created when a row is accessed for the first time, so that only rendered,
+ * sorted or filtered rows are computed. Changed nodes update their own rows only.
+ */
+abstract class NodeTableModel extends AbstractTableModel {
+	private static final long serialVersionUID = 1L;
+	private final String[] columnNames;
+	private final List<NodeModel> nodes;
+	private final Object[][] rows;
+	private Map<NodeModel, Integer> rowIndices;
+
+	NodeTableModel(final List<NodeModel> nodes, final String... columnNames) {
+		this.nodes = nodes;
+		this.columnNames = columnNames;
+		this.rows = new Object[nodes.size()][];
+	}
+
+	abstract protected Object[] createRow(NodeModel node);
+
+	@Override
+	public int getRowCount() {
+		return nodes.size();
+	}
+
+	@Override
+	public int getColumnCount() {
+		return columnNames.length;
+	}
+
+	@Override
+	public String getColumnName(final int column) {
+		return columnNames[column];
+	}
+
+	@Override
+	public Object getValueAt(final int row, final int column) {
+		return getRow(row)[column];
+	}
+
+	@Override
+	public void setValueAt(final Object value, final int row, final int column) {
+		getRow(row)[column] = value;
+		fireTableCellUpdated(row, column);
+	}
+
+	private Object[] getRow(final int row) {
+		Object[] rowData = rows[row];
+		if (rowData == null) {
+			rowData = createRow(nodes.get(row));
+			rows[row] = rowData;
+		}
+		return rowData;
+	}
+
+	NodeModel getNode(final int row) {
+		return nodes.get(row);
+	}
+
+	/** Recreates the row of the node if it has one and notifies listeners about this row only. */
+	void nodeChanged(final NodeModel node) {
+		if (rowIndices == null) {
+			rowIndices = new IdentityHashMap<NodeModel, Integer>(nodes.size());
+			for (int i = 0; i < nodes.size(); i++)
+				rowIndices.put(nodes.get(i), i);
+		}
+		final Integer row = rowIndices.get(node);
+		if (row != null) {
+			rows[row] = null;
+			fireTableRowsUpdated(row, row);
+		}
+	}
+}
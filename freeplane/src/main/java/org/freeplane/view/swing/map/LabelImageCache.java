@@ -0,0 +1,184 @@
+package org.freeplane.view.swing.map;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.swing.Icon;
+
+import org.freeplane.core.resources.IFreeplanePropertyListener;
+import org.freeplane.core.resources.ResourceController;
+
+/**
+ * Keeps rendered node labels as images which are drawn instead of the labels while the map view is scrolled
+ * or zoomed, see {@link MapView#isViewMoving()}.
+ *
+ * An entry is only used while the label text, font, foreground, icons, size, zoom and device scale are unchanged.
+ * It is dropped when the label is removed and when it requests a repaint while the view is not moving.
+ * The total size of the images is limited by the property {@value #SIZE_PROPERTY},
+ * least recently used images are removed first. The value 0 disables the cache.
+ *
+ * All methods must be called on the event dispatch thread.
+ */
+class LabelImageCache {
+	static final String SIZE_PROPERTY = "label_image_cache_size_mb";
+	private static final int BYTES_PER_PIXEL = 4;
+	private static LabelImageCache instance;
+
+	private static class Entry {
+		final BufferedImage image;
+		final String text;
+		final Font font;
+		final Color foreground;
+		final Icon icon;
+		final Object textRenderingIcon;
+		final boolean enabled;
+		final int width;
+		final int height;
+		final float zoom;
+		final double scaleX;
+		final double scaleY;
+
+		Entry(ZoomableLabel label, BufferedImage image, double scaleX, double scaleY) {
+			this.image = image;
+			this.text = label.getText();
+			this.font = label.getFont();
+			this.foreground = label.getForeground();
+			this.icon = label.getIcon();
+			this.textRenderingIcon = label.getClientProperty(ZoomableLabel.TEXT_RENDERING_ICON);
+			this.enabled = label.isEnabled();
+			this.width = label.getWidth();
+			this.height = label.getHeight();
+			this.zoom = label.getZoom();
+			this.scaleX = scaleX;
+			this.scaleY = scaleY;
+		}
+
+		boolean hasContentOf(ZoomableLabel label, double scaleX, double scaleY) {
+			return enabled == label.isEnabled()
+			        && icon == label.getIcon()
+			        && textRenderingIcon == label.getClientProperty(ZoomableLabel.TEXT_RENDERING_ICON)
+			        && this.scaleX == scaleX && this.scaleY == scaleY
+			        && Objects.equals(text, label.getText())
+			        && Objects.equals(font, label.getFont())
+			        && Objects.equals(foreground, label.getForeground());
+		}
+
+		boolean hasSizeOf(ZoomableLabel label) {
+			return width == label.getWidth() && height == label.getHeight() && zoom == label.getZoom();
+		}
+
+		long getSize() {
+			return (long) image.getWidth() * image.getHeight() * BYTES_PER_PIXEL;
+		}
+	}
+
+	static LabelImageCache getInstance() {
+		if (instance == null)
+			instance = new LabelImageCache();
+		return instance;
+	}
+
+	static boolean isEnabled() {
+		return getInstance().maximumSize > 0;
+	}
+
+	private final LinkedHashMap<ZoomableLabel, Entry> entries;
+	private long maximumSize;
+	private long size;
+
+	private LabelImageCache() {
+		entries = new LinkedHashMap<ZoomableLabel, Entry>(64, 0.75f, true);
+		final ResourceController resourceController = ResourceController.getResourceController();
+		setMaximumSize(resourceController.getIntProperty(SIZE_PROPERTY, 0));
+		resourceController.addPropertyChangeListener(new IFreeplanePropertyListener() {
+			@Override
+			public void propertyChanged(String propertyName, String newValue, String oldValue) {
+				if (SIZE_PROPERTY.equals(propertyName))
+					setMaximumSize(resourceController.getIntProperty(SIZE_PROPERTY, 0));
+			}
+		});
+	}
+
+	private void setMaximumSize(int megabytes) {
+		maximumSize = Math.max(0, megabytes) * 1024L * 1024L;
+		evict();
+	}
+
+	/**
+	 * Draws the cached image of the label or renders it using the given painter and caches the result.
+	 * Images rendered for another zoom are scaled to the current label size.
+	 */
+	void paint(Graphics g, ZoomableLabel label, ZoomableLabelUI painter) {
+		final Graphics2D g2 = (Graphics2D) g;
+		final AffineTransform transform = g2.getTransform();
+		final double scaleX = transform.getScaleX();
+		final double scaleY = transform.getScaleY();
+		final int width = label.getWidth();
+		final int height = label.getHeight();
+		Entry entry = entries.get(label);
+		if (entry != null && entry.hasContentOf(label, scaleX, scaleY)
+		        && (entry.hasSizeOf(label) || entry.zoom != label.getZoom())) {
+			g2.drawImage(entry.image, 0, 0, width, height, null);
+			return;
+		}
+		remove(label);
+		final int imageWidth = (int) Math.ceil(width * scaleX);
+		final int imageHeight = (int) Math.ceil(height * scaleY);
+		if (imageWidth <= 0 || imageHeight <= 0
+		        || (long) imageWidth * imageHeight * BYTES_PER_PIXEL > maximumSize) {
+			painter.paintLabel(g, label);
+			return;
+		}
+		final BufferedImage image = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_ARGB);
+		final Graphics2D imageGraphics = image.createGraphics();
+		try {
+			imageGraphics.setRenderingHints(g2.getRenderingHints());
+			final Object textAntialiasing = g2.getRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING);
+			if (textAntialiasing != null && textAntialiasing != RenderingHints.VALUE_TEXT_ANTIALIAS_OFF
+			        && textAntialiasing != RenderingHints.VALUE_TEXT_ANTIALIAS_DEFAULT)
+				imageGraphics.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+				    RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+			imageGraphics.setFont(g2.getFont());
+			imageGraphics.setColor(g2.getColor());
+			imageGraphics.scale(scaleX, scaleY);
+			painter.paintLabel(imageGraphics, label);
+		}
+		finally {
+			imageGraphics.dispose();
+		}
+		entry = new Entry(label, image, scaleX, scaleY);
+		entries.put(label, entry);
+		size += entry.getSize();
+		evict();
+		g2.drawImage(image, 0, 0, width, height, null);
+	}
+
+	/** Drops the image of the label if the cache has been created. */
+	static void invalidate(ZoomableLabel label) {
+		if (instance != null)
+			instance.remove(label);
+	}
+
+	void remove(ZoomableLabel label) {
+		final Entry entry = entries.remove(label);
+		if (entry != null)
+			size -= entry.getSize();
+	}
+
+	private void evict() {
+		final Iterator<Map.Entry<ZoomableLabel, Entry>> iterator = entries.entrySet().iterator();
+		while (size > maximumSize && iterator.hasNext()) {
+			size -= iterator.next().getValue().getSize();
+			iterator.remove();
+		}
+	}
+}
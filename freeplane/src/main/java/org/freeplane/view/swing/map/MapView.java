@@ -37,6 +37,8 @@ import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.Stroke;
 import java.awt.dnd.Autoscroll;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.awt.geom.AffineTransform;
@@ -67,10 +69,14 @@ import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JViewport;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 
 import org.freeplane.core.extension.Configurable;
 import org.freeplane.core.extension.HighlightedElements;
 import org.freeplane.core.io.xml.TreeXmlReader;
+import org.freeplane.core.metrics.Metrics;
+import org.freeplane.core.metrics.Operation;
+import org.freeplane.core.metrics.OperationTimer;
 import org.freeplane.core.resources.IFreeplanePropertyListener;
 import org.freeplane.core.resources.ResourceController;
 import org.freeplane.core.ui.IUserInputListenerFactory;
@@ -545,6 +551,10 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 	private FitMap fitMap = FitMap.USER_DEFINED;
 	private boolean isPreparedForPrinting = false;
 	private boolean isPrinting = false;
+	private static final int VIEW_MOVING_DELAY = 200;
+	private boolean isViewMoving = false;
+	private boolean isPaintedFromImageCache = false;
+	private Timer viewMovingTimer;
 	private final ModeController modeController;
 	final private MapModel model;
 
@@ -553,6 +563,7 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 	final private Selection selection = new Selection();
 	private int siblingMaxLevel;
 	private float zoom = 1F;
+	private PreMeasuredTextWidths preMeasuredTextWidths;
 	private Font noteFont;
     private Font detailFont;
     private int detailHorizontalAlignment;
@@ -654,6 +665,17 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 			}
 		};
 		addPropertyChangeListener(SPOTLIGHT_ENABLED, repaintOnClientPropertyChangeListener);
+		preMeasuredTextWidths = PreMeasuredTextWidths.start(this);
+	}
+
+	/**
+	 * Text widths measured while the map view was opened, available until it is painted first.
+	 * Waits until measuring is done.
+	 */
+	PreMeasuredTextWidths getPreMeasuredTextWidths() {
+		if (preMeasuredTextWidths != null)
+			preMeasuredTextWidths.await();
+		return preMeasuredTextWidths;
 	}
 
 	public void replaceSelection(final NodeView[] views) {
@@ -708,6 +730,9 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
     public void removeNotify() {
 		modeController.getMapController().removeNodeChangeListener(connectorChangeListener);
 		getParent().removeComponentListener(viewportSizeChangeListener);
+		if (viewMovingTimer != null)
+			viewMovingTimer.stop();
+		isViewMoving = false;
 	    super.removeNotify();
     }
 
@@ -1237,6 +1262,39 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 		return isPrinting;
 	}
 
+	/**
+	 * Returns true while the view is scrolled or zoomed.
+	 * Node labels are then painted from the {@link LabelImageCache} if it is enabled.
+	 */
+	boolean isViewMoving() {
+		return isViewMoving;
+	}
+
+	/** Starts or prolongs the moving state, the view is repainted in full quality after it ends. */
+	void setViewMoving() {
+		if (isPrinting || !LabelImageCache.isEnabled())
+			return;
+		isViewMoving = true;
+		if (viewMovingTimer == null) {
+			viewMovingTimer = new Timer(VIEW_MOVING_DELAY, new ActionListener() {
+				@Override
+				public void actionPerformed(ActionEvent e) {
+					isViewMoving = false;
+					if (isPaintedFromImageCache) {
+						isPaintedFromImageCache = false;
+						repaint();
+					}
+				}
+			});
+			viewMovingTimer.setRepeats(false);
+		}
+		viewMovingTimer.restart();
+	}
+
+	void setPaintedFromImageCache() {
+		isPaintedFromImageCache = true;
+	}
+
 	public boolean isSelected(final NodeView n) {
 		if(isPrinting || (! selectedsValid &&
 				(selection.selectedNode == null || ! SwingUtilities.isDescendingFrom(selection.selectedNode, this)  || ! selection.selectedNode.getContent().isVisible())))
@@ -1532,7 +1590,9 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 			return;
 		}
 
+		preMeasuredTextWidths = null;
 		final Graphics2D g2 = (Graphics2D) g.create();
+		final OperationTimer timer = startTimer(Operation.PAINT);
 		try {
 			g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
 			if(! isPrinting) {
@@ -1555,6 +1615,7 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 		finally {
 			paintingMode = null;
 			g2.dispose();
+			timer.stop();
 		}
 	}
 
@@ -2080,6 +2141,7 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 	}
 
 	public void setZoom(final float zoom) {
+		setViewMoving();
 		this.zoom = zoom;
 		mapScroller.anchorToNode(getSelected(), CENTER_ALIGNMENT, CENTER_ALIGNMENT);
 		getRoot().updateAll();
@@ -2162,12 +2224,25 @@ public class MapView extends JPanel implements Printable, Autoscroll, IMapChange
 	@Override
 	protected void validateTree() {
 		if(isDisplayable()) {
-			validateSelecteds();
-			getRoot().validateTree();
-			super.validateTree();
+			final OperationTimer timer = startTimer(Operation.LAYOUT);
+			try {
+				validateSelecteds();
+				getRoot().validateTree();
+				super.validateTree();
+			}
+			finally {
+				timer.stop();
+			}
 		}
 	}
 
+	private OperationTimer startTimer(final Operation operation) {
+		final OperationTimer timer = Metrics.start(operation);
+		if (timer.isActive())
+			timer.setSubject(getModel().getTitle());
+		return timer;
+	}
+
 	@Override
 	public void onPreNodeMoved(final NodeMoveEvent nodeMoveEvent) {
 	}
@@ -65,8 +65,10 @@ public class MapViewScrollPane extends JScrollPane implements IFreeplaneProperty
 					slowSetViewPosition(p, scrollingDelay);
 				} else {
 					stopTimer();
-					super.setViewPosition(p);
 					MapView view = (MapView)getView();
+					if (view != null && ! p.equals(getViewPosition()))
+						view.setViewMoving();
+					super.setViewPosition(p);
 					if (view != null) {
 						view.setAnchorContentLocation();
 					}
@@ -95,6 +97,9 @@ public class MapViewScrollPane extends JScrollPane implements IFreeplaneProperty
 	        int slowDx = calcScrollIncrement(dx);
 	        int slowDy = calcScrollIncrement(dy);
 	        viewPosition.translate(slowDx, slowDy);
+	        MapView view = (MapView)getView();
+	        if (view != null && (slowDx != 0 || slowDy != 0))
+	        	view.setViewMoving();
 	        super.setViewPosition(viewPosition);
 	        if(slowDx == dx && slowDy == dy)
 	            return;
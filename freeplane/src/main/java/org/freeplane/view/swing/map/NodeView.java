@@ -36,6 +36,7 @@ import java.awt.dnd.DropTarget;
 import java.awt.dnd.DropTargetListener;
 import java.awt.event.WindowEvent;
 import java.awt.event.WindowFocusListener;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -83,10 +84,12 @@ import org.freeplane.features.nodestyle.NodeStyleModel.Shape;
 import org.freeplane.features.styles.MapViewLayout;
 import org.freeplane.features.text.TextController;
 import org.freeplane.view.swing.map.attribute.AttributeView;
+import org.freeplane.view.swing.map.cloud.CloudShapeCache;
 import org.freeplane.view.swing.map.cloud.CloudView;
 import org.freeplane.view.swing.map.cloud.CloudViewFactory;
 import org.freeplane.view.swing.map.edge.AutomaticEdgeStyle;
 import org.freeplane.view.swing.map.edge.EdgeView;
+import org.freeplane.view.swing.map.edge.EdgeBatch;
 import org.freeplane.view.swing.map.edge.EdgeViewFactory;
 
 /**
@@ -132,8 +135,14 @@ public class NodeView extends JComponent implements INodeView {
 
 	private int topOverlap;
 	private int bottomOverlap;
+	private VerticalLayoutInput layoutInput;
+	private VerticalLayoutResult layoutResult;
 	private boolean isFolded;
 	private DashVariant edgeDash = DashVariant.DEFAULT;
+	private int layoutVersion;
+	private EdgeView edgeView;
+	private int edgeViewLayoutVersion;
+	private CloudShapeCache cloudShapeCache;
 
 	public static final int DETAIL_VIEWER_POSITION = 2;
 
@@ -293,47 +302,34 @@ public class NodeView extends JComponent implements INodeView {
 			});
 	}
 
-	/**
-	 * Returns the coordinates occupied by the node and its children as a vector
-	 * of four point per node.
-	 */
-	public void getCoordinates(final LinkedList<Point> inList) {
-		getCoordinates(inList, 0, false, 0, 0);
+	public CloudShapeCache getCloudShapeCache() {
+		final double zoom = map.getZoom();
+		if (cloudShapeCache != null && cloudShapeCache.getZoom() == zoom) {
+			return cloudShapeCache;
+		}
+		final CloudShapeCache cache = new CloudShapeCache(zoom);
+		if (isValid()) {
+			cloudShapeCache = cache;
+		}
+		return cache;
 	}
 
-	private void getCoordinates(final LinkedList<Point> inList, int additionalDistanceForConvexHull,
-	                            final boolean byChildren, final int transX, final int transY) {
-		if (!isVisible()) {
-			return;
-		}
-		if (isContentVisible()) {
-			if (byChildren) {
-				final ModeController modeController = getMap().getModeController();
-				final CloudController cloudController = CloudController.getController(modeController);
-				final CloudModel cloud = cloudController.getCloud(getModel());
-				if (cloud != null) {
-					additionalDistanceForConvexHull += CloudView.getAdditionalHeigth(cloud, this) / 5;
-				}
+	private void invalidateCloudShapes() {
+		cloudShapeCache = null;
+		for (int i = 0; i < getComponentCount(); i++) {
+			final Component component = getComponent(i);
+			if (component instanceof NodeView) {
+				((NodeView) component).invalidateCloudShapes();
 			}
-			final int x = transX + getContent().getX() - getDeltaX();
-			final int y = transY + getContent().getY() - getDeltaY();
-			final int width = mainView.getMainViewWidthWithFoldingMark();
-			final int heightWithFoldingMark = mainView.getMainViewHeightWithFoldingMark();
-			final int height = Math.max(heightWithFoldingMark, getContent().getHeight());
-			inList.addLast(new Point(-additionalDistanceForConvexHull + x, -additionalDistanceForConvexHull + y));
-			inList
-			    .addLast(new Point(-additionalDistanceForConvexHull + x, additionalDistanceForConvexHull + y + height));
-			inList.addLast(new Point(additionalDistanceForConvexHull + x + width, additionalDistanceForConvexHull + y
-			        + height));
-			inList
-			    .addLast(new Point(additionalDistanceForConvexHull + x + width, -additionalDistanceForConvexHull + y));
-		}
-		for (final NodeView child : getChildrenViews()) {
-			child.getCoordinates(inList, additionalDistanceForConvexHull, true, transX + child.getX(),
-			    transY + child.getY());
 		}
 	}
 
+	@Override
+	public void invalidate() {
+		cloudShapeCache = null;
+		super.invalidate();
+	}
+
 	/** get x coordinate including folding symbol */
 	public int getDeltaX() {
 		return mainView.getDeltaX();
@@ -879,6 +875,10 @@ public class NodeView extends JComponent implements INodeView {
 			return;
 		}
 		final Object property = event.getProperty();
+		if (property == NodeChangeType.SUBTREE) {
+			subtreeChanged();
+			return;
+		}
 		if (property == NodeChangeType.FOLDING || property == Properties.HIDDEN_CHILDREN || property == EncryptionModel.class) {
 			if(map.isSelected() || property == EncryptionModel.class && ! isFolded){
 				boolean folded = getMap().getModeController().getMapController().isFolded(model);
@@ -924,6 +924,20 @@ public class NodeView extends JComponent implements INodeView {
 			getParentView().numberingChanged(node.getParentNode().getIndex(node) + 1);
 	}
 
+	private void subtreeChanged() {
+		final List<NodeModel> selectedNodes = map.getOrderedSelectedNodes();
+		setFolded(map.getModeController().getMapController().isFolded(model), true);
+		update();
+		final List<NodeView> selectedViews = new ArrayList<NodeView>(selectedNodes.size());
+		for (NodeModel selectedNode : selectedNodes) {
+			final NodeView selectedView = map.getNodeView(selectedNode);
+			if (selectedView != null && selectedView.isContentVisible())
+				selectedViews.add(selectedView);
+		}
+		if (! selectedViews.isEmpty())
+			map.replaceSelection(selectedViews.toArray(new NodeView[selectedViews.size()]));
+	}
+
 	public void setFolded(boolean folded) {
 		setFolded(folded, false);
 		revalidate();
@@ -1106,6 +1120,12 @@ public class NodeView extends JComponent implements INodeView {
     }
 
     private void paintEdges(final Graphics2D g, NodeView source) {
+    	final EdgeBatch edgeBatch = new EdgeBatch(g);
+    	paintEdges(g, source, edgeBatch);
+    	edgeBatch.flush();
+    }
+
+    private void paintEdges(final Graphics2D g, NodeView source, EdgeBatch edgeBatch) {
     	SummaryEdgePainter summaryEdgePainter = new SummaryEdgePainter(this, isRoot() ? true : isLeft());
     	SummaryEdgePainter rightSummaryEdgePainter =  isRoot() ? new SummaryEdgePainter(this, false) : null;
         final int start;
@@ -1130,6 +1150,8 @@ public class NodeView extends JComponent implements INodeView {
         	if (getMap().getLayoutType() != MapViewLayout.OUTLINE) {
         		SummaryEdgePainter activePainter = nodeView.isLeft() || !isRoot() ? summaryEdgePainter : rightSummaryEdgePainter;
         		activePainter.addChild(nodeView);
+        		if(activePainter.hasSummaryEdge())
+        			edgeBatch.flush();
         		if(activePainter.paintSummaryEdge(g, source, nodeView)){
         			if(! nodeView.isContentVisible()){
         				final Rectangle bounds =  SwingUtilities.convertRectangle(this, nodeView.getBounds(), source);
@@ -1146,11 +1168,14 @@ public class NodeView extends JComponent implements INodeView {
         		}
             }
         	if (nodeView.isContentVisible()) {
-        		final EdgeView edge = EdgeViewFactory.getInstance().getEdge(source, nodeView, source);
-        		edge.paint(g);
+        		final EdgeView edge = nodeView.getEdgeView(source);
+        		if(! edge.addTo(edgeBatch)) {
+        			edgeBatch.flush();
+        			edge.paint(g);
+        		}
         	}
         	else {
-        		nodeView.paintEdges(g, source);
+        		nodeView.paintEdges(g, source, edgeBatch);
         	}
         }
     }
@@ -1445,7 +1470,33 @@ public class NodeView extends JComponent implements INodeView {
 	    return textShortened;
     }
 
+	/**
+	 * Returns the edge from the source to this node. It is reused until this node, the source
+	 * or a node view between them is laid out again, or the edge style of this node changes.
+	 */
+	private EdgeView getEdgeView(NodeView source) {
+		final int layoutVersion = getLayoutVersionUpTo(source);
+		if (edgeView == null || edgeView.getSource() != source || edgeViewLayoutVersion != layoutVersion
+		        || !edgeView.isUpToDate()) {
+			edgeView = EdgeViewFactory.getInstance().getEdge(source, this, source);
+			edgeViewLayoutVersion = layoutVersion;
+		}
+		return edgeView;
+	}
+
+	/** Sums the layout counts of this view and its ancestors up to the source, the sum grows whenever one of them is laid out. */
+	private int getLayoutVersionUpTo(NodeView source) {
+		int version = layoutVersion;
+		for (NodeView view = this; view != source && view != null; ) {
+			view = view.getParentView();
+			if (view != null)
+				version += view.layoutVersion;
+		}
+		return version;
+	}
+
 	private void updateEdge() {
+		edgeView = null;
         final EdgeController edgeController = EdgeController.getController(getMap().getModeController());
 		this.edgeStyle = edgeController.getStyle(model, false);
 		final NodeModel realNode = SummaryNode.getRealNode(model);
@@ -1524,6 +1575,9 @@ public class NodeView extends JComponent implements INodeView {
 
 	private void updateCloud() {
 		final CloudModel cloudModel = CloudController.getController(getMap().getModeController()).getCloud(model);
+		if ((cloudModel == null) != (getCloudModel() == null)) {
+			invalidateCloudShapes();
+		}
 		putClientProperty(CloudModel.class, cloudModel);
     }
 
@@ -1660,6 +1714,21 @@ public class NodeView extends JComponent implements INodeView {
 		this.bottomOverlap = bottomOverlap;
 	}
 
+	/** Calculates the layout of the child views unless the input is the same as in the previous layout. */
+	VerticalLayoutResult calculateLayout(VerticalLayoutInput input) {
+		if (layoutResult == null || ! input.equals(layoutInput)) {
+			layoutResult = VerticalLayoutCalculator.calculate(input);
+			layoutInput = input;
+		}
+		return layoutResult;
+	}
+
+	@Override
+	public void doLayout() {
+		super.doLayout();
+		layoutVersion++;
+	}
+
 	@Override
 	public void setBounds(int x, int y, int width, int height) {
 		Rules rule = edgeColor.getRule();
@@ -0,0 +1,110 @@
+package org.freeplane.view.swing.map;
+
+import javax.swing.JComponent;
+
+import org.freeplane.features.nodelocation.LocationModel;
+
+/**
+ * Measured geometry of a laid out node view which the layout of its parent view depends on.
+ * Content bounds are relative to the node view.
+ */
+final class NodeViewGeometry {
+	final boolean isLeft;
+	final boolean isFree;
+	final boolean isSummary;
+	final boolean isFirstGroupNode;
+	final boolean isContentVisible;
+	final boolean isHiddenSummary;
+	final int width;
+	final int height;
+	final int contentX;
+	final int contentY;
+	final int contentWidth;
+	final int contentHeight;
+	final int cloudHeight;
+	final int shift;
+	final int hGap;
+	final int summaryHGap;
+	final int topOverlap;
+	final int bottomOverlap;
+
+	NodeViewGeometry(boolean isLeft, boolean isFree, boolean isSummary, boolean isFirstGroupNode,
+	                 boolean isContentVisible, boolean isHiddenSummary, int width, int height,
+	                 int contentX, int contentY, int contentWidth, int contentHeight,
+	                 int cloudHeight, int shift, int hGap, int summaryHGap, int topOverlap, int bottomOverlap) {
+		this.isLeft = isLeft;
+		this.isFree = isFree;
+		this.isSummary = isSummary;
+		this.isFirstGroupNode = isFirstGroupNode;
+		this.isContentVisible = isContentVisible;
+		this.isHiddenSummary = isHiddenSummary;
+		this.width = width;
+		this.height = height;
+		this.contentX = contentX;
+		this.contentY = contentY;
+		this.contentWidth = contentWidth;
+		this.contentHeight = contentHeight;
+		this.cloudHeight = cloudHeight;
+		this.shift = shift;
+		this.hGap = hGap;
+		this.summaryHGap = summaryHGap;
+		this.topOverlap = topOverlap;
+		this.bottomOverlap = bottomOverlap;
+	}
+
+	static NodeViewGeometry of(NodeView view) {
+		final JComponent content = view.getContent();
+		final boolean isContentVisible = view.isContentVisible();
+		final boolean isSummary = view.isSummary();
+		final int summaryHGap = view.getZoomed(LocationModel.DEFAULT_HGAP_PX * 7 / 12);
+		final int hGap;
+		if (isContentVisible)
+			hGap = view.getHGap();
+		else if (isSummary)
+			hGap = summaryHGap;
+		else
+			hGap = 0;
+		return new NodeViewGeometry(view.isLeft(), view.isFree(), isSummary, view.isFirstGroupNode(),
+		    isContentVisible, view.getModel().isHiddenSummary(), view.getWidth(), view.getHeight(),
+		    content.getX(), content.getY(), content.getWidth(), content.getHeight(),
+		    CloudHeightCalculator.INSTANCE.getAdditionalCloudHeigth(view), isContentVisible ? view.getShift() : 0,
+		    hGap, summaryHGap, view.getTopOverlap(), view.getBottomOverlap());
+	}
+
+	@Override
+	public int hashCode() {
+		int result = width;
+		result = 31 * result + height;
+		result = 31 * result + contentWidth;
+		result = 31 * result + contentHeight;
+		result = 31 * result + shift;
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		final NodeViewGeometry other = (NodeViewGeometry) obj;
+		return isLeft == other.isLeft
+		        && isFree == other.isFree
+		        && isSummary == other.isSummary
+		        && isFirstGroupNode == other.isFirstGroupNode
+		        && isContentVisible == other.isContentVisible
+		        && isHiddenSummary == other.isHiddenSummary
+		        && width == other.width
+		        && height == other.height
+		        && contentX == other.contentX
+		        && contentY == other.contentY
+		        && contentWidth == other.contentWidth
+		        && contentHeight == other.contentHeight
+		        && cloudHeight == other.cloudHeight
+		        && shift == other.shift
+		        && hGap == other.hGap
+		        && summaryHGap == other.summaryHGap
+		        && topOverlap == other.topOverlap
+		        && bottomOverlap == other.bottomOverlap;
+	}
+}
@@ -0,0 +1,332 @@
+package org.freeplane.view.swing.map;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
+import java.awt.font.LineMetrics;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.text.CharacterIterator;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.IntStream;
+
+import org.freeplane.core.resources.ResourceController;
+import org.freeplane.core.task.BackgroundTask;
+import org.freeplane.core.task.BackgroundTaskService;
+import org.freeplane.core.ui.components.UITools;
+import org.freeplane.core.util.HtmlUtils;
+import org.freeplane.features.map.MapController;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.mode.ModeController;
+import org.freeplane.features.nodestyle.NodeStyleController;
+
+/**
+ * Widths of plain text node lines measured in the background while a map view is opened,
+ * so that its node views find them measured when they are laid out for the first time.
+ *
+ * A {@link BackgroundTask} collects the lines and their fonts holding the read lock of the map,
+ * the lines are then measured in parallel by the common fork join pool. Each worker measures
+ * with its own graphics configured for the font render context of the node labels.
+ * Widths are only used for text, font and font render context they were measured for,
+ * any other text is measured by the labels as before.
+ * Rich text is not measured here, its views are shared by {@link org.freeplane.core.ui.components.html.ScaledHTML}.
+ *
+ * Measuring can be switched off by the property {@value #PRE_MEASURE_PROPERTY},
+ * MapViewOpeningBenchmark in freeplane_benchmarks compares opening map views with and without it.
+ */
+class PreMeasuredTextWidths {
+	static class TextLine {
+		final Font font;
+		final String text;
+
+		TextLine(Font font, String text) {
+			this.font = font;
+			this.text = text;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * font.hashCode() + text.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof TextLine))
+				return false;
+			final TextLine other = (TextLine) obj;
+			return text.equals(other.text) && font.equals(other.font);
+		}
+	}
+
+	static final String PRE_MEASURE_PROPERTY = "pre_measure_text_widths";
+	private static final String MEASURING_TASK = "text_measuring_in_progress";
+	private static final int MIN_LINES_PER_WORKER = 256;
+	private static final int WORKER_COUNT = Runtime.getRuntime().availableProcessors();
+	private static final long CANCELLATION_CHECK_MILLISECONDS = 10;
+
+	/**
+	 * Starts collecting and measuring the lines of the nodes which get views when the map view is shown.
+	 * Must be called on the event dispatch thread.
+	 *
+	 * @return null if measuring is switched off or can not run in parallel.
+	 */
+	static PreMeasuredTextWidths start(final MapView mapView) {
+		if (WORKER_COUNT == 1 || !ResourceController.getResourceController().getBooleanProperty(PRE_MEASURE_PROPERTY))
+			return null;
+		final PreMeasuredTextWidths widths = new PreMeasuredTextWidths(
+		    new ZoomableLabel().getFontRenderContext(mapView.getZoom() != 1f));
+		final MapModel map = mapView.getModel();
+		final ModeController modeController = mapView.getModeController();
+		widths.task = new BackgroundTask<Void>(MEASURING_TASK, mapView) {
+			@Override
+			protected Lock getReadLock() {
+				return map.getLock().readLock();
+			}
+
+			@Override
+			protected Void read() {
+				try {
+					final List<TextLine> lines = collectLines(map, modeController, this);
+					if (lines.size() >= 2 * MIN_LINES_PER_WORKER)
+						widths.measure(lines);
+				}
+				finally {
+					widths.measured.countDown();
+				}
+				return null;
+			}
+		};
+		BackgroundTaskService.getInstance().execute(widths.task);
+		return widths;
+	}
+
+	private static List<TextLine> collectLines(MapModel map, ModeController modeController, BackgroundTask<?> task) {
+		final MapController mapController = modeController.getMapController();
+		final NodeStyleController styleController = NodeStyleController.getController(modeController);
+		final List<TextLine> lines = new ArrayList<TextLine>();
+		final Deque<NodeModel> nodes = new ArrayDeque<NodeModel>();
+		nodes.push(map.getRootNode());
+		while (!nodes.isEmpty()) {
+			task.checkCancelled();
+			final NodeModel node = nodes.pop();
+			final String text = node.getText();
+			if (!text.isEmpty() && !text.startsWith("=") && !text.startsWith("<table>") && !HtmlUtils.isHtml(text)) {
+				final Font font = UITools.scale(styleController.getFont(node));
+				for (String line : text.split("\n"))
+					if (!line.isEmpty())
+						lines.add(new TextLine(font, line));
+			}
+			if (!mapController.isFolded(node))
+				for (NodeModel child : node.getChildren())
+					nodes.push(child);
+		}
+		return lines;
+	}
+
+	private final FontRenderContext fontRenderContext;
+	private final ConcurrentHashMap<TextLine, Integer> widths;
+	private final CountDownLatch measured;
+	private BackgroundTask<Void> task;
+
+	PreMeasuredTextWidths(FontRenderContext fontRenderContext) {
+		this.fontRenderContext = fontRenderContext;
+		this.widths = new ConcurrentHashMap<TextLine, Integer>();
+		this.measured = new CountDownLatch(1);
+	}
+
+	/** Measures the lines in parallel and returns when all workers are done. */
+	void measure(final List<TextLine> lines) {
+		final int workerCount = Math.max(1, Math.min(WORKER_COUNT, lines.size() / MIN_LINES_PER_WORKER));
+		final int linesPerWorker = (lines.size() + workerCount - 1) / workerCount;
+		IntStream.range(0, workerCount).parallel().forEach(worker -> measureChunk(
+		    lines.subList(worker * linesPerWorker, Math.min(lines.size(), (worker + 1) * linesPerWorker))));
+	}
+
+	private void measureChunk(List<TextLine> lines) {
+		final Graphics2D g = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+		try {
+			g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, fontRenderContext.getAntiAliasingHint());
+			g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, fontRenderContext.getFractionalMetricsHint());
+			g.setTransform(fontRenderContext.getTransform());
+			for (TextLine line : lines) {
+				if (task != null && task.isCancelled())
+					return;
+				if (widths.containsKey(line))
+					continue;
+				final FontMetrics fontMetrics = g.getFontMetrics(line.font);
+				if (!fontRenderContext.equals(fontMetrics.getFontRenderContext()))
+					return;
+				widths.put(line, fontMetrics.stringWidth(line.text));
+			}
+		}
+		finally {
+			g.dispose();
+		}
+	}
+
+	/**
+	 * Waits until all lines are measured or measuring is cancelled because the map is modified.
+	 * Lines not measured are measured by the labels.
+	 */
+	void await() {
+		try {
+			while (!measured.await(CANCELLATION_CHECK_MILLISECONDS, TimeUnit.MILLISECONDS))
+				if (task == null || task.isCancelled())
+					return;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/** @return font metrics returning the measured widths, or the given metrics if nothing was measured for them. */
+	FontMetrics fontMetrics(FontMetrics labelMetrics) {
+		if (widths.isEmpty() || !fontRenderContext.equals(labelMetrics.getFontRenderContext()))
+			return labelMetrics;
+		return new PreMeasuredFontMetrics(labelMetrics);
+	}
+
+	@SuppressWarnings("serial")
+	private class PreMeasuredFontMetrics extends FontMetrics {
+		private final FontMetrics labelMetrics;
+
+		PreMeasuredFontMetrics(FontMetrics labelMetrics) {
+			super(labelMetrics.getFont());
+			this.labelMetrics = labelMetrics;
+		}
+
+		@Override
+		public int stringWidth(String str) {
+			final Integer width = widths.get(new TextLine(font, str));
+			return width != null ? width.intValue() : labelMetrics.stringWidth(str);
+		}
+
+		@Override
+		public FontRenderContext getFontRenderContext() {
+			return labelMetrics.getFontRenderContext();
+		}
+
+		@Override
+		public int getLeading() {
+			return labelMetrics.getLeading();
+		}
+
+		@Override
+		public int getAscent() {
+			return labelMetrics.getAscent();
+		}
+
+		@Override
+		public int getDescent() {
+			return labelMetrics.getDescent();
+		}
+
+		@Override
+		public int getHeight() {
+			return labelMetrics.getHeight();
+		}
+
+		@Override
+		public int getMaxAscent() {
+			return labelMetrics.getMaxAscent();
+		}
+
+		@Override
+		public int getMaxDescent() {
+			return labelMetrics.getMaxDescent();
+		}
+
+		@Override
+		public int getMaxAdvance() {
+			return labelMetrics.getMaxAdvance();
+		}
+
+		@Override
+		public int charWidth(int codePoint) {
+			return labelMetrics.charWidth(codePoint);
+		}
+
+		@Override
+		public int charWidth(char ch) {
+			return labelMetrics.charWidth(ch);
+		}
+
+		@Override
+		public int charsWidth(char[] data, int off, int len) {
+			return labelMetrics.charsWidth(data, off, len);
+		}
+
+		@Override
+		public int bytesWidth(byte[] data, int off, int len) {
+			return labelMetrics.bytesWidth(data, off, len);
+		}
+
+		@Override
+		public int[] getWidths() {
+			return labelMetrics.getWidths();
+		}
+
+		@Override
+		public boolean hasUniformLineMetrics() {
+			return labelMetrics.hasUniformLineMetrics();
+		}
+
+		@Override
+		public LineMetrics getLineMetrics(String str, Graphics context) {
+			return labelMetrics.getLineMetrics(str, context);
+		}
+
+		@Override
+		public LineMetrics getLineMetrics(String str, int beginIndex, int limit, Graphics context) {
+			return labelMetrics.getLineMetrics(str, beginIndex, limit, context);
+		}
+
+		@Override
+		public LineMetrics getLineMetrics(char[] chars, int beginIndex, int limit, Graphics context) {
+			return labelMetrics.getLineMetrics(chars, beginIndex, limit, context);
+		}
+
+		@Override
+		public LineMetrics getLineMetrics(CharacterIterator ci, int beginIndex, int limit, Graphics context) {
+			return labelMetrics.getLineMetrics(ci, beginIndex, limit, context);
+		}
+
+		@Override
+		public Rectangle2D getStringBounds(String str, Graphics context) {
+			return labelMetrics.getStringBounds(str, context);
+		}
+
+		@Override
+		public Rectangle2D getStringBounds(String str, int beginIndex, int limit, Graphics context) {
+			return labelMetrics.getStringBounds(str, beginIndex, limit, context);
+		}
+
+		@Override
+		public Rectangle2D getStringBounds(char[] chars, int beginIndex, int limit, Graphics context) {
+			return labelMetrics.getStringBounds(chars, beginIndex, limit, context);
+		}
+
+		@Override
+		public Rectangle2D getStringBounds(CharacterIterator ci, int beginIndex, int limit, Graphics context) {
+			return labelMetrics.getStringBounds(ci, beginIndex, limit, context);
+		}
+
+		@Override
+		public Rectangle2D getMaxCharBounds(Graphics context) {
+			return labelMetrics.getMaxCharBounds(context);
+		}
+	}
+}
@@ -91,7 +91,7 @@ class SummaryEdgePainter {
 			level = 0;
 		}
 	}
-	private boolean hasSummaryEdge(){
+	boolean hasSummaryEdge(){
 		return level > 0 && currentY1 != Integer.MAX_VALUE;
 	}
 	
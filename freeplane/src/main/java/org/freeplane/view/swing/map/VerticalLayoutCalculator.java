@@ -0,0 +1,331 @@
+package org.freeplane.view.swing.map;
+
+import org.freeplane.features.map.SummaryLevels;
+
+/**
+ * Places content and child views of a node view one below the other on each side,
+ * with summary nodes beside the groups they summarize.
+ *
+ * Works only on the geometry records of {@link VerticalLayoutInput}, no swing components are accessed.
+ */
+class VerticalLayoutCalculator {
+	private final VerticalLayoutInput input;
+	private final NodeViewGeometry[] children;
+	private final int childViewCount;
+	private final int spaceAround;
+
+	private final int[] xCoordinates;
+	private final int[] yCoordinates;
+	private final boolean[] isChildFreeNode;
+	private int left;
+	private int childContentHeight;
+	private int top;
+	private boolean rightSideCoordinatesAreSet;
+	private boolean leftSideCoordinaresAreSet;
+
+	static VerticalLayoutResult calculate(VerticalLayoutInput input) {
+		return new VerticalLayoutCalculator(input).calculateLayoutData();
+	}
+
+	private VerticalLayoutCalculator(VerticalLayoutInput input) {
+		this.input = input;
+		this.children = input.children;
+		this.childViewCount = children.length;
+		this.spaceAround = input.spaceAround;
+		this.left = 0;
+		this.childContentHeight = 0;
+		this.top = 0;
+		rightSideCoordinatesAreSet = false;
+		leftSideCoordinaresAreSet = false;
+		this.xCoordinates = new int[childViewCount];
+		this.yCoordinates = new int[childViewCount];
+		this.isChildFreeNode = new boolean[childViewCount];
+	}
+
+	private void setFreeChildNodes(final boolean isLeft) {
+		for (int i = 0; i < childViewCount; i++) {
+			final NodeViewGeometry child = children[i];
+			if (child.isLeft == isLeft)
+				this.isChildFreeNode[i] = child.isFree;
+		}
+	}
+
+	private VerticalLayoutResult calculateLayoutData() {
+		for(boolean isLeft : input.sides)
+			calculateLayoutData(isLeft);
+		return calculateLayoutOfChildComponents();
+	}
+
+	private void calculateLayoutData(final boolean isLeft) {
+		setFreeChildNodes(isLeft);
+		calculateLayoutY(isLeft);
+		calculateLayoutX(isLeft);
+
+	}
+
+	private void calculateLayoutY(final boolean isLeft) {
+		final int minimalDistanceBetweenChildren = input.minimalDistanceBetweenChildren;
+		final int[] summaryLevels = input.summaryLevels;
+		int childContentHeightSum = 0;
+		int top = 0;
+		int level = input.highestSummaryLevel + 1;
+		int y = 0;
+		int vGap = 0;
+		int visibleChildCounter = 0;
+		final int[] groupStartIndex = new int[level];
+		final int[] contentHeightSumAtGroupStart = new int[level];
+		final int[] groupUpperYCoordinate = new int[level];
+		final int[] groupLowerYCoordinate = new int[level];
+
+		for (int childViewIndex = 0; childViewIndex < childViewCount; childViewIndex++) {
+			final NodeViewGeometry child = children[childViewIndex];
+			if (child.isLeft == isLeft) {
+				final int childHeight = child.height - 2 * spaceAround;
+				final int oldLevel = level;
+				level = summaryLevels[childViewIndex];
+				boolean isFreeNode = child.isFree;
+				boolean isItem = level == 0;
+
+				final int childCloudHeigth = child.cloudHeight;
+				final int childContentHeight = child.contentHeight + childCloudHeigth;
+				final int childShiftY = child.shift;
+				final int childContentShift = child.contentY - childCloudHeigth / 2 - spaceAround;
+
+				if (isItem) {
+					if (isFreeNode)
+						this.yCoordinates[childViewIndex] = childShiftY - childContentShift - childCloudHeigth / 2 - spaceAround;
+					else {
+						if (childHeight != 0) {
+							if (visibleChildCounter > 0)
+								childContentHeightSum += vGap;
+						}
+						if (childShiftY < 0 || visibleChildCounter == 0)
+							top += childShiftY;
+
+						top += - childContentShift + child.topOverlap;
+						y -= child.topOverlap;
+						if (childShiftY < 0) {
+							this.yCoordinates[childViewIndex] = y;
+							y -= childShiftY;
+						} else {
+							if (visibleChildCounter > 0)
+								y += childShiftY;
+							this.yCoordinates[childViewIndex] = y;
+						}
+						final int summaryNodeIndex = input.summaryNodeIndexes[childViewIndex];
+						if(summaryNodeIndex == SummaryLevels.NODE_NOT_FOUND || summaryNodeIndex - 1 == childViewIndex)
+							vGap = minimalDistanceBetweenChildren;
+						else if (childHeight != 0)
+							vGap = summarizedNodeDistance(minimalDistanceBetweenChildren);
+						if (childHeight != 0)
+							y += childHeight + vGap - child.bottomOverlap;
+
+						childContentHeightSum += childContentHeight;
+						if (oldLevel > 0) {
+							for (int j = 0; j < oldLevel; j++) {
+								groupStartIndex[j] = childViewIndex;
+								groupUpperYCoordinate[j] = Integer.MAX_VALUE;
+								groupLowerYCoordinate[j] = Integer.MIN_VALUE;
+								contentHeightSumAtGroupStart[j] = childContentHeightSum;
+							}
+						} else if (child.isFirstGroupNode) {
+							contentHeightSumAtGroupStart[0] = childContentHeightSum;
+							groupStartIndex[0] = childViewIndex;
+						}
+					}
+					if (childHeight != 0)
+						visibleChildCounter++;
+				} else {
+					final int itemLevel = level - 1;
+					if (child.isFirstGroupNode) {
+						contentHeightSumAtGroupStart[level] = contentHeightSumAtGroupStart[itemLevel];
+						groupStartIndex[level] = groupStartIndex[itemLevel];
+					}
+					if(groupUpperYCoordinate[itemLevel] == Integer.MAX_VALUE){
+						groupUpperYCoordinate[itemLevel] = y;
+						groupLowerYCoordinate[itemLevel] = y;
+					}
+					int summaryY = (groupUpperYCoordinate[itemLevel] + groupLowerYCoordinate[itemLevel]) / 2
+							- childContentHeight / 2 + childShiftY
+							- (child.contentY - childCloudHeigth / 2 - spaceAround);
+					this.yCoordinates[childViewIndex] = summaryY;
+					if (!isFreeNode) {
+						final int deltaY = summaryY - groupUpperYCoordinate[itemLevel]
+								+ child.topOverlap;
+						if (deltaY < 0) {
+							top += deltaY;
+							y -= deltaY;
+							summaryY -= deltaY;
+							for (int j = groupStartIndex[itemLevel]; j <= childViewIndex; j++) {
+								NodeViewGeometry groupItem = children[j];
+								if (groupItem.isLeft == isLeft
+										&& (summaryLevels[j] > 0 || !this.isChildFreeNode[j]))
+									this.yCoordinates[j] -= deltaY;
+							}
+						}
+						if (childHeight != 0) {
+							summaryY += childHeight + minimalDistanceBetweenChildren
+									- child.bottomOverlap;
+						}
+						y = Math.max(y, summaryY);
+					}
+				}
+				if (! (isItem && isFreeNode)) {
+					int childUpperCoordinate = this.yCoordinates[childViewIndex] + child.topOverlap;
+					int childBottomCoordinate = this.yCoordinates[childViewIndex] + childHeight - child.bottomOverlap;
+					if (child.isFirstGroupNode) {
+						if(isItem){
+							groupUpperYCoordinate[level] = Integer.MAX_VALUE;
+							groupLowerYCoordinate[level] = Integer.MIN_VALUE;
+						}
+						else{
+							groupUpperYCoordinate[level] = childUpperCoordinate;
+							groupLowerYCoordinate[level] = childBottomCoordinate;
+						}
+					} else if (childHeight != 0 || isNextNodeSummaryNode(childViewIndex)){
+						groupUpperYCoordinate[level] = Math.min(groupUpperYCoordinate[level], childUpperCoordinate);
+						groupLowerYCoordinate[level] = Math.max(childBottomCoordinate, groupLowerYCoordinate[level]);
+					}
+				}
+			}
+		}
+		top += (input.contentHeight - childContentHeightSum) / 2;
+		calculateRelativeCoordinatesForContentAndBothSides(isLeft, childContentHeightSum, top);
+	}
+
+	private boolean isNextNodeSummaryNode(int childViewIndex) {
+		return childViewIndex + 1 < input.summaryLevels.length && input.summaryLevels[childViewIndex + 1] > 0;
+	}
+
+	private int summarizedNodeDistance(final int distance) {
+		final int defaultVGap = input.defaultVGap;
+		if(defaultVGap >= distance)
+			return distance;
+		else
+			return defaultVGap + (distance - defaultVGap) / 6;
+	}
+
+	private void calculateLayoutX(final boolean isLeft) {
+		int level = input.highestSummaryLevel + 1;
+		final int summaryBaseX[] = new int[level];
+		for (int i = 0; i < childViewCount; i++) {
+			final NodeViewGeometry child = children[i];
+			if (child.isLeft == isLeft) {
+				final int oldLevel = level;
+				level = input.summaryLevels[i];
+				boolean isFreeNode = child.isFree;
+				boolean isItem = level == 0;
+				int childHGap = child.hGap;
+				if(input.isHiddenSummary && ! child.isHiddenSummary)
+					childHGap -= child.summaryHGap;
+
+				if (isItem) {
+					if (!isFreeNode && (oldLevel > 0 || child.isFirstGroupNode))
+						summaryBaseX[0] = 0;
+				}
+				else if (child.isFirstGroupNode)
+					summaryBaseX[level] = 0;
+
+
+				final int x;
+				final int baseX;
+				if (level > 0)
+					baseX = summaryBaseX[level - 1];
+				else {
+					if (child.isLeft != (isItem && isFreeNode)) {
+						baseX = 0;
+					} else {
+						baseX = input.contentWidth;
+					}
+				}
+				if (child.isLeft) {
+					x = baseX - childHGap - child.contentX - child.contentWidth;
+					summaryBaseX[level] = Math.min(summaryBaseX[level], x + spaceAround);
+				} else {
+					x = baseX + childHGap - child.contentX;
+					summaryBaseX[level] = Math.max(summaryBaseX[level], x + child.width - spaceAround);
+				}
+				left = Math.min(left, x);
+				this.xCoordinates[i] = x;
+			}
+		}
+	}
+
+	private void calculateRelativeCoordinatesForContentAndBothSides(boolean isLeft, int childContentHeightOnSide,  int topOnSide) {
+		if (! (leftSideCoordinaresAreSet || rightSideCoordinatesAreSet)) {
+			childContentHeight = childContentHeightOnSide;
+			top = topOnSide;
+		} else {
+			childContentHeight = Math.max(this.childContentHeight, childContentHeightOnSide);
+			int deltaTop = topOnSide - this.top;
+			final boolean changeLeft;
+			if (deltaTop < 0) {
+				top = topOnSide;
+				changeLeft = !isLeft;
+				deltaTop = -deltaTop;
+			} else {
+				changeLeft = isLeft;
+			}
+			for (int i = 0; i < childViewCount; i++) {
+				NodeViewGeometry child = children[i];
+				if (child.isLeft == changeLeft
+						&& (input.summaryLevels[i] > 0 || !isChildFreeNode[i])) {
+					yCoordinates[i] += deltaTop;
+				}
+			}
+		}
+		if (isLeft)
+			leftSideCoordinaresAreSet = true;
+		else
+			rightSideCoordinatesAreSet = true;
+	}
+
+	private VerticalLayoutResult calculateLayoutOfChildComponents() {
+		final int contentX = Math.max(spaceAround, -this.left);
+		int cloudHeight = input.cloudHeight;
+		int contentY = spaceAround + cloudHeight / 2 - Math.min(0, this.top);
+
+		int baseY = contentY - spaceAround + this.top;
+		int minY = 0;
+		for (int i = 0; i < childViewCount; i++) {
+			if (input.summaryLevels[i] == 0 && this.isChildFreeNode[i]) {
+				minY = Math.min(minY, contentY + this.yCoordinates[i]);
+			} else
+				minY = Math.min(minY, baseY + this.yCoordinates[i]);
+		}
+		if (minY < 0) {
+			contentY -= minY;
+			baseY -= minY;
+		}
+		int width = contentX + input.contentWidth + spaceAround;
+		int height = contentY + input.contentHeight + cloudHeight / 2
+				+ spaceAround;
+		int topOverlap = -minY;
+		int heigthWithoutOverlap = height;
+		final int[] childX = new int[childViewCount];
+		final int[] childY = new int[childViewCount];
+		for (int i = 0; i < childViewCount; i++) {
+			NodeViewGeometry child = children[i];
+			final int y;
+			if (input.summaryLevels[i] == 0 && this.isChildFreeNode[i]) {
+				y = contentY + this.yCoordinates[i];
+			} else {
+				y = baseY + this.yCoordinates[i];
+				if (!this.isChildFreeNode[i])
+					heigthWithoutOverlap = Math.max(
+							heigthWithoutOverlap,
+							y + child.height + cloudHeight / 2
+									- child.bottomOverlap);
+			}
+			final int x = contentX + this.xCoordinates[i];
+			childX[i] = x;
+			childY[i] = y;
+			width = Math.max(width, x + child.width);
+			height = Math.max(height, y + child.height + cloudHeight / 2);
+		}
+
+		return new VerticalLayoutResult(childX, childY, contentX, contentY, input.contentWidth, input.contentHeight,
+		    width, height, topOverlap, height - heigthWithoutOverlap);
+	}
+
+}
@@ -0,0 +1,85 @@
+package org.freeplane.view.swing.map;
+
+import java.util.Arrays;
+
+import org.freeplane.features.map.SummaryLevels;
+
+/**
+ * Everything {@link VerticalLayoutCalculator} needs to lay out the child views of a node view.
+ * Equal inputs give equal layouts, so a node view keeps its last input and result
+ * and calculates again only after the input changes.
+ */
+final class VerticalLayoutInput {
+	final NodeViewGeometry[] children;
+	final int[] summaryLevels;
+	final int highestSummaryLevel;
+	final boolean[] sides;
+	/** Index of the summary node of an item, see {@link SummaryLevels#findSummaryNodeIndex(int)}. */
+	final int[] summaryNodeIndexes;
+	final boolean isContentVisible;
+	final boolean isHiddenSummary;
+	final int contentWidth;
+	final int contentHeight;
+	final int cloudHeight;
+	final int spaceAround;
+	final int minimalDistanceBetweenChildren;
+	final int defaultVGap;
+
+	VerticalLayoutInput(NodeViewGeometry[] children, int[] summaryLevels, int highestSummaryLevel, boolean[] sides,
+	                    int[] summaryNodeIndexes, boolean isContentVisible, boolean isHiddenSummary,
+	                    int contentWidth, int contentHeight, int cloudHeight, int spaceAround,
+	                    int minimalDistanceBetweenChildren, int defaultVGap) {
+		this.children = children;
+		this.summaryLevels = summaryLevels;
+		this.highestSummaryLevel = highestSummaryLevel;
+		this.sides = sides;
+		this.summaryNodeIndexes = summaryNodeIndexes;
+		this.isContentVisible = isContentVisible;
+		this.isHiddenSummary = isHiddenSummary;
+		this.contentWidth = contentWidth;
+		this.contentHeight = contentHeight;
+		this.cloudHeight = cloudHeight;
+		this.spaceAround = spaceAround;
+		this.minimalDistanceBetweenChildren = minimalDistanceBetweenChildren;
+		this.defaultVGap = defaultVGap;
+	}
+
+	static int[] summaryNodeIndexes(SummaryLevels summaryLevels, int childCount) {
+		final int[] summaryNodeIndexes = new int[Math.min(childCount, summaryLevels.summaryLevels.length)];
+		Arrays.fill(summaryNodeIndexes, SummaryLevels.NODE_NOT_FOUND);
+		if (summaryLevels.highestSummaryLevel > 0) {
+			for (int i = 0; i < summaryNodeIndexes.length; i++) {
+				if (summaryLevels.summaryLevels[i] == 0)
+					summaryNodeIndexes[i] = summaryLevels.findSummaryNodeIndex(i);
+			}
+		}
+		return summaryNodeIndexes;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Arrays.hashCode(children) + contentHeight;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		final VerticalLayoutInput other = (VerticalLayoutInput) obj;
+		return highestSummaryLevel == other.highestSummaryLevel
+		        && isContentVisible == other.isContentVisible
+		        && isHiddenSummary == other.isHiddenSummary
+		        && contentWidth == other.contentWidth
+		        && contentHeight == other.contentHeight
+		        && cloudHeight == other.cloudHeight
+		        && spaceAround == other.spaceAround
+		        && minimalDistanceBetweenChildren == other.minimalDistanceBetweenChildren
+		        && defaultVGap == other.defaultVGap
+		        && Arrays.equals(sides, other.sides)
+		        && Arrays.equals(summaryLevels, other.summaryLevels)
+		        && Arrays.equals(summaryNodeIndexes, other.summaryNodeIndexes)
+		        && Arrays.equals(children, other.children);
+	}
+}
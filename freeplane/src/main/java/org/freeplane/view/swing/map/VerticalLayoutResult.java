@@ -0,0 +1,29 @@
+package org.freeplane.view.swing.map;
+
+/** Bounds calculated by {@link VerticalLayoutCalculator}, relative to the laid out node view. */
+final class VerticalLayoutResult {
+	final int[] childX;
+	final int[] childY;
+	final int contentX;
+	final int contentY;
+	final int contentWidth;
+	final int contentHeight;
+	final int width;
+	final int height;
+	final int topOverlap;
+	final int bottomOverlap;
+
+	VerticalLayoutResult(int[] childX, int[] childY, int contentX, int contentY, int contentWidth,
+	                     int contentHeight, int width, int height, int topOverlap, int bottomOverlap) {
+		this.childX = childX;
+		this.childY = childY;
+		this.contentX = contentX;
+		this.contentY = contentY;
+		this.contentWidth = contentWidth;
+		this.contentHeight = contentHeight;
+		this.width = width;
+		this.height = height;
+		this.topOverlap = topOverlap;
+		this.bottomOverlap = bottomOverlap;
+	}
+}
@@ -9,6 +9,7 @@ import java.awt.Insets;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
 import java.awt.image.BufferedImage;
 import java.security.AccessControlException;
 
@@ -79,6 +80,20 @@ public class ZoomableLabel extends JLabel {
 		super.paint(g);
 	}
 
+	@Override
+	public void repaint(long tm, int x, int y, int width, int height) {
+		final NodeView nodeView = getNodeView();
+		if (nodeView == null || !nodeView.getMap().isViewMoving())
+			LabelImageCache.invalidate(this);
+		super.repaint(tm, x, y, width, height);
+	}
+
+	@Override
+	public void removeNotify() {
+		LabelImageCache.invalidate(this);
+		super.removeNotify();
+	}
+
 	protected void updateText(String text) {
 		try{
 			updateTextUnsafe(text);
@@ -208,8 +223,23 @@ public class ZoomableLabel extends JLabel {
 		final FontMetrics fontMetrics = fmg.getFontMetrics();
 		return fontMetrics;
 	}
+
+	/** Font metrics for laying out the text, returning widths measured in advance where the map view has them. */
+	FontMetrics getTextLayoutFontMetrics() {
+		final FontMetrics fontMetrics = getFontMetrics();
+		final PreMeasuredTextWidths preMeasuredTextWidths = getMap().getPreMeasuredTextWidths();
+		return preMeasuredTextWidths != null ? preMeasuredTextWidths.fontMetrics(fontMetrics) : fontMetrics;
+	}
+
+	/** Font render context of {@link #getFontMetrics()} for labels not added to a map view yet. */
+	FontRenderContext getFontRenderContext(boolean usesFractionalMetrics) {
+		if (usesFractionalMetrics)
+			return fmg.getFontRenderContext();
+		return super.getFontMetrics(getFont()).getFontRenderContext();
+	}
 	
 	public String getLink(Point p){
+		((ZoomableLabelUI)getUI()).validateHTMLView(this);
 		View view = (View)getClientProperty(BasicHTML.propertyKey);
 		if(view == null)
 			return null;
@@ -47,6 +47,7 @@ import org.freeplane.core.util.TextUtils;
  * 23.08.2009
  */
 public class ZoomableLabelUI extends BasicLabelUI {
+	private static final String HTML_VIEW_PENDING = "ZoomableLabelUI.htmlViewPending";
 	private boolean isPainting = false;
 
 	static ZoomableLabelUI labelUI = new ZoomableLabelUI();
@@ -97,6 +98,7 @@ public class ZoomableLabelUI extends BasicLabelUI {
 	protected String layoutCL(final JLabel label, final FontMetrics fontMetrics, final String text, final Icon icon,
 	                          final Rectangle viewR, final Rectangle iconR, final Rectangle textR) {
 		final ZoomableLabel zLabel = (ZoomableLabel) label;
+		validateHTMLView(zLabel);
 		final float zoom = zLabel.getZoom();
 		if (isPainting) {
 			final Insets insets = zLabel.getInsets();
@@ -132,7 +134,7 @@ public class ZoomableLabelUI extends BasicLabelUI {
 
 						if(viewPreferredWidth > availableTextWidth){
 							v.setWidth(availableTextWidth);
-							super.layoutCL(zLabel, zLabel.getFontMetrics(), text, icon, viewR, iconR, textR);
+							super.layoutCL(zLabel, zLabel.getTextLayoutFontMetrics(), text, icon, viewR, iconR, textR);
 							return text;
 						}
 						else if(currentWidth != viewPreferredWidth)
@@ -146,7 +148,7 @@ public class ZoomableLabelUI extends BasicLabelUI {
 			layoutLabelWithTextIcon(textRenderingIcon, icon, viewR, iconR, textR, zLabel);
 		}
 		else
-			super.layoutCL(zLabel, zLabel.getFontMetrics(), text, icon, viewR, iconR, textR);
+			super.layoutCL(zLabel, zLabel.getTextLayoutFontMetrics(), text, icon, viewR, iconR, textR);
 		return text;
 	}
 
@@ -316,7 +318,19 @@ public class ZoomableLabelUI extends BasicLabelUI {
 
 	@Override
 	public void paint(final Graphics g, final JComponent label) {
-		final ZoomableLabel mainView = (ZoomableLabel) label;
+		final ZoomableLabel zoomableLabel = (ZoomableLabel) label;
+		final MapView map = zoomableLabel.getMap();
+		if (map.isViewMoving() && g instanceof Graphics2D) {
+			map.setPaintedFromImageCache();
+			LabelImageCache.getInstance().paint(g, zoomableLabel, this);
+		}
+		else
+			paintLabel(g, zoomableLabel);
+	}
+
+	void paintLabel(final Graphics g, final ZoomableLabel label) {
+		validateHTMLView(label);
+		final ZoomableLabel mainView = label;
 		if (!mainView.useFractionalMetrics()) {
 			try {
 				isPainting = true;
@@ -399,35 +413,52 @@ public class ZoomableLabelUI extends BasicLabelUI {
 	    			|| "ancestor" == name || "graphicsConfiguration" == name) {
 	    		JLabel lbl = ((JLabel) e.getSource());
 	    		if(getTextRenderingIcon(lbl) !=  null){
+	    			lbl.putClientProperty(HTML_VIEW_PENDING, null);
 	    			ScaledHTML.updateRenderer(lbl, "");
 	    		}
-	    		else{
-	    			String text = lbl.getText();
-	    			GlyphPainterMetricResetter.resetPainter();
-	    			try {
-	    			ScaledHTML.updateRenderer(lbl, text);
-	    			}
-	    			finally{
-	    				GlyphPainterMetricResetter.resetPainter();
-	    			}
-	    			View v = (View) lbl.getClientProperty(BasicHTML.propertyKey);
-	    			if (v != null) {
-	    				lbl.putClientProperty("preferredWidth", v.getPreferredSpan(View.X_AXIS));
-	    			}
-	    		}
+	    		else
+	    			invalidateHTMLView(lbl);
 	    	}
 	    	else
 		        super.propertyChange(e);
 
     }
 
+	/** The html view is built when it is needed for the first time after all property changes are applied. */
+	private void invalidateHTMLView(JLabel label) {
+		if (BasicHTML.isHTMLString(label.getText()))
+			label.putClientProperty(HTML_VIEW_PENDING, Boolean.TRUE);
+		else {
+			label.putClientProperty(HTML_VIEW_PENDING, null);
+			ScaledHTML.updateRenderer(label, null);
+		}
+	}
+
+	void validateHTMLView(ZoomableLabel label) {
+		if (label.getClientProperty(HTML_VIEW_PENDING) == null)
+			return;
+		label.putClientProperty(HTML_VIEW_PENDING, null);
+		final Boolean usesFractionalMetrics = label.getNodeView() != null && label.useFractionalMetrics();
+		GlyphPainterMetricResetter.resetPainter();
+		try {
+			ScaledHTML.updateRenderer(label, label.getText(), usesFractionalMetrics);
+		}
+		finally {
+			GlyphPainterMetricResetter.resetPainter();
+		}
+		final View v = (View) label.getClientProperty(BasicHTML.propertyKey);
+		if (v != null) {
+			label.putClientProperty("preferredWidth", v.getPreferredSpan(View.X_AXIS));
+		}
+	}
+
 	private Icon getTextRenderingIcon(JLabel lbl) {
 		return (Icon) lbl.getClientProperty(ZoomableLabel.TEXT_RENDERING_ICON);
 	}
 
 	@Override
     protected void installComponents(JLabel c) {
-	    ScaledHTML.updateRenderer(c, c.getText());
+	    invalidateHTMLView(c);
         c.setInheritsPopupMenu(true);
     }
 
@@ -1,6 +1,5 @@
 package org.freeplane.view.swing.map.cloud;
 
-import java.awt.Graphics2D;
 import java.awt.Shape;
 import java.awt.geom.QuadCurve2D;
 
@@ -25,7 +24,7 @@ public class ArcCloudView extends CloudView {
 	    super(cloudModel, source);
     }
 
-	protected void paintDecoration(final Graphics2D g, final Graphics2D gstroke, final double x0, final double y0,
+	protected void createDecoration(final CloudDecoration decoration, final double x0, final double y0,
                                  final double x1, final double y1, double dx, double dy, double dxn, double dyn) {
 	    double xctrl;
 	    double yctrl;
@@ -34,8 +33,8 @@ public class ArcCloudView extends CloudView {
 		xctrl = x0 + .5f * dx - distanceToConvexHull * dyn;
 		yctrl = y0 + .5f * dy + distanceToConvexHull * dxn;
 		final Shape shape = new QuadCurve2D.Double(x0, y0, xctrl, yctrl, x1, y1);
-		g.fill(shape);
-		gstroke.draw(shape);
+		decoration.fill(shape);
+		decoration.drawExterior(shape);
     }
 	
 	
@@ -0,0 +1,57 @@
+package org.freeplane.view.swing.map.cloud;
+
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.util.ArrayList;
+
+/**
+ * Recorded shapes of a cloud, replayed in their original order on each paint.
+ */
+class CloudDecoration {
+	private static final byte FILL = 0;
+	private static final byte DRAW = 1;
+	private static final byte DRAW_EXTERIOR = 2;
+	private final ArrayList<Shape> shapes = new ArrayList<Shape>();
+	private byte[] operations = new byte[16];
+
+	void fill(Shape shape) {
+		add(shape, FILL);
+	}
+
+	void draw(Shape shape) {
+		add(shape, DRAW);
+	}
+
+	void drawExterior(Shape shape) {
+		add(shape, DRAW_EXTERIOR);
+	}
+
+	private void add(Shape shape, byte operation) {
+		final int index = shapes.size();
+		if (index == operations.length) {
+			final byte[] newOperations = new byte[2 * index];
+			System.arraycopy(operations, 0, newOperations, 0, index);
+			operations = newOperations;
+		}
+		operations[index] = operation;
+		shapes.add(shape);
+	}
+
+	void paint(Graphics2D g, Graphics2D gstroke) {
+		final int size = shapes.size();
+		for (int i = 0; i < size; i++) {
+			final Shape shape = shapes.get(i);
+			switch (operations[i]) {
+				case FILL:
+					g.fill(shape);
+					break;
+				case DRAW:
+					g.draw(shape);
+					break;
+				default:
+					gstroke.draw(shape);
+					break;
+			}
+		}
+	}
+}
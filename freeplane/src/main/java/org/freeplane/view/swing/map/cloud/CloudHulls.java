@@ -0,0 +1,123 @@
+package org.freeplane.view.swing.map.cloud;
+
+import java.awt.Component;
+import java.awt.Point;
+import java.awt.Polygon;
+import java.util.LinkedList;
+import java.util.Vector;
+
+import javax.swing.JComponent;
+
+import org.freeplane.features.cloud.CloudModel;
+import org.freeplane.view.swing.map.MainView;
+import org.freeplane.view.swing.map.NodeView;
+
+/**
+ * Calculates convex hulls around visible node view subtrees.
+ *
+ * The hull of a subtree is merged from the hulls of its child subtrees which are cached by the child views,
+ * so only views changed since the last calculation are visited again.
+ * Node rectangles below a nested cloud are enlarged by the distance of the nested cloud.
+ * Enlarging all points by the same square is the same as enlarging the vertices of their hull,
+ * so the enlarged hull of a clouded child is calculated from its hull.
+ */
+class CloudHulls {
+	static Polygon getHull(final NodeView node) {
+		final CloudShapeCache cache = node.getCloudShapeCache();
+		if (!cache.hullCalculated) {
+			cache.hull = calculateHull(node);
+			cache.hullCalculated = true;
+		}
+		return cache.hull;
+	}
+
+	private static Polygon getSubtreeHull(final NodeView node) {
+		final CloudShapeCache cache = node.getCloudShapeCache();
+		if (!cache.subtreeHullCalculated) {
+			cache.subtreeHull = calculateSubtreeHull(node);
+			cache.subtreeHullCalculated = true;
+		}
+		return cache.subtreeHull;
+	}
+
+	private static Polygon calculateHull(final NodeView node) {
+		if (!node.isVisible()) {
+			return null;
+		}
+		final LinkedList<Point> coordinates = new LinkedList<Point>();
+		if (node.isContentVisible()) {
+			final JComponent content = node.getContent();
+			final MainView mainView = node.getMainView();
+			final int x = content.getX() - node.getDeltaX();
+			final int y = content.getY() - node.getDeltaY();
+			final int width = mainView.getMainViewWidthWithFoldingMark();
+			final int height = Math.max(mainView.getMainViewHeightWithFoldingMark(), content.getHeight());
+			coordinates.addLast(new Point(x, y));
+			coordinates.addLast(new Point(x, y + height));
+			coordinates.addLast(new Point(x + width, y + height));
+			coordinates.addLast(new Point(x + width, y));
+		}
+		for (int i = 0; i < node.getComponentCount(); i++) {
+			final Component component = node.getComponent(i);
+			if (!(component instanceof NodeView)) {
+				continue;
+			}
+			final Polygon childHull = getSubtreeHull((NodeView) component);
+			if (childHull != null) {
+				addPoints(coordinates, childHull, component.getX(), component.getY(), 0);
+			}
+		}
+		if (coordinates.isEmpty()) {
+			return null;
+		}
+		return calculateHull(coordinates);
+	}
+
+	private static Polygon calculateSubtreeHull(final NodeView node) {
+		final Polygon hull = getHull(node);
+		final CloudModel cloud = node.getCloudModel();
+		if (hull == null || cloud == null) {
+			return hull;
+		}
+		final int distance = CloudView.getAdditionalHeigth(cloud, node) / 5;
+		if (distance == 0) {
+			return hull;
+		}
+		final LinkedList<Point> coordinates = new LinkedList<Point>();
+		addPoints(coordinates, hull, 0, 0, distance);
+		return calculateHull(coordinates);
+	}
+
+	private static void addPoints(final LinkedList<Point> coordinates, final Polygon hull, final int transX,
+	                              final int transY, final int distance) {
+		for (int i = 0; i < hull.npoints; i++) {
+			final int x = hull.xpoints[i] + transX;
+			final int y = hull.ypoints[i] + transY;
+			if (distance == 0) {
+				coordinates.addLast(new Point(x, y));
+			}
+			else {
+				coordinates.addLast(new Point(x - distance, y - distance));
+				coordinates.addLast(new Point(x - distance, y + distance));
+				coordinates.addLast(new Point(x + distance, y + distance));
+				coordinates.addLast(new Point(x + distance, y - distance));
+			}
+		}
+	}
+
+	private static Polygon calculateHull(final LinkedList<Point> coordinates) {
+		final Vector<Point> res = new ConvexHull().calculateHull(coordinates);
+		final Polygon p = new Polygon();
+		Point lastPt = null;
+		for (int i = 0; i < res.size(); ++i) {
+			final Point pt = res.get(i);
+			if (!pt.equals(lastPt)) {
+				p.addPoint(pt.x, pt.y);
+				lastPt = pt;
+			}
+		}
+		final Point pt = res.get(0);
+		p.addPoint(pt.x, pt.y);
+		return p;
+	}
+}
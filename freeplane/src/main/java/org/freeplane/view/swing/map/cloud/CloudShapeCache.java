@@ -0,0 +1,26 @@
+package org.freeplane.view.swing.map.cloud;
+
+import java.awt.Polygon;
+
+/**
+ * Cloud shapes calculated for a node view.
+ *
+ * A node view drops its cache whenever it is invalidated, that is on each layout change in its subtree,
+ * and when clouds are added to or removed from its ancestors.
+ */
+public class CloudShapeCache {
+	final double zoom;
+	boolean hullCalculated;
+	Polygon hull;
+	boolean subtreeHullCalculated;
+	Polygon subtreeHull;
+	CloudDecoration decoration;
+
+	public CloudShapeCache(double zoom) {
+		this.zoom = zoom;
+	}
+
+	public double getZoom() {
+		return zoom;
+	}
+}
@@ -26,9 +26,7 @@ import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.Polygon;
 import java.awt.Stroke;
-import java.util.LinkedList;
 import java.util.Random;
-import java.util.Vector;
 
 import org.freeplane.features.cloud.CloudController;
 import org.freeplane.features.cloud.CloudModel;
@@ -124,7 +122,17 @@ abstract public class CloudView {
 	}
 
 	public void paint(final Graphics graphics) {
-		random = new Random(0);
+		final CloudShapeCache cache = source.getCloudShapeCache();
+		if (cache.decoration == null) {
+			final Polygon p = CloudHulls.getHull(source);
+			if (p == null) {
+				return;
+			}
+			random = new Random(0);
+			final CloudDecoration decoration = new CloudDecoration();
+			createDecoration(p, decoration);
+			cache.decoration = decoration;
+		}
 		final Graphics2D g = (Graphics2D) graphics.create();
 		final Graphics2D gstroke = (Graphics2D) g.create();
 		final Color color = getColor();
@@ -134,32 +142,17 @@ abstract public class CloudView {
 		/* now bold */
 		gstroke.setColor(getExteriorColor(color));
 		gstroke.setStroke(getStroke());
+		cache.decoration.paint(g, gstroke);
+		gstroke.dispose();
+		g.dispose();
+	}
+
+	protected void createDecoration(final Polygon p, final CloudDecoration decoration){
+		fillPolygon(p, decoration);
 		/*
 		 * calculate the distances between two points on the convex hull
 		 * depending on the getIterativeLevel().
 		 */
-		/** get coordinates */
-		final LinkedList<Point> coordinates = new LinkedList<Point>();
-		source.getCoordinates(coordinates);
-		final ConvexHull hull = new ConvexHull();
-		final Vector<Point> res = hull.calculateHull(coordinates);
-		final Polygon p = new Polygon();
-		Point lastPt = null;
-		for (int i = 0; i < res.size(); ++i) {
-			final Point pt = (Point) res.get(i);
-			if(!pt.equals(lastPt)){
-				p.addPoint(pt.x, pt.y);
-				lastPt = pt;
-			}
-		}
-		final Point pt = (Point) res.get(0);
-		p.addPoint(pt.x, pt.y);
-		paintDecoration(p, g, gstroke);
-		g.dispose();
-	}
-	
-	protected void paintDecoration(final Polygon p, Graphics2D g, Graphics2D gstroke){
-		fillPolygon(p, g);
 		double middleDistanceBetweenPoints = calcDistanceBetweenPoints();
 		final int[] xpoints = p.xpoints;
 		final int[] ypoints = p.ypoints;
@@ -193,12 +186,12 @@ abstract public class CloudView {
 					/* last point */
 					break;
 				}
-				paintDecoration(g, gstroke, x2, y2, x3, y3);
+				createDecoration(decoration, x2, y2, x3, y3);
 				x2 = x3;
 				y2 = y3;
 			}
 
-			paintDecoration(g, gstroke, x2, y2, x1, y1);
+			createDecoration(decoration, x2, y2, x1, y1);
 			x2 = x1;
 			y2 = y1;
 			x0 = x1;
@@ -206,12 +199,12 @@ abstract public class CloudView {
 		}
 	}
 
-	protected void fillPolygon(final Polygon p, Graphics2D g) {
-	    g.fillPolygon(p);
-		g.drawPolygon(p);
-    }
+	protected void fillPolygon(final Polygon p, final CloudDecoration decoration) {
+		decoration.fill(p);
+		decoration.draw(p);
+	}
 
-	protected void paintDecoration(Graphics2D g, Graphics2D gstroke, double x0, double y0, double x1, double y1) {
+	protected void createDecoration(final CloudDecoration decoration, double x0, double y0, double x1, double y1) {
 			double dx, dy;
 			dx = x1 - x0;
 			dy = y1 - y0;
@@ -219,10 +212,10 @@ abstract public class CloudView {
 			double dxn, dyn;
 			dxn = dx / length;
 			dyn = dy / length;
-			paintDecoration(g, gstroke, x0, y0, x1, y1, dx, dy, dxn, dyn);
+			createDecoration(decoration, x0, y0, x1, y1, dx, dy, dxn, dyn);
 		}
 
-	abstract protected void paintDecoration(Graphics2D g, Graphics2D gstroke, double x0, double y0, double x1, double y1,
+	abstract protected void createDecoration(CloudDecoration decoration, double x0, double y0, double x1, double y1,
                                  double dx, double dy, double dxn, double dyn);
 	
     protected double calcDistanceBetweenPoints() {
@@ -1,8 +1,9 @@
 package org.freeplane.view.swing.map.cloud;
 
-import java.awt.Graphics2D;
 import java.awt.Polygon;
 import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.geom.RoundRectangle2D;
 
 import org.freeplane.features.cloud.CloudModel;
 import org.freeplane.view.swing.map.NodeView;
@@ -16,29 +17,30 @@ public class RectangleCloudView extends CloudView {
 	}
 
 	@Override
-    protected void fillPolygon(Polygon p, Graphics2D g) {
+    protected void fillPolygon(Polygon p, CloudDecoration decoration) {
     }
 
 	@Override
-    protected void paintDecoration(Polygon p, Graphics2D g, Graphics2D gstroke) {
+    protected void createDecoration(Polygon p, CloudDecoration decoration) {
 		final Rectangle bounds = p.getBounds();
 		final int distanceToConvexHull = (int) getDistanceToConvexHull();
 		bounds.x -= distanceToConvexHull;
 		bounds.y -= distanceToConvexHull;
 		bounds.width += 2 * distanceToConvexHull;
 		bounds.height += 2 * distanceToConvexHull;
+		final Shape shape;
 		if(isRound){
-			g.fillRoundRect(bounds.x, bounds.y, bounds.width, bounds.height, distanceToConvexHull, distanceToConvexHull);
-			gstroke.drawRoundRect(bounds.x, bounds.y, bounds.width, bounds.height, distanceToConvexHull, distanceToConvexHull);
+			shape = new RoundRectangle2D.Float(bounds.x, bounds.y, bounds.width, bounds.height, distanceToConvexHull, distanceToConvexHull);
 		}
 		else{
-			g.fillRect(bounds.x, bounds.y, bounds.width, bounds.height);
-			gstroke.drawRect(bounds.x, bounds.y, bounds.width, bounds.height);
+			shape = bounds;
 		}
+		decoration.fill(shape);
+		decoration.drawExterior(shape);
     }
 
 	@Override
-    protected void paintDecoration(Graphics2D g, Graphics2D gstroke, double x0, double y0, double x1, double y1,
+    protected void createDecoration(CloudDecoration decoration, double x0, double y0, double x1, double y1,
                                    double dx, double dy, double dxn, double dyn) {	    
     }
 
@@ -1,7 +1,7 @@
 package org.freeplane.view.swing.map.cloud;
 
-import java.awt.Graphics2D;
 import java.awt.Polygon;
+import java.awt.geom.Line2D;
 
 import org.freeplane.features.cloud.CloudModel;
 import org.freeplane.view.swing.map.NodeView;
@@ -11,7 +11,7 @@ public class StarCloudView extends CloudView {
 	StarCloudView(CloudModel cloudModel, NodeView source) {
 	    super(cloudModel, source);
 	}
-	protected void paintDecoration(final Graphics2D g, final Graphics2D gstroke, final double x0, final double y0,
+	protected void createDecoration(final CloudDecoration decoration, final double x0, final double y0,
 	                                 final double x1, final double y1, double dx, double dy, double dxn, double dyn) {
 		final double xctrl, yctrl;
 		final double middleDistanceToConvexHull = getDistanceToConvexHull();
@@ -23,9 +23,9 @@ public class StarCloudView extends CloudView {
 		shape.addPoint((int)x0, (int)y0);
 		shape.addPoint((int)xctrl, (int)yctrl);
 		shape.addPoint((int)x1, (int)y1);
-		g.fill(shape);
-		gstroke.drawLine((int)x0, (int)y0, (int)xctrl, (int)yctrl);
-		gstroke.drawLine((int)xctrl, (int)yctrl, (int)x1, (int)y1);
+		decoration.fill(shape);
+		decoration.drawExterior(new Line2D.Float((int)x0, (int)y0, (int)xctrl, (int)yctrl));
+		decoration.drawExterior(new Line2D.Float((int)xctrl, (int)yctrl, (int)x1, (int)y1));
 	}
 	@Override
     protected double getDistanceToConvexHull() {
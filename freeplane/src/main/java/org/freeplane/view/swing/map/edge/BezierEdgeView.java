@@ -23,6 +23,7 @@ import java.awt.Color;
 import java.awt.Component;
 import java.awt.Graphics2D;
 import java.awt.Point;
+import java.awt.Shape;
 import java.awt.Stroke;
 import java.awt.geom.CubicCurve2D;
 
@@ -57,6 +58,11 @@ public class BezierEdgeView extends EdgeView {
 		}
 	}
 
+	@Override
+	protected Shape createShape() {
+		return update();
+	}
+
 	private CubicCurve2D.Float update() {
         final Point startControlPoint = getControlPoint(getStartConnectorLocation());
         final int zoomedXCTRL = getMap().getZoomed(XCTRL);
@@ -0,0 +1,64 @@
+package org.freeplane.view.swing.map.edge;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.Stroke;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Collects consecutive edges drawn with the same color and stroke into one path
+ * so that they are drawn by a single call. Edges outside of the clip are skipped.
+ *
+ * The edges are drawn in the order they were added: the path is drawn as soon as an edge
+ * with another color or stroke is added or {@link #flush()} is called. Callers painting
+ * an edge directly must flush the batch before.
+ */
+public class EdgeBatch {
+	private final Graphics2D g;
+	private final Rectangle clip;
+	private Color color;
+	private Stroke stroke;
+	private Path2D.Float path;
+
+	public EdgeBatch(final Graphics2D g) {
+		this.g = g;
+		clip = g.getClipBounds();
+	}
+
+	void add(final Shape shape, final Rectangle2D bounds, final Color color, final Stroke stroke) {
+		if (clip != null && !intersectsClip(bounds, stroke))
+			return;
+		if (path != null && !(this.color.equals(color) && this.stroke.equals(stroke)))
+			flush();
+		if (path == null) {
+			this.color = color;
+			this.stroke = stroke;
+			path = new Path2D.Float();
+		}
+		path.append(shape, false);
+	}
+
+	private boolean intersectsClip(final Rectangle2D bounds, final Stroke stroke) {
+		final double margin = (stroke instanceof BasicStroke ? ((BasicStroke) stroke).getLineWidth() : 0) / 2 + 1;
+		return bounds.getMaxX() + margin >= clip.x && bounds.getMinX() - margin <= clip.x + clip.width
+		        && bounds.getMaxY() + margin >= clip.y && bounds.getMinY() - margin <= clip.y + clip.height;
+	}
+
+	/** Draws the collected edges. */
+	public void flush() {
+		if (path == null)
+			return;
+		final Stroke oldStroke = g.getStroke();
+		final Color oldColor = g.getColor();
+		g.setColor(color);
+		g.setStroke(stroke);
+		g.draw(path);
+		g.setStroke(oldStroke);
+		g.setColor(oldColor);
+		path = null;
+	}
+}
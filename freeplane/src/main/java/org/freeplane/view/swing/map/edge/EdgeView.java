@@ -24,10 +24,13 @@ import java.awt.Color;
 import java.awt.Component;
 import java.awt.Graphics2D;
 import java.awt.Point;
+import java.awt.Shape;
 import java.awt.Stroke;
+import java.awt.geom.Rectangle2D;
 
 import org.freeplane.core.ui.components.UITools;
 import org.freeplane.features.DashVariant;
+import org.freeplane.features.edge.EdgeStyle;
 import org.freeplane.view.swing.map.MainView;
 import org.freeplane.view.swing.map.MainView.ConnectorLocation;
 import org.freeplane.view.swing.map.MapView;
@@ -74,6 +77,12 @@ public abstract class EdgeView {
     private ConnectorLocation startConnectorLocation;
     private ConnectorLocation endConnectorLocation;
 	private int[] dash;
+	private final EdgeStyle targetEdgeStyle;
+	private final int targetEdgeWidth;
+	private final DashVariant targetEdgeDash;
+	private Shape shape;
+	private Rectangle2D shapeBounds;
+	private Stroke batchStroke;
 
 	protected void createStart() {
         final MainView mainView = source.getMainView();
@@ -206,6 +215,49 @@ public abstract class EdgeView {
 
 	abstract protected void draw(Graphics2D g);
 
+	/**
+	 * Returns the edge drawn by a single {@link Graphics2D#draw(Shape)} call with {@link #getStroke()} and {@link #getColor()},
+	 * or null if the edge is painted differently.
+	 */
+	protected Shape createShape() {
+		return null;
+	}
+
+	protected Shape getShape() {
+		if (shape == null)
+			shape = createShape();
+		return shape;
+	}
+
+	/**
+	 * Adds the edge to the batch if it can be drawn as a stroked shape.
+	 * Returns false if the edge must be painted by {@link #paint(Graphics2D)}.
+	 */
+	public boolean addTo(final EdgeBatch batch) {
+		if (isTargetEclipsed())
+			return false;
+		final Shape shape = getShape();
+		if (shape == null)
+			return false;
+		if (batchStroke == null) {
+			batchStroke = getStroke();
+			shapeBounds = shape.getBounds2D();
+		}
+		batch.add(shape, shapeBounds, getColor(), batchStroke);
+		return true;
+	}
+
+	/**
+	 * Returns true if the edge style, color, width and dash of the target have not changed since the edge was created.
+	 * The geometry is only valid until the source, the target or a node view between them is laid out again.
+	 */
+	public boolean isUpToDate() {
+		return targetEdgeStyle == target.getEdgeStyle()
+		        && targetEdgeWidth == target.getEdgeWidth()
+		        && targetEdgeDash == target.getEdgeDash()
+		        && (color == null || color.equals(target.getEdgeColor()));
+	}
+
 	public void paint(final Graphics2D g) {
 		final Stroke stroke = g.getStroke();
 		final Color color = g.getColor();
@@ -217,6 +269,9 @@ public abstract class EdgeView {
 	public EdgeView(final NodeView source, final NodeView target, final Component paintedComponent) {
 		this.source = source;
 		this.target = target;
+		this.targetEdgeStyle = target.getEdgeStyle();
+		this.targetEdgeWidth = target.getEdgeWidth();
+		this.targetEdgeDash = target.getEdgeDash();
 		createStart();
         UITools.convertPointToAncestor(target.getMainView(), end, paintedComponent);
 		UITools.convertPointToAncestor(source.getMainView(), start, paintedComponent);
@@ -67,4 +67,9 @@ public class HiddenEdgeView extends BezierEdgeView {
 		}
 		return super.detectCollision(p);
 	}
+
+	@Override
+	public boolean addTo(EdgeBatch batch) {
+		return false;
+	}
 }
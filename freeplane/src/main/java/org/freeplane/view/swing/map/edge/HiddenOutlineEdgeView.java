@@ -47,6 +47,9 @@ public class HiddenOutlineEdgeView extends OutlineEdgeView {
 		}
 	    super.paint(g);
     }
-	
-	
+
+	@Override
+	public boolean addTo(EdgeBatch batch) {
+		return false;
+	}
 }
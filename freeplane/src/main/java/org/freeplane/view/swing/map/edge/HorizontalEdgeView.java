@@ -23,8 +23,10 @@ import java.awt.Color;
 import java.awt.Component;
 import java.awt.Graphics2D;
 import java.awt.Point;
+import java.awt.Shape;
 import java.awt.Stroke;
 import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
 
 import org.freeplane.features.nodelocation.LocationModel;
 import org.freeplane.view.swing.map.MainView;
@@ -69,6 +71,20 @@ public class HorizontalEdgeView extends EdgeView {
 		g.setColor(color);
 		final Stroke stroke = getStroke();
 		g.setStroke(stroke);
+		updatePolyline();
+		g.drawPolyline(xs, ys, 4);
+		if (isTargetEclipsed()) {
+			g.setColor(g.getBackground());
+			g.setStroke(EdgeView.getEclipsedStroke());
+			g.drawPolyline(xs, ys, 4);
+			g.setColor(color);
+			g.setStroke(stroke);
+		}
+	}
+
+	private void updatePolyline() {
+		if (xs != null)
+			return;
 		int xMiddle = getTarget().getMap().getZoomed(LocationModel.DEFAULT_HGAP_PX) / 2;
 		final boolean left = getTarget().isLeft() 
 		    || ! MainView.USE_COMMON_OUT_POINT_FOR_ROOT_NODE && getSource().isRoot()&& start.x > end.x;
@@ -78,18 +94,21 @@ public class HorizontalEdgeView extends EdgeView {
 		xMiddle += start.x;
 		xs = new int[] { start.x, xMiddle, xMiddle, end.x };
 		ys = new int[] { start.y, start.y, end.y, end.y };
-		g.drawPolyline(xs, ys, 4);
-		if (isTargetEclipsed()) {
-			g.setColor(g.getBackground());
-			g.setStroke(EdgeView.getEclipsedStroke());
-			g.drawPolyline(xs, ys, 4);
-			g.setColor(color);
-			g.setStroke(stroke);
-		}
+	}
+
+	@Override
+	protected Shape createShape() {
+		updatePolyline();
+		final Path2D.Float path = new Path2D.Float(Path2D.WIND_NON_ZERO, xs.length);
+		path.moveTo(xs[0], ys[0]);
+		for (int i = 1; i < xs.length; i++)
+			path.lineTo(xs[i], ys[i]);
+		return path;
 	}
 
 	@Override
 	public boolean detectCollision(final Point p) {
+		updatePolyline();
 		final CollisionDetector collisionDetector = new CollisionDetector();
 		for (int i = 1; i < xs.length; i++) {
 			if (collisionDetector.detectCollision(p, new Line2D.Float(xs[i - 1], ys[i - 1], xs[i], ys[i]))) {
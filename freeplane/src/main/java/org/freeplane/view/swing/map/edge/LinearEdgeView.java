@@ -23,8 +23,10 @@ import java.awt.Color;
 import java.awt.Component;
 import java.awt.Graphics2D;
 import java.awt.Point;
+import java.awt.Shape;
 import java.awt.Stroke;
 import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
 
 import org.freeplane.view.swing.map.NodeView;
 import org.freeplane.view.swing.map.link.CollisionDetector;
@@ -75,6 +77,22 @@ public class LinearEdgeView extends EdgeView {
 		}
 	}
 
+	@Override
+	protected Shape createShape() {
+		final int w = getWidth();
+		if (w <= 1)
+			return new Line2D.Float(start, end);
+		final Point startControlPoint = getControlPoint(getStartConnectorLocation());
+		final int zoomedXCTRL = w + 1;
+		final Point endControlPoint = getControlPoint(getEndConnectorLocation());
+		final Path2D.Float path = new Path2D.Float(Path2D.WIND_NON_ZERO, 4);
+		path.moveTo(start.x, start.y);
+		path.lineTo(start.x + startControlPoint.x * zoomedXCTRL, start.y + startControlPoint.y * zoomedXCTRL);
+		path.lineTo(end.x + endControlPoint.x * zoomedXCTRL, end.y + endControlPoint.y * zoomedXCTRL);
+		path.lineTo(end.x, end.y);
+		return path;
+	}
+
 	@Override
 	public boolean detectCollision(final Point p) {
 		final Line2D line = new Line2D.Float(start, end);
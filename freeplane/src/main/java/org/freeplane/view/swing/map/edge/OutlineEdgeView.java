@@ -23,7 +23,9 @@ import java.awt.Color;
 import java.awt.Component;
 import java.awt.Graphics2D;
 import java.awt.Point;
+import java.awt.Shape;
 import java.awt.Stroke;
+import java.awt.geom.Path2D;
 
 import org.freeplane.features.nodestyle.NodeStyleModel;
 import org.freeplane.view.swing.map.MainView;
@@ -68,6 +70,27 @@ public class OutlineEdgeView extends EdgeView {
 		}
 	}
 
+	@Override
+	protected Shape createShape() {
+		final Path2D.Float path = new Path2D.Float();
+		path.moveTo(start.x, start.y);
+		path.lineTo(start.x, end.y);
+		path.moveTo(start.x, end.y);
+		path.lineTo(end.x, end.y);
+		if(getTarget().isSummary()){
+			final int gap = getWidth();
+			final int y1 = end.y + gap * 13/8;
+			path.moveTo(start.x, start.y);
+			path.lineTo(start.x, y1);
+			int x2 = end.x;
+			if(NodeStyleModel.Shape.fork.equals(getTarget().getMainView().getShapeConfiguration().getShape()))
+				x2 += getTarget().getContent().getWidth();
+			path.moveTo(start.x, y1);
+			path.lineTo(x2, y1);
+		}
+		return path;
+	}
+
 	@Override
 	protected Stroke getStroke() {
 		final NodeView nodeView = getTarget();
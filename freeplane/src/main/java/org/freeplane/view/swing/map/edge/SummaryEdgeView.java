@@ -51,6 +51,11 @@ public class SummaryEdgeView extends EdgeView {
 		g.draw(graph);
 	}
 
+	@Override
+	protected Shape createShape() {
+		return update();
+	}
+
 	private Shape update() {
 		final boolean isLeft = getTarget().isLeft();
         final int sign = isLeft ? -1 : 1;
@@ -0,0 +1,24 @@
+package org.freeplane.core.extension;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/** Creates extensions of classes never seen before, each by its own class loader. */
+public class ExtensionClasses {
+	public static IExtension newExtensionOfNewClass() {
+		final ClassLoader classLoader = new ClassLoader(IExtension.class.getClassLoader()) {
+		};
+		return (IExtension) Proxy.newProxyInstance(classLoader, new Class<?>[] { IExtension.class },
+		    new InvocationHandler() {
+			    @Override
+			    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				    if (method.getName().equals("equals"))
+					    return proxy == args[0];
+				    if (method.getName().equals("hashCode"))
+					    return System.identityHashCode(proxy);
+				    return "extension";
+			    }
+		    });
+	}
+}
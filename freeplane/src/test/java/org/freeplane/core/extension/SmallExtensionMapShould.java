@@ -0,0 +1,101 @@
+package org.freeplane.core.extension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class SmallExtensionMapShould {
+	static class BaseExtension implements IExtension {
+	}
+
+	static class DerivedExtension extends BaseExtension {
+	}
+
+	static class OtherExtension implements IExtension {
+	}
+
+	private final SmallExtensionMap map = new SmallExtensionMap();
+
+	@Test
+	public void findExtensionsByExactClass() throws Exception {
+		final DerivedExtension derived = new DerivedExtension();
+		map.put(DerivedExtension.class, derived);
+		assertThat(map.get(DerivedExtension.class)).isSameAs(derived);
+		assertThat(map.get(BaseExtension.class)).isNull();
+		assertThat(map.containsKey(BaseExtension.class)).isFalse();
+	}
+
+	@Test(expected = ClassCastException.class)
+	public void rejectExtensionsOfOtherClasses() throws Exception {
+		map.put(BaseExtension.class, new DerivedExtension());
+	}
+
+	@Test
+	public void keepInsertionOrderAfterRemoval() throws Exception {
+		final OtherExtension other = new OtherExtension();
+		final DerivedExtension derived = new DerivedExtension();
+		final BaseExtension base = new BaseExtension();
+		map.put(OtherExtension.class, other);
+		map.put(DerivedExtension.class, derived);
+		map.put(BaseExtension.class, base);
+		assertThat(map.remove(DerivedExtension.class)).isSameAs(derived);
+		assertThat(map.values()).containsExactly(other, base);
+		assertThat(map.get(OtherExtension.class)).isSameAs(other);
+		assertThat(map.get(BaseExtension.class)).isSameAs(base);
+		assertThat(map.get(DerivedExtension.class)).isNull();
+	}
+
+	@Test
+	public void replaceExtensionInPlace() throws Exception {
+		final OtherExtension other = new OtherExtension();
+		final BaseExtension base = new BaseExtension();
+		final BaseExtension replacement = new BaseExtension();
+		map.put(BaseExtension.class, base);
+		map.put(OtherExtension.class, other);
+		assertThat(map.put(BaseExtension.class, replacement)).isSameAs(base);
+		assertThat(map.values()).containsExactly(replacement, other);
+	}
+
+	@Test
+	public void registerOnlyClassesOfStoredExtensions() throws Exception {
+		final IExtension stored = ExtensionClasses.newExtensionOfNewClass();
+		final IExtension missing = ExtensionClasses.newExtensionOfNewClass();
+		map.put(stored.getClass(), stored);
+		final int registeredClassCount = ExtensionRegistry.registeredClassCount();
+		assertThat(map.get(missing.getClass())).isNull();
+		assertThat(map.get(IExtension.class)).isNull();
+		assertThat(map.remove(missing.getClass())).isNull();
+		assertThat(ExtensionRegistry.indexOf(missing.getClass())).isEqualTo(ExtensionRegistry.NOT_REGISTERED);
+		assertThat(ExtensionRegistry.registeredClassCount()).isEqualTo(registeredClassCount);
+		assertThat(map.get(stored.getClass())).isSameAs(stored);
+	}
+
+	@Test
+	public void findExtensionsOfClassesBeyondIndexedClassLimit() throws Exception {
+		final List<IExtension> extensions = new ArrayList<IExtension>();
+		for (int i = 0; i < 100; i++) {
+			final IExtension extension = ExtensionClasses.newExtensionOfNewClass();
+			extensions.add(extension);
+			map.put(extension.getClass(), extension);
+		}
+		assertThat(ExtensionRegistry.registeredClassCount()).isGreaterThanOrEqualTo(100);
+		for (int i = 0; i < extensions.size(); i += 3) {
+			assertThat(map.remove(extensions.get(i).getClass())).isSameAs(extensions.get(i));
+		}
+		final List<IExtension> remainingExtensions = new ArrayList<IExtension>();
+		for (int i = 0; i < extensions.size(); i++) {
+			final IExtension extension = extensions.get(i);
+			if (i % 3 == 0) {
+				assertThat(map.get(extension.getClass())).isNull();
+			}
+			else {
+				assertThat(map.get(extension.getClass())).isSameAs(extension);
+				remainingExtensions.add(extension);
+			}
+		}
+		assertThat(map.values()).containsExactlyElementsOf(remainingExtensions);
+	}
+}
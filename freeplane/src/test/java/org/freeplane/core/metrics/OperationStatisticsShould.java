@@ -0,0 +1,77 @@
+package org.freeplane.core.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class OperationStatisticsShould {
+	private final OperationStatistics statistics = new OperationStatistics(Operation.FILTER);
+
+	@After
+	public void disableMetrics() {
+		Metrics.setEnabled(false);
+		Metrics.reset();
+	}
+
+	private void addMillis(long... millis) {
+		for (long duration : millis)
+			statistics.add(TimeUnit.MILLISECONDS.toNanos(duration));
+	}
+
+	@Test
+	public void returnZeroWithoutMeasurements() throws Exception {
+		assertThat(statistics.getCount()).isEqualTo(0);
+		assertThat(statistics.getPercentileMillis(50)).isEqualTo(0);
+		assertThat(statistics.getMaxMillis()).isEqualTo(0);
+	}
+
+	@Test
+	public void calculatePercentilesOfMeasurements() throws Exception {
+		for (int i = 100; i >= 1; i--)
+			addMillis(i);
+		assertThat(statistics.getCount()).isEqualTo(100);
+		assertThat(statistics.getPercentileMillis(50)).isCloseTo(50, within(1e-9));
+		assertThat(statistics.getPercentileMillis(90)).isCloseTo(90, within(1e-9));
+		assertThat(statistics.getPercentileMillis(99)).isCloseTo(99, within(1e-9));
+		assertThat(statistics.getPercentileMillis(0)).isCloseTo(1, within(1e-9));
+		assertThat(statistics.getMaxMillis()).isCloseTo(100, within(1e-9));
+	}
+
+	@Test
+	public void keepOnlyRecentMeasurements() throws Exception {
+		addMillis(1000);
+		for (int i = 0; i < OperationStatistics.WINDOW_SIZE; i++)
+			addMillis(1);
+		assertThat(statistics.getCount()).isEqualTo(OperationStatistics.WINDOW_SIZE + 1);
+		assertThat(statistics.getMaxMillis()).isCloseTo(1, within(1e-9));
+	}
+
+	@Test
+	public void forgetMeasurementsOnReset() throws Exception {
+		addMillis(5);
+		statistics.reset();
+		assertThat(statistics.getCount()).isEqualTo(0);
+		assertThat(statistics.getMaxMillis()).isEqualTo(0);
+	}
+
+	@Test
+	public void recordOperationsOnlyWhileEnabled() throws Exception {
+		Metrics.start(Operation.PAINT).stop();
+		Metrics.setEnabled(true);
+		final OperationTimer timer = Metrics.start(Operation.PAINT);
+		assertThat(timer.isActive()).isTrue();
+		timer.stop();
+		assertThat(statisticsOf(Operation.PAINT).getCount()).isEqualTo(1);
+	}
+
+	private static OperationStatistics statisticsOf(Operation operation) {
+		for (OperationStatistics operationStatistics : Metrics.getStatistics())
+			if (operationStatistics.getOperation() == operation)
+				return operationStatistics;
+		throw new AssertionError(operation);
+	}
+}
@@ -0,0 +1,149 @@
+package org.freeplane.core.task;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.freeplane.features.mode.Controller;
+import org.freeplane.features.mode.ReadOnlyExecution;
+import org.freeplane.features.ui.ViewController;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class BackgroundTaskServiceShould {
+	private static final int TIMEOUT_SECONDS = 10;
+	private final CountDownLatch finished = new CountDownLatch(1);
+	private final AtomicReference<Object> outcome = new AtomicReference<>();
+
+	private class RecordingTask extends BackgroundTask<String> {
+		private final CountDownLatch readStarted = new CountDownLatch(1);
+		private final CountDownLatch readReleased = new CountDownLatch(1);
+
+		RecordingTask(String type, Object subject) {
+			super(type, subject);
+		}
+
+		@Override
+		protected String read() throws Exception {
+			readStarted.countDown();
+			readReleased.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+			checkCancelled();
+			return ReadOnlyExecution.isActive() ? "read only" : "writable";
+		}
+
+		@Override
+		protected void apply(String result) {
+			outcome.set(result);
+			finished.countDown();
+		}
+
+		@Override
+		protected void cancelled() {
+			outcome.set("cancelled");
+			finished.countDown();
+		}
+	}
+
+	@Before
+	public void setup() {
+		final Controller controller = mock(Controller.class);
+		final ViewController viewController = mock(ViewController.class);
+		when(controller.getViewController()).thenReturn(viewController);
+		doAnswer(new Answer<Void>() {
+			@Override
+			public Void answer(InvocationOnMock invocation) throws Throwable {
+				((Runnable) invocation.getArguments()[0]).run();
+				return null;
+			}
+		}).when(viewController).invokeLater((Runnable) any());
+		Controller.setCurrentControllerForThread(controller);
+	}
+
+	@After
+	public void tearDown() {
+		Controller.setCurrentControllerForThread(null);
+	}
+
+	@Test
+	public void applyResultOfReadOnlyExecution() throws Exception {
+		final RecordingTask task = new RecordingTask("applied", new Object());
+		BackgroundTaskService.getInstance().execute(task);
+		task.readReleased.countDown();
+		assertThat(finished.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+		assertThat(outcome.get()).isEqualTo("read only");
+	}
+
+	@Test
+	public void cancelTaskReplacedByTaskOfSameTypeAndSubject() throws Exception {
+		final Object subject = new Object();
+		final RecordingTask replacedTask = new RecordingTask("replaced", subject);
+		BackgroundTaskService.getInstance().execute(replacedTask);
+		replacedTask.readStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		final RecordingTask replacingTask = new RecordingTask("replaced", subject);
+		BackgroundTaskService.getInstance().execute(replacingTask);
+		replacedTask.readReleased.countDown();
+		assertThat(finished.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+		assertThat(outcome.get()).isEqualTo("cancelled");
+		assertThat(replacedTask.isCancelled()).isTrue();
+		replacingTask.readReleased.countDown();
+	}
+
+	@Test
+	public void cancelTasksReadingLockedForWriting() throws Exception {
+		final ReadWriteLock lock = new ReentrantReadWriteLock();
+		final RecordingTask task = new RecordingTask("reading", new Object()) {
+			@Override
+			protected Lock getReadLock() {
+				return lock.readLock();
+			}
+		};
+		BackgroundTaskService.getInstance().execute(task);
+		assertThat(task.readStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+		final long start = System.nanoTime();
+		final Lock writeLock = BackgroundTaskService.getInstance().lockForWriting(lock);
+		try {
+			assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start)).isLessThan(TIMEOUT_SECONDS);
+		}
+		finally {
+			writeLock.unlock();
+		}
+		assertThat(finished.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+		assertThat(outcome.get()).isEqualTo("cancelled");
+	}
+
+	@Test
+	public void recordLatencyPerTaskType() throws Exception {
+		final RecordingTask task = new RecordingTask("measured", new Object());
+		BackgroundTaskService.getInstance().execute(task);
+		task.readReleased.countDown();
+		finished.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		final TaskLatency measured = awaitLatency("measured");
+		assertThat(measured).isNotNull();
+		assertThat(measured.getCount()).isEqualTo(1);
+	}
+
+	/** Latency is recorded after the task is applied, so the test waits for it. */
+	private TaskLatency awaitLatency(String type) throws InterruptedException {
+		final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+		do {
+			for (TaskLatency latency : BackgroundTaskService.getInstance().getLatencies()) {
+				if (latency.getType().equals(type) && latency.getCount() > 0)
+					return latency;
+			}
+			Thread.sleep(10);
+		} while (System.nanoTime() < deadline);
+		return null;
+	}
+}
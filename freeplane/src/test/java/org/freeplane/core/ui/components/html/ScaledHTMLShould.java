@@ -0,0 +1,55 @@
+package org.freeplane.core.ui.components.html;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Font;
+
+import javax.swing.JLabel;
+import javax.swing.text.View;
+
+import org.junit.Test;
+
+public class ScaledHTMLShould {
+	private static final String HTML = "<html><body><p>some long text which is wrapped in narrow labels</p></body></html>";
+
+	private static JLabel label(Font font) {
+		final JLabel label = new JLabel();
+		label.setFont(font);
+		return label;
+	}
+
+	@Test
+	public void shareViewTreeBetweenLabelsWithSameContent() throws Exception {
+		final Font font = new Font(Font.SANS_SERIF, Font.PLAIN, 12);
+		final View first = ScaledHTML.createSharedHTMLView(label(font), HTML, null);
+		final View second = ScaledHTML.createSharedHTMLView(label(font), HTML, null);
+		assertThat(second).isNotSameAs(first);
+		assertThat(second.getView(0)).isSameAs(first.getView(0));
+		assertThat(second.getDocument()).isSameAs(first.getDocument());
+	}
+
+	@Test
+	public void createSeparateViewTreesForDifferentFontsAndContexts() throws Exception {
+		final Font font = new Font(Font.SANS_SERIF, Font.PLAIN, 12);
+		final View first = ScaledHTML.createSharedHTMLView(label(font), HTML, null);
+		final View otherFont = ScaledHTML.createSharedHTMLView(label(font.deriveFont(14f)), HTML, null);
+		final View otherContext = ScaledHTML.createSharedHTMLView(label(font), HTML, Boolean.TRUE);
+		assertThat(otherFont.getDocument()).isNotSameAs(first.getDocument());
+		assertThat(otherContext.getDocument()).isNotSameAs(first.getDocument());
+	}
+
+	@Test
+	public void keepLayoutOfEachLabel() throws Exception {
+		final Font font = new Font(Font.SANS_SERIF, Font.PLAIN, 12);
+		final ScaledHTML.Renderer narrow = (ScaledHTML.Renderer) ScaledHTML.createSharedHTMLView(label(font), HTML, null);
+		final ScaledHTML.Renderer wide = (ScaledHTML.Renderer) ScaledHTML.createSharedHTMLView(label(font), HTML, null);
+		final float wideHeight = wide.getPreferredSpan(View.Y_AXIS);
+		narrow.setWidth(50);
+		final float narrowHeight = narrow.getPreferredSpan(View.Y_AXIS);
+		assertThat(narrowHeight).isGreaterThan(wideHeight);
+		assertThat(wide.getWidth()).isEqualTo((int) wide.getPreferredWidth());
+		assertThat(wide.getPreferredSpan(View.Y_AXIS)).isEqualTo(wideHeight);
+		assertThat(narrow.getWidth()).isEqualTo(50);
+		assertThat(narrow.getPreferredSpan(View.Y_AXIS)).isEqualTo(narrowHeight);
+	}
+}
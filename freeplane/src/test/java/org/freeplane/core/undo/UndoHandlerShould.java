@@ -0,0 +1,172 @@
+package org.freeplane.core.undo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.mode.Controller;
+import org.freeplane.features.ui.ViewController;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class UndoHandlerShould {
+	private static final long MEMORY_LIMIT = 10000;
+
+	private static class TestActor implements IActor {
+		final long size;
+		int undoCount;
+
+		TestActor(long size) {
+			this.size = size;
+		}
+
+		@Override
+		public void act() {
+		}
+
+		@Override
+		public String getDescription() {
+			return "test";
+		}
+
+		@Override
+		public void undo() {
+			undoCount++;
+		}
+
+		@Override
+		public long getEstimatedSize() {
+			return size;
+		}
+	}
+
+	private static class SpillableTestActor extends TestActor implements ISpillableActor {
+		boolean spilled;
+		boolean discarded;
+
+		SpillableTestActor(long size) {
+			super(size);
+		}
+
+		@Override
+		public long getEstimatedSize() {
+			return spilled ? DEFAULT_ESTIMATED_SIZE : size;
+		}
+
+		@Override
+		public boolean canSpill() {
+			return true;
+		}
+
+		@Override
+		public boolean isSpilled() {
+			return spilled;
+		}
+
+		@Override
+		public void spill() {
+			spilled = true;
+		}
+
+		@Override
+		public void undo() {
+			super.undo();
+			spilled = false;
+		}
+
+		@Override
+		public void discard() {
+			discarded = true;
+		}
+	}
+
+	private UndoHandler uut;
+
+	@Before
+	public void setup() {
+		final Controller controller = mock(Controller.class);
+		when(controller.getViewController()).thenReturn(mock(ViewController.class));
+		Controller.setCurrentController(controller);
+		final MapModel map = mock(MapModel.class);
+		when(map.getLock()).thenReturn(new ReentrantReadWriteLock());
+		uut = new UndoHandler(map, MEMORY_LIMIT);
+	}
+
+	@After
+	public void tearDown() {
+		Controller.setCurrentController(null);
+	}
+
+	private void addEntry(IActor actor) {
+		uut.addActor(actor);
+		uut.forceNewTransaction();
+	}
+
+	@Test
+	public void keepEntriesWithinMemoryLimit() throws Exception {
+		final TestActor first = new TestActor(4000);
+		final TestActor second = new TestActor(4000);
+		addEntry(first);
+		addEntry(second);
+		addEntry(new TestActor(100));
+		uut.undo();
+		uut.undo();
+		uut.undo();
+		assertThat(first.undoCount).isEqualTo(1);
+		assertThat(second.undoCount).isEqualTo(1);
+	}
+
+	@Test
+	public void removeOldestEntriesWhenMemoryLimitIsExceeded() throws Exception {
+		final TestActor first = new TestActor(6000);
+		final TestActor second = new TestActor(6000);
+		addEntry(first);
+		addEntry(second);
+		addEntry(new TestActor(100));
+		uut.undo();
+		uut.undo();
+		assertThat(uut.canUndo()).isFalse();
+		assertThat(second.undoCount).isEqualTo(1);
+		assertThat(first.undoCount).isEqualTo(0);
+	}
+
+	@Test
+	public void spillOldestEntryInsteadOfRemovingIt() throws Exception {
+		final TestActor first = new TestActor(3000);
+		final SpillableTestActor second = new SpillableTestActor(20000);
+		addEntry(first);
+		addEntry(second);
+		addEntry(new TestActor(100));
+		assertThat(second.spilled).isTrue();
+		assertThat(uut.getEstimatedSize()).isLessThan(MEMORY_LIMIT);
+		uut.undo();
+		uut.undo();
+		assertThat(uut.canUndo()).isFalse();
+		assertThat(second.undoCount).isEqualTo(1);
+		assertThat(first.undoCount).isEqualTo(0);
+	}
+
+	@Test
+	public void notSpillEntriesContainingOtherActors() throws Exception {
+		final SpillableTestActor spillable = new SpillableTestActor(20000);
+		uut.addActor(spillable);
+		uut.addActor(new TestActor(100));
+		uut.forceNewTransaction();
+		addEntry(new TestActor(100));
+		assertThat(spillable.spilled).isFalse();
+		assertThat(spillable.discarded).isTrue();
+		uut.undo();
+		assertThat(uut.canUndo()).isFalse();
+	}
+
+	@Test
+	public void estimateSizeOfAllEntries() throws Exception {
+		addEntry(new TestActor(1000));
+		addEntry(new TestActor(2000));
+		assertThat(uut.getEstimatedSize()).isEqualTo(3000 + 2 * IActor.DEFAULT_ESTIMATED_SIZE);
+	}
+}
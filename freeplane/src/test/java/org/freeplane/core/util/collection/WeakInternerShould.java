@@ -0,0 +1,26 @@
+package org.freeplane.core.util.collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class WeakInternerShould {
+	private final WeakInterner<String> interner = new WeakInterner<String>();
+
+	@Test
+	public void returnFirstInternedOfEqualValues() throws Exception {
+		final String first = new String("style");
+		interner.intern(first);
+		assertThat(interner.intern(new String("style"))).isSameAs(first);
+	}
+
+	@Test
+	public void releaseValuesNotReferencedElsewhere() throws Exception {
+		interner.intern(new String("style"));
+		for (int i = 0; i < 50 && interner.size() > 0; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertThat(interner.size()).isZero();
+	}
+}
@@ -0,0 +1,107 @@
+package org.freeplane.features.format;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Locale;
+
+import org.freeplane.core.resources.ResourceController;
+import org.freeplane.features.mode.Controller;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ScannerShould {
+	static final String[] TEXTS = { "Meeting notes", "1. Introduction", "3rd quarter", "2 apples", "42", "-17",
+	        "3.1415", "1,5", "1.234,56", "1e3", "1E3", "NaN", "4/21", "4/21/2011", "4/21/11 13:45", "4/21/2011 13:45:10",
+	        "21.4", "21.4.2011", "21.4.2011 13:45", "13:45", "2011-04-21", "2011-04-21T13:45", "20110421",
+	        "2011-04-21 13:45:10.123+0200", "+", "-", ".", ".5", "5.", "+5", "0x10", "1d", "12:3x", "1 000",
+	        "'quoted", "", "2011-04-21T", "99/99/99", "21. Apr 2011", "3. idea", "١٢٣" };
+
+	static void setUpFormatController() {
+		final Controller controller = mock(Controller.class);
+		final ResourceController resourceController = mock(ResourceController.class);
+		when(controller.getResourceController()).thenReturn(resourceController);
+		when(resourceController.getProperty("format_locale")).thenReturn("en");
+		when(resourceController.getProperty("date_format")).thenReturn("SHORT");
+		when(resourceController.getProperty("datetime_format")).thenReturn("SHORT,SHORT");
+		when(resourceController.getProperty("number_format")).thenReturn("#0.####");
+		Controller.setCurrentController(controller);
+		final FormatController formatController = new FormatController();
+		when(controller.getExtension(FormatController.class)).thenReturn(formatController);
+	}
+
+	public static Scanner createScanner_en() {
+		final Scanner s = new Scanner(new String[] { "en" }, true);
+		s.setFirstChars("+-0123456789.");
+		final Locale loc = new Locale("en");
+		s.addParser(Parser.createParser(Parser.STYLE_DECIMAL, IFormattedObject.TYPE_NUMBER, null, loc, null));
+		s.addParser(Parser.createParser(Parser.STYLE_DATE, IFormattedObject.TYPE_DATE, "M/d", loc, null));
+		s.addParser(Parser.createParser(Parser.STYLE_DATE, IFormattedObject.TYPE_DATE, "M/d/y", loc, null));
+		s.addParser(Parser.createParser(Parser.STYLE_DATE, IFormattedObject.TYPE_DATETIME, "M/d/y H:m", loc, null));
+		s.addParser(Parser.createParser(Parser.STYLE_DATE, IFormattedObject.TYPE_DATETIME, "M/d/y H:m:s", loc, null));
+		s.addParser(Parser.createParser(Parser.STYLE_DATE, IFormattedObject.TYPE_DATETIME, "H:m", loc, null));
+		s.addParser(Parser.createParser(Parser.STYLE_ISODATE, IFormattedObject.TYPE_DATETIME, null, loc, null));
+		return s;
+	}
+
+	public static Scanner createScanner_de() {
+		final Scanner s = new Scanner(new String[] { "de" }, false);
+		final Locale loc = new Locale("de");
+		s.addParser(Parser.createParser(Parser.STYLE_DATE, IFormattedObject.TYPE_DATE, "d.M", loc, null));
+		s.addParser(Parser.createParser(Parser.STYLE_DATE, IFormattedObject.TYPE_DATE, "d.M.y", loc, null));
+		s.addParser(Parser.createParser(Parser.STYLE_DATE, IFormattedObject.TYPE_DATETIME, "d.M.y H:m", loc, null));
+		s.addParser(Parser.createParser(Parser.STYLE_DATE, IFormattedObject.TYPE_DATETIME, "H:m", loc, null));
+		s.addParser(Parser.createParser(Parser.STYLE_DATE, IFormattedObject.TYPE_DATE, "d. MMM yyyy", loc, null));
+		s.addParser(Parser.createParser(Parser.STYLE_DECIMAL, IFormattedObject.TYPE_NUMBER, null, loc, null));
+		s.addParser(Parser.createParser(Parser.STYLE_ISODATE, IFormattedObject.TYPE_DATETIME, null, loc, null));
+		s.addParser(Parser.createParser(Parser.STYLE_NUMBERLITERAL, IFormattedObject.TYPE_NUMBER, null, loc, null));
+		return s;
+	}
+
+	/** Scanner.parse without fast path rejection of parsers. */
+	public static Object parseTryingAllParsers(Scanner scanner, String string) {
+		if (string.isEmpty() || scanner.getFirstChars() != null && scanner.getFirstChars().indexOf(string.charAt(0)) == -1)
+			return string;
+		if (string.charAt(0) == '\'')
+			return string;
+		for (Parser parser : scanner.getParsers()) {
+			final Object object = parser.parse(string);
+			if (object != null)
+				return object;
+		}
+		return string;
+	}
+
+	@Before
+	public void setup() {
+		setUpFormatController();
+	}
+
+	@After
+	public void tearDown() {
+		Controller.setCurrentController(null);
+	}
+
+	@Test
+	public void parseLikeAllParsers() throws Exception {
+		for (Scanner scanner : new Scanner[] { createScanner_en(), createScanner_de() })
+			for (String text : TEXTS) {
+				final Object expected = parseTryingAllParsers(scanner, text);
+				final Object parsed = scanner.parse(text);
+				assertThat(parsed).as(text).isEqualTo(expected);
+				assertThat(parsed.getClass()).as(text).isEqualTo(expected.getClass());
+			}
+	}
+
+	@Test
+	public void parseNumbersAndDates() throws Exception {
+		final Scanner scanner = createScanner_de();
+		assertThat(scanner.parse("1,5")).isEqualTo(new FormattedNumber(1.5));
+		assertThat(scanner.parse("1e3")).isInstanceOf(FormattedNumber.class);
+		assertThat(scanner.parse("21.4.2011")).isInstanceOf(FormattedDate.class);
+		assertThat(scanner.parse("2011-04-21T13:45")).isInstanceOf(FormattedDate.class);
+		assertThat(scanner.parse("3rd quarter")).isEqualTo("3rd quarter");
+	}
+}
@@ -0,0 +1,83 @@
+package org.freeplane.features.format;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TextLexerShould {
+	private static final String[] SAMPLES = { "", "1", "-1", "+1.5", ".5", "1.", ".", "-", "1e5", "1.5E-3", "1e", "e5",
+	        "1,5", "1.2.3", "12:30", "4/21/2011", "21.4.2011", "2011-04-21", "20110421", "2011-04-21T12:30",
+	        "2011-04-21 12:30:45.123+0100", "2011-04-2112:30", "2011-04-21T12:30:", "2011-04-21T", "2011-04-21 12",
+	        "2011-04-21T12:30:45.12", "NaN", "Infinity", "-Infinity", "0x1p3", "1d", "2f", "3rd", "1 apple",
+	        "Meeting notes", "\t5", "1 000", "+", "1e+5", "1e-", "١٢٣" };
+	private static final String ALPHABET = "0123456789+-.:eET xdN/";
+
+	@Test
+	public void recognizeNumberLiterals() throws Exception {
+		for (String sample : SAMPLES)
+			assertThat(TextLexer.contains(TextLexer.classify(sample), TextLexer.NUMBER)).as(sample)
+			    .isEqualTo(sample.matches("[+-]?(\\d+(\\.\\d*)?|\\.\\d+)([eE][+-]?\\d+)?"));
+	}
+
+	@Test
+	public void recognizeIsoDatesLikeRegularExpression() throws Exception {
+		for (String sample : SAMPLES)
+			checkIsoDate(sample);
+		final Random random = new Random(1);
+		for (int i = 0; i < 100000; i++) {
+			final StringBuilder text = new StringBuilder("2011");
+			final int length = random.nextInt(26);
+			for (int j = 0; j < length; j++)
+				text.append(random.nextInt(3) == 0 ? ALPHABET.charAt(random.nextInt(ALPHABET.length()))
+				        : (char) ('0' + random.nextInt(10)));
+			checkIsoDate(text.toString());
+		}
+	}
+
+	private void checkIsoDate(String text) {
+		assertThat(TextLexer.isIsoDate(text)).as(text)
+		    .isEqualTo(FormattedDate.ISO_DATE_TIME_REGEXP_PATTERN.matcher(text).matches());
+	}
+
+	@Test
+	public void notRejectDoubleLiterals() throws Exception {
+		final NumberLiteralParser parser = new NumberLiteralParser();
+		final Random random = new Random(2);
+		for (String sample : SAMPLES)
+			checkDoubleLiteral(parser, sample);
+		for (int i = 0; i < 100000; i++) {
+			final StringBuilder text = new StringBuilder();
+			final int length = 1 + random.nextInt(6);
+			for (int j = 0; j < length; j++)
+				text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+			checkDoubleLiteral(parser, text.toString());
+		}
+	}
+
+	private void checkDoubleLiteral(NumberLiteralParser parser, String text) {
+		if (isDouble(text))
+			assertThat(parser.mayParse(text, TextLexer.classify(text))).as(text).isTrue();
+	}
+
+	private boolean isDouble(String text) {
+		try {
+			Double.valueOf(text);
+			return true;
+		}
+		catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	@Test
+	public void classifyCharacters() throws Exception {
+		final int textClass = TextLexer.classify("3 rd");
+		assertThat(TextLexer.contains(textClass, TextLexer.HAS_DIGIT)).isTrue();
+		assertThat(TextLexer.contains(textClass, TextLexer.HAS_WHITESPACE)).isTrue();
+		assertThat(TextLexer.contains(textClass, TextLexer.HAS_LETTER)).isTrue();
+		assertThat(TextLexer.contains(textClass, TextLexer.HAS_NON_NUMERIC_LETTER)).isTrue();
+		assertThat(TextLexer.contains(TextLexer.classify("1e5"), TextLexer.HAS_NON_NUMERIC_LETTER)).isFalse();
+	}
+}
@@ -0,0 +1,99 @@
+package org.freeplane.features.format;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class ThreadSafeDateFormatShould {
+	private static final String[] PATTERNS = { FormattedDate.ISO_DATE_FORMAT_PATTERN,
+	        FormattedDate.ISO_DATE_TIME_FORMAT_PATTERN, "yyyy-MM-dd HH:mm", "HH:mm", "d.M.y", "M/d/yy h:mm a",
+	        "EEEE, d. MMMM yyyy", "EEE MMM d HH:mm:ss.SSS yyyy", "yyyy-MM-dd'T'HH:mm:ssXXX", "hh 'o''clock' a",
+	        "yyyyMMdd", "D", "w", "S", "yyyy-MM-dd HH:mm z" };
+
+	@Test
+	public void formatLikeSimpleDateFormat() throws Exception {
+		final Random random = new Random(3);
+		final List<SimpleDateFormat> formats = new ArrayList<SimpleDateFormat>();
+		for (Locale locale : new Locale[] { Locale.ENGLISH, Locale.GERMAN, Locale.US, Locale.FRANCE,
+		        new Locale("hr"), new Locale("ru"), new Locale("th", "TH"), new Locale("ar", "EG") }) {
+			for (String pattern : PATTERNS)
+				formats.add(new SimpleDateFormat(pattern, locale));
+			for (int style : new int[] { DateFormat.SHORT, DateFormat.MEDIUM, DateFormat.LONG, DateFormat.FULL }) {
+				formats.add((SimpleDateFormat) DateFormat.getDateInstance(style, locale));
+				formats.add((SimpleDateFormat) DateFormat.getDateTimeInstance(style, DateFormat.SHORT, locale));
+			}
+			for (SimpleDateFormat format : formats) {
+				final ThreadSafeDateFormat threadSafeFormat = new ThreadSafeDateFormat(format, locale);
+				for (int i = 0; i < 200; i++) {
+					final Date date = new Date(random.nextLong() % 4102444800000L);
+					assertThat(threadSafeFormat.format(date)).as(format.toPattern() + " " + locale)
+					    .isEqualTo(format.format(date));
+				}
+			}
+			formats.clear();
+		}
+	}
+
+	@Test
+	public void compileCompatiblePatterns() throws Exception {
+		assertThat(new ThreadSafeDateFormat(FormattedDate.ISO_DATE_TIME_FORMAT_PATTERN, Locale.ENGLISH)
+		    .usesDateTimeFormatter()).isTrue();
+		assertThat(ThreadSafeDateFormat.hasCompatiblePattern("yyyy-MM-dd 'week' w")).isFalse();
+		assertThat(ThreadSafeDateFormat.hasCompatiblePattern("yyyy-MM-dd 'Dw'")).isTrue();
+	}
+
+	@Test
+	public void parseWholeTextOnly() throws Exception {
+		final ThreadSafeDateFormat format = new ThreadSafeDateFormat(FormattedDate.ISO_DATE_FORMAT_PATTERN,
+		    Locale.ENGLISH);
+		assertThat(format.parse("2011-04-21")).isNotNull();
+		assertThat(format.parse("2011-04-21x")).isNull();
+		assertThat(format.parse("x")).isNull();
+	}
+
+	@Test
+	public void formatAndParseConcurrently() throws Exception {
+		final ThreadSafeDateFormat format = new ThreadSafeDateFormat("d.M.yyyy HH:mm:ss", Locale.GERMAN);
+		final SimpleDateFormat expectedFormat = new SimpleDateFormat("d.M.yyyy HH:mm:ss", Locale.GERMAN);
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+			for (int thread = 0; thread < 4; thread++) {
+				final long seed = thread;
+				results.add(executor.submit(new Callable<Boolean>() {
+					@Override
+					public Boolean call() throws Exception {
+						final Random random = new Random(seed);
+						for (int i = 0; i < 20000; i++) {
+							final Date date = new Date(random.nextLong() % 4102444800000L / 1000 * 1000);
+							final String expected;
+							synchronized (expectedFormat) {
+								expected = expectedFormat.format(date);
+							}
+							if (!format.format(date).equals(expected) || !date.equals(format.parse(expected)))
+								return false;
+						}
+						return true;
+					}
+				}));
+			}
+			for (Future<Boolean> result : results)
+				assertThat(result.get()).isTrue();
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,187 @@
+package org.freeplane.features.icon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.freeplane.core.resources.ResourceController;
+import org.freeplane.features.icon.HierarchicalIcons.Mode;
+import org.freeplane.features.map.MapController;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.mode.Controller;
+import org.freeplane.features.mode.ModeController;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class AccumulatedIconsShould {
+	private static final Map<NodeModel, List<MindIcon>> ownIcons = new HashMap<NodeModel, List<MindIcon>>();
+	private final MindIcon[] testIcons = { new MindIcon("a"), new MindIcon("b"), new MindIcon("c") };
+	private final MapModel map = mock(MapModel.class);
+	private NodeModel root;
+	private final List<NodeModel> nodes = new ArrayList<NodeModel>();
+
+	@BeforeClass
+	public static void setupController() {
+		final Controller controller = mock(Controller.class);
+		final ModeController modeController = mock(ModeController.class);
+		final IconController iconController = mock(IconController.class);
+		when(controller.getResourceController()).thenReturn(mock(ResourceController.class));
+		when(controller.getModeController()).thenReturn(modeController);
+		when(modeController.getExtension(IconController.class)).thenReturn(iconController);
+		when(modeController.getMapController()).thenReturn(mock(MapController.class));
+		when(iconController.getIcons((NodeModel) any())).thenAnswer(new Answer<Collection<MindIcon>>() {
+			@Override
+			public Collection<MindIcon> answer(InvocationOnMock invocation) throws Throwable {
+				final List<MindIcon> icons = ownIcons.get(invocation.getArgument(0));
+				return icons != null ? new LinkedList<MindIcon>(icons) : new LinkedList<MindIcon>();
+			}
+		});
+		Controller.setCurrentController(controller);
+	}
+
+	@AfterClass
+	public static void tearDownController() {
+		Controller.setCurrentController(null);
+		ownIcons.clear();
+	}
+
+	@Before
+	public void setup() {
+		ownIcons.clear();
+		nodes.clear();
+		root = new NodeModel("root", map);
+		nodes.add(root);
+	}
+
+	private NodeModel add(NodeModel parent, Mode mode, MindIcon... icons) {
+		final NodeModel child = new NodeModel("child", map);
+		ownIcons.put(child, new ArrayList<MindIcon>(Arrays.asList(icons)));
+		parent.insert(child, -1);
+		nodes.add(child);
+		AccumulatedIcons.calculateSubtree(child, mode);
+		AccumulatedIcons.childAdded(parent, child, mode);
+		return child;
+	}
+
+	private void setIcons(NodeModel node, Mode mode, MindIcon... icons) {
+		ownIcons.put(node, new ArrayList<MindIcon>(Arrays.asList(icons)));
+		AccumulatedIcons.update(node, mode);
+	}
+
+	private static Collection<UIIcon> accumulatedIcons(NodeModel node) {
+		final AccumulatedIcons icons = node.getExtension(AccumulatedIcons.class);
+		return icons != null ? icons.getAccumulatedIcons() : Collections.<UIIcon>emptySet();
+	}
+
+	private static TreeSet<UIIcon> expectedSubtreeIcons(NodeModel node, Mode mode) {
+		TreeSet<UIIcon> childIcons = null;
+		for (NodeModel child : node.getChildren()) {
+			final TreeSet<UIIcon> icons = expectedSubtreeIcons(child, mode);
+			if (childIcons == null)
+				childIcons = icons;
+			else if (mode == Mode.OR)
+				childIcons.addAll(icons);
+			else
+				childIcons.retainAll(icons);
+		}
+		final TreeSet<UIIcon> subtreeIcons = childIcons != null ? childIcons : new TreeSet<UIIcon>();
+		final List<MindIcon> own = ownIcons.get(node);
+		if (own != null)
+			subtreeIcons.addAll(own);
+		return subtreeIcons;
+	}
+
+	private void assertAccumulatedIconsAreRecalculated(Mode mode) {
+		for (NodeModel node : nodes) {
+			final TreeSet<UIIcon> expected = new TreeSet<UIIcon>();
+			for (NodeModel child : node.getChildren()) {
+				final TreeSet<UIIcon> icons = expectedSubtreeIcons(child, mode);
+				if (mode == Mode.OR || child == node.getChildAt(0))
+					expected.addAll(icons);
+				else
+					expected.retainAll(icons);
+			}
+			final List<MindIcon> own = ownIcons.get(node);
+			if (own != null)
+				expected.removeAll(own);
+			assertThat(accumulatedIcons(node)).containsExactlyElementsOf(expected);
+		}
+	}
+
+	@Test
+	public void showIconsOfAllDescendantsInOrMode() throws Exception {
+		final NodeModel child = add(root, Mode.OR, testIcons[0]);
+		add(child, Mode.OR, testIcons[1]);
+		assertThat(accumulatedIcons(root)).containsExactly(testIcons[0], testIcons[1]);
+		assertThat(accumulatedIcons(child)).containsExactly(testIcons[1]);
+	}
+
+	@Test
+	public void showIconsOfAllChildrenInAndMode() throws Exception {
+		add(root, Mode.AND, testIcons[0], testIcons[1]);
+		final NodeModel second = add(root, Mode.AND, testIcons[1]);
+		assertThat(accumulatedIcons(root)).containsExactly(testIcons[1]);
+		setIcons(second, Mode.AND, testIcons[0], testIcons[2]);
+		assertThat(accumulatedIcons(root)).containsExactly(testIcons[0]);
+	}
+
+	@Test
+	public void updateBothParentsOfMovedBranch() throws Exception {
+		final NodeModel first = add(root, Mode.OR);
+		final NodeModel second = add(root, Mode.OR);
+		final NodeModel moved = add(first, Mode.OR, testIcons[2]);
+		first.remove(first.getIndex(moved));
+		AccumulatedIcons.childRemoved(first, moved, Mode.OR);
+		second.insert(moved, -1);
+		AccumulatedIcons.childAdded(second, moved, Mode.OR);
+		assertThat(accumulatedIcons(first)).isEmpty();
+		assertThat(accumulatedIcons(second)).containsExactly(testIcons[2]);
+		assertThat(accumulatedIcons(root)).containsExactly(testIcons[2]);
+	}
+
+	@Test
+	public void matchFullRecalculationAfterRandomChanges() throws Exception {
+		for (Mode mode : Mode.values()) {
+			setup();
+			final Random random = new Random(1);
+			for (int i = 0; i < 300; i++) {
+				final NodeModel node = nodes.get(random.nextInt(nodes.size()));
+				final MindIcon icon = testIcons[random.nextInt(testIcons.length)];
+				switch (random.nextInt(4)) {
+				case 0:
+				case 1:
+					add(node, mode, icon);
+					break;
+				case 2:
+					setIcons(node, mode, icon);
+					break;
+				default:
+					if (node.getParentNode() != null && node.getChildCount() == 0) {
+						final NodeModel parent = node.getParentNode();
+						parent.remove(parent.getIndex(node));
+						nodes.remove(node);
+						AccumulatedIcons.childRemoved(parent, node, mode);
+					}
+				}
+				assertAccumulatedIconsAreRecalculated(mode);
+			}
+		}
+	}
+}
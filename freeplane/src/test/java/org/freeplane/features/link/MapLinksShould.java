@@ -0,0 +1,87 @@
+package org.freeplane.features.link;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.Collection;
+
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.mode.Controller;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MapLinksShould {
+	private MapModel map;
+	private NodeModel root;
+	private NodeModel source;
+	private NodeModel target;
+
+	@Before
+	public void setup() {
+		Controller.setCurrentController(mock(Controller.class));
+		map = new MapModel(null, null);
+		root = new NodeModel("root", map);
+		map.setRoot(root);
+		source = addNode();
+		target = addNode();
+	}
+
+	@After
+	public void tearDown() {
+		Controller.setCurrentController(null);
+	}
+
+	private NodeModel addNode() {
+		final NodeModel node = new NodeModel("node", map);
+		root.insert(node, -1);
+		return node;
+	}
+
+	private NodeLinkModel addLink(NodeModel source, NodeModel target) {
+		final NodeLinkModel link = new HyperTextLinkModel(source, target.createID());
+		NodeLinks.createLinkExtension(source).addArrowlink(link);
+		return link;
+	}
+
+	private MapLinks mapLinks() {
+		return MapLinks.getLinks(map);
+	}
+
+	@Test
+	public void returnIncomingAndOutgoingLinks() throws Exception {
+		final NodeLinkModel link = addLink(source, target);
+		assertThat(mapLinks().getLinksTo(target)).containsExactly(link);
+		assertThat(mapLinks().getLinksFrom(source)).containsExactly(link);
+		assertThat(mapLinks().getLinksTo(source)).isEmpty();
+		assertThat(mapLinks().getLinksFrom(target)).isEmpty();
+	}
+
+	@Test
+	public void reuseLinkCollectionsWhileNothingChanges() throws Exception {
+		addLink(source, target);
+		assertThat(mapLinks().getLinksTo(target)).isSameAs(mapLinks().getLinksTo(target));
+		assertThat(mapLinks().getLinksFrom(source)).isSameAs(mapLinks().getLinksFrom(source));
+	}
+
+	@Test
+	public void updateLinksAfterLinkChanges() throws Exception {
+		final NodeLinkModel first = addLink(source, target);
+		assertThat(mapLinks().getLinksTo(target)).containsExactly(first);
+		final NodeModel otherSource = addNode();
+		final NodeLinkModel second = addLink(otherSource, target);
+		assertThat(mapLinks().getLinksTo(target)).containsOnly(first, second);
+		NodeLinks.getLinkExtension(source).removeArrowlink(first);
+		assertThat(mapLinks().getLinksTo(target)).containsExactly(second);
+		assertThat(mapLinks().getLinksFrom(source)).isEmpty();
+	}
+
+	@Test
+	public void updateLinksAfterStructuralChanges() throws Exception {
+		addLink(source, target);
+		final Collection<NodeLinkModel> linksBefore = mapLinks().getLinksTo(target);
+		addNode();
+		assertThat(mapLinks().getLinksTo(target)).isNotSameAs(linksBefore).isEqualTo(linksBefore);
+	}
+}
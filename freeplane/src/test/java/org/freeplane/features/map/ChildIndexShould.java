@@ -0,0 +1,71 @@
+package org.freeplane.features.map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ChildIndexShould {
+	private final MapModel map = mock(MapModel.class);
+	private NodeModel parent;
+
+	@Before
+	public void setup() {
+		parent = new NodeModel("parent", map);
+	}
+
+	private NodeModel insert(int index) {
+		final NodeModel child = new NodeModel("child", map);
+		parent.insert(child, index);
+		return child;
+	}
+
+	private void assertIndicesMatchPositions() {
+		for (int i = 0; i < parent.getChildCount(); i++)
+			assertThat(parent.getIndex(parent.getChildAt(i))).isEqualTo(i);
+	}
+
+	@Test
+	public void returnPositionsOfAppendedChildren() throws Exception {
+		for (int i = 0; i < 5; i++)
+			insert(-1);
+		assertIndicesMatchPositions();
+	}
+
+	@Test
+	public void updatePositionsAfterInsertionsAndRemovals() throws Exception {
+		final Random random = new Random(1);
+		for (int i = 0; i < 200; i++) {
+			if (parent.getChildCount() > 0 && random.nextInt(3) == 0)
+				parent.remove(random.nextInt(parent.getChildCount()));
+			else
+				insert(random.nextInt(parent.getChildCount() + 1));
+			final NodeModel child = parent.getChildAt(random.nextInt(parent.getChildCount()));
+			assertThat(parent.getIndex(child)).isEqualTo(parent.getChildren().indexOf(child));
+		}
+		assertIndicesMatchPositions();
+	}
+
+	@Test
+	public void returnMinusOneForOtherNodes() throws Exception {
+		insert(-1);
+		final NodeModel removed = insert(0);
+		parent.remove(0);
+		assertThat(parent.getIndex(removed)).isEqualTo(-1);
+		assertThat(parent.getIndex(new NodeModel("other", map))).isEqualTo(-1);
+	}
+
+	@Test
+	public void findChildrenAddedWithoutInsertion() throws Exception {
+		insert(-1);
+		insert(-1);
+		assertIndicesMatchPositions();
+		final NodeModel added = new NodeModel("added", map);
+		parent.getModifiableChildrenInternal().add(0, added);
+		assertThat(parent.getIndex(added)).isEqualTo(0);
+		assertIndicesMatchPositions();
+	}
+}
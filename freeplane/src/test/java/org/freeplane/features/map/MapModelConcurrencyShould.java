@@ -0,0 +1,266 @@
+package org.freeplane.features.map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.awt.EventQueue;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+
+import org.freeplane.core.resources.ResourceBundles;
+import org.freeplane.core.resources.ResourceController;
+import org.freeplane.core.undo.IActor;
+import org.freeplane.core.undo.IUndoHandler;
+import org.freeplane.core.undo.UndoHandler;
+import org.freeplane.features.mode.Controller;
+import org.freeplane.features.mode.ReadOnlyExecution;
+import org.freeplane.features.mode.mindmapmode.MModeController;
+import org.freeplane.features.ui.ViewController;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class MapModelConcurrencyShould {
+	private static final int EDIT_COUNT = 2000;
+	private static final int READER_COUNT = 3;
+	private static final int MAXIMAL_NODE_COUNT = 300;
+
+	private MapModel map;
+	private NodeModel root;
+	private MModeController modeController;
+	private UndoHandler undoHandler;
+	private int nodeCount;
+	private int modificationCount;
+	private volatile boolean editing;
+
+	@Before
+	public void setup() throws Exception {
+		final Controller controller = mock(Controller.class);
+		final ResourceController resourceController = mock(ResourceController.class);
+		when(controller.getResourceController()).thenReturn(resourceController);
+		when(resourceController.getResources()).thenReturn(mock(ResourceBundles.class));
+		when(resourceController.getIntProperty(anyString(), anyInt())).thenAnswer(new Answer<Integer>() {
+			@Override
+			public Integer answer(InvocationOnMock invocation) throws Throwable {
+				return (Integer) invocation.getArguments()[1];
+			}
+		});
+		final ViewController viewController = mock(ViewController.class);
+		when(controller.getViewController()).thenReturn(viewController);
+		doAnswer(new Answer<Void>() {
+			@Override
+			public Void answer(InvocationOnMock invocation) throws Throwable {
+				EventQueue.invokeAndWait((Runnable) invocation.getArguments()[0]);
+				return null;
+			}
+		}).when(viewController).invokeAndWait((Runnable) any());
+		Controller.setCurrentController(controller);
+		map = new MapModel(null, null);
+		root = new NodeModel("root", map);
+		map.setRoot(root);
+		undoHandler = new UndoHandler(map);
+		map.addExtension(IUndoHandler.class, undoHandler);
+		modeController = mock(MModeController.class);
+		when(modeController.canEdit(map)).thenReturn(true);
+		doCallRealMethod().when(modeController).execute((IActor) any(), (MapModel) any());
+		nodeCount = 1;
+		modificationCount = 0;
+	}
+
+	@After
+	public void tearDown() {
+		Controller.setCurrentController(null);
+	}
+
+	private static int count(NodeModel node) {
+		int count = 1;
+		for (NodeModel child : node.getChildren())
+			count += count(child);
+		return count;
+	}
+
+	private static void collect(NodeModel node, List<NodeModel> nodes) {
+		nodes.add(node);
+		for (NodeModel child : node.getChildren())
+			collect(child, nodes);
+	}
+
+	/** Inserts or removes a child, it is executed and undone while the write lock is held. */
+	private class StructureActor implements IActor {
+		private final NodeModel parent;
+		private final NodeModel child;
+		private final int index;
+		private final boolean insertion;
+
+		StructureActor(NodeModel parent, NodeModel child, int index, boolean insertion) {
+			this.parent = parent;
+			this.child = child;
+			this.index = index;
+			this.insertion = insertion;
+		}
+
+		@Override
+		public void act() {
+			if (insertion)
+				parent.insert(child, index);
+			else
+				parent.remove(index);
+			structureChanged();
+		}
+
+		@Override
+		public void undo() {
+			if (insertion)
+				parent.remove(index);
+			else
+				parent.insert(child, index);
+			structureChanged();
+		}
+
+		@Override
+		public String getDescription() {
+			return insertion ? "insert" : "remove";
+		}
+	}
+
+	private void structureChanged() {
+		nodeCount = count(root);
+		modificationCount++;
+	}
+
+	private void editRandomly(final Random random) throws Exception {
+		final int operation = random.nextInt(10);
+		if (operation == 0 && undoHandler.canUndo() || operation == 1 && undoHandler.canRedo()) {
+			EventQueue.invokeAndWait(new Runnable() {
+				@Override
+				public void run() {
+					if (operation == 0)
+						undoHandler.undo();
+					else
+						undoHandler.redo();
+				}
+			});
+			return;
+		}
+		final List<NodeModel> nodes = new ArrayList<NodeModel>();
+		collect(root, nodes);
+		final NodeModel node = nodes.get(random.nextInt(nodes.size()));
+		final IActor actor;
+		if (node == root || nodes.size() < MAXIMAL_NODE_COUNT && random.nextBoolean())
+			actor = new StructureActor(node, new NodeModel("node", map), node.getChildCount(), true);
+		else
+			actor = new StructureActor(node.getParentNode(), node, node.getParentNode().getIndex(node), false);
+		modeController.execute(actor, map);
+	}
+
+	@Test
+	public void letReadersHoldingReadLockTraverseConsistentTreesWhileActorsAreExecutedUndoneAndRedone() throws Exception {
+		final Queue<Throwable> failures = new ConcurrentLinkedQueue<Throwable>();
+		final List<Thread> readers = new ArrayList<Thread>();
+		editing = true;
+		for (int i = 0; i < READER_COUNT; i++) {
+			final Thread reader = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					ReadOnlyExecution.enter();
+					try {
+						while (editing) {
+							final Lock lock = map.getLock().readLock();
+							lock.lock();
+							try {
+								final int expectedCount = nodeCount;
+								final int actualCount = count(root);
+								if (actualCount != expectedCount)
+									failures.add(new AssertionError("counted " + actualCount + " nodes, expected " + expectedCount));
+							}
+							finally {
+								lock.unlock();
+							}
+						}
+					}
+					catch (Throwable e) {
+						failures.add(e);
+					}
+					finally {
+						ReadOnlyExecution.leave();
+					}
+				}
+			});
+			readers.add(reader);
+			reader.start();
+		}
+		final Random random = new Random(1);
+		try {
+			for (int i = 0; i < EDIT_COUNT; i++)
+				editRandomly(random);
+		}
+		finally {
+			editing = false;
+			for (Thread reader : readers)
+				reader.join();
+		}
+		assertThat(failures).isEmpty();
+		assertThat(map.getStructuralModificationCount()).isEqualTo(modificationCount);
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public void failReadOnlyTraversalAfterStructuralChange() throws Exception {
+		root.insert(new NodeModel("first", map));
+		final List<NodeModel> children;
+		ReadOnlyExecution.enter();
+		try {
+			children = root.getChildren();
+		}
+		finally {
+			ReadOnlyExecution.leave();
+		}
+		root.insert(new NodeModel("second", map));
+		children.get(0);
+	}
+
+	@Test
+	public void keepUncheckedChildListsOutsideOfReadOnlyExecution() throws Exception {
+		root.insert(new NodeModel("first", map));
+		final List<NodeModel> children = root.getChildren();
+		root.insert(new NodeModel("second", map));
+		assertThat(children).hasSize(2);
+	}
+
+	@Test(expected = ReadOnlyExecution.ModificationException.class)
+	public void rejectDirectChangesOfMapNodesInReadOnlyExecution() throws Exception {
+		ReadOnlyExecution.enter();
+		try {
+			root.setText("changed");
+		}
+		finally {
+			ReadOnlyExecution.leave();
+		}
+	}
+
+	@Test
+	public void allowChangesOfDetachedNodesInReadOnlyExecution() throws Exception {
+		ReadOnlyExecution.enter();
+		try {
+			final NodeModel parent = new NodeModel("parent", map);
+			parent.insert(new NodeModel("child", map));
+			parent.setText("changed");
+			assertThat(parent.getChildCount()).isEqualTo(1);
+		}
+		finally {
+			ReadOnlyExecution.leave();
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package org.freeplane.features.map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class NodeRegistryShould {
+	private final MapModel map = mock(MapModel.class);
+	private final NodeRegistry registry = new NodeRegistry(12345);
+
+	@Test
+	public void recognizeNumbersOfStandardIDs() throws Exception {
+		assertThat(NodeRegistry.numberOf("ID_0")).isEqualTo(0);
+		assertThat(NodeRegistry.numberOf("ID_1723255651")).isEqualTo(1723255651);
+		assertThat(NodeRegistry.numberOf("ID_2147483647")).isEqualTo(Integer.MAX_VALUE);
+		assertThat(NodeRegistry.numberOf("ID_2147483648")).isEqualTo(-1);
+		assertThat(NodeRegistry.numberOf("ID_01")).isEqualTo(-1);
+		assertThat(NodeRegistry.numberOf("ID_")).isEqualTo(-1);
+		assertThat(NodeRegistry.numberOf("ID_-1")).isEqualTo(-1);
+		assertThat(NodeRegistry.numberOf("ID_1a")).isEqualTo(-1);
+		assertThat(NodeRegistry.numberOf("Freeplane_Link_1")).isEqualTo(-1);
+		assertThat(NodeRegistry.numberOf(null)).isEqualTo(-1);
+	}
+
+	@Test
+	public void findNodesOfStandardAndOtherIDs() throws Exception {
+		final NodeModel standard = new NodeModel(map);
+		final NodeModel other = new NodeModel(map);
+		registry.put("ID_42", standard);
+		registry.put("ID_042", other);
+		assertThat(registry.get("ID_42")).isSameAs(standard);
+		assertThat(registry.get("ID_042")).isSameAs(other);
+		assertThat(registry.get("ID_43")).isNull();
+		assertThat(registry.get(null)).isNull();
+	}
+
+	@Test
+	public void keepRemovedIDsRegistered() throws Exception {
+		final NodeModel node = new NodeModel(map);
+		registry.put("ID_7", node);
+		assertThat(registry.put("ID_7", null)).isSameAs(node);
+		assertThat(registry.get("ID_7")).isNull();
+		assertThat(registry.contains("ID_7")).isTrue();
+		assertThat(registry.contains("ID_8")).isFalse();
+	}
+
+	@Test
+	public void generateDistinctUnregisteredIDs() throws Exception {
+		final Set<String> ids = new HashSet<String>();
+		for (int i = 0; i < 100000; i++) {
+			final String id = registry.generateID();
+			assertThat(registry.contains(id)).isFalse();
+			assertThat(NodeRegistry.numberOf(id)).isNotEqualTo(-1);
+			final NodeModel node = new NodeModel(map);
+			registry.put(id, node);
+			assertThat(registry.get(id)).isSameAs(node);
+			ids.add(id);
+		}
+		assertThat(ids).hasSize(100000);
+	}
+
+	@Test
+	public void skipGeneratedNumbersRegisteredBefore() throws Exception {
+		final String firstID = new NodeRegistry(12345).generateID();
+		registry.put(firstID, new NodeModel(map));
+		assertThat(registry.generateID()).isNotEqualTo(firstID);
+	}
+}
@@ -0,0 +1,45 @@
+package org.freeplane.features.map;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.freeplane.features.map.NodeModel.NodeChangeType;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ViewUpdateSuspensionShould {
+	private final MapModel map = mock(MapModel.class);
+	private final INodeView view = mock(INodeView.class);
+	private NodeModel parent;
+
+	@Before
+	public void setup() {
+		parent = new NodeModel("parent", map);
+		parent.addViewer(view);
+	}
+
+	@Test
+	public void informNodeViewsWithoutSuspension() throws Exception {
+		final NodeModel child = new NodeModel("child", map);
+		parent.insert(child);
+		parent.fireNodeChanged(new NodeChangeEvent(parent, NodeChangeType.REFRESH, null, null, false, false));
+		verify(view).onNodeInserted(parent, child, 0);
+		verify(view).nodeChanged(any(NodeChangeEvent.class));
+	}
+
+	@Test
+	public void notInformNodeViewsWhileViewUpdatesAreSuspended() throws Exception {
+		when(map.areViewUpdatesSuspended()).thenReturn(true);
+		final NodeModel child = new NodeModel("child", map);
+		parent.insert(child);
+		parent.remove(0);
+		parent.fireNodeChanged(new NodeChangeEvent(parent, NodeChangeType.REFRESH, null, null, false, false));
+		verify(view, never()).onNodeInserted(any(NodeModel.class), any(NodeModel.class), anyInt());
+		verify(view, never()).onNodeDeleted(any(NodeDeletionEvent.class));
+		verify(view, never()).nodeChanged(any(NodeChangeEvent.class));
+	}
+}
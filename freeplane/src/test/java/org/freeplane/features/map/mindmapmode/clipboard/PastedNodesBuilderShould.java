@@ -0,0 +1,88 @@
+package org.freeplane.features.map.mindmapmode.clipboard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CancellationException;
+
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.map.mindmapmode.MMapController;
+import org.freeplane.features.mode.Controller;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class PastedNodesBuilderShould {
+	private MMapController mapController;
+	private MapModel map;
+	private NodeModel parent;
+	private PastedNodesBuilder uut;
+
+	@Before
+	public void setup() {
+		Controller.setCurrentController(mock(Controller.class));
+		map = mock(MapModel.class);
+		parent = new NodeModel("parent", map);
+		when(map.getRootNode()).thenReturn(parent);
+		mapController = mock(MMapController.class);
+		when(mapController.newNode(any(), (MapModel) any())).thenAnswer(new Answer<NodeModel>() {
+			@Override
+			public NodeModel answer(InvocationOnMock invocation) throws Throwable {
+				return new NodeModel(invocation.getArguments()[0], (MapModel) invocation.getArguments()[1]);
+			}
+		});
+		uut = new PastedNodesBuilder(mapController, parent, false);
+	}
+
+	@After
+	public void tearDown() {
+		Controller.setCurrentController(null);
+	}
+
+	@Test
+	public void buildDetachedTreesFromIndentedFragments() throws Exception {
+		uut.add(new TextFragment("a", null, 0));
+		uut.add(new TextFragment("a.1", null, 2));
+		uut.add(new TextFragment("a.1.1", null, 4));
+		uut.add(new TextFragment("a.2", null, 2));
+		uut.add(new TextFragment("b", null, 0));
+		assertThat(uut.getNewNodes()).extracting("userObject").containsExactly("a", "b");
+		final NodeModel a = uut.getNewNodes().get(0);
+		assertThat(a.getParentNode()).isNull();
+		assertThat(a.getChildren()).extracting("userObject").containsExactly("a.1", "a.2");
+		assertThat(a.getChildAt(0).getChildren()).extracting("userObject").containsExactly("a.1.1");
+		assertThat(parent.getChildCount()).isZero();
+	}
+
+	@Test
+	public void buildNodesInScratchMapUntilAttached() throws Exception {
+		uut.add(new TextFragment("a", null, 0));
+		uut.add(new TextFragment("a.1", null, 2));
+		final NodeModel a = uut.getNewNodes().get(0);
+		assertThat(a.getMap()).isNotSameAs(map);
+		assertThat(a.getChildAt(0).getMap()).isSameAs(a.getMap());
+		uut.attach(0);
+		assertThat(a.getMap()).isSameAs(map);
+		assertThat(a.getChildAt(0).getMap()).isSameAs(map);
+	}
+
+	@Test
+	public void attachAllTopLevelNodesWithOneInsertion() throws Exception {
+		uut.add(new TextFragment("a", null, 0));
+		uut.add(new TextFragment("b", null, 0));
+		uut.attach(3);
+		verify(mapController).insertNodes(uut.getNewNodes(), parent, 3);
+	}
+
+	@Test(expected = CancellationException.class)
+	public void stopReadingWhenCancelled() throws Exception {
+		uut.cancel();
+		uut.add(new TextFragment("a", null, 0));
+	}
+}
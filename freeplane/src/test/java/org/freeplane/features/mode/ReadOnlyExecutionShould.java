@@ -0,0 +1,52 @@
+package org.freeplane.features.mode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class ReadOnlyExecutionShould {
+	@After
+	public void leaveReadOnlyExecution() {
+		ReadOnlyExecution.leave();
+	}
+
+	@Test
+	public void allowModificationsOutsideOfReadOnlyExecution() throws Exception {
+		ReadOnlyExecution.checkModificationAllowed();
+		assertThat(ReadOnlyExecution.isActive()).isFalse();
+	}
+
+	@Test(expected = ReadOnlyExecution.ModificationException.class)
+	public void rejectModificationsInReadOnlyExecution() throws Exception {
+		ReadOnlyExecution.enter();
+		ReadOnlyExecution.checkModificationAllowed();
+	}
+
+	@Test
+	public void affectOnlyCurrentThread() throws Exception {
+		ReadOnlyExecution.enter();
+		final boolean[] activeInOtherThread = { true };
+		final Thread otherThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				activeInOtherThread[0] = ReadOnlyExecution.isActive();
+			}
+		});
+		otherThread.start();
+		otherThread.join();
+		assertThat(activeInOtherThread[0]).isFalse();
+	}
+
+	@Test
+	public void findModificationExceptionInCauses() throws Exception {
+		ReadOnlyExecution.enter();
+		try {
+			ReadOnlyExecution.checkModificationAllowed();
+		}
+		catch (ReadOnlyExecution.ModificationException e) {
+			assertThat(ReadOnlyExecution.isCausedByModification(new RuntimeException(new RuntimeException(e)))).isTrue();
+		}
+		assertThat(ReadOnlyExecution.isCausedByModification(new RuntimeException())).isFalse();
+	}
+}
@@ -0,0 +1,127 @@
+package org.freeplane.features.nodestyle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.freeplane.core.resources.ResourceBundles;
+import org.freeplane.core.resources.ResourceController;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.mode.Controller;
+import org.freeplane.features.styles.IStyle;
+import org.freeplane.features.styles.MapStyleModel;
+import org.freeplane.features.styles.StyleNode;
+import org.freeplane.features.styles.StyleString;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class CompiledStyleShould {
+	private static final Font BASE_FONT = new Font(Font.SANS_SERIF, Font.PLAIN, 10);
+	private final MapModel map = mock(MapModel.class);
+	private MapStyleModel mapStyleModel;
+	private final IStyle userStyle = new StyleString("user");
+	private final IStyle defaultStyle = new StyleString("default");
+	private NodeModel userStyleNode;
+
+	@BeforeClass
+	public static void setupResources() {
+		final Controller controller = mock(Controller.class);
+		final ResourceController resourceController = mock(ResourceController.class);
+		when(controller.getResourceController()).thenReturn(resourceController);
+		when(resourceController.getResources()).thenReturn(mock(ResourceBundles.class));
+		Controller.setCurrentController(controller);
+	}
+
+	@AfterClass
+	public static void tearDownResources() {
+		Controller.setCurrentController(null);
+	}
+
+	@Before
+	public void setup() {
+		mapStyleModel = new MapStyleModel();
+		userStyleNode = addStyleNode(userStyle);
+		final NodeStyleModel userStyleModel = NodeStyleModel.createNodeStyleModel(userStyleNode);
+		userStyleModel.setColor(Color.RED);
+		userStyleModel.setFontSize(20);
+		final NodeStyleModel defaultStyleModel = NodeStyleModel.createNodeStyleModel(addStyleNode(defaultStyle));
+		defaultStyleModel.setColor(Color.BLUE);
+		defaultStyleModel.setBackgroundColor(Color.YELLOW);
+		defaultStyleModel.setBold(true);
+	}
+
+	private NodeModel addStyleNode(IStyle style) {
+		final NodeModel styleNode = new NodeModel(style, map);
+		mapStyleModel.addStyleNode(styleNode);
+		return styleNode;
+	}
+
+	private CompiledStyle compile(NodeModel node) {
+		final Collection<IStyle> styles = Arrays.asList(new StyleNode(node), userStyle, defaultStyle);
+		return mapStyleModel.getCompiledStyle(node, styles);
+	}
+
+	@Test
+	public void takeFirstValueOfEachPropertyFromStyles() throws Exception {
+		final NodeModel node = new NodeModel("node", map);
+		final CompiledStyle style = compile(node);
+		assertThat(style.getColor(node)).isEqualTo(Color.RED);
+		assertThat(style.getBackgroundColor(node)).isEqualTo(Color.YELLOW);
+		assertThat(style.getFont(node, BASE_FONT)).isEqualTo(new Font(Font.SANS_SERIF, Font.BOLD, 20));
+		assertThat(style.getMaxNodeWidth(node)).isEqualTo(CompiledStyle.DEFAULT_MAXIMUM_WIDTH);
+	}
+
+	@Test
+	public void preferValuesOfTheNode() throws Exception {
+		final NodeModel node = new NodeModel("node", map);
+		final NodeStyleModel nodeStyleModel = NodeStyleModel.createNodeStyleModel(node);
+		nodeStyleModel.setColor(Color.GREEN);
+		nodeStyleModel.setItalic(true);
+		final CompiledStyle style = compile(node);
+		assertThat(style.getColor(node)).isEqualTo(Color.GREEN);
+		assertThat(style.getFont(node, BASE_FONT)).isEqualTo(new Font(Font.SANS_SERIF, Font.BOLD | Font.ITALIC, 20));
+	}
+
+	@Test
+	public void shareCompiledStylesAndFontsBetweenNodes() throws Exception {
+		final NodeModel first = new NodeModel("first", map);
+		final NodeModel second = new NodeModel("second", map);
+		NodeStyleModel.createNodeStyleModel(second).setColor(Color.GREEN);
+		final CompiledStyle style = compile(first);
+		assertThat(compile(second)).isSameAs(style);
+		assertThat(style.getFont(second, BASE_FONT)).isSameAs(style.getFont(first, BASE_FONT));
+	}
+
+	@Test
+	public void recompileStylesIncludingOwnStyleOfOtherNodeAfterItChanged() throws Exception {
+		final NodeModel node = new NodeModel("node", map);
+		final NodeModel otherNode = new NodeModel("other", map);
+		NodeStyleModel.createNodeStyleModel(otherNode).setColor(Color.GREEN);
+		final Collection<IStyle> styles = Arrays.asList(new StyleNode(node), new StyleNode(otherNode), userStyle);
+		final CompiledStyle style = mapStyleModel.getCompiledStyle(node, styles);
+		assertThat(mapStyleModel.getCompiledStyle(node, styles)).isSameAs(style);
+		assertThat(style.getColor(node)).isEqualTo(Color.GREEN);
+		NodeStyleModel.getModel(otherNode).setColor(Color.BLACK);
+		mapStyleModel.nodeStyleChanged(otherNode);
+		assertThat(mapStyleModel.getCompiledStyle(node, styles).getColor(node)).isEqualTo(Color.BLACK);
+	}
+
+	@Test
+	public void recompileAfterStylesChanged() throws Exception {
+		final NodeModel node = new NodeModel("node", map);
+		final CompiledStyle style = compile(node);
+		NodeStyleModel.getModel(userStyleNode).setColor(Color.BLACK);
+		mapStyleModel.stylesChanged();
+		final CompiledStyle changedStyle = compile(node);
+		assertThat(changedStyle).isNotSameAs(style);
+		assertThat(changedStyle.getColor(node)).isEqualTo(Color.BLACK);
+	}
+}
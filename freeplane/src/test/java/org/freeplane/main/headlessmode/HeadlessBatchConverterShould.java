@@ -0,0 +1,271 @@
+package org.freeplane.main.headlessmode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.swing.filechooser.FileFilter;
+
+import org.freeplane.api.ConversionMetrics;
+import org.freeplane.api.ConversionResult;
+import org.freeplane.api.ConversionResult.Status;
+import org.freeplane.core.ui.ExampleFileFilter;
+import org.freeplane.features.export.mindmapmode.IExportEngine;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HeadlessBatchConverterShould {
+	private static final int TIMEOUT_SECONDS = 10;
+	private static final int WORKER_COUNT = 3;
+
+	private final ExampleFileFilter textFilter = new ExampleFileFilter("txt", "Text");
+	private final ExampleFileFilter concurrentFilter = new ExampleFileFilter("con", "Concurrent");
+	private final ExampleFileFilter slowFilter = new ExampleFileFilter("slow", "Slow");
+	private final ExampleFileFilter failingFilter = new ExampleFileFilter("fail", "Failing");
+	private final ExampleFileFilter imageFilter = new ExampleFileFilter("png", "Image");
+	private final Map<FileFilter, IExportEngine> exportEngines = new LinkedHashMap<FileFilter, IExportEngine>();
+	private final CyclicBarrier concurrentExports = new CyclicBarrier(WORKER_COUNT);
+	private final AtomicInteger createdWorkerCount = new AtomicInteger();
+	private File directory;
+	private File input;
+	private HeadlessBatchConverter uut;
+
+	private class TestWorker extends ConversionWorker {
+		TestWorker(Listener listener) throws InterruptedException, ExecutionException {
+			super(listener);
+		}
+
+		@Override
+		void createController() {
+		}
+
+		@Override
+		Map<FileFilter, IExportEngine> getExportEngines() {
+			return exportEngines;
+		}
+
+		@Override
+		MapModel loadMap(File input) throws Exception {
+			final MapModel map = mock(MapModel.class);
+			when(map.getRootNode()).thenReturn(mock(NodeModel.class));
+			return map;
+		}
+	}
+
+	@Before
+	public void setup() throws IOException {
+		directory = Files.createTempDirectory("conversion").toFile();
+		input = new File(directory, "map.mm");
+		write(input, "<map/>");
+		exportEngines.put(textFilter, (nodes, file) -> write(file, "converted"));
+		exportEngines.put(concurrentFilter, (nodes, file) -> {
+			write(file, "partial");
+			try {
+				concurrentExports.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+			}
+			catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+			write(file, "converted");
+		});
+		exportEngines.put(slowFilter, (nodes, file) -> {
+			write(file, "partial");
+			try {
+				Thread.sleep(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+			}
+			catch (InterruptedException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		exportEngines.put(failingFilter, (nodes, file) -> {
+			write(file, "partial");
+			throw new IllegalStateException("export failed");
+		});
+		exportEngines.put(imageFilter, new IExportEngine() {
+			@Override
+			public void export(List<NodeModel> nodes, File toFile) {
+				write(toFile, "image");
+			}
+
+			@Override
+			public boolean requiresMapView() {
+				return true;
+			}
+		});
+	}
+
+	@After
+	public void tearDown() throws InterruptedException {
+		if (uut != null)
+			uut.shutdown();
+		for (File file : directory.listFiles())
+			file.delete();
+		directory.delete();
+	}
+
+	private static void write(File file, String content) {
+		try {
+			Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private HeadlessBatchConverter createConverter(int workerCount, long jobTimeoutMillis) {
+		return new HeadlessBatchConverter(workerCount, jobTimeoutMillis, 0, listener -> {
+			createdWorkerCount.incrementAndGet();
+			return new TestWorker(listener);
+		});
+	}
+
+	private Future<ConversionResult> submit(ExampleFileFilter filter) {
+		return submit(filter.getDescription());
+	}
+
+	private Future<ConversionResult> submit(String exportTypeDescription) {
+		return uut.submit(input, exportTypeDescription, directory);
+	}
+
+	private static ConversionResult resultOf(Future<ConversionResult> future) throws Exception {
+		return future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+	}
+
+	private static void awaitDeletion(File file) throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS);
+		while (file.exists() && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+	}
+
+	@Test
+	public void listExportTypesNotRequiringMapView() throws Exception {
+		uut = createConverter(1, 0);
+		assertThat(uut.getExportTypeDescriptions()).containsExactly(textFilter.getDescription(),
+		    concurrentFilter.getDescription(), slowFilter.getDescription(), failingFilter.getDescription());
+	}
+
+	@Test
+	public void runJobsConcurrently() throws Exception {
+		uut = createConverter(WORKER_COUNT, 0);
+		final List<Future<ConversionResult>> futures = new ArrayList<Future<ConversionResult>>();
+		for (int i = 0; i < WORKER_COUNT; i++)
+			futures.add(uut.submit(input, concurrentFilter.getDescription(), new File(directory, "map" + i + ".con")));
+		for (int i = 0; i < WORKER_COUNT; i++) {
+			final ConversionResult result = resultOf(futures.get(i));
+			assertThat(result.getStatus()).as(result.getErrorMessage()).isEqualTo(Status.SUCCEEDED);
+			assertThat(result.getOutput()).hasContent("converted");
+		}
+	}
+
+	@Test
+	public void createOutputFileInOutputDirectory() throws Exception {
+		uut = createConverter(1, 0);
+		final ConversionResult result = resultOf(submit(textFilter));
+		assertThat(result.getStatus()).isEqualTo(Status.SUCCEEDED);
+		assertThat(result.getOutput()).isEqualTo(new File(directory, "map.txt")).hasContent("converted");
+	}
+
+	@Test
+	public void failJobsWithUnknownExportType() throws Exception {
+		uut = createConverter(1, 0);
+		final ConversionResult result = resultOf(submit("Unknown"));
+		assertThat(result.getStatus()).isEqualTo(Status.FAILED);
+		assertThat(result.getErrorMessage()).contains("unknown export type");
+	}
+
+	@Test
+	public void failJobsWithExportTypeRequiringMapView() throws Exception {
+		uut = createConverter(1, 0);
+		final ConversionResult result = resultOf(submit(imageFilter));
+		assertThat(result.getStatus()).isEqualTo(Status.FAILED);
+		assertThat(result.getErrorMessage()).contains("needs a map view");
+		assertThat(new File(directory, "map.png")).doesNotExist();
+	}
+
+	@Test
+	public void deleteOutputOfFailedJobs() throws Exception {
+		uut = createConverter(1, 0);
+		final ConversionResult result = resultOf(submit(failingFilter));
+		assertThat(result.getStatus()).isEqualTo(Status.FAILED);
+		assertThat(result.getErrorMessage()).contains("export failed");
+		assertThat(new File(directory, "map.fail")).doesNotExist();
+	}
+
+	@Test
+	public void keepExistingOutputOfFailedJobs() throws Exception {
+		uut = createConverter(1, 0);
+		final File output = new File(directory, "map.fail");
+		write(output, "existing");
+		final ConversionResult result = resultOf(submit(failingFilter));
+		assertThat(result.getStatus()).isEqualTo(Status.FAILED);
+		assertThat(output).exists();
+	}
+
+	@Test
+	public void timeOutLongJobsAndReplaceTheirWorkers() throws Exception {
+		uut = createConverter(1, 200);
+		final Future<ConversionResult> slowJob = submit(slowFilter);
+		final Future<ConversionResult> nextJob = submit(textFilter);
+		final ConversionResult slowResult = resultOf(slowJob);
+		assertThat(slowResult.getStatus()).isEqualTo(Status.TIMED_OUT);
+		final ConversionResult nextResult = resultOf(nextJob);
+		assertThat(nextResult.getStatus()).isEqualTo(Status.SUCCEEDED);
+		assertThat(createdWorkerCount.get()).isEqualTo(2);
+		final File slowOutput = new File(directory, "map.slow");
+		awaitDeletion(slowOutput);
+		assertThat(slowOutput).doesNotExist();
+	}
+
+	@Test
+	public void failQueuedJobsIfNoWorkerCanBeCreated() throws Exception {
+		uut = new HeadlessBatchConverter(1, 200, 0, listener -> {
+			if (createdWorkerCount.incrementAndGet() > 1)
+				throw new IllegalStateException("worker creation failed");
+			return new TestWorker(listener);
+		});
+		final Future<ConversionResult> slowJob = submit(slowFilter);
+		final Future<ConversionResult> nextJob = submit(textFilter);
+		assertThat(resultOf(slowJob).getStatus()).isEqualTo(Status.TIMED_OUT);
+		final ConversionResult nextResult = resultOf(nextJob);
+		assertThat(nextResult.getStatus()).isEqualTo(Status.FAILED);
+		assertThat(nextResult.getErrorMessage()).contains("no conversion worker available");
+	}
+
+	@Test
+	public void countFinishedJobs() throws Exception {
+		uut = createConverter(2, 0);
+		final List<Future<ConversionResult>> futures = new ArrayList<Future<ConversionResult>>();
+		futures.add(submit(textFilter));
+		futures.add(uut.submit(input, textFilter.getDescription(), new File(directory, "copy.txt")));
+		futures.add(submit(failingFilter));
+		futures.add(submit("Unknown"));
+		for (Future<ConversionResult> future : futures)
+			resultOf(future);
+		uut.shutdown();
+		final ConversionMetrics metrics = uut.getMetrics();
+		assertThat(metrics.getFinishedJobCount(Status.SUCCEEDED)).isEqualTo(2);
+		assertThat(metrics.getFinishedJobCount(Status.FAILED)).isEqualTo(2);
+		assertThat(metrics.getFinishedJobCount(Status.TIMED_OUT)).isEqualTo(0);
+		assertThat(metrics.getFinishedJobCount()).isEqualTo(4);
+		assertThat(metrics.getQueuedJobCount()).isEqualTo(0);
+		assertThat(metrics.getRunningJobCount()).isEqualTo(0);
+		uut = null;
+	}
+}
@@ -0,0 +1,113 @@
+package org.freeplane.view.swing.features.time.mindmapmode.nodelist;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FlatNodeTableFilterModelShould {
+	private final MapModel map = mock(MapModel.class);
+	private final List<NodeModel> nodes = new ArrayList<NodeModel>();
+	private final List<TableModelEvent> events = new ArrayList<TableModelEvent>();
+	private final int[] createdRows = new int[1];
+	private NodeTableModel tableModel;
+	private FlatNodeTableFilterModel filterModel;
+
+	@Before
+	public void setup() {
+		for (String text : Arrays.asList("apple", "banana", "cherry", "apricot"))
+			nodes.add(new NodeModel(text, map));
+		tableModel = new NodeTableModel(nodes, "text") {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected Object[] createRow(final NodeModel node) {
+				createdRows[0]++;
+				return new Object[] { new TextHolder(new TextAccessor() {
+					@Override
+					public String getText() {
+						return node.getText();
+					}
+
+					@Override
+					public void setText(String newText) {
+						node.setText(newText);
+					}
+
+					@Override
+					public NodeModel getNode() {
+						return node;
+					}
+				}) };
+			}
+		};
+		filterModel = new FlatNodeTableFilterModel(tableModel, new int[] { 0 });
+		filterModel.setFilter("ap", false, false);
+		filterModel.addTableModelListener(new TableModelListener() {
+			@Override
+			public void tableChanged(TableModelEvent e) {
+				events.add(e);
+			}
+		});
+	}
+
+	private List<String> filteredTexts() {
+		final List<String> texts = new ArrayList<String>();
+		for (int row = 0; row < filterModel.getRowCount(); row++)
+			texts.add(filterModel.getValueAt(row, 0).toString());
+		return texts;
+	}
+
+	@Test
+	public void insertRowOfChangedNodeMatchingTheFilter() throws Exception {
+		nodes.get(2).setText("grape");
+		tableModel.nodeChanged(nodes.get(2));
+		assertThat(filteredTexts()).containsExactly("apple", "grape", "apricot");
+		assertThat(events).hasSize(1);
+		assertThat(events.get(0).getType()).isEqualTo(TableModelEvent.INSERT);
+		assertThat(events.get(0).getFirstRow()).isEqualTo(1);
+	}
+
+	@Test
+	public void deleteRowOfChangedNodeNotMatchingTheFilter() throws Exception {
+		nodes.get(3).setText("plum");
+		tableModel.nodeChanged(nodes.get(3));
+		assertThat(filteredTexts()).containsExactly("apple");
+		assertThat(events).hasSize(1);
+		assertThat(events.get(0).getType()).isEqualTo(TableModelEvent.DELETE);
+		assertThat(events.get(0).getFirstRow()).isEqualTo(1);
+	}
+
+	@Test
+	public void updateRowOfChangedNodeStillMatchingTheFilter() throws Exception {
+		nodes.get(0).setText("apples");
+		tableModel.nodeChanged(nodes.get(0));
+		assertThat(filteredTexts()).containsExactly("apples", "apricot");
+		assertThat(events).hasSize(1);
+		assertThat(events.get(0).getType()).isEqualTo(TableModelEvent.UPDATE);
+		assertThat(events.get(0).getFirstRow()).isEqualTo(0);
+		assertThat(events.get(0).getLastRow()).isEqualTo(0);
+	}
+
+	@Test
+	public void createOnlyRowsOfChangedNodes() throws Exception {
+		filterModel.resetFilter();
+		createdRows[0] = 0;
+		tableModel.nodeChanged(nodes.get(1));
+		assertThat(createdRows[0]).isEqualTo(0);
+		filterModel.setFilter("ap", false, false);
+		nodes.get(1).setText("papaya");
+		tableModel.nodeChanged(nodes.get(1));
+		assertThat(createdRows[0]).isEqualTo(2);
+	}
+}
@@ -0,0 +1,109 @@
+package org.freeplane.view.swing.map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.font.FontRenderContext;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.freeplane.view.swing.map.PreMeasuredTextWidths.TextLine;
+import org.junit.Test;
+
+public class PreMeasuredTextWidthsShould {
+	private static final String[] TEXTS = { "Mind map", "Käse & Brötchen", "思维导图", "خريطة ذهنية", "a\tb",
+	        "  leading spaces", "W" };
+	private static final Font[] FONTS = { new Font(Font.DIALOG, Font.PLAIN, 12), new Font(Font.SERIF, Font.BOLD, 17),
+	        new Font(Font.SANS_SERIF, Font.ITALIC, 10).deriveFont(13.5f) };
+	private static final int REPETITIONS = 50;
+
+	@SuppressWarnings("serial")
+	private static ZoomableLabel label(final boolean usesFractionalMetrics) {
+		return new ZoomableLabel() {
+			@Override
+			protected boolean useFractionalMetrics() {
+				return usesFractionalMetrics;
+			}
+		};
+	}
+
+	/** Counts the widths measured by the label, they are measured for text which was not measured in advance. */
+	@SuppressWarnings("serial")
+	private static class CountingFontMetrics extends FontMetrics {
+		private final FontMetrics labelMetrics;
+		int measuredWidthCount = 0;
+
+		CountingFontMetrics(FontMetrics labelMetrics) {
+			super(labelMetrics.getFont());
+			this.labelMetrics = labelMetrics;
+		}
+
+		@Override
+		public int stringWidth(String str) {
+			measuredWidthCount++;
+			return labelMetrics.stringWidth(str);
+		}
+
+		@Override
+		public FontRenderContext getFontRenderContext() {
+			return labelMetrics.getFontRenderContext();
+		}
+	}
+
+	private static PreMeasuredTextWidths measure(ZoomableLabel label, boolean usesFractionalMetrics) {
+		final List<TextLine> lines = new ArrayList<TextLine>();
+		for (int i = 0; i < REPETITIONS; i++)
+			for (Font font : FONTS)
+				for (String text : TEXTS)
+					lines.add(new TextLine(font, text + i));
+		final PreMeasuredTextWidths widths = new PreMeasuredTextWidths(label.getFontRenderContext(usesFractionalMetrics));
+		widths.measure(lines);
+		return widths;
+	}
+
+	private static void assertAgreementWithLabels(boolean usesFractionalMetrics) {
+		final ZoomableLabel label = label(usesFractionalMetrics);
+		final PreMeasuredTextWidths widths = measure(label, usesFractionalMetrics);
+		for (int i = 0; i < REPETITIONS; i++) {
+			for (Font font : FONTS) {
+				final FontMetrics labelMetrics = label.getFontMetrics(font);
+				final CountingFontMetrics countingMetrics = new CountingFontMetrics(labelMetrics);
+				final FontMetrics preMeasuredMetrics = widths.fontMetrics(countingMetrics);
+				for (String text : TEXTS) {
+					final int labelWidth = labelMetrics.stringWidth(text + i);
+					assertThat(preMeasuredMetrics.stringWidth(text + i)).isEqualTo(labelWidth);
+				}
+				assertThat(countingMetrics.measuredWidthCount).isZero();
+			}
+		}
+	}
+
+	@Test
+	public void measureLinesLikeLabelsWithoutFractionalMetrics() throws Exception {
+		assertAgreementWithLabels(false);
+	}
+
+	@Test
+	public void measureLinesLikeLabelsWithFractionalMetrics() throws Exception {
+		assertAgreementWithLabels(true);
+	}
+
+	@Test
+	public void measureOtherTextLikeLabels() throws Exception {
+		final ZoomableLabel label = label(false);
+		final PreMeasuredTextWidths widths = measure(label, false);
+		final FontMetrics labelMetrics = label.getFontMetrics(FONTS[0]);
+		final CountingFontMetrics countingMetrics = new CountingFontMetrics(labelMetrics);
+		assertThat(widths.fontMetrics(countingMetrics).stringWidth("not measured"))
+		    .isEqualTo(labelMetrics.stringWidth("not measured"));
+		assertThat(countingMetrics.measuredWidthCount).isEqualTo(1);
+	}
+
+	@Test
+	public void keepLabelMetricsOfOtherFontRenderContext() throws Exception {
+		final PreMeasuredTextWidths widths = measure(label(false), false);
+		final FontMetrics fractionalLabelMetrics = label(true).getFontMetrics(FONTS[0]);
+		assertThat(widths.fontMetrics(fractionalLabelMetrics)).isSameAs(fractionalLabelMetrics);
+	}
+}
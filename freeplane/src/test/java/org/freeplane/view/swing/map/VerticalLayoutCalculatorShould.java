@@ -0,0 +1,118 @@
+package org.freeplane.view.swing.map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Rectangle;
+
+import org.junit.Test;
+
+/**
+ * Expected coordinates were recorded from the layout calculated on swing components
+ * before it was moved to geometry records.
+ */
+public class VerticalLayoutCalculatorShould {
+	private static final boolean LEFT = true;
+	private static final boolean RIGHT = false;
+	private static final int NOT_FOUND = -1;
+	private static final int SPACE_AROUND = 5;
+	private static final int DEFAULT_VGAP = 2;
+
+	private static NodeViewGeometry child(boolean isLeft, boolean isFree, boolean isSummary, boolean isFirstGroupNode,
+	                                      boolean isContentVisible, int width, int height,
+	                                      int contentX, int contentY, int contentWidth, int contentHeight,
+	                                      int shift, int hGap, int topOverlap, int bottomOverlap) {
+		return new NodeViewGeometry(isLeft, isFree, isSummary, isFirstGroupNode, isContentVisible, false,
+		    width, height, contentX, contentY, contentWidth, contentHeight, 0, shift, hGap, 8, topOverlap, bottomOverlap);
+	}
+
+	private static VerticalLayoutInput input(boolean[] sides, int[] summaryLevels, int[] summaryNodeIndexes,
+	                                         boolean isContentVisible, boolean isHiddenSummary,
+	                                         int contentWidth, int contentHeight, int minimalDistanceBetweenChildren,
+	                                         NodeViewGeometry... children) {
+		int highestSummaryLevel = 0;
+		for (int level : summaryLevels)
+			highestSummaryLevel = Math.max(highestSummaryLevel, level);
+		return new VerticalLayoutInput(children, summaryLevels, highestSummaryLevel, sides, summaryNodeIndexes,
+		    isContentVisible, isHiddenSummary, contentWidth, contentHeight, 0, SPACE_AROUND,
+		    minimalDistanceBetweenChildren, DEFAULT_VGAP);
+	}
+
+	private static void assertLayout(VerticalLayoutResult result, int width, int height, int topOverlap,
+	                                 int bottomOverlap, Rectangle content, int... childLocations) {
+		assertThat(new int[] { result.width, result.height, result.topOverlap, result.bottomOverlap })
+		    .containsExactly(width, height, topOverlap, bottomOverlap);
+		assertThat(new Rectangle(result.contentX, result.contentY, result.contentWidth, result.contentHeight))
+		    .isEqualTo(content);
+		final int[] locations = new int[2 * result.childX.length];
+		for (int i = 0; i < result.childX.length; i++) {
+			locations[2 * i] = result.childX[i];
+			locations[2 * i + 1] = result.childY[i];
+		}
+		assertThat(locations).containsExactly(childLocations);
+	}
+
+	@Test
+	public void placeChildrenOfRootOnBothSides() throws Exception {
+		final VerticalLayoutInput input = input(new boolean[] { LEFT, RIGHT },
+		    new int[] { 0, 1, 2, 0, 1, 0 }, new int[] { 1, NOT_FOUND, NOT_FOUND, 4, NOT_FOUND, NOT_FOUND },
+		    true, false, 111, 44, 10,
+		    child(RIGHT, false, false, true, true, 82, 161, 6, 25, 45, 33, 18, 30, 6, 0),
+		    child(RIGHT, false, true, false, true, 82, 124, 8, 8, 69, 22, 0, 31, 0, 0),
+		    child(RIGHT, false, true, false, true, 170, 164, 33, 34, 40, 37, 0, 13, 3, 1),
+		    child(LEFT, false, true, false, true, 85, 111, 11, 27, 60, 38, 0, 20, 2, 8),
+		    child(LEFT, false, true, true, false, 179, 54, 33, 7, 46, 21, 0, 8, 0, 0),
+		    child(LEFT, false, false, false, false, 84, 119, 21, 39, 35, 39, 0, 0, 0, 0));
+		assertLayout(VerticalLayoutCalculator.calculate(input), 635, 401, 2, 1, new Rectangle(173, 82, 111, 44),
+		    308, 80, 408, 227, 465, 237, 82, 0, 0, 35, 117, 103);
+	}
+
+	@Test
+	public void placeNestedSummaryNodesBesideTheirGroups() throws Exception {
+		final VerticalLayoutInput input = input(new boolean[] { LEFT },
+		    new int[] { 0, 1, 2 }, new int[] { 1, NOT_FOUND, NOT_FOUND },
+		    true, false, 121, 17, 11,
+		    child(LEFT, true, false, false, false, 162, 146, 15, 14, 75, 34, 0, 0, 0, 0),
+		    child(LEFT, false, true, false, false, 152, 92, 28, 14, 46, 37, 0, 8, 0, 0),
+		    child(LEFT, false, true, false, true, 184, 139, 35, 26, 81, 31, 0, 12, 0, 0));
+		assertLayout(VerticalLayoutCalculator.calculate(input), 398, 156, 0, 12, new Rectangle(205, 24, 121, 17),
+		    236, 10, 123, 0, 0, 5);
+	}
+
+	@Test
+	public void placeFreeNodesRelativeToContent() throws Exception {
+		final VerticalLayoutInput input = input(new boolean[] { LEFT },
+		    new int[] { 0, 0, 1 }, new int[] { NOT_FOUND, 2, NOT_FOUND },
+		    true, false, 85, 49, 10,
+		    child(LEFT, false, true, true, true, 73, 113, 10, 10, 21, 31, 0, 25, 0, 0),
+		    child(LEFT, false, false, true, true, 191, 10, 21, 21, 84, 18, 0, 21, 0, 0),
+		    child(LEFT, true, true, false, false, 95, 45, 40, 10, 34, 12, 0, 8, 2, 0));
+		assertLayout(VerticalLayoutCalculator.calculate(input), 293, 147, 0, 24, new Rectangle(203, 26, 85, 49),
+		    147, 0, 77, 113, 0, 102);
+	}
+
+	@Test
+	public void placeChildrenOfHiddenSummaryNodeCloser() throws Exception {
+		final VerticalLayoutInput input = input(new boolean[] { LEFT },
+		    new int[] { 0, 1, 0, 1, 0 }, new int[] { 1, NOT_FOUND, 3, NOT_FOUND, NOT_FOUND },
+		    false, true, 0, 0, 7,
+		    child(LEFT, false, true, false, true, 204, 152, 35, 18, 74, 30, 0, 23, 0, 0),
+		    child(LEFT, false, true, false, true, 69, 121, 30, 16, 28, 32, -16, 34, 0, 0),
+		    child(LEFT, false, false, true, true, 140, 10, 44, 25, 78, 19, 0, 17, 0, 0),
+		    child(LEFT, false, true, false, true, 123, 114, 25, 34, 63, 30, 0, 36, 5, 0),
+		    child(LEFT, false, false, true, true, 120, 10, 6, 8, 61, 11, 0, 23, 0, 0));
+		assertLayout(VerticalLayoutCalculator.calculate(input), 322, 265, 0, 0, new Rectangle(242, 110, 0, 0),
+		    118, 0, 39, 28, 111, 188, 0, 144, 160, 255);
+	}
+
+	@Test
+	public void considerInputsOfEqualGeometryEqual() throws Exception {
+		final VerticalLayoutInput input = input(new boolean[] { RIGHT }, new int[] { 0 }, new int[] { NOT_FOUND },
+		    true, false, 40, 20, 5, child(RIGHT, false, false, false, true, 50, 30, 5, 5, 40, 20, 0, 10, 0, 0));
+		final VerticalLayoutInput sameInput = input(new boolean[] { RIGHT }, new int[] { 0 }, new int[] { NOT_FOUND },
+		    true, false, 40, 20, 5, child(RIGHT, false, false, false, true, 50, 30, 5, 5, 40, 20, 0, 10, 0, 0));
+		final VerticalLayoutInput higherChildInput = input(new boolean[] { RIGHT }, new int[] { 0 }, new int[] { NOT_FOUND },
+		    true, false, 40, 20, 5, child(RIGHT, false, false, false, true, 50, 31, 5, 5, 40, 20, 0, 10, 0, 0));
+		assertThat(input).isEqualTo(sameInput);
+		assertThat(input).isNotEqualTo(higherChildInput);
+	}
+}
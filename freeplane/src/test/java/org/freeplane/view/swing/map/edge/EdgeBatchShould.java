@@ -0,0 +1,73 @@
+package org.freeplane.view.swing.map.edge;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Shape;
+import java.awt.geom.Line2D;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+public class EdgeBatchShould {
+	private Graphics2D g;
+	private EdgeBatch uut;
+
+	@Before
+	public void setup() {
+		g = mock(Graphics2D.class);
+		when(g.getClipBounds()).thenReturn(new Rectangle(0, 0, 100, 100));
+		uut = new EdgeBatch(g);
+	}
+
+	private void add(Shape shape, Color color, BasicStroke stroke) {
+		uut.add(shape, shape.getBounds2D(), color, stroke);
+	}
+
+	@Test
+	public void drawEdgesWithSameColorAndStrokeAtOnce() throws Exception {
+		add(new Line2D.Float(0, 0, 10, 10), Color.RED, new BasicStroke(1));
+		add(new Line2D.Float(0, 10, 10, 20), Color.RED, new BasicStroke(1));
+		add(new Line2D.Float(0, 20, 10, 30), Color.BLUE, new BasicStroke(1));
+		add(new Line2D.Float(0, 30, 10, 40), Color.RED, new BasicStroke(2));
+		uut.flush();
+		verify(g, times(3)).draw((Shape) any());
+	}
+
+	@Test
+	public void keepPaintOrderOfEdgesWithDifferentColors() throws Exception {
+		add(new Line2D.Float(0, 0, 10, 10), Color.RED, new BasicStroke(1));
+		add(new Line2D.Float(0, 10, 10, 20), Color.BLUE, new BasicStroke(1));
+		add(new Line2D.Float(0, 20, 10, 30), Color.RED, new BasicStroke(1));
+		uut.flush();
+		final InOrder inOrder = inOrder(g);
+		inOrder.verify(g).setColor(Color.RED);
+		inOrder.verify(g).setColor(Color.BLUE);
+		inOrder.verify(g).setColor(Color.RED);
+		verify(g, times(3)).draw((Shape) any());
+	}
+
+	@Test
+	public void skipEdgesOutsideOfClip() throws Exception {
+		add(new Line2D.Float(200, 200, 300, 300), Color.RED, new BasicStroke(1));
+		uut.flush();
+		verify(g, never()).draw((Shape) any());
+	}
+
+	@Test
+	public void keepEdgesTouchedByStrokeWidth() throws Exception {
+		add(new Line2D.Float(104, 0, 104, 50), Color.RED, new BasicStroke(10));
+		uut.flush();
+		verify(g).draw((Shape) any());
+	}
+}
@@ -0,0 +1,47 @@
+package org.freeplane.api;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * Converts mind maps into export formats using a pool of headless workers.
+ *
+ * Each worker has its own controller and runs its jobs on its own thread,
+ * so jobs assigned to different workers run concurrently.
+ * A job exceeding its time limit or its memory limit is cancelled and its worker is replaced.
+ * Export types painting the map view, like image exports, are not available.
+ *
+ * @since 1.7.13
+ */
+public interface BatchConverter {
+	/**
+	 * Queues conversion of the input map using the export type with the given description.
+	 *
+	 * If output is an existing directory, the output file is created in it.
+	 * Its name is the input file name with the extension of the export type.
+	 *
+	 * @see #getExportTypeDescriptions()
+	 * @since 1.7.13
+	 */
+	Future<ConversionResult> submit(File input, String exportTypeDescription, File output);
+
+	/**
+	 * Lists descriptions of export types available for conversion.
+	 *
+	 * @since 1.7.13
+	 */
+	List<String> getExportTypeDescriptions();
+
+	/**
+	 * @since 1.7.13
+	 */
+	ConversionMetrics getMetrics();
+
+	/**
+	 * Waits until all queued jobs are finished and stops the workers.
+	 *
+	 * @since 1.7.13
+	 */
+	void shutdown() throws InterruptedException;
+}
@@ -164,4 +164,24 @@ public interface Controller extends ControllerRO, HeadlessMapCreator {
 	 */
 	ExecutorService getMainThreadExecutorService();
 
+	/**
+	 * Runs <code>change</code> as one bulk change of the current map.
+	 * See {@link MindMap#bulkChange(Runnable)} for details.
+	 * @since 1.7.13
+	 */
+	void bulkChange(Runnable change);
+
+	/**
+	 * Starts or stops collecting durations of operations, see {@link #getOperationMetrics()}.
+	 * The setting is stored like the corresponding preference and opens the metrics window in interactive mode.
+	 * @since 1.7.13
+	 */
+	void setPerformanceMetricsEnabled(boolean enabled);
+
+	/**
+	 * Clears collected operation durations.
+	 * @since 1.7.13
+	 */
+	void resetOperationMetrics();
+
 }
\ No newline at end of file
@@ -127,4 +127,17 @@ public interface ControllerRO {
      *   one, as for HTML.
      * @since 1.3.5 */
     void export(MindMap map, File destinationFile, String exportTypeDescription, boolean overwriteExisting);
+
+	/** returns true if durations of operations like map loading, filtering, formula evaluation or layout are collected.
+	 * @since 1.7.13 */
+	boolean isPerformanceMetricsEnabled();
+
+	/** returns duration statistics of recent operations, one entry per operation, example:
+	 * <pre>
+	 *   c.performanceMetricsEnabled = true
+	 *   // ... work with the map
+	 *   c.operationMetrics.each { println "${it.name}: ${it.count} times, median ${it.getPercentileMillis(50)} ms" }
+	 * </pre>
+	 * @since 1.7.13 */
+	List<? extends OperationMetrics> getOperationMetrics();
 }
\ No newline at end of file
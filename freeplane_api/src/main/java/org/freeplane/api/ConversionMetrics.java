@@ -0,0 +1,24 @@
+package org.freeplane.api;
+
+/**
+ * Throughput statistics of a {@link BatchConverter}.
+ *
+ * @since 1.7.13
+ */
+public interface ConversionMetrics {
+	int getWorkerCount();
+
+	long getQueuedJobCount();
+
+	long getRunningJobCount();
+
+	long getFinishedJobCount(ConversionResult.Status status);
+
+	long getFinishedJobCount();
+
+	/** Returns finished jobs per second since the first job was submitted. */
+	double getThroughput();
+
+	/** Returns the average duration of finished jobs. */
+	double getAverageDurationMillis();
+}
@@ -0,0 +1,26 @@
+package org.freeplane.api;
+
+import java.io.File;
+
+/**
+ * Outcome of a job submitted to {@link BatchConverter}.
+ *
+ * @since 1.7.13
+ */
+public interface ConversionResult {
+	enum Status {
+		SUCCEEDED, FAILED, TIMED_OUT, MEMORY_LIMIT_EXCEEDED
+	}
+
+	File getInput();
+
+	File getOutput();
+
+	Status getStatus();
+
+	/** Returns the error description of an unsuccessful job or null. */
+	String getErrorMessage();
+
+	/** Returns the time from the start of the job to its completion. */
+	long getDurationMillis();
+}
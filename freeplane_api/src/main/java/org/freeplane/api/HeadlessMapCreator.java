@@ -66,4 +66,16 @@ public interface HeadlessMapCreator {
 	 */
 	AttributeValueSerializer getAttributeValueSerializer();
 
+	/**
+	 * Creates a converter running the given number of isolated headless workers.
+	 *
+	 * @param jobTimeoutMillis time limit per job, 0 for no limit
+	 * @param jobMemoryLimitBytes limit of heap retained by a single job, 0 for no limit.
+	 *  It is checked for all running jobs together using the heap used after garbage collections,
+	 *  if they exceed it the job which allocated most memory is cancelled.
+	 *
+	 * @since 1.7.13
+	 */
+	BatchConverter batchConverter(int workerCount, long jobTimeoutMillis, long jobMemoryLimitBytes);
+
 }
\ No newline at end of file
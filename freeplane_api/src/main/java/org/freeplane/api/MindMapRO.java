@@ -35,4 +35,10 @@ public interface MindMapRO {
     /** returns HTML color spec like #ff0000 (red) or #222222 (darkgray).
      *  @since 1.2 */
     String getBackgroundColorCode();
+
+    /** Estimated amount of heap memory in bytes kept alive by the undo history of this map,
+     *  e.g. <code>node.map.undoHistorySize >> 20</code> megabytes.
+     *  Returns 0 for maps without undo.
+     *  @since 1.7.13 */
+    long getUndoHistorySize();
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package org.freeplane.api;
+
+/**
+ * Durations of recent executions of an instrumented operation like map loading, filtering or layout.
+ * They are only collected while performance metrics are enabled, see {@link Controller#setPerformanceMetricsEnabled(boolean)}.
+ *
+ * @since 1.7.13
+ */
+public interface OperationMetrics {
+	/** Returns the operation name like "map_load", "filter", "formula" or "layout". */
+	String getName();
+
+	/** Returns the number of executions since metrics were enabled or reset. */
+	long getCount();
+
+	/** Returns the given percentile (0 to 100) of the durations of recent executions. */
+	double getPercentileMillis(double percentile);
+
+	/** Returns the longest duration of recent executions. */
+	double getMaxMillis();
+}
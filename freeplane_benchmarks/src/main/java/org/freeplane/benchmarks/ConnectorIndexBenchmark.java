@@ -0,0 +1,77 @@
+package org.freeplane.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.freeplane.features.link.ConnectorModel;
+import org.freeplane.features.link.LinkController;
+import org.freeplane.features.link.MapLinks;
+import org.freeplane.features.link.NodeLinks;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.map.mindmapmode.MMapModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Looks up incoming and outgoing connectors of all nodes of a map with many connectors like a repaint does. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class ConnectorIndexBenchmark {
+	@Param("100000")
+	public int connectorCount;
+
+	private List<NodeModel> nodes;
+	private MapLinks mapLinks;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		HeadlessFreeplane.start();
+		final LinkController linkController = LinkController.getController();
+		final MapModel map = new MMapModel();
+		final NodeModel root = new NodeModel("root", map);
+		map.setRoot(root);
+		nodes = new ArrayList<NodeModel>();
+		for (int i = 0; i < connectorCount / 2; i++) {
+			final NodeModel node = new NodeModel("node " + i, map);
+			root.insert(node, -1);
+			nodes.add(node);
+		}
+		final Random random = new Random(SyntheticMapState.SEED);
+		for (int i = 0; i < connectorCount; i++) {
+			final NodeModel source = nodes.get(random.nextInt(nodes.size()));
+			final NodeModel target = nodes.get(random.nextInt(nodes.size()));
+			NodeLinks.createLinkExtension(source).addArrowlink(new ConnectorModel(source, target.createID(),
+			    linkController.getStandardConnectorArrows(), linkController.getStandardDashVariant().variant,
+			    linkController.getStandardConnectorColor(), linkController.getStandardConnectorOpacity(),
+			    linkController.getStandardConnectorShape(), linkController.getStandardConnectorWidth(),
+			    linkController.getStandardLabelFontFamily(), linkController.getStandardLabelFontSize()));
+		}
+		mapLinks = MapLinks.getLinks(map);
+	}
+
+	@Benchmark
+	public long lookUpConnectorsOfAllNodes() {
+		long checksum = 0;
+		for (NodeModel node : nodes) {
+			checksum += mapLinks.getLinksFrom(node).size();
+			checksum += mapLinks.getLinksTo(node).size();
+		}
+		return checksum;
+	}
+}
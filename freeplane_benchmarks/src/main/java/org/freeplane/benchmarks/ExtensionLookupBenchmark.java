@@ -0,0 +1,66 @@
+package org.freeplane.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.freeplane.core.extension.ExtensionClasses;
+import org.freeplane.core.extension.ExtensionContainer;
+import org.freeplane.core.extension.IExtension;
+import org.freeplane.core.extension.SmallExtensionMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Extension lookup hits and misses of {@link SmallExtensionMap} compared with a {@link HashMap}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class ExtensionLookupBenchmark {
+	@Param({ "0", "3", "8", "16" })
+	public int extensionCount;
+
+	@Param({ "SmallExtensionMap", "HashMap" })
+	public String mapType;
+
+	private ExtensionContainer container;
+	private Class<? extends IExtension> lastClass;
+	private Class<? extends IExtension> missingClass;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		final Map<Class<? extends IExtension>, IExtension> map = mapType.equals("HashMap")
+		        ? new HashMap<Class<? extends IExtension>, IExtension>() : new SmallExtensionMap();
+		for (int i = 0; i < extensionCount; i++) {
+			final IExtension extension = ExtensionClasses.newExtensionOfNewClass();
+			map.put(extension.getClass(), extension);
+			lastClass = extension.getClass();
+		}
+		missingClass = ExtensionClasses.newExtensionOfNewClass().getClass();
+		if (lastClass == null)
+			lastClass = missingClass;
+		container = new ExtensionContainer(map);
+	}
+
+	@Benchmark
+	public IExtension hit() {
+		return container.getExtension(lastClass);
+	}
+
+	@Benchmark
+	public IExtension miss() {
+		return container.getExtension(missingClass);
+	}
+}
@@ -0,0 +1,72 @@
+package org.freeplane.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.freeplane.core.resources.TranslatedObject;
+import org.freeplane.features.filter.Filter;
+import org.freeplane.features.filter.FilterController;
+import org.freeplane.features.filter.condition.ASelectableCondition;
+import org.freeplane.features.filter.condition.ConditionFactory;
+import org.freeplane.features.text.TextController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class FilterBenchmark {
+	public enum Condition {
+		NODE_TEXT_CONTAINS(translated(TextController.FILTER_NODE), ConditionFactory.FILTER_CONTAINS, "node 12"),
+		ANY_TEXT_CONTAINS(translated(TextController.FILTER_ANYTEXT), ConditionFactory.FILTER_CONTAINS, "node 12"),
+		NODE_TEXT_MATCHES_REGEXP(translated(TextController.FILTER_NODE), ConditionFactory.FILTER_REGEXP, ".*7$"),
+		ATTRIBUTE_GREATER_THAN(SyntheticMapGenerator.ATTRIBUTE_NAME_PREFIX + 0, ConditionFactory.FILTER_GT, "90");
+
+		final Object item;
+		final String simpleCondition;
+		final String value;
+
+		Condition(Object item, String simpleCondition, String value) {
+			this.item = item;
+			this.simpleCondition = simpleCondition;
+			this.value = value;
+		}
+
+		private static TranslatedObject translated(String key) {
+			return new TranslatedObject(key, key);
+		}
+
+		ASelectableCondition create() {
+			return FilterController.getCurrentFilterController().getConditionFactory()
+			    .createCondition(item, translated(simpleCondition), value, false, false);
+		}
+	}
+
+	@Param
+	public Condition condition;
+
+	private Filter filter;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		filter = new Filter(condition.create(), true, false, false);
+	}
+
+	@Benchmark
+	public Filter calculateFilterResults(SyntheticMapState state) {
+		filter.calculateFilterResults(state.map);
+		return filter;
+	}
+}
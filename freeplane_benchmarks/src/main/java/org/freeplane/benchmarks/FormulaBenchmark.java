@@ -0,0 +1,25 @@
+package org.freeplane.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.freeplane.plugin.script.FormulaUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Formula scripts are compiled and cached during warmup, measured iterations evaluate them. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class FormulaBenchmark {
+	@Benchmark
+	public void evaluateAllFormulas(SyntheticMapState state) {
+		FormulaUtils.evaluateAllFormulas(state.map);
+	}
+}
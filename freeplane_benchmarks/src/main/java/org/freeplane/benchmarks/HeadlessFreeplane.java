@@ -0,0 +1,19 @@
+package org.freeplane.benchmarks;
+
+import org.freeplane.core.ui.menubuilders.HeadlessFreeplaneRunner;
+import org.freeplane.features.mode.Controller;
+import org.freeplane.features.mode.mindmapmode.MModeController;
+
+/** Starts Freeplane in headless mode once per benchmark JVM like the unit tests do. */
+class HeadlessFreeplane {
+	private static boolean started = false;
+
+	static synchronized void start() {
+		if (started)
+			return;
+		System.setProperty("java.awt.headless", "true");
+		new HeadlessFreeplaneRunner();
+		Controller.getCurrentController().selectMode(MModeController.MODENAME);
+		started = true;
+	}
+}
@@ -0,0 +1,34 @@
+package org.freeplane.benchmarks;
+
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.MapWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class MapIOBenchmark {
+	@Benchmark
+	public MapModel readMap(SyntheticMapState state) throws Exception {
+		return state.readMap();
+	}
+
+	@Benchmark
+	public String writeMap(SyntheticMapState state) throws Exception {
+		final StringWriter writer = new StringWriter(state.xml.length());
+		SyntheticMapState.mapController().getMapWriter()
+		    .writeMapAsXml(state.map, writer, MapWriter.Mode.FILE, true, false);
+		return writer.toString();
+	}
+}
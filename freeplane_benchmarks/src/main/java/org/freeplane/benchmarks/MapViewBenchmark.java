@@ -0,0 +1,45 @@
+package org.freeplane.benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.freeplane.features.mode.Controller;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Lays out all node views of the map and paints the whole map into an image. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class MapViewBenchmark {
+	private OffscreenMapView mapView;
+
+	@Setup(Level.Trial)
+	public void setup(SyntheticMapState state) {
+		mapView = new OffscreenMapView(state.map, Controller.getCurrentModeController());
+		mapView.layoutMap();
+	}
+
+	@Benchmark
+	public OffscreenMapView layout() {
+		mapView.layoutMap();
+		return mapView;
+	}
+
+	@Benchmark
+	public BufferedImage paint() {
+		return mapView.paintMap();
+	}
+}
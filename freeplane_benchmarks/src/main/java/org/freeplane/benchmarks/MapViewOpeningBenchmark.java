@@ -0,0 +1,48 @@
+package org.freeplane.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.freeplane.core.resources.ResourceController;
+import org.freeplane.features.mode.Controller;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Creates a map view and lays out all its node views, with and without measuring
+ * the node texts in the background while the view is created.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class MapViewOpeningBenchmark {
+	@Param({"true", "false"})
+	public boolean preMeasureTextWidths;
+
+	private SyntheticMapState state;
+
+	@Setup(Level.Trial)
+	public void setup(SyntheticMapState state) {
+		this.state = state;
+		ResourceController.getResourceController().setProperty("pre_measure_text_widths", preMeasureTextWidths);
+	}
+
+	@Benchmark
+	public OffscreenMapView open() {
+		final OffscreenMapView mapView = new OffscreenMapView(state.map, Controller.getCurrentModeController());
+		mapView.layoutMap();
+		return mapView;
+	}
+}
@@ -0,0 +1,115 @@
+package org.freeplane.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.freeplane.core.util.FreeplaneVersion;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.MapWriter.Mode;
+import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.map.mindmapmode.MMapModel;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loads a generated map with about one million nodes and reports the retained heap per node
+ * as secondary result <code>retainedBytesPerNode</code>.
+ * The time score includes the garbage collections needed for measuring the heap.
+ */
+@BenchmarkMode(org.openjdk.jmh.annotations.Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class NodeMemoryFootprintBenchmark {
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Footprint {
+		public double retainedBytesPerNode;
+	}
+
+	@Param("100")
+	public int childrenPerNode;
+
+	@Param("3")
+	public int levels;
+
+	private File mapFile;
+	private MapModel map;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		HeadlessFreeplane.start();
+		mapFile = File.createTempFile("memory-footprint", ".mm");
+		try (Writer writer = new BufferedWriter(new FileWriter(mapFile))) {
+			writer.write("<map version=\"" + FreeplaneVersion.XML_VERSION + "\">\n");
+			writeNode(writer, "root", levels);
+			writer.write("</map>\n");
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void deleteMapFile() {
+		mapFile.delete();
+	}
+
+	@Benchmark
+	public void loadMap(Footprint footprint) throws Exception {
+		map = null;
+		final long heapBefore = usedHeap();
+		map = new MMapModel();
+		try (Reader reader = new FileReader(mapFile)) {
+			SyntheticMapState.mapController().getMapReader().createNodeTreeFromXml(map, reader, Mode.FILE);
+		}
+		final long heapAfter = usedHeap();
+		footprint.retainedBytesPerNode = (double) (heapAfter - heapBefore) / countNodes(map.getRootNode());
+	}
+
+	private void writeNode(Writer writer, String text, int remainingLevels) throws IOException {
+		writer.write("<node TEXT=\"" + text + "\"");
+		if (remainingLevels == 0) {
+			writer.write("/>\n");
+			return;
+		}
+		writer.write(">\n");
+		for (int i = 0; i < childrenPerNode; i++)
+			writeNode(writer, text + "." + i, remainingLevels - 1);
+		writer.write("</node>\n");
+	}
+
+	private static long countNodes(NodeModel node) {
+		long count = 1;
+		for (NodeModel child : node.getChildren())
+			count += countNodes(child);
+		return count;
+	}
+
+	private static long usedHeap() throws InterruptedException {
+		final Runtime runtime = Runtime.getRuntime();
+		long used = Long.MAX_VALUE;
+		for (int i = 0; i < 5; i++) {
+			System.gc();
+			Thread.sleep(100);
+			used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+		}
+		return used;
+	}
+}
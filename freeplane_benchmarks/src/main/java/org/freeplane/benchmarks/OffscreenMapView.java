@@ -0,0 +1,54 @@
+package org.freeplane.benchmarks;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.mode.ModeController;
+import org.freeplane.view.swing.map.MapView;
+
+/**
+ * Map view which is laid out and painted without a frame.
+ * Node views are filled and laid out only in displayable map views, so this one claims to be displayable.
+ * It must not be selected or scrolled because both need a frame.
+ */
+class OffscreenMapView extends MapView {
+	private static final long serialVersionUID = 1L;
+
+	OffscreenMapView(MapModel model, ModeController modeController) {
+		super(model, modeController);
+	}
+
+	@Override
+	public boolean isDisplayable() {
+		return true;
+	}
+
+	void layoutMap() {
+		getRoot().updateAll();
+		synchronized (getTreeLock()) {
+			setSize(getPreferredSize());
+			validateTree();
+		}
+	}
+
+	BufferedImage paintMap() {
+		final Rectangle innerBounds = getInnerBounds();
+		final BufferedImage image = new BufferedImage(Math.max(1, innerBounds.width), Math.max(1, innerBounds.height),
+		    BufferedImage.TYPE_INT_RGB);
+		final Graphics2D g = image.createGraphics();
+		try {
+			final Color background = getBackground();
+			g.setBackground(background != null ? background : Color.WHITE);
+			g.clearRect(0, 0, image.getWidth(), image.getHeight());
+			g.translate(-innerBounds.x, -innerBounds.y);
+			print(g);
+		}
+		finally {
+			g.dispose();
+		}
+		return image;
+	}
+}
@@ -0,0 +1,109 @@
+package org.freeplane.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.freeplane.features.format.Scanner;
+import org.freeplane.features.format.ScannerShould;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parses typical node texts with the english or the german scanner,
+ * trying all parsers like before the fast path lexer was introduced and using {@link Scanner#parse(String)}.
+ * Parallel parsing checks that the scanner scales with the number of threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class ScannerBenchmark {
+	private static final String[] WORDS = { "meeting", "notes", "project", "plan", "todo", "review", "budget",
+	        "release", "idea", "risk", "customer", "design" };
+
+	@Param("1000000")
+	public int textCount;
+
+	@Param({ "en", "de" })
+	public String language;
+
+	private Scanner scanner;
+	private List<String> texts;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		HeadlessFreeplane.start();
+		scanner = language.equals("de") ? ScannerShould.createScanner_de() : ScannerShould.createScanner_en();
+		texts = createTexts(textCount);
+	}
+
+	@Benchmark
+	public int allParsers() {
+		int parsed = 0;
+		for (String text : texts)
+			if (ScannerShould.parseTryingAllParsers(scanner, text) != text)
+				parsed++;
+		return parsed;
+	}
+
+	@Benchmark
+	public int fastPath() {
+		int parsed = 0;
+		for (String text : texts)
+			if (scanner.parse(text) != text)
+				parsed++;
+		return parsed;
+	}
+
+	@Benchmark
+	public long fastPathParallel() {
+		return texts.parallelStream().filter(text -> scanner.parse(text) != text).count();
+	}
+
+	/** Mostly plain text, some texts starting with digits, numbers, dates and times. */
+	private static List<String> createTexts(int count) {
+		final Random random = new Random(SyntheticMapState.SEED);
+		final List<String> texts = new ArrayList<String>(count);
+		for (int i = 0; i < count; i++) {
+			final int kind = random.nextInt(100);
+			final String text;
+			if (kind < 55)
+				text = word(random) + " " + word(random);
+			else if (kind < 65)
+				text = random.nextInt(20) + ". " + word(random);
+			else if (kind < 70)
+				text = (1 + random.nextInt(4)) + (random.nextBoolean() ? "rd " : " ") + word(random);
+			else if (kind < 80)
+				text = Integer.toString(random.nextInt(100000) - 1000);
+			else if (kind < 85)
+				text = random.nextInt(1000) + (random.nextBoolean() ? "." : ",") + random.nextInt(100);
+			else if (kind < 90)
+				text = (1 + random.nextInt(28)) + "." + (1 + random.nextInt(12)) + "." + (2000 + random.nextInt(30));
+			else if (kind < 95)
+				text = String.format("%d-%02d-%02d", 2000 + random.nextInt(30), 1 + random.nextInt(12),
+				    1 + random.nextInt(28));
+			else
+				text = random.nextInt(24) + ":" + random.nextInt(60);
+			texts.add(text);
+		}
+		return texts;
+	}
+
+	private static String word(Random random) {
+		return WORDS[random.nextInt(WORDS.length)];
+	}
+}
@@ -0,0 +1,134 @@
+package org.freeplane.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.freeplane.core.util.FreeplaneVersion;
+
+/**
+ * Creates the xml of a map which depends only on the given knobs and the seed,
+ * so that benchmark results are comparable between commits.
+ *
+ * Nodes build a complete tree with the smallest branching factor which fits all nodes into the given depth.
+ * Node i is the parent of the nodes i * branching + 1 ... i * branching + branching.
+ */
+public class SyntheticMapGenerator {
+	static final String ATTRIBUTE_NAME_PREFIX = "attribute ";
+	static final String FORMULA = "=node.children.size()";
+	private final long seed;
+	private int nodeCount = 1000;
+	private int depth = 4;
+	private int richTextPercent = 0;
+	private int formulaPercent = 0;
+	private int attributesPerNode = 0;
+	private int connectorCount = 0;
+
+	public SyntheticMapGenerator(long seed) {
+		this.seed = seed;
+	}
+
+	public SyntheticMapGenerator nodeCount(int nodeCount) {
+		this.nodeCount = Math.max(1, nodeCount);
+		return this;
+	}
+
+	/** Levels below the root. */
+	public SyntheticMapGenerator depth(int depth) {
+		this.depth = Math.max(1, depth);
+		return this;
+	}
+
+	/** Part of nodes with html text. */
+	public SyntheticMapGenerator richTextPercent(int richTextPercent) {
+		this.richTextPercent = richTextPercent;
+		return this;
+	}
+
+	/** Part of plain text nodes with a formula as text. */
+	public SyntheticMapGenerator formulaPercent(int formulaPercent) {
+		this.formulaPercent = formulaPercent;
+		return this;
+	}
+
+	/** Attributes named "attribute 0", "attribute 1"... with numeric values. */
+	public SyntheticMapGenerator attributesPerNode(int attributesPerNode) {
+		this.attributesPerNode = attributesPerNode;
+		return this;
+	}
+
+	/** Connectors between randomly chosen nodes. */
+	public SyntheticMapGenerator connectorCount(int connectorCount) {
+		this.connectorCount = connectorCount;
+		return this;
+	}
+
+	int branching() {
+		int branching = 2;
+		while (capacity(branching) < nodeCount)
+			branching++;
+		return branching;
+	}
+
+	private long capacity(int branching) {
+		long capacity = 1;
+		long levelSize = 1;
+		for (int level = 1; level <= depth && capacity < nodeCount; level++) {
+			levelSize *= branching;
+			capacity += levelSize;
+		}
+		return capacity;
+	}
+
+	public String generateXml() {
+		final Random random = new Random(seed);
+		final List<List<Integer>> connectorTargets = new ArrayList<>(nodeCount);
+		for (int i = 0; i < nodeCount; i++)
+			connectorTargets.add(null);
+		for (int i = 0; i < connectorCount; i++) {
+			final int source = random.nextInt(nodeCount);
+			final int target = random.nextInt(nodeCount);
+			if (connectorTargets.get(source) == null)
+				connectorTargets.set(source, new ArrayList<>(1));
+			connectorTargets.get(source).add(target);
+		}
+		final StringBuilder xml = new StringBuilder(nodeCount * (100 + 50 * attributesPerNode));
+		xml.append("<map version=\"").append(FreeplaneVersion.XML_VERSION).append("\">\n");
+		appendNode(xml, 0, branching(), random, connectorTargets);
+		xml.append("</map>\n");
+		return xml.toString();
+	}
+
+	private void appendNode(StringBuilder xml, int index, int branching, Random random,
+	                        List<List<Integer>> connectorTargets) {
+		final boolean richText = random.nextInt(100) < richTextPercent;
+		final boolean formula = !richText && random.nextInt(100) < formulaPercent;
+		xml.append("<node ID=\"").append(id(index)).append('"');
+		if (!richText)
+			xml.append(" TEXT=\"").append(formula ? FORMULA : "node " + index).append('"');
+		xml.append(">\n");
+		if (richText) {
+			xml.append("<richcontent TYPE=\"NODE\"><html><head></head><body>")
+			    .append("<p>node <b>").append(index).append("</b></p>")
+			    .append("<p>with <i>rich</i> text &amp; more than one paragraph</p>")
+			    .append("</body></html></richcontent>\n");
+		}
+		for (int i = 0; i < attributesPerNode; i++) {
+			xml.append("<attribute NAME=\"").append(ATTRIBUTE_NAME_PREFIX).append(i)
+			    .append("\" VALUE=\"").append(random.nextInt(100)).append("\"/>\n");
+		}
+		final List<Integer> targets = connectorTargets.get(index);
+		if (targets != null) {
+			for (Integer target : targets)
+				xml.append("<arrowlink DESTINATION=\"").append(id(target)).append("\"/>\n");
+		}
+		final int firstChild = index * branching + 1;
+		for (int child = firstChild; child < firstChild + branching && child < nodeCount; child++)
+			appendNode(xml, child, branching, random, connectorTargets);
+		xml.append("</node>\n");
+	}
+
+	private static String id(int index) {
+		return "ID_" + index;
+	}
+}
@@ -0,0 +1,78 @@
+package org.freeplane.benchmarks;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.freeplane.features.map.MapController;
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.MapWriter.Mode;
+import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.map.mindmapmode.MMapModel;
+import org.freeplane.features.mode.Controller;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Synthetic map loaded like a map file, the knobs can be changed by jmh parameters. */
+@State(Scope.Benchmark)
+public class SyntheticMapState {
+	static final long SEED = 1;
+
+	@Param("10000")
+	public int nodeCount;
+
+	@Param("5")
+	public int depth;
+
+	@Param("10")
+	public int richTextPercent;
+
+	@Param("10")
+	public int formulaPercent;
+
+	@Param("2")
+	public int attributesPerNode;
+
+	@Param("1000")
+	public int connectorCount;
+
+	String xml;
+	MapModel map;
+	List<NodeModel> nodes;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		HeadlessFreeplane.start();
+		xml = new SyntheticMapGenerator(SEED)
+			.nodeCount(nodeCount)
+			.depth(depth)
+			.richTextPercent(richTextPercent)
+			.formulaPercent(formulaPercent)
+			.attributesPerNode(attributesPerNode)
+			.connectorCount(connectorCount)
+			.generateXml();
+		map = readMap();
+		mapController().fireMapCreated(map);
+		nodes = new ArrayList<>(nodeCount);
+		addSubtree(map.getRootNode());
+	}
+
+	MapModel readMap() throws Exception {
+		final MapModel map = new MMapModel();
+		mapController().getMapReader().createNodeTreeFromXml(map, new StringReader(xml), Mode.FILE);
+		return map;
+	}
+
+	static MapController mapController() {
+		return Controller.getCurrentModeController().getMapController();
+	}
+
+	private void addSubtree(NodeModel node) {
+		nodes.add(node);
+		for (NodeModel child : node.getChildren())
+			addSubtree(child);
+	}
+}
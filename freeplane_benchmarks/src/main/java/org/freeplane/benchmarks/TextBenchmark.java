@@ -0,0 +1,51 @@
+package org.freeplane.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.freeplane.core.util.HtmlUtils;
+import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.text.TextController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class TextBenchmark {
+	private TextController textController;
+	private List<String> htmlTexts;
+
+	@Setup(Level.Trial)
+	public void setup(SyntheticMapState state) {
+		textController = TextController.getController();
+		htmlTexts = state.nodes.stream().map(NodeModel::getText).filter(HtmlUtils::isHtml)
+		    .collect(Collectors.toList());
+	}
+
+	@Benchmark
+	public void getTransformedObject(SyntheticMapState state, Blackhole blackhole) throws Exception {
+		for (NodeModel node : state.nodes)
+			blackhole.consume(textController.getTransformedObject(node));
+	}
+
+	@Benchmark
+	public void htmlToPlain(Blackhole blackhole) {
+		for (String text : htmlTexts)
+			blackhole.consume(HtmlUtils.htmlToPlain(text));
+	}
+}
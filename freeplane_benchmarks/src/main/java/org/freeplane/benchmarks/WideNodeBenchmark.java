@@ -0,0 +1,73 @@
+package org.freeplane.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.freeplane.features.map.MapModel;
+import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.map.mindmapmode.MMapModel;
+import org.freeplane.features.nodestyle.NodeStyleModel;
+import org.freeplane.features.text.TextController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Child positions and numbered texts of a node with many numbered children. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class WideNodeBenchmark {
+	@Param("50000")
+	public int childCount;
+
+	private TextController textController;
+	private NodeModel root;
+	private Random random;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		HeadlessFreeplane.start();
+		textController = TextController.getController();
+		final MapModel map = new MMapModel();
+		root = new NodeModel("root", map);
+		map.setRoot(root);
+		NodeStyleModel.setNodeNumbering(root, true);
+		for (int i = 0; i < childCount; i++) {
+			final NodeModel child = new NodeModel("child " + i, map);
+			NodeStyleModel.setNodeNumbering(child, true);
+			root.insert(child, -1);
+		}
+		random = new Random(SyntheticMapState.SEED);
+	}
+
+	/** Moves a random child to a random position and reads the positions of all children. */
+	@Benchmark
+	public long moveChildAndGetAllPositions() {
+		final NodeModel child = root.getChildAt(random.nextInt(childCount));
+		root.remove(root.getIndex(child));
+		root.insert(child, random.nextInt(childCount));
+		long checksum = 0;
+		for (NodeModel sibling : root.getChildren())
+			checksum += root.getIndex(sibling);
+		return checksum;
+	}
+
+	@Benchmark
+	public void numberedTexts(Blackhole blackhole) {
+		for (NodeModel child : root.getChildren())
+			blackhole.consume(textController.getTransformedTextNoThrow(child));
+	}
+}
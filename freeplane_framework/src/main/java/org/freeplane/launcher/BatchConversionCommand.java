@@ -0,0 +1,136 @@
+package org.freeplane.launcher;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.freeplane.api.BatchConverter;
+import org.freeplane.api.ConversionMetrics;
+import org.freeplane.api.ConversionResult;
+import org.freeplane.api.ConversionResult.Status;
+import org.freeplane.api.HeadlessMapCreator;
+
+/**
+ * Command line entry converting mind maps without UI:
+ *
+ * <pre>
+ * freeplane --convert [-workers count] [-timeout seconds] [-memory megabytes] -format "export type" [-output directory] map files...
+ * freeplane --convert -formats
+ * </pre>
+ */
+class BatchConversionCommand {
+	static final String OPTION = "--convert";
+	private static final String USAGE = "Usage: " + OPTION
+	        + " [-workers count] [-timeout seconds] [-memory megabytes] -format \"export type\" [-output directory] map files...\n"
+	        + "       " + OPTION + " -formats";
+	private int workerCount = Runtime.getRuntime().availableProcessors();
+	private long timeoutMillis = 0;
+	private long memoryLimitBytes = 0;
+	private String format;
+	private File outputDirectory;
+	private boolean listFormats;
+	private final List<File> inputFiles = new ArrayList<>();
+	private final PrintStream out = System.out;
+
+	static int run(String[] args) {
+		final BatchConversionCommand command = new BatchConversionCommand();
+		try {
+			command.parse(args);
+		}
+		catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println(USAGE);
+			return 2;
+		}
+		return command.run();
+	}
+
+	private void parse(String[] args) {
+		for (int i = 1; i < args.length; i++) {
+			final String arg = args[i];
+			switch (arg) {
+				case "-workers":
+					workerCount = Integer.parseInt(value(args, ++i));
+					break;
+				case "-timeout":
+					timeoutMillis = Long.parseLong(value(args, ++i)) * 1000;
+					break;
+				case "-memory":
+					memoryLimitBytes = Long.parseLong(value(args, ++i)) * 1024 * 1024;
+					break;
+				case "-format":
+					format = value(args, ++i);
+					break;
+				case "-output":
+					outputDirectory = new File(value(args, ++i));
+					break;
+				case "-formats":
+					listFormats = true;
+					break;
+				default:
+					if (arg.startsWith("-"))
+						throw new IllegalArgumentException("Unknown option " + arg);
+					inputFiles.add(new File(arg));
+			}
+		}
+		if (!listFormats && (format == null || inputFiles.isEmpty()))
+			throw new IllegalArgumentException("Export type and map files are required");
+		if (workerCount <= 0)
+			throw new IllegalArgumentException("Worker count must be positive");
+		if (outputDirectory != null && !outputDirectory.isDirectory())
+			throw new IllegalArgumentException("Output directory " + outputDirectory + " does not exist");
+	}
+
+	private static String value(String[] args, int i) {
+		if (i >= args.length)
+			throw new IllegalArgumentException("Missing value of option " + args[i - 1]);
+		return args[i];
+	}
+
+	private int run() {
+		final Launcher launcher = Launcher.create();
+		final HeadlessMapCreator mapCreator = launcher.launchHeadless();
+		try {
+			final BatchConverter converter = mapCreator.batchConverter(workerCount, timeoutMillis, memoryLimitBytes);
+			if (listFormats) {
+				for (String description : converter.getExportTypeDescriptions())
+					out.println(description);
+				converter.shutdown();
+				return 0;
+			}
+			final List<Future<ConversionResult>> results = new ArrayList<>();
+			for (File input : inputFiles) {
+				final File output = outputDirectory != null ? outputDirectory : input.getAbsoluteFile().getParentFile();
+				results.add(converter.submit(input, format, output));
+			}
+			int failedJobs = 0;
+			for (Future<ConversionResult> future : results) {
+				final ConversionResult result = future.get();
+				if (result.getStatus() != Status.SUCCEEDED)
+					failedJobs++;
+				out.println(result);
+			}
+			printMetrics(converter.getMetrics());
+			converter.shutdown();
+			return failedJobs == 0 ? 0 : 1;
+		}
+		catch (InterruptedException | ExecutionException e) {
+			e.printStackTrace();
+			return 1;
+		}
+		finally {
+			launcher.shutdown();
+		}
+	}
+
+	private void printMetrics(ConversionMetrics metrics) {
+		out.printf("workers: %d, jobs: %d", metrics.getWorkerCount(), metrics.getFinishedJobCount());
+		for (Status status : Status.values())
+			out.printf(", %s: %d", status.name().toLowerCase(), metrics.getFinishedJobCount(status));
+		out.printf("%nthroughput: %.2f jobs/s, average duration: %.0f ms%n", metrics.getThroughput(),
+		    metrics.getAverageDurationMillis());
+	}
+}
@@ -42,7 +42,9 @@ import org.osgi.framework.launch.Framework;
  * This class can be used to run freeplane instance from an application and to obtain its {@link Controller} object.
  *
  * To run a headless Freeplane instance use {@code Launcher.create().launchHeadless()},
- * to run a freeplane with complete user UI use {@code Launcher.create().launch()}
+ * to run a freeplane with complete user UI use {@code Launcher.create().launch()}.
+ *
+ * Started with first argument {@code --convert} it converts the given maps without UI, see {@code BatchConversionCommand}.
  *
 * <pre>
 *
@@ -82,6 +84,9 @@ public class Launcher {
 	private Framework framework;
 
 	public static void main(String[] args) {
+		if (args.length > 0 && BatchConversionCommand.OPTION.equals(args[0])) {
+			System.exit(BatchConversionCommand.run(args));
+		}
 		checkForCompatibleJavaVersion();
 		workAroundForDataFlavorComparator_JDK8130242();
 		new Launcher().launchWithoutUICheck(args);
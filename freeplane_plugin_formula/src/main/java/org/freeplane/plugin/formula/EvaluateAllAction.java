@@ -1,7 +1,10 @@
 package org.freeplane.plugin.formula;
 
 import java.awt.event.ActionEvent;
+import java.util.concurrent.locks.Lock;
 
+import org.freeplane.core.task.BackgroundTask;
+import org.freeplane.core.task.BackgroundTaskService;
 import org.freeplane.core.ui.AFreeplaneAction;
 import org.freeplane.features.map.MapModel;
 import org.freeplane.features.mode.Controller;
@@ -9,6 +12,7 @@ import org.freeplane.plugin.script.FormulaUtils;
 
 class EvaluateAllAction extends AFreeplaneAction {
 	private static final long serialVersionUID = 1L;
+	private static final String EVALUATE_ALL_TASK = "formula_evaluation_in_progress";
 
 	public EvaluateAllAction() {
 		super(FormulaPluginUtils.getFormulaKey("EvaluateAllAction"));
@@ -17,7 +21,19 @@ class EvaluateAllAction extends AFreeplaneAction {
 	@Override
 	public void actionPerformed(final ActionEvent e) {
 		final MapModel map = Controller.getCurrentController().getMap();
-		FormulaUtils.evaluateAllFormulas(map);
+		FormulaUtils.clearCache(map);
+		BackgroundTaskService.getInstance().execute(new BackgroundTask<Void>(EVALUATE_ALL_TASK, map) {
+			@Override
+			protected Lock getReadLock() {
+				return map.getLock().readLock();
+			}
+
+			@Override
+			protected Void read() {
+				FormulaUtils.evaluateOutdatedFormulas(map, this);
+				return null;
+			}
+		});
 	}
 
 }
@@ -24,6 +24,9 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.freeplane.core.metrics.Metrics;
+import org.freeplane.core.metrics.Operation;
+import org.freeplane.core.metrics.OperationTimer;
 import org.freeplane.core.ui.AFreeplaneAction;
 import org.freeplane.core.util.LogUtils;
 import org.freeplane.features.map.IMapSelection;
@@ -70,6 +73,7 @@ public class ExecuteScriptAction extends AFreeplaneAction {
 	@Override
 	public void actionPerformed(final ActionEvent e) {
 		Controller.getCurrentController().getViewController().setWaitingCursor(true);
+		final OperationTimer timer = Metrics.start(Operation.SCRIPT).setSubject(scriptFile.getName());
 		try {
 			final List<NodeModel> nodes = new ArrayList<NodeModel>();
 			final IMapSelection selection = Controller.getCurrentController().getSelection();
@@ -79,6 +83,7 @@ public class ExecuteScriptAction extends AFreeplaneAction {
 			else {
 				nodes.addAll(selection.getSelection());
 			}
+			timer.setNodeCount(nodes.size());
 			final MModeController modeController = (MModeController) Controller.getCurrentModeController();
 			modeController.startTransaction();
 			for (final NodeModel node : nodes) {
@@ -119,6 +124,7 @@ public class ExecuteScriptAction extends AFreeplaneAction {
 			modeController.delayedCommit();
 		}
 		finally {
+			timer.stop();
 			Controller.getCurrentController().getViewController().setWaitingCursor(false);
 		}
 	}
@@ -10,6 +10,7 @@ import org.freeplane.features.map.NodeModel;
 import org.freeplane.features.mode.Controller;
 import org.freeplane.plugin.script.dependencies.RelatedElements;
 
+/** Caches formula results of a map. Its methods are synchronized because read only scripts can evaluate formulas in parallel. */
 public class FormulaCache implements IExtension{
 	private final HashMap<String, LinkedHashMap<String, CachedResult>> cache = new HashMap<String, LinkedHashMap<String, CachedResult>>();
 	// don't let caching use too much memory - but currently there are little means to cope with unavailable
@@ -25,7 +26,7 @@ public class FormulaCache implements IExtension{
 			}
 		}
 
-	Object getOrThrowCachedResult(final NodeScript nodeScript) {
+	synchronized Object getOrThrowCachedResult(final NodeScript nodeScript) {
 		final LinkedHashMap<String, CachedResult> cacheEntry = cache.get(nodeScript.node.getID());
 		if (cacheEntry == null)
 			return null;
@@ -42,7 +43,7 @@ public class FormulaCache implements IExtension{
 		return object;
 	}
 
-	void put(final NodeScript nodeScript, final CachedResult result) {
+	synchronized void put(final NodeScript nodeScript, final CachedResult result) {
 		getOrAdd(nodeScript.node).put(nodeScript.script, result);
 	}
 
@@ -55,7 +56,7 @@ public class FormulaCache implements IExtension{
 		return cacheEntry;
 	}
 
-	void remove(final NodeModel node) {
+	synchronized void remove(final NodeModel node) {
 		final LinkedHashMap<String, CachedResult> entry = cache.get(node.getID());
 		if (entry != null) {
 //			System.out.println("clearing cache for " + node);
@@ -64,18 +65,20 @@ public class FormulaCache implements IExtension{
 	}
 
 	static FormulaCache of(final MapModel map) {
-		FormulaCache formulaCache = map.getExtension(FormulaCache.class);
-		if (formulaCache == null) {
-			formulaCache = new FormulaCache();
-			map.addExtension(formulaCache);
+		synchronized (map) {
+			FormulaCache formulaCache = map.getExtension(FormulaCache.class);
+			if (formulaCache == null) {
+				formulaCache = new FormulaCache();
+				map.addExtension(formulaCache);
+			}
+			return formulaCache;
 		}
-		return formulaCache;
 	}
 	static void removeFrom(final MapModel map) {
 		map.removeExtension(FormulaCache.class);
 	}
 
-	RelatedElements getAccessedValues(final NodeModel node, final String script) {
+	synchronized RelatedElements getAccessedValues(final NodeModel node, final String script) {
 		if(ENABLE_CACHING) {
 			final LinkedHashMap<String, CachedResult> cacheEntry = cache.get(node.getID());
 			if (cacheEntry == null) return null;
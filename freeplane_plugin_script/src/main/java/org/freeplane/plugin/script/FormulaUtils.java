@@ -6,6 +6,10 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.freeplane.core.extension.Configurable;
+import org.freeplane.core.metrics.Metrics;
+import org.freeplane.core.metrics.Operation;
+import org.freeplane.core.metrics.OperationTimer;
+import org.freeplane.core.task.BackgroundTask;
 import org.freeplane.core.util.HtmlUtils;
 import org.freeplane.core.util.LogUtils;
 import org.freeplane.core.util.TextUtils;
@@ -75,12 +79,25 @@ public class FormulaUtils {
 	 * @return the evaluation result.
 	 * @throws ExecuteScriptException */
 	public static Object executeScript(final NodeModel nodeModel, final String script) {
+		final OperationTimer timer = Metrics.start(Operation.FORMULA);
+		try {
+			if (timer.isActive())
+				timer.setSubject(nodeModel.getID());
+			return executeScript(nodeModel, script, timer);
+		}
+		finally {
+			timer.stop();
+		}
+	}
+
+	private static Object executeScript(final NodeModel nodeModel, final String script, final OperationTimer timer) {
 		final NodeScript nodeScript = new NodeScript(nodeModel, script);
 		final ScriptContext scriptContext = new ScriptContext(nodeScript);
 		final ScriptingPermissions restrictedPermissions = ScriptingPermissions.getFormulaPermissions();
 		if (FormulaCache.ENABLE_CACHING) {
 			final FormulaCache formulaCache = FormulaCache.of(nodeModel.getMap());
 			Object value = formulaCache.getOrThrowCachedResult(nodeScript);
+			timer.setCacheHit(value != null);
 			if (value == null) {
 				try {
 					value = evaluateLoggingExceptions(scriptContext, restrictedPermissions);
@@ -176,15 +193,22 @@ public class FormulaUtils {
 	}
 
 	public static void evaluateOutdatedFormulas(MapModel map) {
-		cacheAllRecursively(map.getRootNode());
+		cacheAllRecursively(map.getRootNode(), null);
+	}
+
+	/** Evaluates formulas on a worker thread, the task is checked for cancellation before each node. */
+	public static void evaluateOutdatedFormulas(MapModel map, BackgroundTask<?> task) {
+		cacheAllRecursively(map.getRootNode(), task);
 	}
 
-	static private void cacheAllRecursively(NodeModel node) {
+	static private void cacheAllRecursively(NodeModel node, BackgroundTask<?> task) {
+		if(task != null)
+			task.checkCancelled();
 		cacheIfFormula(node, node.getUserObject());
 		NodeAttributeTableModel attributeTableModel = node.getExtension(NodeAttributeTableModel.class);
 		if(attributeTableModel != null)
 			attributeTableModel.getAttributes().stream().forEach(a -> cacheIfFormula(node, a.getValue()));
-		node.getChildren().stream().forEach(FormulaUtils::cacheAllRecursively);
+		node.getChildren().stream().forEach(child -> cacheAllRecursively(child, task));
 	}
 
 	public static void cacheIfFormula(NodeModel node, Object maybeFormula) {
@@ -0,0 +1,157 @@
+package org.freeplane.plugin.script;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.freeplane.core.resources.ResourceController;
+import org.freeplane.features.mode.ReadOnlyExecution;
+
+/**
+ * Executes read only scripts for many nodes on several worker threads.
+ *
+ * Workers take the nodes in small chunks. Each worker compiles its own script instances and uses its own
+ * {@link ScriptContext}, so scripts run with the class loader and the security manager of their worker.
+ *
+ * Workers run in {@link ReadOnlyExecution}: the first attempt of any script to modify a map stops all workers
+ * after their current script. The modification is rejected before it changes the map, so the scripts without
+ * result, see {@link #isExecuted(Object)}, have not changed anything and callers can execute them serially.
+ * Scripts which were executed must not be executed again, because they may have side effects outside of the map.
+ * The execution is opt-in, see {@link #isEnabled()}.
+ */
+public class ParallelScriptExecutor {
+	static final String PARALLEL_SCRIPT_EXECUTION_PROPERTY = "parallel_script_execution";
+	private static final int MIN_SCRIPTS_PER_WORKER = 64;
+	private static final int SCRIPTS_PER_CHUNK = 16;
+	private static final int WORKER_COUNT = Runtime.getRuntime().availableProcessors();
+	private static final Object NOT_EXECUTED = new Object();
+	private static ExecutorService executor;
+
+	public static boolean isEnabled() {
+		return WORKER_COUNT > 1
+		        && ResourceController.getResourceController().getBooleanProperty(PARALLEL_SCRIPT_EXECUTION_PROPERTY);
+	}
+
+	private static synchronized ExecutorService getExecutor() {
+		if (executor == null) {
+			executor = Executors.newFixedThreadPool(WORKER_COUNT, new ThreadFactory() {
+				private int threadNumber = 0;
+
+				@Override
+				public Thread newThread(Runnable r) {
+					final Thread thread = new Thread(r, "script worker " + ++threadNumber);
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return executor;
+	}
+
+	private final ScriptingPermissions permissions;
+
+	/** @param permissions if null use default scripting permissions. */
+	public ParallelScriptExecutor(ScriptingPermissions permissions) {
+		this.permissions = permissions;
+	}
+
+	/** @return false for results of scripts which were not executed because the execution was stopped. */
+	public static boolean isExecuted(Object result) {
+		return result != NOT_EXECUTED;
+	}
+
+	/**
+	 * @return script results in the order of <code>nodeScripts</code>. Failed scripts have their
+	 * {@link ExecuteScriptException} as result. If any script tried to modify a map, it and all scripts
+	 * not started yet have results for which {@link #isExecuted(Object)} returns false.
+	 */
+	public Object[] execute(final List<NodeScript> nodeScripts) {
+		final Object[] results = new Object[nodeScripts.size()];
+		Arrays.fill(results, NOT_EXECUTED);
+		final AtomicInteger nextIndex = new AtomicInteger(0);
+		final AtomicBoolean aborted = new AtomicBoolean(false);
+		final PrintStream outStream = System.out;
+		final int workerCount = Math.max(1, Math.min(WORKER_COUNT, nodeScripts.size() / MIN_SCRIPTS_PER_WORKER));
+		final List<Future<?>> futures = new ArrayList<Future<?>>(workerCount);
+		for (int i = 0; i < workerCount; i++) {
+			futures.add(getExecutor().submit(new Runnable() {
+				@Override
+				public void run() {
+					executeScripts(nodeScripts, nextIndex, results, aborted, outStream);
+				}
+			}));
+		}
+		boolean interrupted = false;
+		for (int i = 0; i < futures.size();) {
+			try {
+				futures.get(i).get();
+				i++;
+			}
+			catch (InterruptedException e) {
+				// the workers finish their current script, their results must be complete before returning
+				aborted.set(true);
+				interrupted = true;
+			}
+			catch (ExecutionException e) {
+				throw new RuntimeException(e.getCause());
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+		return results;
+	}
+
+	/** Called by each worker once for every script it executes. */
+	IScript createScript(String script) {
+		return new GroovyScript(script, permissions);
+	}
+
+	private void executeScripts(List<NodeScript> nodeScripts, AtomicInteger nextIndex, Object[] results,
+	                            AtomicBoolean aborted, PrintStream outStream) {
+		final Map<String, IScript> compiledScripts = new HashMap<String, IScript>();
+		final ScriptContext scriptContext = new ScriptContext(null);
+		ReadOnlyExecution.enter();
+		try {
+			while (!aborted.get()) {
+				final int start = nextIndex.getAndAdd(SCRIPTS_PER_CHUNK);
+				if (start >= nodeScripts.size())
+					break;
+				final int end = Math.min(start + SCRIPTS_PER_CHUNK, nodeScripts.size());
+				for (int i = start; i < end && !aborted.get(); i++) {
+					final NodeScript nodeScript = nodeScripts.get(i);
+					IScript script = compiledScripts.get(nodeScript.script);
+					if (script == null) {
+						script = createScript(nodeScript.script);
+						compiledScripts.put(nodeScript.script, script);
+					}
+					try {
+						results[i] = script.execute(nodeScript.node, outStream,
+						    ScriptResources.IGNORING_SCRIPT_ERROR_HANDLER, scriptContext);
+					}
+					catch (ExecuteScriptException e) {
+						if (ReadOnlyExecution.isCausedByModification(e))
+							aborted.set(true);
+						else
+							results[i] = e;
+					}
+					catch (ReadOnlyExecution.ModificationException e) {
+						aborted.set(true);
+					}
+				}
+			}
+		}
+		finally {
+			ReadOnlyExecution.leave();
+		}
+	}
+}
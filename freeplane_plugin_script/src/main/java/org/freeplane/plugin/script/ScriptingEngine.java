@@ -20,8 +20,12 @@ package org.freeplane.plugin.script;
 
 import java.io.File;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
 import java.util.regex.Matcher;
 
 import org.apache.commons.lang.WordUtils;
@@ -130,28 +134,73 @@ public class ScriptingEngine {
     }
 
 	static void performScriptOperationRecursive(final NodeModel node) {
+		if (ParallelScriptExecutor.isEnabled()) {
+			performScriptOperationsInParallel(node);
+			return;
+		}
 		for (final NodeModel child : node.getChildren()) {
 			performScriptOperationRecursive(child);
 		}
 		performScriptOperation(node);
 	}
 
+	/**
+	 * Executes the scripts of the subtree by parallel read only workers.
+	 * Scripts which the workers did not execute because a script tried to modify the map are executed serially.
+	 */
+	private static void performScriptOperationsInParallel(final NodeModel root) {
+		performScriptOperationsInParallel(root, new ParallelScriptExecutor(null), ScriptingEngine::executeScript);
+	}
+
+	static void performScriptOperationsInParallel(final NodeModel root, final ParallelScriptExecutor executor,
+	                                              final BiConsumer<NodeModel, String> serialExecution) {
+		final List<NodeScript> nodeScripts = new ArrayList<NodeScript>();
+		collectScriptOperationsRecursive(root, nodeScripts);
+		final Object[] results = executor.execute(nodeScripts);
+		for (int i = 0; i < results.length; i++) {
+			final Object result = results[i];
+			if (!ParallelScriptExecutor.isExecuted(result)) {
+				final NodeScript nodeScript = nodeScripts.get(i);
+				serialExecution.accept(nodeScript.node, nodeScript.script);
+			}
+			else if (result instanceof ExecuteScriptException) {
+				throw (ExecuteScriptException) result;
+			}
+		}
+	}
+
+	private static void collectScriptOperationsRecursive(final NodeModel node, final List<NodeScript> nodeScripts) {
+		for (final NodeModel child : node.getChildren()) {
+			collectScriptOperationsRecursive(child, nodeScripts);
+		}
+		for (final String script : getScriptOperations(node)) {
+			nodeScripts.add(new NodeScript(node, script));
+		}
+	}
+
 	static void performScriptOperation(final NodeModel node) {
+		for (final String script : getScriptOperations(node)) {
+			executeScript(node, script);
+		}
+	}
+
+	private static List<String> getScriptOperations(final NodeModel node) {
 		final NodeAttributeTableModel attributes = NodeAttributeTableModel.getModel(node);
 		if (attributes == null) {
-			return;
+			return Collections.emptyList();
 		}
+		final List<String> scripts = new ArrayList<String>();
 		for (int row = 0; row < attributes.getRowCount(); ++row) {
 			final String attrKey = (String) attributes.getName(row);
 			final Object value = attributes.getValue(row);
 			if(value instanceof String){
 				final String script = (String) value;
 				if (attrKey.startsWith(ScriptingEngine.SCRIPT_PREFIX)) {
-					executeScript(node, script);
+					scripts.add(script);
 				}
 			}
 		}
-		return;
+		return scripts;
 	}
 
 	/** @deprecated use ScriptResources.getUserScriptDir() instead. */
@@ -11,6 +11,7 @@ import org.freeplane.core.extension.IExtension;
 import org.freeplane.features.map.MapModel;
 import org.freeplane.features.map.NodeModel;
 
+/** Methods are synchronized because formulas can be evaluated by background tasks. */
 public class EvaluationDependencies implements IExtension{
 
 	static class DependentNodeReferences implements Iterable<NodeModel>{
@@ -31,12 +32,14 @@ public class EvaluationDependencies implements IExtension{
 
 
 	public static EvaluationDependencies of(MapModel map) {
-		EvaluationDependencies dependencies = map.getExtension(EvaluationDependencies.class);
-		if (dependencies == null) {
-			dependencies = new EvaluationDependencies();
-			map.addExtension(dependencies);
+		synchronized (map) {
+			EvaluationDependencies dependencies = map.getExtension(EvaluationDependencies.class);
+			if (dependencies == null) {
+				dependencies = new EvaluationDependencies();
+				map.addExtension(dependencies);
+			}
+			return dependencies;
 		}
-		return dependencies;
 	}
 
 	private final WeakHashMap<MapModel, DependentNodeReferences> onMapDependencies = new WeakHashMap<>();
@@ -47,7 +50,7 @@ public class EvaluationDependencies implements IExtension{
 	private final WeakHashMap<NodeModel, Void> onAnyNodeDependencies = new WeakHashMap<>();
 	private final WeakHashMap<NodeModel, Void> onGlobalNodeDependencies = new WeakHashMap<>();
 
-	public void getChangedDependencies(Set<NodeModel> accessingNodes, final NodeModel accessedNode) {
+	public synchronized void getChangedDependencies(Set<NodeModel> accessingNodes, final NodeModel accessedNode) {
 		final Iterable<NodeModel> onNode = onNodeDependencies.get(accessedNode);
 		if (onNode != null)
 			getRecursively(accessingNodes, onNode);
@@ -64,12 +67,12 @@ public class EvaluationDependencies implements IExtension{
 //		System.out.println("dependencies on(" + node + "): " + accessingNodes);
 	}
 
-	public void getGlobalDependencies(Set<NodeModel> accessingNodes) {
+	public synchronized void getGlobalDependencies(Set<NodeModel> accessingNodes) {
 		getRecursively(accessingNodes, onGlobalNodeDependencies.keySet());
 //		System.out.println("dependencies on(" + node + "): " + accessingNodes);
 	}
 
-	public void removeAndReturnChangedDependencies(Set<NodeModel> accessingNodes, final MapModel accessedMap) {
+	public synchronized void removeAndReturnChangedDependencies(Set<NodeModel> accessingNodes, final MapModel accessedMap) {
 		final Iterable<NodeModel> onMap = onMapDependencies.remove(accessedMap);
 		if (onMap != null)
 			getRecursively(accessingNodes, onMap);
@@ -84,7 +87,7 @@ public class EvaluationDependencies implements IExtension{
 	}
 
 	/** accessedNode was accessed when accessingNode was evaluated. */
-	public void accessNode(NodeModel accessingNode, NodeModel accessedNode) {
+	public synchronized void accessNode(NodeModel accessingNode, NodeModel accessedNode) {
 		// FIXME: check if accessedNode is already covered by other accessModes
 		provideDependencySet(accessedNode, onNodeDependencies).add(accessingNode);
 		addAccessedMap(accessingNode, accessedNode);
@@ -92,7 +95,7 @@ public class EvaluationDependencies implements IExtension{
 	}
 
 	/** accessedNode.children was accessed when accessingNode was evaluated. */
-	public void accessBranch(NodeModel accessingNode, NodeModel accessedNode) {
+	public synchronized void accessBranch(NodeModel accessingNode, NodeModel accessedNode) {
 		// FIXME: check if accessedNode is already covered by other accessModes
 		provideDependencySet(accessedNode, onBranchDependencies).add(accessingNode);
 		addAccessedMap(accessingNode, accessedNode);
@@ -106,13 +109,13 @@ public class EvaluationDependencies implements IExtension{
 	}
 
 	/** a method was used on the accessingNode that may use any node in the map. */
-	public void accessAll(NodeModel accessingNode) {
+	public synchronized void accessAll(NodeModel accessingNode) {
 		// FIXME: check if accessedNode is already covered by other accessModes
 		onAnyNodeDependencies.put(accessingNode, null);
 //		System.out.println(accessingNode + " accesses all nodes. current dependencies:\n" + this);
 	}
 
-	public void accessGlobalNode(NodeModel accessingNode) {
+	public synchronized void accessGlobalNode(NodeModel accessingNode) {
 		onGlobalNodeDependencies.put(accessingNode, null);
 	}
 
@@ -4,6 +4,10 @@ import java.awt.Dimension;
 import java.awt.KeyboardFocusManager;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.swing.JComponent;
 import javax.swing.JOptionPane;
@@ -28,6 +32,7 @@ public class ScriptCondition extends ASelectableCondition {
 	final private ScriptRunner scriptRunner;
 	final private String source;
 	private boolean errorReported = false;
+	private Map<NodeModel, Object> preparedResults = null;
 
 	static ASelectableCondition load(final XMLElement element) {
 	    final XMLElement child = element.getFirstChildNamed(TAG_NAME);
@@ -59,13 +64,51 @@ public class ScriptCondition extends ASelectableCondition {
 		this.scriptRunner = new ScriptRunner(new GroovyScript(script, formulaPermissions));
 	}
 
+	@Override
+	public void prepareChecks(final NodeModel subtreeRoot) {
+		if (! ParallelScriptExecutor.isEnabled())
+			return;
+		final List<NodeModel> nodes = new ArrayList<NodeModel>();
+		collectNodesRecursive(subtreeRoot, nodes);
+		final List<NodeScript> nodeScripts = new ArrayList<NodeScript>(nodes.size());
+		for (final NodeModel node : nodes)
+			nodeScripts.add(new NodeScript(node, source));
+		final Object[] results = new ParallelScriptExecutor(ScriptingPermissions.getFormulaPermissions()).execute(nodeScripts);
+		preparedResults = new IdentityHashMap<NodeModel, Object>(nodes.size());
+		for (int i = 0; i < results.length; i++) {
+			if (ParallelScriptExecutor.isExecuted(results[i]))
+				preparedResults.put(nodes.get(i), results[i]);
+		}
+	}
+
+	private void collectNodesRecursive(final NodeModel node, final List<NodeModel> nodes) {
+		nodes.add(node);
+		for (final NodeModel child : node.getChildren())
+			collectNodesRecursive(child, nodes);
+	}
+
+	@Override
+	public void finishChecks() {
+		preparedResults = null;
+	}
+
 	@Override
     public boolean checkNode(final NodeModel node) {
+		return checkNode(node, true);
+	}
+
+	private boolean checkNode(final NodeModel node, final boolean usePreparedResults) {
         final ByteArrayOutputStream out = new ByteArrayOutputStream();
 		final PrintStream printStream = new PrintStream(out);
 		final Object result;
         try {
-			result = scriptRunner.setOutStream(printStream).execute(node);
+			if (usePreparedResults && preparedResults != null && preparedResults.containsKey(node)) {
+				result = preparedResults.get(node);
+				if (result instanceof ExecuteScriptException)
+					throw (ExecuteScriptException) result;
+			}
+			else
+				result = scriptRunner.setOutStream(printStream).execute(node);
 			if(result instanceof Boolean)
 				return (Boolean) result;
 			if(result instanceof Number)
@@ -93,7 +136,7 @@ public class ScriptCondition extends ASelectableCondition {
 			return false;
 		scriptRunner.setScriptContext(scriptContext);
 		try {
-			final boolean checkNode = checkNode(node);
+			final boolean checkNode = checkNode(node, false);
 			return checkNode;
 		}
 		finally {
@@ -19,10 +19,13 @@ import javax.swing.Icon;
 import javax.swing.filechooser.FileFilter;
 
 import org.freeplane.api.AttributeValueSerializer;
+import org.freeplane.api.BatchConverter;
 import org.freeplane.api.MindMap;
 import org.freeplane.api.Node;
 import org.freeplane.api.NodeCondition;
+import org.freeplane.api.OperationMetrics;
 import org.freeplane.api.Script;
+import org.freeplane.core.metrics.Metrics;
 import org.freeplane.core.resources.ResourceController;
 import org.freeplane.core.ui.IEditHandler.FirstAction;
 import org.freeplane.core.undo.IUndoHandler;
@@ -42,6 +45,7 @@ import org.freeplane.features.text.TextController;
 import org.freeplane.features.text.mindmapmode.MTextController;
 import org.freeplane.features.ui.IMapViewManager;
 import org.freeplane.features.ui.ViewController;
+import org.freeplane.main.headlessmode.HeadlessBatchConverter;
 import org.freeplane.plugin.script.ScriptContext;
 
 import groovy.lang.Closure;
@@ -161,6 +165,11 @@ class ControllerProxy implements Proxy.Controller {
 		undoHandler.redo();
 	}
 
+	@Override
+	public void bulkChange(Runnable change) {
+		new MapProxy(Controller.getCurrentController().getMap(), scriptContext).bulkChange(change);
+	}
+
 	@Override
 	public void setStatusInfo(final String info) {
 		final ViewController viewController = getViewController();
@@ -369,9 +378,34 @@ class ControllerProxy implements Proxy.Controller {
 		return StaticAttributeValueSerializer.INSTANCE;
 	}
 
+	@Override
+	public BatchConverter batchConverter(int workerCount, long jobTimeoutMillis, long jobMemoryLimitBytes) {
+		return new HeadlessBatchConverter(workerCount, jobTimeoutMillis, jobMemoryLimitBytes);
+	}
+
 	@Override
 	public ExecutorService getMainThreadExecutorService() {
 		return Controller.getCurrentController().getMainThreadExecutorService();
 	}
 
+	@Override
+	public boolean isPerformanceMetricsEnabled() {
+		return Metrics.isEnabled();
+	}
+
+	@Override
+	public void setPerformanceMetricsEnabled(boolean enabled) {
+		ResourceController.getResourceController().setProperty(Metrics.ENABLED_PROPERTY, enabled);
+	}
+
+	@Override
+	public List<? extends OperationMetrics> getOperationMetrics() {
+		return new ArrayList<OperationMetrics>(Metrics.getStatistics());
+	}
+
+	@Override
+	public void resetOperationMetrics() {
+		Metrics.reset();
+	}
+
 }
@@ -4,6 +4,7 @@ import groovy.lang.Closure;
 import org.freeplane.api.NodeChangeListener;
 import org.freeplane.api.NodeCondition;
 import org.freeplane.core.resources.ResourceController;
+import org.freeplane.core.undo.IUndoHandler;
 import org.freeplane.core.util.ColorUtils;
 import org.freeplane.features.filter.Filter;
 import org.freeplane.features.filter.FilterController;
@@ -96,6 +97,13 @@ public class MapProxy extends AbstractProxy<MapModel> implements MindMap, Map {
         return ColorUtils.colorToString(getBackgroundColor());
     }
 
+    // MapRO: R
+    @Override
+	public long getUndoHistorySize() {
+		final IUndoHandler undoHandler = getDelegate().getExtension(IUndoHandler.class);
+		return undoHandler != null ? undoHandler.getEstimatedSize() : 0;
+	}
+
 	// Map: R/W
 	@Override
 	public boolean close(boolean force, boolean allowInteraction) {
@@ -265,6 +273,29 @@ public class MapProxy extends AbstractProxy<MapModel> implements MindMap, Map {
 		FormulaUtils.evaluateOutdatedFormulas(getDelegate());
 	}
 
+	// Map: R/W
+	@Override
+	public void bulkChange(Runnable change) {
+		final MapModel map = getDelegate();
+		final IUndoHandler undoHandler = map.getExtension(IUndoHandler.class);
+		if (undoHandler != null)
+			undoHandler.startTransaction();
+		map.suspendViewUpdates();
+		boolean committed = false;
+		try {
+			change.run();
+			if (undoHandler != null)
+				undoHandler.commit();
+			committed = true;
+		}
+		finally {
+			// groovy closures may throw undeclared checked exceptions, so roll back on any failure
+			if (!committed && undoHandler != null)
+				undoHandler.rollback();
+			map.resumeViewUpdates();
+		}
+	}
+
 	@Override
 	public void addListener(NodeChangeListener listener) {
 		NodeChangeListeners.of(Controller.getCurrentModeController(), getDelegate()).add(getScriptContext(), listener);
@@ -0,0 +1,150 @@
+package org.freeplane.plugin.script;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.freeplane.core.resources.ResourceController;
+import org.freeplane.features.attribute.Attribute;
+import org.freeplane.features.attribute.NodeAttributeTableModel;
+import org.freeplane.features.map.NodeModel;
+import org.freeplane.features.mode.Controller;
+import org.freeplane.features.mode.ReadOnlyExecution;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelScriptExecutorShould {
+	private static final String FAILING_SCRIPT = "fail";
+	private static final String MODIFYING_SCRIPT = "modify";
+	private static final String WRAPPED_MODIFYING_SCRIPT = "modify and wrap";
+
+	private static class TestScript implements IScript {
+		private final String script;
+
+		TestScript(String script) {
+			this.script = script;
+		}
+
+		@Override
+		public Object execute(NodeModel node, PrintStream outStream, IFreeplaneScriptErrorHandler pErrorHandler,
+		                      ScriptContext scriptContext) {
+			switch (script) {
+				case FAILING_SCRIPT:
+					throw new ExecuteScriptException("script failed");
+				case MODIFYING_SCRIPT:
+					ReadOnlyExecution.checkModificationAllowed();
+					break;
+				case WRAPPED_MODIFYING_SCRIPT:
+					try {
+						ReadOnlyExecution.checkModificationAllowed();
+					}
+					catch (ReadOnlyExecution.ModificationException e) {
+						throw new ExecuteScriptException(e);
+					}
+					break;
+			}
+			return script;
+		}
+
+		@Override
+		public boolean hasPermissions(ScriptingPermissions permissions) {
+			return true;
+		}
+	}
+
+	private final ParallelScriptExecutor uut = new ParallelScriptExecutor(null) {
+		@Override
+		IScript createScript(String script) {
+			return new TestScript(script);
+		}
+	};
+
+	private final NodeModel node = mock(NodeModel.class);
+
+	@Before
+	public void setup() {
+		final Controller controller = mock(Controller.class);
+		final ResourceController resourceController = mock(ResourceController.class);
+		when(controller.getResourceController()).thenReturn(resourceController);
+		when(resourceController.getProperty(anyString(), anyString())).thenReturn("");
+		Controller.setCurrentController(controller);
+	}
+
+	@After
+	public void tearDown() {
+		Controller.setCurrentController(null);
+	}
+
+	private List<NodeScript> nodeScripts(String... scripts) {
+		final List<NodeScript> nodeScripts = new ArrayList<NodeScript>();
+		for (String script : scripts)
+			nodeScripts.add(new NodeScript(node, script));
+		return nodeScripts;
+	}
+
+	@Test
+	public void returnResultsInScriptOrder() throws Exception {
+		final String[] scripts = new String[1000];
+		for (int i = 0; i < scripts.length; i++)
+			scripts[i] = Integer.toString(i);
+		final Object[] results = uut.execute(nodeScripts(scripts));
+		assertThat(results).containsExactly((Object[]) scripts);
+	}
+
+	@Test
+	public void returnExceptionsOfFailedScripts() throws Exception {
+		final Object[] results = uut.execute(nodeScripts("before", FAILING_SCRIPT, "after"));
+		assertThat(results[0]).isEqualTo("before");
+		assertThat(results[1]).isInstanceOf(ExecuteScriptException.class);
+		assertThat(results[2]).isEqualTo("after");
+	}
+
+	@Test
+	public void stopAtScriptModifyingMap() throws Exception {
+		final Object[] results = uut.execute(nodeScripts("before", MODIFYING_SCRIPT, "after"));
+		assertThat(ParallelScriptExecutor.isExecuted(results[0])).isTrue();
+		assertThat(results[0]).isEqualTo("before");
+		assertThat(ParallelScriptExecutor.isExecuted(results[1])).isFalse();
+		assertThat(ParallelScriptExecutor.isExecuted(results[2])).isFalse();
+	}
+
+	@Test
+	public void stopAtScriptModifyingMapWithinScriptException() throws Exception {
+		final Object[] results = uut.execute(nodeScripts(WRAPPED_MODIFYING_SCRIPT));
+		assertThat(ParallelScriptExecutor.isExecuted(results[0])).isFalse();
+	}
+
+	@Test
+	public void leaveReadOnlyExecutionOfCallingThread() throws Exception {
+		uut.execute(nodeScripts(MODIFYING_SCRIPT));
+		assertThat(ReadOnlyExecution.isActive()).isFalse();
+	}
+
+	private NodeModel nodeWithScripts(String... scripts) {
+		final NodeModel scriptNode = mock(NodeModel.class);
+		final NodeAttributeTableModel attributes = new NodeAttributeTableModel();
+		for (String script : scripts)
+			attributes.getAttributes().add(new Attribute(ScriptingEngine.SCRIPT_PREFIX + "1", script));
+		when(scriptNode.getExtension(NodeAttributeTableModel.class)).thenReturn(attributes);
+		when(scriptNode.getChildren()).thenReturn(new ArrayList<NodeModel>());
+		return scriptNode;
+	}
+
+	@Test
+	public void executeScriptsNotExecutedInParallelSerially() throws Exception {
+		final NodeModel child = nodeWithScripts("child", MODIFYING_SCRIPT);
+		final NodeModel root = nodeWithScripts("root");
+		when(root.getChildren()).thenReturn(Arrays.asList(child));
+		final List<String> seriallyExecutedScripts = new ArrayList<String>();
+		ScriptingEngine.performScriptOperationsInParallel(root, uut,
+		    (scriptNode, script) -> seriallyExecutedScripts.add(script));
+		assertThat(seriallyExecutedScripts).containsExactly(MODIFYING_SCRIPT, "root");
+	}
+}
@@ -0,0 +1,36 @@
+// Compares creating nodes one by one with creating them in a bulk change.
+// Execute it on an empty map using "Tools->Execute script file"; the map is left modified.
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU General Public License as published by
+// the Free Software Foundation, either version 2 of the License, or
+// (at your option) any later version.
+
+final int nodeCount = 100000
+
+def createNodes = { parent ->
+    for (int i = 1; i <= nodeCount; i++) {
+        def child = parent.createChild()
+        child.text = "node " + i
+        child.attributes.set("index", i)
+    }
+}
+
+def measure = { String name, Closure work ->
+    final long start = System.nanoTime()
+    work()
+    final long millis = (System.nanoTime() - start).intdiv(1000000)
+    final String result = "${name}: ${nodeCount} nodes in ${millis} ms"
+    println result
+    return result
+}
+
+final root = node.map.root
+def oneByOneParent = root.createChild("one by one")
+def bulkParent = root.createChild("bulk change")
+
+def oneByOne = measure("one by one") { createNodes(oneByOneParent) }
+def bulk = measure("bulk change") { node.map.bulkChange { createNodes(bulkParent) } }
+
+c.statusInfo = "${oneByOne}, ${bulk}"
+ui.informationMessage("${oneByOne}\n${bulk}")
@@ -47,6 +47,11 @@ abstract class ExportVectorGraphic implements IExportEngine {
 
 	private static final String DARCULA_LAF = "com.bulenkov.darcula.DarculaLaf";
 
+	@Override
+	public boolean requiresMapView() {
+		return true;
+	}
+
 	/**
 	 */
 	protected SVGGraphics2D fillSVGGraphics2D(final MapView view) {